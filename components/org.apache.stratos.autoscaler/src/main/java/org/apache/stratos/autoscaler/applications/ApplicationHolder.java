@@ -19,7 +19,6 @@
 
 package org.apache.stratos.autoscaler.applications;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.util.AutoscalerUtil;
@@ -36,6 +35,8 @@ public class ApplicationHolder {
 
     private static ReadWriteLock lock = new ReadWriteLock("application-holder");
 
+    private static volatile ApplicationPersister applicationPersister;
+
     private ApplicationHolder () {
     }
 
@@ -91,32 +92,56 @@ public class ApplicationHolder {
         return applications;
     }
 
+    private static ApplicationPersister getApplicationPersister() {
+        if (applicationPersister == null) {
+            synchronized (ApplicationHolder.class) {
+                if (applicationPersister == null) {
+                    applicationPersister = new ApplicationPersister();
+                }
+            }
+        }
+        return applicationPersister;
+    }
+
+    /**
+     * Add the application to applications and queue it to be persisted in the registry.
+     * Applications are written to the registry asynchronously by the application persister.
+     */
     public static void persistApplication (Application application) {
 
         synchronized (ApplicationHolder.class) {
             applications.addApplication(application);
-            AutoscalerUtil.persistApplication(application);
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Topology updated: %s", toJson(applications)));
-            }
         }
-
+        getApplicationPersister().persist(application.getUniqueIdentifier());
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Application queued to be persisted: [application-id] %s",
+                    application.getUniqueIdentifier()));
+        }
     }
 
     public static void removeApplication (String applicationId) {
 
         synchronized (ApplicationHolder.class) {
             applications.removeApplication(applicationId);
-            AutoscalerUtil.removeApplication(applicationId);
-            if (log.isDebugEnabled()) {
-                log.debug("Application [ " + applicationId + " ] removed from Applications");
-            }
         }
-
+        getApplicationPersister().remove(applicationId);
+        if (log.isDebugEnabled()) {
+            log.debug("Application [ " + applicationId + " ] removed from Applications");
+        }
     }
 
-    private static String toJson(Object object) {
-        Gson gson = new Gson();
-        return gson.toJson(object);
+    /**
+     * Commit pending application changes to the registry and stop the application persister.
+     */
+    public static void terminateApplicationPersister() {
+        ApplicationPersister persister;
+        synchronized (ApplicationHolder.class) {
+            persister = applicationPersister;
+            applicationPersister = null;
+        }
+        // Terminate outside the monitor, the final commit waits on the applications read lock
+        if (persister != null) {
+            persister.terminate();
+        }
     }
 }
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.applications;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.registry.RegistryManager;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.autoscaler.util.Serializer;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.domain.application.Application;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write behind persister of applications. Persist and remove requests are queued and committed
+ * to the registry periodically off the event thread. Requests of the same application are
+ * coalesced, hence an application is serialized once per commit irrespective of the number of
+ * status transitions it went through, and all applications of a commit are written in a single
+ * registry transaction.
+ */
+public class ApplicationPersister {
+
+    private static final Log log = LogFactory.getLog(ApplicationPersister.class);
+
+    public static final String COMMIT_INTERVAL = "autoscaler.application.persister.commit.interval";
+
+    // Key - application id, value - true if the application needs to be persisted, false if removed
+    private final Map<String, Boolean> pendingRequests;
+    private final ScheduledFuture<?> commitTask;
+    private final AtomicLong requestCount;
+    private final AtomicLong commitCount;
+    private final AtomicLong persistedApplicationCount;
+
+    public ApplicationPersister() {
+        this(Long.getLong(COMMIT_INTERVAL, 1000));
+    }
+
+    public ApplicationPersister(long commitInterval) {
+        this.pendingRequests = new LinkedHashMap<String, Boolean>();
+        this.requestCount = new AtomicLong();
+        this.commitCount = new AtomicLong();
+        this.persistedApplicationCount = new AtomicLong();
+        ScheduledExecutorService scheduler = StratosThreadPool.getScheduledExecutorService(
+                AutoscalerConstants.APPLICATION_PERSISTER_SCHEDULER_ID, 1);
+        this.commitTask = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    commit();
+                } catch (Exception e) {
+                    log.error("Could not commit applications", e);
+                }
+            }
+        }, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Application persister started: [commit-interval] %dms", commitInterval));
+        }
+    }
+
+    /**
+     * Queue an application to be persisted, the state of the application at the time of the
+     * next commit is persisted.
+     * @param applicationId application id
+     */
+    public void persist(String applicationId) {
+        addRequest(applicationId, Boolean.TRUE);
+    }
+
+    /**
+     * Queue an application to be removed from the registry.
+     * @param applicationId application id
+     */
+    public void remove(String applicationId) {
+        addRequest(applicationId, Boolean.FALSE);
+    }
+
+    private void addRequest(String applicationId, Boolean persist) {
+        requestCount.incrementAndGet();
+        synchronized (pendingRequests) {
+            // Move the application to the end of the queue, the latest request wins
+            pendingRequests.remove(applicationId);
+            pendingRequests.put(applicationId, persist);
+        }
+    }
+
+    /**
+     * Commit pending requests to the registry.
+     */
+    public synchronized void commit() {
+        RegistryManager registryManager = RegistryManager.getInstance();
+        if (registryManager == null) {
+            if (getPendingRequestCount() > 0) {
+                log.warn("Registry is not available, hence applications could not be persisted");
+            }
+            return;
+        }
+
+        Map<String, Boolean> requests;
+        synchronized (pendingRequests) {
+            if (pendingRequests.isEmpty()) {
+                return;
+            }
+            requests = new LinkedHashMap<String, Boolean>(pendingRequests);
+            pendingRequests.clear();
+        }
+
+        // Serialize applications under the read lock to get a consistent snapshot
+        Map<String, byte[]> applicationIdToContent = new LinkedHashMap<String, byte[]>();
+        List<String> removedApplicationIds = new ArrayList<String>();
+        ApplicationHolder.acquireReadLock();
+        try {
+            for (Map.Entry<String, Boolean> request : requests.entrySet()) {
+                String applicationId = request.getKey();
+                if (!request.getValue()) {
+                    removedApplicationIds.add(applicationId);
+                    continue;
+                }
+                Application application = ApplicationHolder.getApplications().getApplication(applicationId);
+                if (application == null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Application not found, hence not persisted: [application-id] %s",
+                                applicationId));
+                    }
+                    continue;
+                }
+                try {
+                    applicationIdToContent.put(applicationId, Serializer.serializeToByteArray(application));
+                } catch (IOException e) {
+                    log.error(String.format("Could not serialize application: [application-id] %s",
+                            applicationId), e);
+                }
+            }
+        } finally {
+            ApplicationHolder.releaseReadLock();
+        }
+
+        try {
+            registryManager.persistApplications(applicationIdToContent);
+            persistedApplicationCount.addAndGet(applicationIdToContent.size());
+            for (String applicationId : removedApplicationIds) {
+                registryManager.removeApplication(applicationId);
+            }
+            commitCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Applications committed: [persisted] %d [removed] %d [requests] %d",
+                        applicationIdToContent.size(), removedApplicationIds.size(), requestCount.get()));
+            }
+        } catch (Exception e) {
+            log.error("Could not commit applications to registry, commit will be retried", e);
+            synchronized (pendingRequests) {
+                // Requests received after this commit started are newer, hence not overwritten
+                for (Map.Entry<String, Boolean> request : requests.entrySet()) {
+                    if (!pendingRequests.containsKey(request.getKey())) {
+                        pendingRequests.put(request.getKey(), request.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the periodic commits and commit pending requests.
+     */
+    public void terminate() {
+        commitTask.cancel(false);
+        commit();
+    }
+
+    public int getPendingRequestCount() {
+        synchronized (pendingRequests) {
+            return pendingRequests.size();
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getCommitCount() {
+        return commitCount.get();
+    }
+
+    public long getPersistedApplicationCount() {
+        return persistedApplicationCount.get();
+    }
+}
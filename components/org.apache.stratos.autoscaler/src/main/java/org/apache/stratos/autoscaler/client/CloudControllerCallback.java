@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.client;
+
+/**
+ * Callback of an asynchronous cloud controller service call.
+ * @param <T> result type of the service call
+ */
+public interface CloudControllerCallback<T> {
+
+    /**
+     * Invoked when the service call returns successfully.
+     * @param result result of the service call
+     */
+    void onSuccess(T result);
+
+    /**
+     * Invoked when the service call fails.
+     * @param error cause of the failure
+     */
+    void onFailure(Throwable error);
+}
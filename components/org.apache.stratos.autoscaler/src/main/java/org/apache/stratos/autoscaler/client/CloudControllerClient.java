@@ -40,18 +40,42 @@ import org.apache.stratos.cloud.controller.stub.domain.Partition;
 import org.apache.stratos.common.Properties;
 import org.apache.stratos.common.Property;
 import org.apache.stratos.common.constants.StratosConstants;
+import org.apache.stratos.common.threading.StratosThreadPool;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This class will call cloud controller web service to take the action decided by Autoscaler
+ * This class will call cloud controller web service to take the action decided by Autoscaler.
+ * Axis2 service stubs are not thread safe, hence a pool of stubs is maintained and each service
+ * call borrows a stub from the pool. Service calls can be executed concurrently up to the size of
+ * the pool. Instance start and termination calls can be executed asynchronously.
  */
 public class CloudControllerClient {
 
     private static final Log log = LogFactory.getLog(CloudControllerClient.class);
-    private static CloudControllerServiceStub stub;
+
+    private static final int DEFAULT_CLIENT_POOL_SIZE = 10;
+    private static final long DEFAULT_STATISTICS_LOG_INTERVAL = 300000;
+
+    private BlockingQueue<CloudControllerServiceStub> stubPool;
+    private ExecutorService executorService;
+    private long stubAcquireTimeout;
+    private final AtomicInteger inFlightCallCount = new AtomicInteger();
+    private final ConcurrentMap<String, ServiceCallStatistics> serviceCallStatisticsMap =
+            new ConcurrentHashMap<String, ServiceCallStatistics>();
 
     /* An instance of a CloudControllerClient is created when the class is loaded. 
      * Since the class is loaded only once, it is guaranteed that an object of 
@@ -72,30 +96,131 @@ public class CloudControllerClient {
             String hostname = conf.getString("autoscaler.cloudController.hostname", "localhost");
             String epr = "https://" + hostname + ":" + port + "/" + AutoscalerConstants.CLOUD_CONTROLLER_SERVICE_SFX;
             int cloudControllerClientTimeout = conf.getInt("autoscaler.cloudController.clientTimeout", 180000);
-
-            stub = new CloudControllerServiceStub(epr);
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.SO_TIMEOUT, cloudControllerClientTimeout);
-            stub._getServiceClient().getOptions().setProperty(HTTPConstants.CONNECTION_TIMEOUT, cloudControllerClientTimeout);
+            int clientPoolSize = conf.getInt("autoscaler.cloudController.clientPoolSize", DEFAULT_CLIENT_POOL_SIZE);
+            stubAcquireTimeout = cloudControllerClientTimeout;
+
+            stubPool = new ArrayBlockingQueue<CloudControllerServiceStub>(clientPoolSize);
+            for (int i = 0; i < clientPoolSize; i++) {
+                CloudControllerServiceStub stub = new CloudControllerServiceStub(epr);
+                stub._getServiceClient().getOptions().setProperty(HTTPConstants.SO_TIMEOUT, cloudControllerClientTimeout);
+                stub._getServiceClient().getOptions().setProperty(HTTPConstants.CONNECTION_TIMEOUT, cloudControllerClientTimeout);
+                stubPool.add(stub);
+            }
+            executorService = StratosThreadPool.getExecutorService(
+                    AutoscalerConstants.CLOUD_CONTROLLER_CLIENT_THREAD_POOL_ID, clientPoolSize);
+
+            long statisticsLogInterval = conf.getLong("autoscaler.cloudController.statisticsLogInterval",
+                    DEFAULT_STATISTICS_LOG_INTERVAL);
+            if (statisticsLogInterval > 0) {
+                ScheduledExecutorService scheduler = StratosThreadPool.getScheduledExecutorService(
+                        AutoscalerConstants.CLOUD_CONTROLLER_CLIENT_STATISTICS_SCHEDULER_ID, 1);
+                scheduler.scheduleWithFixedDelay(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            logServiceCallStatistics();
+                        } catch (Exception e) {
+                            log.error("Could not log cloud controller service call statistics", e);
+                        }
+                    }
+                }, statisticsLogInterval, statisticsLogInterval, TimeUnit.MILLISECONDS);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Cloud controller client initialized: [epr] %s [pool-size] %d",
+                        epr, clientPoolSize));
+            }
         } catch (Exception e) {
             log.error("Could not initialize cloud controller client", e);
         }
     }
+
+    /**
+     * Borrow a service stub from the pool, waits until a stub is returned if all stubs are in use.
+     */
+    private CloudControllerServiceStub acquireStub() throws RemoteException {
+        if (stubPool == null) {
+            throw new RemoteException("Cloud controller client is not initialized");
+        }
+        try {
+            CloudControllerServiceStub stub = stubPool.poll(stubAcquireTimeout, TimeUnit.MILLISECONDS);
+            if (stub == null) {
+                throw new RemoteException(String.format("Could not acquire a cloud controller service stub " +
+                        "within %dms", stubAcquireTimeout));
+            }
+            inFlightCallCount.incrementAndGet();
+            return stub;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for a cloud controller service stub", e);
+        }
+    }
+
+    private void releaseStub(CloudControllerServiceStub stub, String operation, long startTime, boolean success) {
+        inFlightCallCount.decrementAndGet();
+        stubPool.offer(stub);
+
+        long latency = System.currentTimeMillis() - startTime;
+        getServiceCallStatistics(operation).record(latency, success);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Service call %s() returned in %dms", operation, latency));
+        }
+    }
+
+    private ServiceCallStatistics getServiceCallStatistics(String operation) {
+        ServiceCallStatistics statistics = serviceCallStatisticsMap.get(operation);
+        if (statistics == null) {
+            statistics = new ServiceCallStatistics(operation);
+            ServiceCallStatistics existing = serviceCallStatisticsMap.putIfAbsent(operation, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    private void logServiceCallStatistics() {
+        if (!log.isInfoEnabled() || serviceCallStatisticsMap.isEmpty()) {
+            return;
+        }
+        log.info(String.format("Cloud controller service calls in flight: [count] %d", getInFlightCallCount()));
+        for (ServiceCallStatistics statistics : serviceCallStatisticsMap.values()) {
+            log.info("Cloud controller service call statistics: " + statistics);
+        }
+    }
+
+    /**
+     * Returns the number of service calls currently being executed.
+     */
+    public int getInFlightCallCount() {
+        return inFlightCallCount.get();
+    }
+
+    /**
+     * Returns call count and latency statistics of each service operation invoked so far.
+     */
+    public Collection<ServiceCallStatistics> getServiceCallStatistics() {
+        return serviceCallStatisticsMap.values();
+    }
     
     /*
      * This will validate the given partitions against the given cartridge type.
      */
 
-    public synchronized boolean validateDeploymentPolicy(String cartridgeType, org.apache.stratos.autoscaler.pojo.policy.deployment.partition.network.Partition[] partitions) throws PartitionValidationException {
+    public boolean validateDeploymentPolicy(String cartridgeType, org.apache.stratos.autoscaler.pojo.policy.deployment.partition.network.Partition[] partitions) throws PartitionValidationException {
         try {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Validating partitions of policy via cloud controller: [cartridge-type] %s", cartridgeType));
             }
+            boolean result;
+            CloudControllerServiceStub stub = acquireStub();
             long startTime = System.currentTimeMillis();
-            boolean result = stub.validateDeploymentPolicy(cartridgeType,
-                    AutoscalerObjectConverter.convertASPartitionsToCCStubPartitions(partitions));
-            if (log.isDebugEnabled()) {
-                long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call validateDeploymentPolicy() returned in %dms", (endTime - startTime)));
+            boolean success = false;
+            try {
+                result = stub.validateDeploymentPolicy(cartridgeType,
+                        AutoscalerObjectConverter.convertASPartitionsToCCStubPartitions(partitions));
+                success = true;
+            } finally {
+                releaseStub(stub, "validateDeploymentPolicy", startTime, success);
             }
             return result;
         } catch (RemoteException e) {
@@ -114,17 +239,21 @@ public class CloudControllerClient {
     /*
      * Calls the CC to validate the partition.
      */
-    public synchronized boolean validatePartition(Partition partition) throws PartitionValidationException {
+    public boolean validatePartition(Partition partition) throws PartitionValidationException {
 
         try {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Validating partition via cloud controller: [id] %s", partition.getId()));
             }
+            boolean result;
+            CloudControllerServiceStub stub = acquireStub();
             long startTime = System.currentTimeMillis();
-            boolean result = stub.validatePartition(partition);
-            if (log.isDebugEnabled()) {
-                long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call validatePartition() returned in %dms", (endTime - startTime)));
+            boolean success = false;
+            try {
+                result = stub.validatePartition(partition);
+                success = true;
+            } finally {
+                releaseStub(stub, "validatePartition", startTime, success);
             }
             return result;
         } catch (RemoteException e) {
@@ -137,10 +266,10 @@ public class CloudControllerClient {
 
     }
 
-    public synchronized MemberContext startInstance(Partition partition,
-                                                    String clusterId, String clusterInstanceId,
-                                                    String networkPartitionId, boolean isPrimary,
-                                                    int minMemberCount) throws SpawningException {
+    public MemberContext startInstance(Partition partition,
+                                       String clusterId, String clusterInstanceId,
+                                       String networkPartitionId, boolean isPrimary,
+                                       int minMemberCount) throws SpawningException {
         try {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Trying to spawn an instance via cloud controller: " +
@@ -148,40 +277,93 @@ public class CloudControllerClient {
                         clusterId, partition.getId(), networkPartitionId));
             }
 
-            XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
-            long expiryTime = conf.getLong(StratosConstants.OBSOLETED_MEMBER_EXPIRY_TIMEOUT, 86400000);
-            if (log.isDebugEnabled()) {
-                log.debug("Member obsolete expiry time is set to: " + expiryTime);
-            }
-
-            InstanceContext instanceContext = new InstanceContext();
-            instanceContext.setClusterId(clusterId);
-            instanceContext.setClusterInstanceId(clusterInstanceId);
-            instanceContext.setPartition(partition);
-            instanceContext.setInitTime(System.currentTimeMillis());
-            instanceContext.setObsoleteExpiryTime(expiryTime);
-            instanceContext.setNetworkPartitionId(networkPartitionId);
+            InstanceContext instanceContext = createInstanceContext(partition, clusterId, clusterInstanceId,
+                    networkPartitionId, isPrimary, minMemberCount);
 
-            Properties memberContextProps = new Properties();
-            Property isPrimaryProp = new Property();
-            isPrimaryProp.setName("PRIMARY");
-            isPrimaryProp.setValue(String.valueOf(isPrimary));
+            MemberContext memberContext;
+            CloudControllerServiceStub stub = acquireStub();
+            long startTime = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                memberContext = stub.startInstance(instanceContext);
+                success = true;
+            } finally {
+                releaseStub(stub, "startInstance", startTime, success);
+            }
+            return memberContext;
+        } catch (CloudControllerServiceCartridgeNotFoundExceptionException e) {
+            String message = e.getFaultMessage().getCartridgeNotFoundException().getMessage();
+            log.error(message, e);
+            throw new SpawningException(message, e);
+        } catch (RemoteException e) {
+            log.error(e.getMessage(), e);
+            throw new SpawningException(e.getMessage(), e);
+        } catch (CloudControllerServiceInvalidIaasProviderExceptionException e) {
+            String message = e.getFaultMessage().getInvalidIaasProviderException().getMessage();
+            log.error(message, e);
+            throw new SpawningException(message, e);
+        } catch (CloudControllerServiceCloudControllerExceptionException e) {
+            String message = e.getMessage();
+            log.error(message, e);
+            throw new SpawningException(message, e);
+        }
+    }
 
-            Property minCountProp = new Property();
-            minCountProp.setName(StratosConstants.MIN_COUNT);
-            minCountProp.setValue(String.valueOf(minMemberCount));
+    /**
+     * Create an instance context to be sent to the cloud controller for starting an instance.
+     */
+    public InstanceContext createInstanceContext(Partition partition, String clusterId, String clusterInstanceId,
+                                                 String networkPartitionId, boolean isPrimary, int minMemberCount) {
+        XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
+        long expiryTime = conf.getLong(StratosConstants.OBSOLETED_MEMBER_EXPIRY_TIMEOUT, 86400000);
+        if (log.isDebugEnabled()) {
+            log.debug("Member obsolete expiry time is set to: " + expiryTime);
+        }
 
-            memberContextProps.addProperty(isPrimaryProp);
-            memberContextProps.addProperty(minCountProp);
-            instanceContext.setProperties(AutoscalerUtil.toStubProperties(memberContextProps));
+        InstanceContext instanceContext = new InstanceContext();
+        instanceContext.setClusterId(clusterId);
+        instanceContext.setClusterInstanceId(clusterInstanceId);
+        instanceContext.setPartition(partition);
+        instanceContext.setInitTime(System.currentTimeMillis());
+        instanceContext.setObsoleteExpiryTime(expiryTime);
+        instanceContext.setNetworkPartitionId(networkPartitionId);
+
+        Properties memberContextProps = new Properties();
+        Property isPrimaryProp = new Property();
+        isPrimaryProp.setName("PRIMARY");
+        isPrimaryProp.setValue(String.valueOf(isPrimary));
+
+        Property minCountProp = new Property();
+        minCountProp.setName(StratosConstants.MIN_COUNT);
+        minCountProp.setValue(String.valueOf(minMemberCount));
+
+        memberContextProps.addProperty(isPrimaryProp);
+        memberContextProps.addProperty(minCountProp);
+        instanceContext.setProperties(AutoscalerUtil.toStubProperties(memberContextProps));
+        return instanceContext;
+    }
 
+    /**
+     * Start instances with a single service call. Member contexts of the instances started are
+     * returned, an exception is only thrown if none of the instances could be started.
+     */
+    public MemberContext[] startInstances(InstanceContext[] instanceContexts) throws SpawningException {
+        try {
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Trying to spawn instances via cloud controller: [count] %d",
+                        instanceContexts.length));
+            }
+            MemberContext[] memberContexts;
+            CloudControllerServiceStub stub = acquireStub();
             long startTime = System.currentTimeMillis();
-            MemberContext memberContext = stub.startInstance(instanceContext);
-            if (log.isDebugEnabled()) {
-                long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call startInstance() returned in %dms", (endTime - startTime)));
+            boolean success = false;
+            try {
+                memberContexts = stub.startInstances(instanceContexts);
+                success = true;
+            } finally {
+                releaseStub(stub, "startInstances", startTime, success);
             }
-            return memberContext;
+            return (memberContexts == null) ? new MemberContext[0] : memberContexts;
         } catch (CloudControllerServiceCartridgeNotFoundExceptionException e) {
             String message = e.getFaultMessage().getCartridgeNotFoundException().getMessage();
             log.error(message, e);
@@ -200,16 +382,74 @@ public class CloudControllerClient {
         }
     }
 
-    public synchronized void terminateInstances(String clusterId) throws TerminationException {
+    /**
+     * Start instances asynchronously with a single service call. The callback is invoked in the
+     * cloud controller client thread pool once the service call completes.
+     * @return future of the member contexts returned by the cloud controller
+     */
+    public Future<MemberContext[]> startInstancesAsync(final InstanceContext[] instanceContexts,
+                                                       final CloudControllerCallback<MemberContext[]> callback) {
+        return executorService.submit(new Callable<MemberContext[]>() {
+            @Override
+            public MemberContext[] call() throws Exception {
+                MemberContext[] memberContexts;
+                try {
+                    memberContexts = startInstances(instanceContexts);
+                } catch (SpawningException e) {
+                    notifyFailure(callback, e);
+                    throw e;
+                } catch (RuntimeException e) {
+                    notifyFailure(callback, e);
+                    throw e;
+                }
+                notifySuccess(callback, memberContexts);
+                return memberContexts;
+            }
+        });
+    }
+
+    /**
+     * Start an instance asynchronously. The callback is invoked in the cloud controller client thread
+     * pool once the service call completes.
+     * @return future of the member context returned by the cloud controller
+     */
+    public Future<MemberContext> startInstanceAsync(final Partition partition, final String clusterId,
+                                                    final String clusterInstanceId, final String networkPartitionId,
+                                                    final boolean isPrimary, final int minMemberCount,
+                                                    final CloudControllerCallback<MemberContext> callback) {
+        return executorService.submit(new Callable<MemberContext>() {
+            @Override
+            public MemberContext call() throws Exception {
+                MemberContext memberContext;
+                try {
+                    memberContext = startInstance(partition, clusterId, clusterInstanceId, networkPartitionId,
+                            isPrimary, minMemberCount);
+                } catch (SpawningException e) {
+                    notifyFailure(callback, e);
+                    throw e;
+                } catch (RuntimeException e) {
+                    notifyFailure(callback, e);
+                    throw e;
+                }
+                notifySuccess(callback, memberContext);
+                return memberContext;
+            }
+        });
+    }
+
+    public void terminateInstances(String clusterId) throws TerminationException {
         try {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Terminating all instances of cluster via cloud controller: [cluster] %s", clusterId));
             }
+            CloudControllerServiceStub stub = acquireStub();
             long startTime = System.currentTimeMillis();
-            stub.terminateInstances(clusterId);
-            if (log.isDebugEnabled()) {
-                long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call terminateInstances() returned in %dms", (endTime - startTime)));
+            boolean success = false;
+            try {
+                stub.terminateInstances(clusterId);
+                success = true;
+            } finally {
+                releaseStub(stub, "terminateInstances", startTime, success);
             }
         } catch (RemoteException e) {
             String msg = e.getMessage();
@@ -223,8 +463,8 @@ public class CloudControllerClient {
         }
     }
 
-    public synchronized void createApplicationClusters(String appId,
-                                                       ApplicationClusterContext[] applicationClusterContexts) {
+    public void createApplicationClusters(String appId,
+                                          ApplicationClusterContext[] applicationClusterContexts) {
         List<org.apache.stratos.cloud.controller.stub.domain.ApplicationClusterContext> contextDTOs =
                                         new ArrayList<org.apache.stratos.cloud.controller.stub.domain.ApplicationClusterContext>();
         if(applicationClusterContexts != null) {
@@ -250,7 +490,15 @@ public class CloudControllerClient {
                 new org.apache.stratos.cloud.controller.stub.domain.ApplicationClusterContext[contextDTOs.size()];
         contextDTOs.toArray(applicationClusterContextDTOs);
         try {
-            stub.createApplicationClusters(appId, applicationClusterContextDTOs);
+            CloudControllerServiceStub stub = acquireStub();
+            long startTime = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                stub.createApplicationClusters(appId, applicationClusterContextDTOs);
+                success = true;
+            } finally {
+                releaseStub(stub, "createApplicationClusters", startTime, success);
+            }
         } catch (RemoteException e) {
             String msg = e.getMessage();
             log.error(msg, e);
@@ -266,9 +514,16 @@ public class CloudControllerClient {
     public void createClusterInstance (String serviceType, String clusterId, String alias,
                                        String instanceId, String partitionId, String networkPartitionId){
         try {
-            stub.createClusterInstance(serviceType, clusterId, alias, instanceId,
-                    partitionId, networkPartitionId);
-
+            CloudControllerServiceStub stub = acquireStub();
+            long startTime = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                stub.createClusterInstance(serviceType, clusterId, alias, instanceId,
+                        partitionId, networkPartitionId);
+                success = true;
+            } finally {
+                releaseStub(stub, "createClusterInstance", startTime, success);
+            }
         } catch (RemoteException e) {
             String msg = e.getMessage();
             log.error(msg, e);
@@ -280,16 +535,19 @@ public class CloudControllerClient {
         }
     }
 
-    public synchronized void terminateInstance(String memberId) throws TerminationException {
+    public void terminateInstance(String memberId) throws TerminationException {
         try {
             if (log.isInfoEnabled()) {
                 log.info(String.format("Terminating instance via cloud controller: [member] %s", memberId));
             }
+            CloudControllerServiceStub stub = acquireStub();
             long startTime = System.currentTimeMillis();
-            stub.terminateInstance(memberId);
-            if (log.isDebugEnabled()) {
-                long endTime = System.currentTimeMillis();
-                log.debug(String.format("Service call terminateInstance() returned in %dms", (endTime - startTime)));
+            boolean success = false;
+            try {
+                stub.terminateInstance(memberId);
+                success = true;
+            } finally {
+                releaseStub(stub, "terminateInstance", startTime, success);
             }
         } catch (RemoteException e) {
             String msg = e.getMessage();
@@ -310,11 +568,63 @@ public class CloudControllerClient {
         }
     }
 
+    /**
+     * Terminate an instance asynchronously. The callback is invoked in the cloud controller client
+     * thread pool once the service call completes.
+     * @return future of the member id of the terminated instance
+     */
+    public Future<String> terminateInstanceAsync(final String memberId, final CloudControllerCallback<String> callback) {
+        return executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                try {
+                    terminateInstance(memberId);
+                } catch (TerminationException e) {
+                    notifyFailure(callback, e);
+                    throw new RuntimeException(e.getMessage(), e);
+                } catch (RuntimeException e) {
+                    notifyFailure(callback, e);
+                    throw e;
+                }
+                notifySuccess(callback, memberId);
+                return memberId;
+            }
+        });
+    }
+
+    private <T> void notifySuccess(CloudControllerCallback<T> callback, T result) {
+        if (callback != null) {
+            try {
+                callback.onSuccess(result);
+            } catch (Exception e) {
+                log.error("Cloud controller client callback failed", e);
+            }
+        }
+    }
+
+    private void notifyFailure(CloudControllerCallback<?> callback, Throwable error) {
+        if (callback != null) {
+            try {
+                callback.onFailure(error);
+            } catch (Exception e) {
+                log.error("Cloud controller client callback failed", e);
+            }
+        }
+    }
+
     public CartridgeInfo getCartrdgeInformation(String cartridgeType) throws CartridgeInformationException {
 
         try {
-            return stub.getCartridgeInfo(cartridgeType);
-
+            CloudControllerServiceStub stub = acquireStub();
+            long startTime = System.currentTimeMillis();
+            boolean success = false;
+            try {
+                CartridgeInfo cartridgeInfo = stub.getCartridgeInfo(cartridgeType);
+                success = true;
+                return cartridgeInfo;
+            } finally {
+                releaseStub(stub, "getCartridgeInfo", startTime, success);
+            }
         } catch (RemoteException e) {
             String msg = e.getMessage();
             log.error(msg, e);
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Call count and latency statistics of a service operation.
+ */
+public class ServiceCallStatistics {
+
+    private final String operation;
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicLong failedCallCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public ServiceCallStatistics(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Record a completed service call.
+     * @param latency time taken by the service call in milliseconds
+     * @param success true if the service call returned successfully
+     */
+    public void record(long latency, boolean success) {
+        callCount.incrementAndGet();
+        if (!success) {
+            failedCallCount.incrementAndGet();
+        }
+        totalLatency.addAndGet(latency);
+        long max = maxLatency.get();
+        while ((latency > max) && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    public long getFailedCallCount() {
+        return failedCallCount.get();
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    public double getAverageLatency() {
+        long count = callCount.get();
+        return (count > 0) ? ((double) totalLatency.get() / count) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[operation] %s [calls] %d [failed-calls] %d [average-latency] %.2fms " +
+                "[max-latency] %dms", operation, getCallCount(), getFailedCallCount(), getAverageLatency(),
+                getMaxLatency());
+    }
+}
@@ -31,6 +31,8 @@ import java.io.Serializable;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This is an object that inserted to the rules engine.
@@ -51,9 +53,13 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
 
     // 15 mints as the default
     private long pendingMemberExpiryTime = 900000;
-    // pending members
+    // pending members, added to from cloud controller client threads when asynchronous
+    // instance start calls return, hence a copy on write list for lock free readers
     private List<MemberContext> pendingMembers;
 
+    // instance start requests sent to the cloud controller which have not returned yet
+    private final AtomicInteger pendingSpawnRequestCount = new AtomicInteger();
+
     // 1 day as default
     private long obsoltedMemberExpiryTime = 1 * 24 * 60 * 60 * 1000;
 
@@ -80,14 +86,14 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         super(memberExpiryTime);
         this.activeMembers = new ArrayList<MemberContext>();
         this.terminationPendingMembers = new ArrayList<MemberContext>();
-        this.pendingMembers = new ArrayList<MemberContext>();
+        this.pendingMembers = new CopyOnWriteArrayList<MemberContext>();
     }
 
     public ClusterLevelPartitionContext(int max, Partition partition, String networkPartitionId, String clusterId) {
 
         super(max, partition, networkPartitionId);
         this.clusterId = clusterId;
-        this.pendingMembers = new ArrayList<MemberContext>();
+        this.pendingMembers = new CopyOnWriteArrayList<MemberContext>();
         this.activeMembers = new ArrayList<MemberContext>();
         this.terminationPendingMembers = new ArrayList<MemberContext>();
         this.obsoletedMembers = new ConcurrentHashMap<String, MemberContext>();
@@ -122,7 +128,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void setPendingMembers(List<MemberContext> pendingMembers) {
-        this.pendingMembers = pendingMembers;
+        this.pendingMembers = new CopyOnWriteArrayList<MemberContext>(pendingMembers);
     }
 
     public int getActiveMemberCount() {
@@ -138,7 +144,21 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public void addPendingMember(MemberContext ctxt) {
-        this.pendingMembers.add(ctxt);
+        synchronized (pendingMembers) {
+            this.pendingMembers.add(ctxt);
+        }
+    }
+
+    public int getPendingSpawnRequestCount() {
+        return pendingSpawnRequestCount.get();
+    }
+
+    public void incrementPendingSpawnRequestCount() {
+        pendingSpawnRequestCount.incrementAndGet();
+    }
+
+    public void decrementPendingSpawnRequestCount() {
+        pendingSpawnRequestCount.decrementAndGet();
     }
 
     public boolean removePendingMember(String id) {
@@ -146,10 +166,9 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             return false;
         }
         synchronized (pendingMembers) {
-            for (Iterator<MemberContext> iterator = pendingMembers.iterator(); iterator.hasNext(); ) {
-                MemberContext pendingMember = iterator.next();
-                if (id.equals(pendingMember.getMemberId())) {
-                    iterator.remove();
+            for (MemberContext pendingMember : pendingMembers) {
+                if (pendingMember != null && id.equals(pendingMember.getMemberId())) {
+                    pendingMembers.remove(pendingMember);
                     return true;
                 }
 
@@ -163,17 +182,15 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
             return;
         }
         synchronized (pendingMembers) {
-            Iterator<MemberContext> iterator = pendingMembers.listIterator();
-            while (iterator.hasNext()) {
-                MemberContext pendingMember = iterator.next();
+            for (MemberContext pendingMember : pendingMembers) {
                 if (pendingMember == null) {
-                    iterator.remove();
+                    pendingMembers.remove(null);
                     continue;
                 }
                 if (memberId.equals(pendingMember.getMemberId())) {
                     // member is activated
                     // remove from pending list
-                    iterator.remove();
+                    pendingMembers.remove(pendingMember);
                     // add to the activated list
                     this.activeMembers.add(pendingMember);
                     pendingMembersFailureCount = 0;
@@ -260,8 +277,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         }
 
         // check pending member list
-        Iterator<MemberContext> pendingMemberIterator = pendingMembers.listIterator();
-        removedMember = this.removeMemberFrom(pendingMemberIterator, memberId);
+        removedMember = this.removePendingMemberContext(memberId);
         if (removedMember != null) {
             this.addObsoleteMember(removedMember);
             removedMember.setObsoleteInitTime(System.currentTimeMillis());
@@ -313,6 +329,31 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         return null;
     }
 
+    /**
+     * Removes the pending {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} mapping
+     * to the specified member id. Pending members are held in a copy on write list, which does not
+     * support removal through its iterators.
+     *
+     * @param memberId Member Id {@link String} of the pending member to be removed
+     * @return removed {@link org.apache.stratos.cloud.controller.stub.domain.MemberContext} object,
+     * null if not found.
+     */
+    private MemberContext removePendingMemberContext(String memberId) {
+        synchronized (pendingMembers) {
+            for (MemberContext pendingMember : pendingMembers) {
+                if (pendingMember == null) {
+                    pendingMembers.remove(null);
+                    continue;
+                }
+                if (memberId.equals(pendingMember.getMemberId())) {
+                    pendingMembers.remove(pendingMember);
+                    return pendingMember;
+                }
+            }
+        }
+        return null;
+    }
+
     public void addActiveMember(MemberContext ctxt) {
         this.activeMembers.add(ctxt);
     }
@@ -429,7 +470,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
     }
 
     public int getNonTerminatedMemberCount() {
-        return activeMembers.size() + pendingMembers.size();
+        return activeMembers.size() + pendingMembers.size() + pendingSpawnRequestCount.get();
     }
 
     public List<MemberContext> getActiveMembers() {
@@ -559,24 +600,13 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
         if (memberId == null) {
             return;
         }
-        Iterator<MemberContext> iterator = pendingMembers.listIterator();
-        while (iterator.hasNext()) {
-            MemberContext pendingMember = iterator.next();
-            if (pendingMember == null) {
-                iterator.remove();
-                continue;
-            }
-            if (memberId.equals(pendingMember.getMemberId())) {
-
-                // remove from pending list
-                iterator.remove();
-                // add to the obsolete list
-                this.obsoletedMembers.put(memberId, pendingMember);
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Pending member is removed and added to the " +
-                            "obsolete member list. [Member Id] %s", memberId));
-                }
-                break;
+        MemberContext pendingMember = removePendingMemberContext(memberId);
+        if (pendingMember != null) {
+            // add to the obsolete list
+            this.obsoletedMembers.put(memberId, pendingMember);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Pending member is removed and added to the " +
+                        "obsolete member list. [Member Id] %s", memberId));
             }
         }
 
@@ -603,9 +633,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
                 List<MemberContext> pendingMembers = ctxt.getPendingMembers();
 
                 synchronized (pendingMembers) {
-                    Iterator<MemberContext> iterator = pendingMembers.listIterator();
-                    while (iterator.hasNext()) {
-                        MemberContext pendingMember = iterator.next();
+                    for (MemberContext pendingMember : pendingMembers) {
 
                         if (pendingMember == null) {
                             continue;
@@ -614,7 +642,7 @@ public class ClusterLevelPartitionContext extends PartitionContext implements Se
                         if (pendingTime >= expiryTime) {
 
 
-                            iterator.remove();
+                            pendingMembers.remove(pendingMember);
                             log.info("Pending state of member: " + pendingMember.getMemberId() +
                                     " is expired. " + "Adding as an obsoleted member.");
                             // member should be terminated
@@ -21,12 +21,15 @@ package org.apache.stratos.autoscaler.internal;
 import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.applications.ApplicationHolder;
 import org.apache.stratos.autoscaler.applications.ApplicationSynchronizerTaskScheduler;
 import org.apache.stratos.autoscaler.context.AutoscalerContext;
 import org.apache.stratos.autoscaler.event.receiver.health.AutoscalerHealthStatEventReceiver;
+import org.apache.stratos.autoscaler.statistics.HealthStatisticsAggregator;
 import org.apache.stratos.autoscaler.event.receiver.topology.AutoscalerTopologyEventReceiver;
 import org.apache.stratos.autoscaler.exception.AutoScalerException;
 import org.apache.stratos.autoscaler.exception.policy.InvalidPolicyException;
+import org.apache.stratos.autoscaler.monitor.MonitorScheduler;
 import org.apache.stratos.autoscaler.pojo.policy.PolicyManager;
 import org.apache.stratos.autoscaler.pojo.policy.autoscale.AutoscalePolicy;
 import org.apache.stratos.autoscaler.pojo.policy.deployment.DeploymentPolicy;
@@ -38,6 +41,7 @@ import org.apache.stratos.autoscaler.util.ConfUtil;
 import org.apache.stratos.autoscaler.util.ServiceReferenceHolder;
 import org.apache.stratos.cloud.controller.stub.domain.Partition;
 import org.apache.stratos.common.clustering.DistributedObjectProvider;
+import org.apache.stratos.common.statistics.publisher.embedded.EmbeddedStatisticsPublisher;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.ntask.core.service.TaskService;
@@ -73,6 +77,7 @@ public class AutoscalerServiceComponent {
 
 	private AutoscalerTopologyEventReceiver asTopologyReceiver;
 	private AutoscalerHealthStatEventReceiver autoscalerHealthStatEventReceiver;
+	private HealthStatisticsAggregator healthStatisticsAggregator;
 	private ExecutorService executorService;
 
 	protected void activate(ComponentContext componentContext) throws Exception {
@@ -138,6 +143,19 @@ public class AutoscalerServiceComponent {
 			log.debug("Health statistics receiver thread started");
 		}
 
+		// Start embedded health statistics aggregator
+		XMLConfiguration conf = ConfUtil.getInstance(AutoscalerConstants.COMPONENTS_CONFIG).getConfiguration();
+		if (conf.getBoolean("autoscaler.healthStatisticsAggregator.enabled", false)) {
+			healthStatisticsAggregator = new HealthStatisticsAggregator(
+					conf.getLong("autoscaler.healthStatisticsAggregator.windowInterval",
+							HealthStatisticsAggregator.DEFAULT_WINDOW_INTERVAL),
+					conf.getInt("autoscaler.healthStatisticsAggregator.windowCapacity",
+							HealthStatisticsAggregator.DEFAULT_WINDOW_CAPACITY));
+			EmbeddedStatisticsPublisher.setReceiver(healthStatisticsAggregator);
+			log.info("Embedded health statistics aggregator enabled, only statistics published within the " +
+					"autoscaler JVM (mock IaaS) are aggregated, statistics of other processes require CEP");
+		}
+
         // Adding the registry stored partitions to the information model
         List<Partition> partitions = RegistryManager.getInstance().retrievePartitions();
         Iterator<Partition> partitionIterator = partitions.iterator();
@@ -199,6 +217,22 @@ public class AutoscalerServiceComponent {
             log.warn("An error occurred while terminating autoscaler health statistics event receiver", e);
         }
 
+        if (healthStatisticsAggregator != null) {
+            try {
+                EmbeddedStatisticsPublisher.setReceiver(null);
+                healthStatisticsAggregator.terminate();
+            } catch (Exception e) {
+                log.warn("An error occurred while terminating health statistics aggregator", e);
+            }
+        }
+
+        try {
+            // Commit pending application changes to the registry
+            ApplicationHolder.terminateApplicationPersister();
+        } catch (Exception e) {
+            log.warn("An error occurred while terminating application persister", e);
+        }
+
         // Shutdown executor service
         if(executorService != null) {
             shutdownExecutorService(executorService);
@@ -210,11 +244,8 @@ public class AutoscalerServiceComponent {
         // Shutdown group monitor executor service
         shutdownExecutorService(AutoscalerConstants.GROUP_MONITOR_THREAD_POOL_ID);
 
-        // Shutdown cluster monitor scheduler executor service
-        shutdownScheduledExecutorService(AutoscalerConstants.CLUSTER_MONITOR_SCHEDULER_ID);
-
-        // Shutdown cluster monitor executor service
-        shutdownExecutorService(AutoscalerConstants.CLUSTER_MONITOR_THREAD_POOL_ID);
+        // Shutdown cluster monitor scheduler and its worker pool
+        MonitorScheduler.shutdown();
     }
 
     private void shutdownExecutorService(String executorServiceId) {
@@ -224,13 +255,6 @@ public class AutoscalerServiceComponent {
         }
     }
 
-    private void shutdownScheduledExecutorService(String executorServiceId) {
-        ExecutorService executorService = StratosThreadPool.getScheduledExecutorService(executorServiceId, 1);
-        if(executorService != null) {
-            shutdownExecutorService(executorService);
-        }
-    }
-
     private void shutdownExecutorService(ExecutorService executorService) {
         try {
             executorService.shutdownNow();
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.monitor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.common.threading.HashedTimerWheel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules periodic and one-off monitor tasks using a hashed timer wheel. A single timer thread advances the
+ * wheel and dispatches expired tasks into a bounded worker pool. A task is never executed
+ * concurrently with itself; if the previous execution of a task has not completed when it expires
+ * again, that execution is skipped.
+ */
+public class MonitorScheduler {
+
+    private static final Log log = LogFactory.getLog(MonitorScheduler.class);
+
+    private static final int WHEEL_SIZE = 512;
+
+    private static volatile MonitorScheduler instance;
+
+    private final long tickDuration;
+    private final long maxJitter;
+    private final HashedTimerWheel timerWheel;
+    private final ThreadPoolExecutor workerPool;
+
+    private MonitorScheduler() {
+        tickDuration = Long.getLong(AutoscalerConstants.MONITOR_SCHEDULER_TICK_DURATION, 100);
+        maxJitter = Long.getLong(AutoscalerConstants.MONITOR_SCHEDULER_MAX_JITTER, 10000);
+        int workerPoolSize = Integer.getInteger(AutoscalerConstants.CLUSTER_MONITOR_THREAD_POOL_SIZE, 50);
+        int queueSize = Integer.getInteger(AutoscalerConstants.MONITOR_SCHEDULER_QUEUE_SIZE, 10000);
+
+        workerPool = new ThreadPoolExecutor(workerPoolSize, workerPoolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize),
+                new MonitorThreadFactory(AutoscalerConstants.CLUSTER_MONITOR_THREAD_POOL_ID));
+        workerPool.allowCoreThreadTimeOut(true);
+
+        timerWheel = new HashedTimerWheel(AutoscalerConstants.CLUSTER_MONITOR_SCHEDULER_ID, tickDuration,
+                WHEEL_SIZE, null);
+        timerWheel.start();
+
+        log.info(String.format("Monitor scheduler started: [tick-duration] %d ms [worker-pool-size] %d " +
+                "[queue-size] %d", tickDuration, workerPoolSize, queueSize));
+    }
+
+    public static MonitorScheduler getInstance() {
+        if (instance == null) {
+            synchronized (MonitorScheduler.class) {
+                if (instance == null) {
+                    instance = new MonitorScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Shutdown the scheduler if it has been started.
+     */
+    public static void shutdown() {
+        synchronized (MonitorScheduler.class) {
+            if (instance != null) {
+                instance.timerWheel.stop();
+                instance.workerPool.shutdownNow();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Schedule a task to be executed periodically at a fixed rate. The first execution is delayed by a
+     * jitter derived from the task id, so that tasks scheduled at the same time do not all expire on
+     * the same tick.
+     * @param taskId id of the task, e.g. the cluster id
+     * @param task task to be executed, should not block
+     * @param intervalMillis execution interval in milliseconds
+     * @return a handle to cancel the task and to read its execution metrics
+     */
+    public ScheduledMonitorTask schedule(String taskId, Runnable task, long intervalMillis) {
+        long interval = Math.max(1, intervalMillis / tickDuration) * tickDuration;
+        long jitterWindow = Math.min(intervalMillis, maxJitter);
+        long jitter = (jitterWindow > 0) ? (((taskId.hashCode() & Integer.MAX_VALUE) % jitterWindow)
+                / tickDuration) * tickDuration : 0;
+
+        ScheduledMonitorTask scheduledTask = new ScheduledMonitorTask(this, taskId, task, interval, null);
+        timerWheel.schedule(scheduledTask, jitter, TimeUnit.MILLISECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Monitor task scheduled: [task] %s [interval] %d ms [jitter] %d ms", taskId,
+                    intervalMillis, jitter));
+        }
+        return scheduledTask;
+    }
+
+    /**
+     * Schedule a task to be executed once after the given delay.
+     * @param taskId id of the task
+     * @param task task to be executed, should not block
+     * @param delayMillis delay in milliseconds
+     * @return a handle to cancel the task and to read its execution metrics
+     */
+    public ScheduledMonitorTask scheduleOnce(String taskId, Runnable task, long delayMillis) {
+        return scheduleOnce(taskId, task, delayMillis, null);
+    }
+
+    /**
+     * Schedule a task to be executed once after the given delay. The skip handler is invoked on the
+     * timer thread if the execution is skipped, e.g. when the worker pool is saturated, hence callers
+     * can release any state kept for the pending execution.
+     * @param taskId id of the task
+     * @param task task to be executed, should not block
+     * @param delayMillis delay in milliseconds
+     * @param skipHandler invoked if the execution is skipped, should not block, may be null
+     * @return a handle to cancel the task and to read its execution metrics
+     */
+    public ScheduledMonitorTask scheduleOnce(String taskId, Runnable task, long delayMillis,
+                                             Runnable skipHandler) {
+        ScheduledMonitorTask scheduledTask = new ScheduledMonitorTask(this, taskId, task, 0, skipHandler);
+        timerWheel.schedule(scheduledTask, delayMillis, TimeUnit.MILLISECONDS);
+        return scheduledTask;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a worker thread.
+     */
+    public int getQueuedTaskCount() {
+        return workerPool.getQueue().size();
+    }
+
+    /**
+     * Hand an expired task over to the worker pool, invoked on the timer thread.
+     */
+    void dispatch(ScheduledMonitorTask task) {
+        if (!task.tryAcquire()) {
+            task.executionSkipped();
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Monitor task is still running, skipping execution: [task] %s",
+                        task.getTaskId()));
+            }
+            return;
+        }
+        try {
+            workerPool.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.release();
+            task.executionSkipped();
+            log.warn(String.format("Monitor worker pool is saturated, skipping execution: [task] %s",
+                    task.getTaskId()));
+        }
+    }
+
+    private static class MonitorThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private MonitorThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
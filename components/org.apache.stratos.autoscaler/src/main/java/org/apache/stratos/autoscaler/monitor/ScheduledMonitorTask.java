@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.monitor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.HashedTimerWheel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A task scheduled in the {@link MonitorScheduler}. Keeps the execution time metrics of the task.
+ */
+public class ScheduledMonitorTask extends HashedTimerWheel.Timeout implements Runnable {
+
+    private static final Log log = LogFactory.getLog(ScheduledMonitorTask.class);
+
+    private final MonitorScheduler scheduler;
+    private final String taskId;
+    private final Runnable task;
+    private final Runnable skipHandler;
+    private final long intervalMillis;
+    private final AtomicBoolean executing;
+    private volatile boolean cancelled;
+
+    private final AtomicLong executionCount;
+    private final AtomicLong skippedCount;
+    private final AtomicLong totalExecutionTime;
+    private volatile long lastExecutionTime;
+    private final AtomicLong maxExecutionTime;
+
+    ScheduledMonitorTask(MonitorScheduler scheduler, String taskId, Runnable task, long intervalMillis,
+                         Runnable skipHandler) {
+        this.scheduler = scheduler;
+        this.taskId = taskId;
+        this.task = task;
+        this.skipHandler = skipHandler;
+        this.intervalMillis = intervalMillis;
+        this.executing = new AtomicBoolean(false);
+        this.executionCount = new AtomicLong();
+        this.skippedCount = new AtomicLong();
+        this.totalExecutionTime = new AtomicLong();
+        this.maxExecutionTime = new AtomicLong();
+    }
+
+    @Override
+    public void run() {
+        long startTime = System.currentTimeMillis();
+        try {
+            if (!cancelled) {
+                task.run();
+            }
+        } catch (Exception e) {
+            log.error(String.format("Monitor task failed: [task] %s", taskId), e);
+        } finally {
+            long executionTime = System.currentTimeMillis() - startTime;
+            executionCount.incrementAndGet();
+            totalExecutionTime.addAndGet(executionTime);
+            lastExecutionTime = executionTime;
+            updateMaxExecutionTime(executionTime);
+            if ((intervalMillis > 0) && (executionTime > intervalMillis)) {
+                log.warn(String.format("Monitor task took longer than its interval: [task] %s [time] %d ms " +
+                        "[interval] %d ms", taskId, executionTime, intervalMillis));
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("Monitor task executed: [task] %s [time] %d ms", taskId, executionTime));
+            }
+            release();
+        }
+    }
+
+    @Override
+    protected long expire() {
+        scheduler.dispatch(this);
+        return intervalMillis;
+    }
+
+    /**
+     * Cancel the task, an execution in progress is allowed to complete.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public long getExecutionCount() {
+        return executionCount.get();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getLastExecutionTime() {
+        return lastExecutionTime;
+    }
+
+    public long getMaxExecutionTime() {
+        return maxExecutionTime.get();
+    }
+
+    public double getAverageExecutionTime() {
+        long count = executionCount.get();
+        return (count > 0) ? ((double) totalExecutionTime.get() / count) : 0;
+    }
+
+    private void updateMaxExecutionTime(long executionTime) {
+        long maxTime = maxExecutionTime.get();
+        while ((executionTime > maxTime) && !maxExecutionTime.compareAndSet(maxTime, executionTime)) {
+            maxTime = maxExecutionTime.get();
+        }
+    }
+
+    boolean tryAcquire() {
+        return executing.compareAndSet(false, true);
+    }
+
+    void release() {
+        executing.set(false);
+    }
+
+    void executionSkipped() {
+        skippedCount.incrementAndGet();
+        if (skipHandler != null) {
+            try {
+                skipHandler.run();
+            } catch (Exception e) {
+                log.error(String.format("Monitor task skip handler failed: [task] %s", taskId), e);
+            }
+        }
+    }
+}
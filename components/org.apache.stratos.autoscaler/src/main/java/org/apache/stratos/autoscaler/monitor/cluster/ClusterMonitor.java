@@ -38,6 +38,8 @@ import org.apache.stratos.autoscaler.exception.cartridge.TerminationException;
 import org.apache.stratos.autoscaler.exception.partition.PartitionValidationException;
 import org.apache.stratos.autoscaler.exception.policy.PolicyValidationException;
 import org.apache.stratos.autoscaler.monitor.Monitor;
+import org.apache.stratos.autoscaler.monitor.MonitorScheduler;
+import org.apache.stratos.autoscaler.monitor.ScheduledMonitorTask;
 import org.apache.stratos.autoscaler.monitor.events.MonitorStatusEvent;
 import org.apache.stratos.autoscaler.monitor.events.ScalingEvent;
 import org.apache.stratos.autoscaler.monitor.events.ScalingUpBeyondMaxEvent;
@@ -54,7 +56,6 @@ import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
 import org.apache.stratos.common.Properties;
 import org.apache.stratos.common.Property;
 import org.apache.stratos.common.constants.StratosConstants;
-import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.domain.application.ApplicationStatus;
 import org.apache.stratos.messaging.domain.application.GroupStatus;
 import org.apache.stratos.messaging.domain.instance.ClusterInstance;
@@ -71,9 +72,7 @@ import org.drools.runtime.StatefulKnowledgeSession;
 import org.drools.runtime.rule.FactHandle;
 
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -83,8 +82,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class ClusterMonitor extends Monitor implements Runnable {
 
-    private final ScheduledExecutorService scheduler;
-    private final ExecutorService executorService;
+    // Drools sessions are not thread safe, rule evaluations are serialized using this lock
+    private final Object ruleEvaluationLock = new Object();
+    private volatile ScheduledMonitorTask scheduledMonitorTask;
+    private boolean eventDrivenEvaluationEnabled;
+    private long eventDrivenEvaluationDelay;
+    private long eventDrivenEvaluationMinInterval;
+    // Map<ClusterInstanceId, Boolean> of cluster instances with a pending event driven evaluation
+    private final Map<String, Boolean> pendingEvaluations = new ConcurrentHashMap<String, Boolean>();
+    // Map<ClusterInstanceId, Long> time of the last rule evaluation of each cluster instance
+    private final Map<String, Long> lastEvaluationTimes = new ConcurrentHashMap<String, Long>();
 
     protected FactHandle minCheckFactHandle;
     protected FactHandle obsoleteCheckFactHandle;
@@ -103,7 +110,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
     protected String clusterId;
     private Cluster cluster;
     private int monitoringIntervalMilliseconds;
-    private boolean isDestroyed;
+    private volatile boolean isDestroyed;
     //has scaling dependents
     private boolean hasScalingDependents;
     private boolean groupScalingEnabledSubtree;
@@ -116,11 +123,6 @@ public class ClusterMonitor extends Monitor implements Runnable {
 
     public ClusterMonitor(Cluster cluster, boolean hasScalingDependents, boolean groupScalingEnabledSubtree) {
 
-        scheduler = StratosThreadPool.getScheduledExecutorService(AutoscalerConstants.CLUSTER_MONITOR_SCHEDULER_ID, 1);
-        int threadPoolSize = Integer.getInteger(AutoscalerConstants.CLUSTER_MONITOR_THREAD_POOL_SIZE, 50);
-        executorService = StratosThreadPool.getExecutorService(
-                AutoscalerConstants.CLUSTER_MONITOR_THREAD_POOL_ID, threadPoolSize);
-
         networkPartitionIdToClusterLevelNetworkPartitionCtxts = new HashMap<String, ClusterLevelNetworkPartitionContext>();
         readConfigurations();
         autoscalerRuleEvaluator = new AutoscalerRuleEvaluator();
@@ -147,7 +149,15 @@ public class ClusterMonitor extends Monitor implements Runnable {
     }
 
     public void startScheduler() {
-        scheduler.scheduleAtFixedRate(this, 0, getMonitorIntervalMilliseconds(), TimeUnit.MILLISECONDS);
+        scheduledMonitorTask = MonitorScheduler.getInstance().schedule(getClusterId(), this,
+                getMonitorIntervalMilliseconds());
+    }
+
+    /**
+     * Returns the scheduled task of this monitor, which provides rule evaluation timing metrics.
+     */
+    public ScheduledMonitorTask getScheduledMonitorTask() {
+        return scheduledMonitorTask;
     }
 
     @Override
@@ -418,6 +428,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 clusterInstanceId);
         if (null != clusterInstanceContext) {
             clusterInstanceContext.setAverageLoadAverage(value);
+            requestRuleEvaluation(clusterInstanceContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -428,22 +439,17 @@ public class ClusterMonitor extends Monitor implements Runnable {
 
     @Override
     public void run() {
-        while (!isDestroyed()) {
-            try {
-                if (log.isDebugEnabled()) {
-                    log.debug("Cluster monitor is running.. " + this.toString());
-                }
-                monitor();
-            } catch (Exception e) {
-                log.error("Cluster monitor: Monitor failed." + this.toString(), e);
-            }
-            try {
-                Thread.sleep(getMonitorIntervalMilliseconds());
-            } catch (InterruptedException ignore) {
+        if (isDestroyed()) {
+            return;
+        }
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Cluster monitor is running.. " + this.toString());
             }
+            monitor();
+        } catch (Exception e) {
+            log.error("Cluster monitor: Monitor failed." + this.toString(), e);
         }
-
-
     }
 
     private boolean isPrimaryMember(MemberContext memberContext) {
@@ -465,137 +471,229 @@ public class ClusterMonitor extends Monitor implements Runnable {
         return false;
     }
 
-    public synchronized void monitor() {
-
-        for (ClusterLevelNetworkPartitionContext networkPartitionContext : getNetworkPartitionCtxts()) {
-
-            final Collection<InstanceContext> clusterInstanceContexts = networkPartitionContext.
-                    getInstanceIdToInstanceContextMap().values();
-
-            for (final InstanceContext pInstanceContext : clusterInstanceContexts) {
-                final ClusterInstanceContext instanceContext = (ClusterInstanceContext) pInstanceContext;
-                ClusterInstance instance = (ClusterInstance) this.instanceIdToInstanceMap.
-                        get(instanceContext.getId());
-
-                if ((instance.getStatus().getCode() <= ClusterStatus.Active.getCode()) ||
-                        (instance.getStatus() == ClusterStatus.Inactive && !hasStartupDependents)
-                                && !this.hasFaultyMember) {
-
-                    Runnable monitoringRunnable = new Runnable() {
-                        @Override
-                        public void run() {
-
-                            if (log.isDebugEnabled()) {
-                                log.debug("Monitor is running for [cluster] : " + getClusterId());
-                            }
-                            // store primary members in the cluster instance context
-                            List<String> primaryMemberListInClusterInstance = new ArrayList<String>();
-
-                            for (ClusterLevelPartitionContext partitionContext :
-                                                            instanceContext.getPartitionCtxts()) {
-
-                                // get active primary members in this cluster instance context
-                                for (MemberContext memberContext : partitionContext.getActiveMembers()) {
-                                    if (isPrimaryMember(memberContext)) {
-                                        primaryMemberListInClusterInstance.add(memberContext.getMemberId());
-                                    }
-                                }
-
-                                // get pending primary members in this cluster instance context
-                                for (MemberContext memberContext : partitionContext.getPendingMembers()) {
-                                    if (isPrimaryMember(memberContext)) {
-                                        primaryMemberListInClusterInstance.add(memberContext.getMemberId());
-                                    }
-                                }
-
-                                obsoleteCheckFactHandle = AutoscalerRuleEvaluator.evaluate(
-                                        getObsoleteCheckKnowledgeSession(), obsoleteCheckFactHandle, partitionContext);
-
-                            }
-
-                            getScaleCheckKnowledgeSession().setGlobal("primaryMembers", primaryMemberListInClusterInstance);
-                            getMinCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
-                            getMinCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
-                            //FIXME when parent chosen the partition
-                            String paritionAlgo = instanceContext.getPartitionAlgorithm();
-
-                            getMinCheckKnowledgeSession().setGlobal("algorithmName",
-                                    paritionAlgo);
-
-                            if (log.isDebugEnabled()) {
-                                log.debug(String.format("Running minimum check for cluster instance %s ",
-                                        instanceContext.getId() + " for the cluster: " + clusterId));
-                            }
-
-                            minCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getMinCheckKnowledgeSession(),
-                                    minCheckFactHandle, instanceContext);
-
-
-                            //checking the status of the cluster
-                            boolean rifReset = instanceContext.isRifReset();
-                            boolean memoryConsumptionReset = instanceContext.isMemoryConsumptionReset();
-                            boolean loadAverageReset = instanceContext.isLoadAverageReset();
-                            boolean averageRequestServedPerInstanceReset
-                                    = instanceContext.isAverageRequestServedPerInstanceReset();
-
-                            if (log.isDebugEnabled()) {
-                                log.debug("Execution point of scaling Rule, [Is rif Reset] : " + rifReset
-                                        + " [Is memoryConsumption Reset] : " + memoryConsumptionReset
-                                        + " [Is loadAverage Reset] : " + loadAverageReset);
-                            }
-
-                            if (rifReset || memoryConsumptionReset || loadAverageReset) {
-
-                                log.info("Executing scaling rule as statistics have been reset");
-                                ClusterContext vmClusterContext = (ClusterContext) clusterContext;
-
-                                getScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
-                                getScaleCheckKnowledgeSession().setGlobal("rifReset", rifReset);
-                                getScaleCheckKnowledgeSession().setGlobal("mcReset", memoryConsumptionReset);
-                                getScaleCheckKnowledgeSession().setGlobal("laReset", loadAverageReset);
-                                getScaleCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
-                                getScaleCheckKnowledgeSession().setGlobal("algorithmName", paritionAlgo);
-                                getScaleCheckKnowledgeSession().setGlobal("autoscalePolicy",
-                                        vmClusterContext.getAutoscalePolicy());
-                                getScaleCheckKnowledgeSession().setGlobal("arspiReset",
-                                        averageRequestServedPerInstanceReset);
-                                getScaleCheckKnowledgeSession().setGlobal("primaryMembers",
-                                        primaryMemberListInClusterInstance);
-
-                                if (log.isDebugEnabled()) {
-                                    log.debug(String.format("Running scale check for [cluster instance context] %s ",
-                                            instanceContext.getId()));
-                                    log.debug(" Primary members : " + primaryMemberListInClusterInstance);
-                                }
-
-                                scaleCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getScaleCheckKnowledgeSession()
-                                        , scaleCheckFactHandle, instanceContext);
-
-                                instanceContext.setRifReset(false);
-                                instanceContext.setMemoryConsumptionReset(false);
-                                instanceContext.setLoadAverageReset(false);
-                            } else if (log.isDebugEnabled()) {
-                                log.debug(String.format("Scale rule will not run since the LB statistics have not " +
-                                                "received before this cycle for [cluster instance context] %s [cluster] %s",
-                                        instanceContext.getId(), clusterId));
-                            }
+    public void monitor() {
+        synchronized (ruleEvaluationLock) {
+            if (isDestroyed()) {
+                return;
+            }
+            refreshKnowledgeSessions();
+
+            for (ClusterLevelNetworkPartitionContext networkPartitionContext : getNetworkPartitionCtxts()) {
 
-                        }
-                    };
-                    executorService.execute(monitoringRunnable);
+                final Collection<InstanceContext> clusterInstanceContexts = networkPartitionContext.
+                        getInstanceIdToInstanceContextMap().values();
+
+                for (final InstanceContext pInstanceContext : clusterInstanceContexts) {
+                    final ClusterInstanceContext instanceContext = (ClusterInstanceContext) pInstanceContext;
+                    ClusterInstance instance = (ClusterInstance) getInstance(instanceContext.getId());
+
+                    if (isRuleEvaluationRequired(instance)) {
+                        evaluateClusterInstance(instanceContext);
+                    }
+
+                    for (final ClusterLevelPartitionContext partitionContext : instanceContext.getPartitionCtxts()) {
+                        obsoleteCheckFactHandle = AutoscalerRuleEvaluator.evaluate(
+                                getObsoleteCheckKnowledgeSession(), obsoleteCheckFactHandle, partitionContext);
+                    }
                 }
+            }
+        }
+    }
+
+    private boolean isRuleEvaluationRequired(ClusterInstance instance) {
+        return (instance != null) && ((instance.getStatus().getCode() <= ClusterStatus.Active.getCode()) ||
+                (instance.getStatus() == ClusterStatus.Inactive && !hasStartupDependents)
+                        && !this.hasFaultyMember);
+    }
+
+    /**
+     * Request an evaluation of the scaling rules of the given cluster instance as fresh health
+     * statistics have been received. Requests received while an evaluation is pending are coalesced
+     * into it, the evaluation is delayed so that related statistics of the same window arrive before
+     * it runs, and consecutive evaluations of a cluster instance are at least the configured minimum
+     * interval apart.
+     */
+    private void requestRuleEvaluation(final ClusterInstanceContext instanceContext) {
+        if (!eventDrivenEvaluationEnabled || isDestroyed() || (scheduledMonitorTask == null)) {
+            return;
+        }
+        final String instanceId = instanceContext.getId();
+        if (pendingEvaluations.put(instanceId, Boolean.TRUE) != null) {
+            // An evaluation is already pending for this cluster instance
+            return;
+        }
+
+        long delay = eventDrivenEvaluationDelay;
+        Long lastEvaluationTime = lastEvaluationTimes.get(instanceId);
+        if (lastEvaluationTime != null) {
+            long nextEvaluationTime = lastEvaluationTime + eventDrivenEvaluationMinInterval;
+            delay = Math.max(delay, nextEvaluationTime - System.currentTimeMillis());
+        }
 
-                for (final ClusterLevelPartitionContext partitionContext : instanceContext.getPartitionCtxts()) {
-                    Runnable monitoringRunnable = new Runnable() {
-                        @Override
-                        public void run() {
-                            obsoleteCheckFactHandle = AutoscalerRuleEvaluator.evaluate(
-                                    getObsoleteCheckKnowledgeSession(), obsoleteCheckFactHandle, partitionContext);
+        MonitorScheduler.getInstance().scheduleOnce(getClusterId() + "/" + instanceId, new Runnable() {
+            @Override
+            public void run() {
+                pendingEvaluations.remove(instanceId);
+                synchronized (ruleEvaluationLock) {
+                    if (isDestroyed()) {
+                        return;
+                    }
+                    ClusterInstance instance = (ClusterInstance) getInstance(instanceId);
+                    if (isRuleEvaluationRequired(instance)) {
+                        if (log.isDebugEnabled()) {
+                            log.debug(String.format("Running event driven rule evaluation: [cluster] %s " +
+                                    "[cluster-instance] %s", getClusterId(), instanceId));
                         }
-                    };
-                    executorService.execute(monitoringRunnable);
+                        evaluateClusterInstance(instanceContext);
+                    }
                 }
             }
+        }, delay, new Runnable() {
+            @Override
+            public void run() {
+                // Evaluation was not executed, allow the next statistics event to request one
+                pendingEvaluations.remove(instanceId);
+            }
+        });
+    }
+
+    /**
+     * Run the obsolete, minimum and scaling rules against the given cluster instance. Should be
+     * called holding the rule evaluation lock since drools sessions are not thread safe.
+     */
+    private void evaluateClusterInstance(ClusterInstanceContext instanceContext) {
+        lastEvaluationTimes.put(instanceContext.getId(), System.currentTimeMillis());
+        if (log.isDebugEnabled()) {
+            log.debug("Monitor is running for [cluster] : " + getClusterId());
+        }
+        // store primary members in the cluster instance context
+        List<String> primaryMemberListInClusterInstance = new ArrayList<String>();
+
+        for (ClusterLevelPartitionContext partitionContext :
+                                        instanceContext.getPartitionCtxts()) {
+
+            // get active primary members in this cluster instance context
+            for (MemberContext memberContext : partitionContext.getActiveMembers()) {
+                if (isPrimaryMember(memberContext)) {
+                    primaryMemberListInClusterInstance.add(memberContext.getMemberId());
+                }
+            }
+
+            // get pending primary members in this cluster instance context
+            for (MemberContext memberContext : partitionContext.getPendingMembers()) {
+                if (isPrimaryMember(memberContext)) {
+                    primaryMemberListInClusterInstance.add(memberContext.getMemberId());
+                }
+            }
+
+            obsoleteCheckFactHandle = AutoscalerRuleEvaluator.evaluate(
+                    getObsoleteCheckKnowledgeSession(), obsoleteCheckFactHandle, partitionContext);
+
+        }
+
+        getScaleCheckKnowledgeSession().setGlobal("primaryMembers", primaryMemberListInClusterInstance);
+        getMinCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
+        getMinCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
+        //FIXME when parent chosen the partition
+        String paritionAlgo = instanceContext.getPartitionAlgorithm();
+
+        getMinCheckKnowledgeSession().setGlobal("algorithmName",
+                paritionAlgo);
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Running minimum check for cluster instance %s ",
+                    instanceContext.getId() + " for the cluster: " + clusterId));
+        }
+
+        minCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getMinCheckKnowledgeSession(),
+                minCheckFactHandle, instanceContext);
+
+
+        //checking the status of the cluster
+        boolean rifReset = instanceContext.isRifReset();
+        boolean memoryConsumptionReset = instanceContext.isMemoryConsumptionReset();
+        boolean loadAverageReset = instanceContext.isLoadAverageReset();
+        boolean averageRequestServedPerInstanceReset
+                = instanceContext.isAverageRequestServedPerInstanceReset();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Execution point of scaling Rule, [Is rif Reset] : " + rifReset
+                    + " [Is memoryConsumption Reset] : " + memoryConsumptionReset
+                    + " [Is loadAverage Reset] : " + loadAverageReset);
+        }
+
+        if (rifReset || memoryConsumptionReset || loadAverageReset) {
+
+            log.info("Executing scaling rule as statistics have been reset");
+            ClusterContext vmClusterContext = (ClusterContext) clusterContext;
+
+            getScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
+            getScaleCheckKnowledgeSession().setGlobal("rifReset", rifReset);
+            getScaleCheckKnowledgeSession().setGlobal("mcReset", memoryConsumptionReset);
+            getScaleCheckKnowledgeSession().setGlobal("laReset", loadAverageReset);
+            getScaleCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
+            getScaleCheckKnowledgeSession().setGlobal("algorithmName", paritionAlgo);
+            getScaleCheckKnowledgeSession().setGlobal("autoscalePolicy",
+                    vmClusterContext.getAutoscalePolicy());
+            getScaleCheckKnowledgeSession().setGlobal("arspiReset",
+                    averageRequestServedPerInstanceReset);
+            getScaleCheckKnowledgeSession().setGlobal("primaryMembers",
+                    primaryMemberListInClusterInstance);
+
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Running scale check for [cluster instance context] %s ",
+                        instanceContext.getId()));
+                log.debug(" Primary members : " + primaryMemberListInClusterInstance);
+            }
+
+            scaleCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getScaleCheckKnowledgeSession()
+                    , scaleCheckFactHandle, instanceContext);
+
+            instanceContext.setRifReset(false);
+            instanceContext.setMemoryConsumptionReset(false);
+            instanceContext.setLoadAverageReset(false);
+        } else if (log.isDebugEnabled()) {
+            log.debug(String.format("Scale rule will not run since the LB statistics have not " +
+                            "received before this cycle for [cluster instance context] %s [cluster] %s",
+                    instanceContext.getId(), clusterId));
+        }
+    }
+
+    /**
+     * Replace the drools sessions of which the rule files have been modified since they were created.
+     */
+    private void refreshKnowledgeSessions() {
+        if (autoscalerRuleEvaluator.isStatefulSessionOutdated(StratosConstants.OBSOLETE_CHECK_DROOL_FILE,
+                obsoleteCheckKnowledgeSession)) {
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.OBSOLETE_CHECK_DROOL_FILE,
+                    obsoleteCheckKnowledgeSession);
+            obsoleteCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
+                    StratosConstants.OBSOLETE_CHECK_DROOL_FILE);
+            obsoleteCheckFactHandle = null;
+        }
+        if (autoscalerRuleEvaluator.isStatefulSessionOutdated(StratosConstants.SCALE_CHECK_DROOL_FILE,
+                scaleCheckKnowledgeSession)) {
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.SCALE_CHECK_DROOL_FILE,
+                    scaleCheckKnowledgeSession);
+            scaleCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
+                    StratosConstants.SCALE_CHECK_DROOL_FILE);
+            scaleCheckFactHandle = null;
+        }
+        if (autoscalerRuleEvaluator.isStatefulSessionOutdated(StratosConstants.MIN_CHECK_DROOL_FILE,
+                minCheckKnowledgeSession)) {
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.MIN_CHECK_DROOL_FILE,
+                    minCheckKnowledgeSession);
+            minCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
+                    StratosConstants.MIN_CHECK_DROOL_FILE);
+            minCheckFactHandle = null;
+        }
+        if (autoscalerRuleEvaluator.isStatefulSessionOutdated(StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE,
+                dependentScaleCheckKnowledgeSession)) {
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE,
+                    dependentScaleCheckKnowledgeSession);
+            dependentScaleCheckKnowledgeSession = autoscalerRuleEvaluator.getStatefulSession(
+                    StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE);
+            dependentScaleCheckFactHandle = null;
         }
     }
 
@@ -603,19 +701,57 @@ public class ClusterMonitor extends Monitor implements Runnable {
         XMLConfiguration conf = ConfUtil.getInstance(null).getConfiguration();
         int monitorInterval = conf.getInt(AutoscalerConstants.Cluster_MONITOR_INTERVAL, 90000);
         setMonitorIntervalMilliseconds(monitorInterval);
+        eventDrivenEvaluationEnabled = conf.getBoolean(
+                AutoscalerConstants.CLUSTER_EVENT_DRIVEN_EVALUATION_ENABLED, true);
+        eventDrivenEvaluationDelay = conf.getLong(AutoscalerConstants.CLUSTER_EVENT_DRIVEN_EVALUATION_DELAY, 2000);
+        eventDrivenEvaluationMinInterval = conf.getLong(
+                AutoscalerConstants.CLUSTER_EVENT_DRIVEN_EVALUATION_MIN_INTERVAL, 15000);
         if (log.isDebugEnabled()) {
             log.debug("ClusterMonitor task interval set to : " + getMonitorIntervalMilliseconds());
+            log.debug(String.format("ClusterMonitor event driven evaluation: [enabled] %s [delay] %d " +
+                    "[min-interval] %d", eventDrivenEvaluationEnabled, eventDrivenEvaluationDelay,
+                    eventDrivenEvaluationMinInterval));
         }
     }
 
     @Override
-    public void destroy() {
-        getMinCheckKnowledgeSession().dispose();
-        getObsoleteCheckKnowledgeSession().dispose();
-        getScaleCheckKnowledgeSession().dispose();
+    public void removeInstance(String instanceId) {
+        super.removeInstance(instanceId);
+        // Evaluations started after the instance is removed do not find it, hence taking the lock
+        // ensures that a running evaluation does not add the entries back
+        synchronized (ruleEvaluationLock) {
+            lastEvaluationTimes.remove(instanceId);
+            pendingEvaluations.remove(instanceId);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (isDestroyed()) {
+            return;
+        }
+        if (scheduledMonitorTask != null) {
+            scheduledMonitorTask.cancel();
+        }
         setDestroyed(true);
+        synchronized (ruleEvaluationLock) {
+            // Return drools sessions to the session pool, rules are not evaluated once the monitor
+            // is destroyed, hence the sessions can be reused by other monitors
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.MIN_CHECK_DROOL_FILE,
+                    minCheckKnowledgeSession);
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.OBSOLETE_CHECK_DROOL_FILE,
+                    obsoleteCheckKnowledgeSession);
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.SCALE_CHECK_DROOL_FILE,
+                    scaleCheckKnowledgeSession);
+            autoscalerRuleEvaluator.releaseStatefulSession(StratosConstants.DEPENDENT_SCALE_CHECK_DROOL_FILE,
+                    dependentScaleCheckKnowledgeSession);
+            minCheckKnowledgeSession = null;
+            obsoleteCheckKnowledgeSession = null;
+            scaleCheckKnowledgeSession = null;
+            dependentScaleCheckKnowledgeSession = null;
+        }
         if (log.isDebugEnabled()) {
-            log.debug("ClusterMonitor Drools session has been disposed. " + this.toString());
+            log.debug("ClusterMonitor Drools sessions have been returned to the session pool. " + this.toString());
         }
     }
 
@@ -707,13 +843,18 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 vmClusterContext.getAutoscalePolicy().getInstanceRoundingFactor());
         clusterInstanceContext.setRequiredInstanceCountBasedOnDependencies(roundedRequiredInstanceCount);
 
-        getDependentScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
-        getDependentScaleCheckKnowledgeSession().setGlobal("roundedRequiredInstanceCount", roundedRequiredInstanceCount);
-        getDependentScaleCheckKnowledgeSession().setGlobal("algorithmName", clusterInstanceContext.getPartitionAlgorithm());
-        getDependentScaleCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
-        getDependentScaleCheckKnowledgeSession().setGlobal("primaryMembers", primaryMemberListInClusterInstance);
-        dependentScaleCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getDependentScaleCheckKnowledgeSession()
-                , dependentScaleCheckFactHandle, clusterInstanceContext);
+        synchronized (ruleEvaluationLock) {
+            if (isDestroyed()) {
+                return;
+            }
+            getDependentScaleCheckKnowledgeSession().setGlobal("clusterId", getClusterId());
+            getDependentScaleCheckKnowledgeSession().setGlobal("roundedRequiredInstanceCount", roundedRequiredInstanceCount);
+            getDependentScaleCheckKnowledgeSession().setGlobal("algorithmName", clusterInstanceContext.getPartitionAlgorithm());
+            getDependentScaleCheckKnowledgeSession().setGlobal("isPrimary", hasPrimary);
+            getDependentScaleCheckKnowledgeSession().setGlobal("primaryMembers", primaryMemberListInClusterInstance);
+            dependentScaleCheckFactHandle = AutoscalerRuleEvaluator.evaluate(getDependentScaleCheckKnowledgeSession()
+                    , dependentScaleCheckFactHandle, clusterInstanceContext);
+        }
 
     }
 
@@ -749,6 +890,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, instanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setLoadAverageGradient(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -772,6 +914,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setLoadAverageSecondDerivative(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -795,6 +938,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setAverageMemoryConsumption(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String
@@ -819,6 +963,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setMemoryConsumptionGradient(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -842,6 +987,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setMemoryConsumptionSecondDerivative(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -867,7 +1013,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setAverageRequestsServedPerInstance(floatValue);
-
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -898,6 +1044,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setAverageRequestsInFlight(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -921,6 +1068,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setRequestsInFlightGradient(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -944,6 +1092,7 @@ public class ClusterMonitor extends Monitor implements Runnable {
                 networkPartitionId, clusterInstanceId);
         if (null != clusterLevelNetworkPartitionContext) {
             clusterLevelNetworkPartitionContext.setRequestsInFlightSecondDerivative(value);
+            requestRuleEvaluation(clusterLevelNetworkPartitionContext);
         } else {
             if (log.isDebugEnabled()) {
                 log.debug(String.format("Network partition context is not available for :" +
@@ -1101,8 +1250,8 @@ public class ClusterMonitor extends Monitor implements Runnable {
             return;
         }
 
-        // move member to obsolete list
-        synchronized (this) {
+        // move member to obsolete list, obsolete members are read by the rules
+        synchronized (ruleEvaluationLock) {
             partitionCtxt.moveMemberToObsoleteList(memberId);
         }
         if (log.isDebugEnabled()) {
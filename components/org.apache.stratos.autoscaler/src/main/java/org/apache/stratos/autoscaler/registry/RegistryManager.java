@@ -46,6 +46,7 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class RegistryManager {
 
@@ -290,6 +291,47 @@ public class RegistryManager {
         }
     }
 
+    /**
+     * Persist serialized applications in a single registry transaction.
+     *
+     * @param applicationIdToContent serialized applications keyed by application id
+     */
+    public void persistApplications(Map<String, byte[]> applicationIdToContent) {
+        if (applicationIdToContent.isEmpty()) {
+            return;
+        }
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+            carbonContext.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+
+            registryService.beginTransaction();
+            for (Map.Entry<String, byte[]> entry : applicationIdToContent.entrySet()) {
+                Resource nodeResource = registryService.newResource();
+                nodeResource.setContent(entry.getValue());
+                registryService.put(AutoscalerConstants.AUTOSCALER_RESOURCE +
+                        AutoscalerConstants.APPLICATIONS_RESOURCE + "/" + entry.getKey(), nodeResource);
+            }
+            registryService.commitTransaction();
+            if (log.isDebugEnabled()) {
+                log.debug("Applications " + applicationIdToContent.keySet() +
+                        " persisted successfully in the Autoscaler Registry");
+            }
+        } catch (Exception e) {
+            try {
+                registryService.rollbackTransaction();
+            } catch (RegistryException e1) {
+                if (log.isErrorEnabled()) {
+                    log.error("Could not rollback transaction", e1);
+                }
+            }
+            throw new AutoScalerException("Could not persist applications in registry", e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
     public String[] getApplicationResourcePaths() {
         try {
             PrivilegedCarbonContext.startTenantFlow();
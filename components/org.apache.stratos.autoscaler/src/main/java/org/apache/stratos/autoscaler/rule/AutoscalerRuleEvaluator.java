@@ -22,36 +22,26 @@ package org.apache.stratos.autoscaler.rule;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.constants.StratosConstants;
-import org.drools.KnowledgeBase;
-import org.drools.KnowledgeBaseFactory;
-import org.drools.builder.*;
-import org.drools.io.Resource;
-import org.drools.io.ResourceFactory;
 import org.drools.runtime.StatefulKnowledgeSession;
 import org.drools.runtime.rule.FactHandle;
 import org.wso2.carbon.utils.CarbonUtils;
 
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * This class is responsible for evaluating the current details of topology, statistics, and health
- * status against the rules set(written in Drools)
+ * status against the rules set(written in Drools). Compiled knowledge bases and stateful sessions
+ * are shared across evaluators via {@link KnowledgeBaseCache}.
  */
 public class AutoscalerRuleEvaluator {
 	
 	private static final Log log = LogFactory.getLog(AutoscalerRuleEvaluator.class);
 
-    private static Map<String, KnowledgeBase> knowledgeBases;
-
     public AutoscalerRuleEvaluator(){
-        knowledgeBases = new HashMap<String, KnowledgeBase>();
     }
 
     public void parseAndBuildKnowledgeBaseForDroolsFile(String drlFileName){
-        knowledgeBases.put(drlFileName, readKnowledgeBase(drlFileName));
+        KnowledgeBaseCache.getInstance().getKnowledgeBase(getDroolsFile(drlFileName));
 
         if (log.isDebugEnabled()) {
             log.debug("Drools file is parsed successfully: " + drlFileName);
@@ -73,27 +63,27 @@ public class AutoscalerRuleEvaluator {
     }
 
     public StatefulKnowledgeSession getStatefulSession(String drlFileName) {
-        StatefulKnowledgeSession ksession;
-        ksession = knowledgeBases.get(drlFileName).newStatefulKnowledgeSession();
-        ksession.setGlobal("log", RuleLog.getInstance());
-        return ksession;
+        return KnowledgeBaseCache.getInstance().borrowSession(getDroolsFile(drlFileName));
+    }
+
+    /**
+     * Release a stateful session obtained via {@link #getStatefulSession(String)}, the session
+     * should not be used afterwards.
+     */
+    public void releaseStatefulSession(String drlFileName, StatefulKnowledgeSession ksession) {
+        KnowledgeBaseCache.getInstance().returnSession(getDroolsFile(drlFileName), ksession);
     }
 
-    private static KnowledgeBase readKnowledgeBase(String drlFileName) {
-        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+    /**
+     * Returns true if the drools file has been modified after the given session was created.
+     */
+    public boolean isStatefulSessionOutdated(String drlFileName, StatefulKnowledgeSession ksession) {
+        return !KnowledgeBaseCache.getInstance().isCurrent(getDroolsFile(drlFileName), ksession);
+    }
+
+    private static File getDroolsFile(String drlFileName) {
         String configDir = CarbonUtils.getCarbonConfigDirPath();
         String droolsDir = configDir + File.separator + StratosConstants.DROOLS_DIR_NAME;
-        Resource resource = ResourceFactory.newFileResource(droolsDir + File.separator + drlFileName);
-		kbuilder.add(resource, ResourceType.DRL);
-        KnowledgeBuilderErrors errors = kbuilder.getErrors();
-        if (errors.size() > 0) {
-            for (KnowledgeBuilderError error: errors) {
-                log.error(error.getMessage());
-            }
-            throw new IllegalArgumentException("Could not parse knowledge");
-        }
-        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
-        kbase.addKnowledgePackages(kbuilder.getKnowledgePackages());
-        return kbase;
+        return new File(droolsDir + File.separator + drlFileName);
     }
 }
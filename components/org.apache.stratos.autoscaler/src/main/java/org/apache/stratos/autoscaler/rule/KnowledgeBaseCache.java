@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.rule;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.drools.KnowledgeBase;
+import org.drools.KnowledgeBaseFactory;
+import org.drools.builder.*;
+import org.drools.definition.KnowledgePackage;
+import org.drools.definition.rule.Global;
+import org.drools.io.ResourceFactory;
+import org.drools.runtime.StatefulKnowledgeSession;
+import org.drools.runtime.rule.FactHandle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process wide cache of compiled drools knowledge bases. A knowledge base is compiled once per drools
+ * file and is only recompiled when the content of the file changes. Stateful sessions created from the
+ * cached knowledge bases are pooled, so that monitors can be created without compiling rules or
+ * building sessions from scratch.
+ */
+public class KnowledgeBaseCache {
+
+    private static final Log log = LogFactory.getLog(KnowledgeBaseCache.class);
+
+    private static final String FILE_CHECK_INTERVAL = "autoscaler.rule.file.check.interval";
+    private static final String SESSION_POOL_SIZE = "autoscaler.rule.session.pool.size";
+    private static final String LOG_GLOBAL = "log";
+
+    private static volatile KnowledgeBaseCache instance;
+
+    // Map<DroolsFilePath, KnowledgeBaseEntry>
+    private final ConcurrentHashMap<String, KnowledgeBaseEntry> knowledgeBaseEntries;
+    private final long fileCheckInterval;
+    private final int sessionPoolSize;
+
+    private KnowledgeBaseCache() {
+        knowledgeBaseEntries = new ConcurrentHashMap<String, KnowledgeBaseEntry>();
+        fileCheckInterval = Long.getLong(FILE_CHECK_INTERVAL, 10000);
+        sessionPoolSize = Integer.getInteger(SESSION_POOL_SIZE, 200);
+    }
+
+    public static KnowledgeBaseCache getInstance() {
+        if (instance == null) {
+            synchronized (KnowledgeBaseCache.class) {
+                if (instance == null) {
+                    instance = new KnowledgeBaseCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the compiled knowledge base of the given drools file. The file is checked for changes at
+     * most once per check interval and recompiled only if its content has changed.
+     * @param drlFile drools file
+     * @return knowledge base
+     */
+    public KnowledgeBase getKnowledgeBase(File drlFile) {
+        KnowledgeBaseEntry entry = getEntry(drlFile);
+        long now = System.currentTimeMillis();
+        if ((entry.knowledgeBase == null) || (now - entry.lastCheckedTime >= fileCheckInterval)) {
+            synchronized (entry) {
+                if ((entry.knowledgeBase == null) || (now - entry.lastCheckedTime >= fileCheckInterval)) {
+                    refresh(entry, drlFile, now);
+                }
+            }
+        }
+        return entry.knowledgeBase;
+    }
+
+    /**
+     * Returns a stateful session of the current knowledge base of the given drools file, either from
+     * the session pool or a newly created one.
+     * @param drlFile drools file
+     * @return stateful knowledge session
+     */
+    public StatefulKnowledgeSession borrowSession(File drlFile) {
+        KnowledgeBase knowledgeBase = getKnowledgeBase(drlFile);
+        KnowledgeBaseEntry entry = getEntry(drlFile);
+
+        StatefulKnowledgeSession session;
+        while ((session = entry.idleSessions.poll()) != null) {
+            entry.idleSessionCount.decrementAndGet();
+            if (session.getKnowledgeBase() == knowledgeBase) {
+                return session;
+            }
+            // Session belongs to a previous version of the rules
+            session.dispose();
+        }
+        session = knowledgeBase.newStatefulKnowledgeSession();
+        session.setGlobal(LOG_GLOBAL, RuleLog.getInstance());
+        return session;
+    }
+
+    /**
+     * Return a stateful session to the session pool. All facts of the session are retracted and all
+     * globals other than the rule log are reset, so that the next borrower does not see the cluster
+     * id, load balancer reference or primary members of the previous one. Sessions of an outdated
+     * knowledge base are disposed.
+     * @param drlFile drools file
+     * @param session stateful knowledge session
+     */
+    public void returnSession(File drlFile, StatefulKnowledgeSession session) {
+        if (session == null) {
+            return;
+        }
+        KnowledgeBaseEntry entry = getEntry(drlFile);
+        if ((session.getKnowledgeBase() != entry.knowledgeBase) ||
+                (entry.idleSessionCount.get() >= sessionPoolSize)) {
+            session.dispose();
+            return;
+        }
+        try {
+            List<FactHandle> factHandles = new ArrayList<FactHandle>(session.getFactHandles());
+            for (FactHandle factHandle : factHandles) {
+                session.retract(factHandle);
+            }
+            for (KnowledgePackage knowledgePackage : session.getKnowledgeBase().getKnowledgePackages()) {
+                for (Global global : knowledgePackage.getGlobalVariables()) {
+                    if (!LOG_GLOBAL.equals(global.getName())) {
+                        session.setGlobal(global.getName(), null);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn(String.format("Could not reset drools session, disposing it: [file] %s", drlFile), e);
+            session.dispose();
+            return;
+        }
+        entry.idleSessions.offer(session);
+        entry.idleSessionCount.incrementAndGet();
+    }
+
+    /**
+     * Returns true if the given session was created from the current knowledge base of the drools
+     * file.
+     */
+    public boolean isCurrent(File drlFile, StatefulKnowledgeSession session) {
+        return (session != null) && (session.getKnowledgeBase() == getKnowledgeBase(drlFile));
+    }
+
+    /**
+     * Remove all cached knowledge bases and dispose pooled sessions.
+     */
+    public void clear() {
+        for (KnowledgeBaseEntry entry : knowledgeBaseEntries.values()) {
+            disposeIdleSessions(entry);
+        }
+        knowledgeBaseEntries.clear();
+    }
+
+    private KnowledgeBaseEntry getEntry(File drlFile) {
+        String key = drlFile.getAbsolutePath();
+        KnowledgeBaseEntry entry = knowledgeBaseEntries.get(key);
+        if (entry == null) {
+            KnowledgeBaseEntry newEntry = new KnowledgeBaseEntry();
+            entry = knowledgeBaseEntries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+        return entry;
+    }
+
+    private void refresh(KnowledgeBaseEntry entry, File drlFile, long now) {
+        long lastModified = drlFile.lastModified();
+        long length = drlFile.length();
+        if ((entry.knowledgeBase != null) && (lastModified == entry.lastModified) && (length == entry.length)) {
+            entry.lastCheckedTime = now;
+            return;
+        }
+
+        byte[] content;
+        try {
+            content = readFile(drlFile);
+        } catch (IOException e) {
+            if (entry.knowledgeBase != null) {
+                log.error(String.format("Could not read drools file, using previously compiled rules: " +
+                        "[file] %s", drlFile), e);
+                entry.lastCheckedTime = now;
+                return;
+            }
+            throw new IllegalArgumentException("Could not read drools file: " + drlFile, e);
+        }
+
+        String contentHash = calculateHash(content);
+        if ((entry.knowledgeBase == null) || !contentHash.equals(entry.contentHash)) {
+            KnowledgeBase knowledgeBase;
+            try {
+                knowledgeBase = compile(content);
+            } catch (IllegalArgumentException e) {
+                if (entry.knowledgeBase != null) {
+                    log.error(String.format("Could not parse updated drools file, using previously compiled " +
+                            "rules: [file] %s", drlFile));
+                    entry.lastModified = lastModified;
+                    entry.length = length;
+                    entry.lastCheckedTime = now;
+                    return;
+                }
+                throw e;
+            }
+            boolean reloaded = (entry.knowledgeBase != null);
+            entry.knowledgeBase = knowledgeBase;
+            entry.contentHash = contentHash;
+            disposeIdleSessions(entry);
+
+            if (reloaded) {
+                log.info(String.format("Drools file reloaded: [file] %s", drlFile));
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("Drools file compiled: [file] %s", drlFile));
+            }
+        }
+        entry.lastModified = lastModified;
+        entry.length = length;
+        entry.lastCheckedTime = now;
+    }
+
+    private static KnowledgeBase compile(byte[] content) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add(ResourceFactory.newByteArrayResource(content), ResourceType.DRL);
+        KnowledgeBuilderErrors errors = kbuilder.getErrors();
+        if (errors.size() > 0) {
+            for (KnowledgeBuilderError error : errors) {
+                log.error(error.getMessage());
+            }
+            throw new IllegalArgumentException("Could not parse knowledge");
+        }
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages(kbuilder.getKnowledgePackages());
+        return kbase;
+    }
+
+    private static void disposeIdleSessions(KnowledgeBaseEntry entry) {
+        StatefulKnowledgeSession session;
+        while ((session = entry.idleSessions.poll()) != null) {
+            entry.idleSessionCount.decrementAndGet();
+            session.dispose();
+        }
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        InputStream inputStream = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static String calculateHash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not calculate drools file hash", e);
+        }
+    }
+
+    /**
+     * Compiled knowledge base of a drools file and its idle sessions.
+     */
+    private static class KnowledgeBaseEntry {
+        private volatile KnowledgeBase knowledgeBase;
+        private volatile long lastCheckedTime;
+        private String contentHash;
+        private long lastModified;
+        private long length;
+        private final ConcurrentLinkedQueue<StatefulKnowledgeSession> idleSessions =
+                new ConcurrentLinkedQueue<StatefulKnowledgeSession>();
+        private final AtomicInteger idleSessionCount = new AtomicInteger();
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.autoscaler.algorithm.AutoscaleAlgorithm;
 import org.apache.stratos.autoscaler.algorithm.OneAfterAnother;
 import org.apache.stratos.autoscaler.algorithm.RoundRobin;
+import org.apache.stratos.autoscaler.client.CloudControllerCallback;
 import org.apache.stratos.autoscaler.client.CloudControllerClient;
 import org.apache.stratos.autoscaler.context.AutoscalerContext;
 import org.apache.stratos.autoscaler.context.cluster.ClusterContext;
@@ -37,8 +38,12 @@ import org.apache.stratos.autoscaler.event.publisher.InstanceNotificationPublish
 import org.apache.stratos.autoscaler.exception.cartridge.TerminationException;
 import org.apache.stratos.autoscaler.monitor.cluster.ClusterMonitor;
 import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.cloud.controller.stub.domain.InstanceContext;
 import org.apache.stratos.cloud.controller.stub.domain.MemberContext;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * This will have utility methods that need to be executed from rule file...
  */
@@ -165,13 +170,14 @@ public class RuleTasksDelegator {
     }
 
     /**
-     * Invoked from drools to start an instance.
+     * Invoked from drools to start an instance. The instance is started asynchronously and the
+     * pending member is added to the partition context once the cloud controller returns.
      * @param clusterMonitorPartitionContext Cluster monitor partition context
      * @param clusterId Cluster id
      * @param clusterInstanceId Instance id
      * @param isPrimary Is a primary member
      */
-    public void delegateSpawn(ClusterLevelPartitionContext clusterMonitorPartitionContext, String clusterId,
+    public void delegateSpawn(ClusterLevelPartitionContext clusterMonitorPartitionContext, final String clusterId,
                               String clusterInstanceId, boolean isPrimary) {
 
         try {
@@ -187,26 +193,46 @@ public class RuleTasksDelegator {
                             getInstanceContext(clusterInstanceId);
             minimumCountOfNetworkPartition = clusterInstanceContext.getMinInstanceCount();
 
-            MemberContext memberContext =
-                    CloudControllerClient.getInstance()
-                            .startInstance(clusterMonitorPartitionContext.getPartition(),
-                                    clusterId,
-                                    clusterInstanceId, clusterMonitorPartitionContext.getNetworkPartitionId(),
-                                    isPrimary,
-                                    minimumCountOfNetworkPartition);
-            if (memberContext != null) {
-                ClusterLevelPartitionContext partitionContext = clusterInstanceContext.
-                        getPartitionCtxt(clusterMonitorPartitionContext.getPartitionId());
-                partitionContext.addPendingMember(memberContext);
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Pending member added, [member] %s [partition] %s", memberContext.getMemberId(),
-                            memberContext.getPartition().getId()));
-                }
-
-            } else {
-                if (log.isErrorEnabled()) {
-                    log.error("Member context returned from cloud controller is null");
-                }
+            final ClusterLevelPartitionContext partitionContext = clusterInstanceContext.
+                    getPartitionCtxt(clusterMonitorPartitionContext.getPartitionId());
+            final String partitionId = clusterMonitorPartitionContext.getPartitionId();
+            final String instanceId = clusterInstanceId;
+            // Count the request as a non terminated member until the cloud controller returns,
+            // hence rules do not request the same instance again in the meantime
+            partitionContext.incrementPendingSpawnRequestCount();
+            try {
+                CloudControllerClient.getInstance().startInstanceAsync(clusterMonitorPartitionContext.getPartition(),
+                        clusterId, clusterInstanceId, clusterMonitorPartitionContext.getNetworkPartitionId(),
+                        isPrimary, minimumCountOfNetworkPartition, new CloudControllerCallback<MemberContext>() {
+                            @Override
+                            public void onSuccess(MemberContext memberContext) {
+                                try {
+                                    if (memberContext != null) {
+                                        partitionContext.addPendingMember(memberContext);
+                                        if (log.isDebugEnabled()) {
+                                            log.debug(String.format("Pending member added, [member] %s [partition] %s",
+                                                    memberContext.getMemberId(), memberContext.getPartition().getId()));
+                                        }
+                                    } else {
+                                        if (log.isErrorEnabled()) {
+                                            log.error("Member context returned from cloud controller is null");
+                                        }
+                                    }
+                                } finally {
+                                    partitionContext.decrementPendingSpawnRequestCount();
+                                }
+                            }
+
+                            @Override
+                            public void onFailure(Throwable error) {
+                                partitionContext.decrementPendingSpawnRequestCount();
+                                log.error(String.format("Could not start instance: [cluster-id] %s [instance-id] %s " +
+                                        "[partition-id] %s", clusterId, instanceId, partitionId), error);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                partitionContext.decrementPendingSpawnRequestCount();
+                throw e;
             }
         } catch (Exception e) {
             String message = String.format("Could not start instance: [cluster-id] %s [instance-id] %s",
@@ -216,6 +242,121 @@ public class RuleTasksDelegator {
         }
     }
 
+    /**
+     * Invoked from drools to create a scale plan of a cluster instance.
+     * @param clusterId Cluster id
+     * @param clusterInstanceContext Cluster instance context
+     * @param isPrimary Are primary members
+     * @return an empty scale plan
+     */
+    public ScalePlan createScalePlan(String clusterId, ClusterInstanceContext clusterInstanceContext,
+                                     boolean isPrimary) {
+        return new ScalePlan(clusterId, clusterInstanceContext, isPrimary);
+    }
+
+    /**
+     * Invoked from drools to execute a scale plan. Members to be removed are moved to termination
+     * pending members, instances to be added are started asynchronously with a single batched call
+     * and pending members are added to the partition contexts once the cloud controller returns.
+     * @param scalePlan Scale plan
+     */
+    public void executeScalePlan(final ScalePlan scalePlan) {
+        if (scalePlan.isEmpty()) {
+            return;
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Executing scale plan: " + scalePlan);
+        }
+
+        for (ClusterLevelPartitionContext partitionContext : scalePlan.getPartitionContexts()) {
+            for (String memberId : scalePlan.getMemberIdsToRemove(partitionContext.getPartitionId())) {
+                delegateTerminate(partitionContext, memberId);
+            }
+        }
+
+        if (scalePlan.getInstanceCount() == 0) {
+            return;
+        }
+        final ClusterInstanceContext clusterInstanceContext = scalePlan.getClusterInstanceContext();
+        final String clusterId = scalePlan.getClusterId();
+        CloudControllerClient cloudControllerClient = CloudControllerClient.getInstance();
+        List<InstanceContext> instanceContexts = new ArrayList<InstanceContext>();
+        for (ClusterLevelPartitionContext partitionContext : scalePlan.getPartitionContexts()) {
+            int count = scalePlan.getInstanceCount(partitionContext.getPartitionId());
+            for (int i = 0; i < count; i++) {
+                instanceContexts.add(cloudControllerClient.createInstanceContext(partitionContext.getPartition(),
+                        clusterId, clusterInstanceContext.getId(), partitionContext.getNetworkPartitionId(),
+                        scalePlan.isPrimary(), clusterInstanceContext.getMinInstanceCount()));
+            }
+        }
+
+        // Count the requests as non terminated members until the cloud controller returns,
+        // hence rules do not request the same instances again in the meantime
+        updatePendingSpawnRequestCounts(scalePlan, true);
+        try {
+            cloudControllerClient.startInstancesAsync(instanceContexts.toArray(
+                    new InstanceContext[instanceContexts.size()]), new CloudControllerCallback<MemberContext[]>() {
+                @Override
+                public void onSuccess(MemberContext[] memberContexts) {
+                    try {
+                        for (MemberContext memberContext : memberContexts) {
+                            if (memberContext == null) {
+                                continue;
+                            }
+                            String partitionId = memberContext.getPartition().getId();
+                            ClusterLevelPartitionContext partitionContext = scalePlan.getPartitionContext(partitionId);
+                            if (partitionContext == null) {
+                                log.warn(String.format("Partition context not found for member: [cluster-id] %s " +
+                                        "[member-id] %s [partition-id] %s", clusterId, memberContext.getMemberId(),
+                                        partitionId));
+                                continue;
+                            }
+                            partitionContext.addPendingMember(memberContext);
+                            if (log.isDebugEnabled()) {
+                                log.debug(String.format("Pending member added, [member] %s [partition] %s",
+                                        memberContext.getMemberId(), partitionId));
+                            }
+                        }
+                        if (memberContexts.length < scalePlan.getInstanceCount()) {
+                            log.warn(String.format("Could not start all instances of scale plan: [cluster-id] %s " +
+                                    "[instance-id] %s [requested] %d [started] %d", clusterId,
+                                    clusterInstanceContext.getId(), scalePlan.getInstanceCount(),
+                                    memberContexts.length));
+                        }
+                    } finally {
+                        updatePendingSpawnRequestCounts(scalePlan, false);
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable error) {
+                    updatePendingSpawnRequestCounts(scalePlan, false);
+                    log.error(String.format("Could not start instances: [cluster-id] %s [instance-id] %s",
+                            clusterId, clusterInstanceContext.getId()), error);
+                }
+            });
+        } catch (RuntimeException e) {
+            updatePendingSpawnRequestCounts(scalePlan, false);
+            String message = String.format("Could not start instances: [cluster-id] %s [instance-id] %s",
+                    clusterId, clusterInstanceContext.getId());
+            log.error(message, e);
+            throw new RuntimeException(message, e);
+        }
+    }
+
+    private void updatePendingSpawnRequestCounts(ScalePlan scalePlan, boolean increment) {
+        for (ClusterLevelPartitionContext partitionContext : scalePlan.getPartitionContexts()) {
+            int count = scalePlan.getInstanceCount(partitionContext.getPartitionId());
+            for (int i = 0; i < count; i++) {
+                if (increment) {
+                    partitionContext.incrementPendingSpawnRequestCount();
+                } else {
+                    partitionContext.decrementPendingSpawnRequestCount();
+                }
+            }
+        }
+    }
+
     public void delegateScalingDependencyNotification(String clusterId, String networkPartitionId, String instanceId,
                                                       int requiredInstanceCount, int minimumInstanceCount) {
 
@@ -289,14 +430,21 @@ public class RuleTasksDelegator {
         }
     }
 
-    public void terminateObsoleteInstance(String memberId) {
-        try {
-            CloudControllerClient.getInstance().terminateInstance(memberId);
-        } catch (Exception e) {
-            log.error("Cannot terminate instance", e);
-        } catch (TerminationException e) {
-            log.error("Cannot terminate instance", e);
-        }
+    public void terminateObsoleteInstance(final String memberId) {
+        // Terminate asynchronously, hence rule evaluation does not wait for the cloud controller
+        CloudControllerClient.getInstance().terminateInstanceAsync(memberId, new CloudControllerCallback<String>() {
+            @Override
+            public void onSuccess(String result) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Obsolete instance terminated: [member-id] %s", memberId));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                log.error(String.format("Cannot terminate instance: [member-id] %s", memberId), error);
+            }
+        });
     }
 
     //Grouping
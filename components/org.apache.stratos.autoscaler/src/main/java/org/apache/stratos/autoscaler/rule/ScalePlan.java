@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler.rule;
+
+import org.apache.stratos.autoscaler.context.cluster.ClusterInstanceContext;
+import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scaling decisions of a cluster instance made by the scaling rules. The plan maps each partition
+ * to the number of instances to be started and the members to be terminated, the plan is executed
+ * by {@link RuleTasksDelegator#executeScalePlan(ScalePlan)} with a single batched instance start call.
+ */
+public class ScalePlan {
+
+    private final String clusterId;
+    private final ClusterInstanceContext clusterInstanceContext;
+    private final boolean primary;
+    private final Map<String, ClusterLevelPartitionContext> partitionContexts;
+    private final Map<String, Integer> partitionIdToInstanceCount;
+    private final Map<String, List<String>> partitionIdToMemberIdsToRemove;
+
+    public ScalePlan(String clusterId, ClusterInstanceContext clusterInstanceContext, boolean primary) {
+        this.clusterId = clusterId;
+        this.clusterInstanceContext = clusterInstanceContext;
+        this.primary = primary;
+        this.partitionContexts = new LinkedHashMap<String, ClusterLevelPartitionContext>();
+        this.partitionIdToInstanceCount = new LinkedHashMap<String, Integer>();
+        this.partitionIdToMemberIdsToRemove = new LinkedHashMap<String, List<String>>();
+    }
+
+    /**
+     * Add an instance to be started in the given partition.
+     * @param partitionContext partition context
+     */
+    public void addInstance(ClusterLevelPartitionContext partitionContext) {
+        addInstances(partitionContext, 1);
+    }
+
+    /**
+     * Add instances to be started in the given partition.
+     * @param partitionContext partition context
+     * @param count number of instances
+     */
+    public void addInstances(ClusterLevelPartitionContext partitionContext, int count) {
+        if (count <= 0) {
+            return;
+        }
+        String partitionId = partitionContext.getPartitionId();
+        partitionContexts.put(partitionId, partitionContext);
+        Integer currentCount = partitionIdToInstanceCount.get(partitionId);
+        partitionIdToInstanceCount.put(partitionId, (currentCount == null) ? count : (currentCount + count));
+    }
+
+    /**
+     * Add a member to be terminated.
+     * @param partitionContext partition context of the member
+     * @param memberId member id
+     */
+    public void removeMember(ClusterLevelPartitionContext partitionContext, String memberId) {
+        String partitionId = partitionContext.getPartitionId();
+        partitionContexts.put(partitionId, partitionContext);
+        List<String> memberIds = partitionIdToMemberIdsToRemove.get(partitionId);
+        if (memberIds == null) {
+            memberIds = new ArrayList<String>();
+            partitionIdToMemberIdsToRemove.put(partitionId, memberIds);
+        }
+        if (!memberIds.contains(memberId)) {
+            memberIds.add(memberId);
+        }
+    }
+
+    public String getClusterId() {
+        return clusterId;
+    }
+
+    public ClusterInstanceContext getClusterInstanceContext() {
+        return clusterInstanceContext;
+    }
+
+    public boolean isPrimary() {
+        return primary;
+    }
+
+    public ClusterLevelPartitionContext getPartitionContext(String partitionId) {
+        return partitionContexts.get(partitionId);
+    }
+
+    public Collection<ClusterLevelPartitionContext> getPartitionContexts() {
+        return partitionContexts.values();
+    }
+
+    /**
+     * Returns the number of instances to be started in the given partition.
+     */
+    public int getInstanceCount(String partitionId) {
+        Integer count = partitionIdToInstanceCount.get(partitionId);
+        return (count == null) ? 0 : count;
+    }
+
+    /**
+     * Returns the total number of instances to be started.
+     */
+    public int getInstanceCount() {
+        int count = 0;
+        for (Integer partitionCount : partitionIdToInstanceCount.values()) {
+            count += partitionCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the members to be terminated in the given partition.
+     */
+    public List<String> getMemberIdsToRemove(String partitionId) {
+        List<String> memberIds = partitionIdToMemberIdsToRemove.get(partitionId);
+        return (memberIds == null) ? new ArrayList<String>() : memberIds;
+    }
+
+    /**
+     * Returns the total number of members to be terminated.
+     */
+    public int getMemberCountToRemove() {
+        int count = 0;
+        for (List<String> memberIds : partitionIdToMemberIdsToRemove.values()) {
+            count += memberIds.size();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return partitionIdToInstanceCount.isEmpty() && partitionIdToMemberIdsToRemove.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[cluster] %s [instance] %s [instances-to-add] %s [members-to-remove] %s", clusterId,
+                clusterInstanceContext.getId(), partitionIdToInstanceCount, partitionIdToMemberIdsToRemove);
+    }
+}
@@ -0,0 +1,521 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.statistics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.autoscaler.context.AutoscalerContext;
+import org.apache.stratos.autoscaler.context.partition.network.ClusterLevelNetworkPartitionContext;
+import org.apache.stratos.autoscaler.monitor.cluster.ClusterMonitor;
+import org.apache.stratos.autoscaler.util.AutoscalerConstants;
+import org.apache.stratos.common.statistics.publisher.embedded.EmbeddedStatisticsReceiver;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.event.health.stat.AverageLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.AverageMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.AverageRequestsInFlightEvent;
+import org.apache.stratos.messaging.event.health.stat.AverageRequestsServingCapabilityEvent;
+import org.apache.stratos.messaging.event.health.stat.GradientOfLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.GradientOfMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.GradientOfRequestsInFlightEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberAverageLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberAverageMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberFaultEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberGradientOfLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberGradientOfMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberSecondDerivativeOfLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.MemberSecondDerivativeOfMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.SecondDerivativeOfLoadAverageEvent;
+import org.apache.stratos.messaging.event.health.stat.SecondDerivativeOfMemoryConsumptionEvent;
+import org.apache.stratos.messaging.event.health.stat.SecondDerivativeOfRequestsInFlightEvent;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded health statistics aggregator, an alternative to the CEP execution plans for small
+ * deployments. Raw health statistics and in-flight request counts published by embedded statistics
+ * publishers are added to per cluster instance, per member and per cluster network partition
+ * windows. At the end of each window interval mean, gradient and second derivative of each window
+ * are passed to the relevant cluster monitor directly, instead of receiving them from the
+ * summarized health statistics topic.
+ *
+ * Statistics are only received from embedded statistics publishers running in the autoscaler JVM,
+ * which is currently the mock IaaS. Cartridge agents and load balancers running in other processes
+ * publish to CEP only, hence this aggregator is not a replacement for CEP with other IaaS.
+ */
+public class HealthStatisticsAggregator implements EmbeddedStatisticsReceiver {
+
+    private static final Log log = LogFactory.getLog(HealthStatisticsAggregator.class);
+
+    public static final String MEMORY_CONSUMPTION = "memory_consumption";
+    public static final String LOAD_AVERAGE = "load_average";
+    public static final String PORTS_NOT_OPEN = "ports_not_open";
+
+    public static final long DEFAULT_WINDOW_INTERVAL = 60000;
+    public static final int DEFAULT_WINDOW_CAPACITY = 1024;
+
+    // Key - cluster id, cluster instance id and network partition id
+    private final ConcurrentMap<String, HealthWindows> clusterHealthWindows;
+    // Key - member id
+    private final ConcurrentMap<String, HealthWindows> memberHealthWindows;
+    // Key - cluster id and network partition id
+    private final ConcurrentMap<String, RequestWindows> requestWindows;
+    private final int windowCapacity;
+    private final ScheduledFuture<?> aggregateTask;
+    private final AtomicLong receivedStatisticsCount;
+    private final AtomicLong aggregationCount;
+
+    public HealthStatisticsAggregator() {
+        this(DEFAULT_WINDOW_INTERVAL, DEFAULT_WINDOW_CAPACITY);
+    }
+
+    public HealthStatisticsAggregator(long windowInterval, int windowCapacity) {
+        this.clusterHealthWindows = new ConcurrentHashMap<String, HealthWindows>();
+        this.memberHealthWindows = new ConcurrentHashMap<String, HealthWindows>();
+        this.requestWindows = new ConcurrentHashMap<String, RequestWindows>();
+        this.windowCapacity = windowCapacity;
+        this.receivedStatisticsCount = new AtomicLong();
+        this.aggregationCount = new AtomicLong();
+
+        ScheduledExecutorService scheduler = StratosThreadPool.getScheduledExecutorService(
+                AutoscalerConstants.HEALTH_STATISTICS_AGGREGATOR_SCHEDULER_ID, 1);
+        this.aggregateTask = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    aggregate();
+                } catch (Exception e) {
+                    log.error("Could not aggregate health statistics", e);
+                }
+            }
+        }, windowInterval, windowInterval, TimeUnit.MILLISECONDS);
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Health statistics aggregator started: [window-interval] %dms " +
+                    "[window-capacity] %d", windowInterval, windowCapacity));
+        }
+    }
+
+    @Override
+    public void receiveHealthStatistics(String clusterId, String clusterInstanceId, String networkPartitionId,
+                                        String memberId, String partitionId, String health, double value) {
+        receivedStatisticsCount.incrementAndGet();
+        if (PORTS_NOT_OPEN.equals(health)) {
+            // Faults are not aggregated
+            handleMemberFault(new MemberFaultEvent(clusterId, clusterInstanceId, memberId, partitionId,
+                    networkPartitionId, (float) value));
+            return;
+        }
+        if (!MEMORY_CONSUMPTION.equals(health) && !LOAD_AVERAGE.equals(health)) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Unknown health statistics dropped: [member] %s [health] %s",
+                        memberId, health));
+            }
+            return;
+        }
+
+        long timestamp = System.currentTimeMillis();
+        boolean memoryConsumption = MEMORY_CONSUMPTION.equals(health);
+        String clusterKey = clusterId + "/" + clusterInstanceId + "/" + networkPartitionId;
+        addHealthStatistics(clusterHealthWindows, clusterKey, clusterId, clusterInstanceId, networkPartitionId,
+                null, memoryConsumption, value, timestamp);
+        addHealthStatistics(memberHealthWindows, memberId, clusterId, clusterInstanceId, networkPartitionId,
+                memberId, memoryConsumption, value, timestamp);
+    }
+
+    @Override
+    public void receiveInFlightRequestCount(String clusterId, String networkPartitionId, int activeInstancesCount,
+                                            int inFlightRequestCount, int servedRequestCount) {
+        receivedStatisticsCount.incrementAndGet();
+        long timestamp = System.currentTimeMillis();
+        String key = clusterId + "/" + networkPartitionId;
+        while (true) {
+            RequestWindows windows = requestWindows.get(key);
+            if (windows == null) {
+                windows = new RequestWindows(clusterId, networkPartitionId, windowCapacity);
+                RequestWindows existing = requestWindows.putIfAbsent(key, windows);
+                if (existing != null) {
+                    windows = existing;
+                }
+            }
+            synchronized (windows) {
+                if (!windows.removed) {
+                    windows.inFlightRequestCount.add(inFlightRequestCount, timestamp);
+                    windows.activeInstancesCount.add(activeInstancesCount, timestamp);
+                    windows.servedRequestCount += servedRequestCount;
+                    return;
+                }
+            }
+            // Windows were removed by the aggregator while adding, retry with new windows
+            requestWindows.remove(key, windows);
+        }
+    }
+
+    private void addHealthStatistics(ConcurrentMap<String, HealthWindows> windowsMap, String key, String clusterId,
+                                     String clusterInstanceId, String networkPartitionId, String memberId,
+                                     boolean memoryConsumption, double value, long timestamp) {
+        while (true) {
+            HealthWindows windows = windowsMap.get(key);
+            if (windows == null) {
+                windows = new HealthWindows(clusterId, clusterInstanceId, networkPartitionId, memberId,
+                        windowCapacity);
+                HealthWindows existing = windowsMap.putIfAbsent(key, windows);
+                if (existing != null) {
+                    windows = existing;
+                }
+            }
+            synchronized (windows) {
+                if (!windows.removed) {
+                    if (memoryConsumption) {
+                        windows.memoryConsumption.add(value, timestamp);
+                    } else {
+                        windows.loadAverage.add(value, timestamp);
+                    }
+                    return;
+                }
+            }
+            // Windows were removed by the aggregator while adding, retry with new windows
+            windowsMap.remove(key, windows);
+        }
+    }
+
+    /**
+     * Aggregate the statistics received during the last window interval and pass them to cluster monitors.
+     * Windows which did not receive statistics during the interval are removed.
+     */
+    public void aggregate() {
+        for (Map.Entry<String, HealthWindows> entry : clusterHealthWindows.entrySet()) {
+            HealthAggregate aggregate = entry.getValue().aggregate();
+            if (aggregate == null) {
+                clusterHealthWindows.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                handleClusterHealthAggregate(aggregate);
+            } catch (Exception e) {
+                log.error(String.format("Could not handle cluster health statistics: [cluster] %s " +
+                        "[cluster-instance] %s", aggregate.clusterId, aggregate.clusterInstanceId), e);
+            }
+        }
+        for (Map.Entry<String, HealthWindows> entry : memberHealthWindows.entrySet()) {
+            HealthAggregate aggregate = entry.getValue().aggregate();
+            if (aggregate == null) {
+                memberHealthWindows.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                handleMemberHealthAggregate(aggregate);
+            } catch (Exception e) {
+                log.error(String.format("Could not handle member health statistics: [member] %s",
+                        aggregate.memberId), e);
+            }
+        }
+        for (Map.Entry<String, RequestWindows> entry : requestWindows.entrySet()) {
+            RequestAggregate aggregate = entry.getValue().aggregate();
+            if (aggregate == null) {
+                requestWindows.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            try {
+                handleRequestAggregate(aggregate);
+            } catch (Exception e) {
+                log.error(String.format("Could not handle in-flight request statistics: [cluster] %s " +
+                        "[network-partition] %s", aggregate.clusterId, aggregate.networkPartitionId), e);
+            }
+        }
+        aggregationCount.incrementAndGet();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Health statistics aggregated: [cluster-windows] %d [member-windows] %d " +
+                            "[request-windows] %d [received-statistics] %d", clusterHealthWindows.size(),
+                    memberHealthWindows.size(), requestWindows.size(), receivedStatisticsCount.get()));
+        }
+    }
+
+    private void handleClusterHealthAggregate(HealthAggregate aggregate) {
+        ClusterMonitor monitor = getClusterMonitor(aggregate.clusterId);
+        if (monitor == null) {
+            return;
+        }
+        String networkPartitionId = aggregate.networkPartitionId;
+        String clusterId = aggregate.clusterId;
+        String clusterInstanceId = aggregate.clusterInstanceId;
+        if (aggregate.loadAverage != null) {
+            monitor.handleAverageLoadAverageEvent(new AverageLoadAverageEvent(networkPartitionId, clusterId,
+                    clusterInstanceId, aggregate.loadAverage[0]));
+            monitor.handleGradientOfLoadAverageEvent(new GradientOfLoadAverageEvent(networkPartitionId, clusterId,
+                    clusterInstanceId, aggregate.loadAverage[1]));
+            monitor.handleSecondDerivativeOfLoadAverageEvent(new SecondDerivativeOfLoadAverageEvent(
+                    networkPartitionId, clusterId, clusterInstanceId, aggregate.loadAverage[2]));
+        }
+        if (aggregate.memoryConsumption != null) {
+            monitor.handleAverageMemoryConsumptionEvent(new AverageMemoryConsumptionEvent(networkPartitionId,
+                    clusterId, clusterInstanceId, aggregate.memoryConsumption[0]));
+            monitor.handleGradientOfMemoryConsumptionEvent(new GradientOfMemoryConsumptionEvent(
+                    networkPartitionId, clusterId, clusterInstanceId, aggregate.memoryConsumption[1]));
+            monitor.handleSecondDerivativeOfMemoryConsumptionEvent(new SecondDerivativeOfMemoryConsumptionEvent(
+                    networkPartitionId, clusterId, clusterInstanceId, aggregate.memoryConsumption[2]));
+        }
+    }
+
+    private void handleMemberHealthAggregate(HealthAggregate aggregate) {
+        ClusterMonitor monitor = getClusterMonitor(aggregate.clusterId);
+        if ((monitor == null) || !isMemberActive(monitor, aggregate.memberId)) {
+            return;
+        }
+        String clusterInstanceId = aggregate.clusterInstanceId;
+        String memberId = aggregate.memberId;
+        if (aggregate.loadAverage != null) {
+            monitor.handleMemberAverageLoadAverageEvent(new MemberAverageLoadAverageEvent(clusterInstanceId,
+                    memberId, aggregate.loadAverage[0]));
+            monitor.handleMemberGradientOfLoadAverageEvent(new MemberGradientOfLoadAverageEvent(clusterInstanceId,
+                    memberId, aggregate.loadAverage[1]));
+            monitor.handleMemberSecondDerivativeOfLoadAverageEvent(new MemberSecondDerivativeOfLoadAverageEvent(
+                    aggregate.clusterId, clusterInstanceId, memberId, aggregate.loadAverage[2]));
+        }
+        if (aggregate.memoryConsumption != null) {
+            monitor.handleMemberAverageMemoryConsumptionEvent(new MemberAverageMemoryConsumptionEvent(
+                    clusterInstanceId, memberId, aggregate.memoryConsumption[0]));
+            monitor.handleMemberGradientOfMemoryConsumptionEvent(new MemberGradientOfMemoryConsumptionEvent(
+                    clusterInstanceId, memberId, aggregate.memoryConsumption[1]));
+            monitor.handleMemberSecondDerivativeOfMemoryConsumptionEvent(
+                    new MemberSecondDerivativeOfMemoryConsumptionEvent(clusterInstanceId, memberId,
+                            aggregate.memoryConsumption[2]));
+        }
+    }
+
+    private void handleRequestAggregate(RequestAggregate aggregate) {
+        ClusterMonitor monitor = getClusterMonitor(aggregate.clusterId);
+        if (monitor == null) {
+            return;
+        }
+        String networkPartitionId = aggregate.networkPartitionId;
+        String clusterId = aggregate.clusterId;
+        ClusterLevelNetworkPartitionContext networkPartitionContext =
+                monitor.getAllNetworkPartitionCtxts().get(networkPartitionId);
+        if (networkPartitionContext == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Network partition context is not available, hence ignoring the " +
+                        "in-flight request statistics: [cluster] %s [network-partition] %s",
+                        clusterId, networkPartitionId));
+            }
+            return;
+        }
+        // In-flight request counts are not published per cluster instance, hence the aggregate is
+        // passed to each cluster instance of the network partition
+        List<String> clusterInstanceIds = new ArrayList<String>(
+                networkPartitionContext.getInstanceIdToInstanceContextMap().keySet());
+        for (String clusterInstanceId : clusterInstanceIds) {
+            monitor.handleAverageRequestsInFlightEvent(new AverageRequestsInFlightEvent(networkPartitionId,
+                    clusterId, clusterInstanceId, aggregate.activeInstancesCount, aggregate.inFlightRequestCount[0],
+                    aggregate.servedRequestCount));
+            monitor.handleGradientOfRequestsInFlightEvent(new GradientOfRequestsInFlightEvent(networkPartitionId,
+                    clusterId, clusterInstanceId, aggregate.inFlightRequestCount[1]));
+            monitor.handleSecondDerivativeOfRequestsInFlightEvent(new SecondDerivativeOfRequestsInFlightEvent(
+                    clusterId, clusterInstanceId, networkPartitionId, aggregate.inFlightRequestCount[2]));
+            if (aggregate.activeInstancesCount > 0) {
+                monitor.handleAverageRequestsServingCapabilityEvent(new AverageRequestsServingCapabilityEvent(
+                        networkPartitionId, clusterId, clusterInstanceId,
+                        aggregate.servedRequestCount / aggregate.activeInstancesCount));
+            }
+        }
+    }
+
+    private void handleMemberFault(MemberFaultEvent memberFaultEvent) {
+        ClusterMonitor monitor = getClusterMonitor(memberFaultEvent.getClusterId());
+        if (monitor == null) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Member fault received: [member] %s", memberFaultEvent.getMemberId()));
+        }
+        monitor.handleMemberFaultEvent(memberFaultEvent);
+    }
+
+    private ClusterMonitor getClusterMonitor(String clusterId) {
+        ClusterMonitor monitor = AutoscalerContext.getInstance().getClusterMonitor(clusterId);
+        if ((monitor == null) && log.isDebugEnabled()) {
+            log.debug(String.format("A cluster monitor is not found in autoscaler context [cluster] %s", clusterId));
+        }
+        return monitor;
+    }
+
+    private boolean isMemberActive(ClusterMonitor monitor, String memberId) {
+        try {
+            TopologyManager.acquireReadLock();
+            Service service = TopologyManager.getTopology().getService(monitor.getServiceId());
+            Cluster cluster = (service == null) ? null : service.getCluster(monitor.getClusterId());
+            Member member = (cluster == null) ? null : cluster.getMember(memberId);
+            if ((member == null) || !member.isActive()) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Member is not active, hence ignoring the health statistics: " +
+                            "[member] %s", memberId));
+                }
+                return false;
+            }
+            return true;
+        } finally {
+            TopologyManager.releaseReadLock();
+        }
+    }
+
+    /**
+     * Stop aggregating statistics.
+     */
+    public void terminate() {
+        aggregateTask.cancel(false);
+    }
+
+    public long getReceivedStatisticsCount() {
+        return receivedStatisticsCount.get();
+    }
+
+    public long getAggregationCount() {
+        return aggregationCount.get();
+    }
+
+    /**
+     * Mean, gradient and second derivative of the windows of a cluster instance or a member.
+     */
+    private static class HealthAggregate {
+
+        private final String clusterId;
+        private final String clusterInstanceId;
+        private final String networkPartitionId;
+        private final String memberId;
+        private float[] loadAverage;
+        private float[] memoryConsumption;
+
+        private HealthAggregate(HealthWindows windows) {
+            this.clusterId = windows.clusterId;
+            this.clusterInstanceId = windows.clusterInstanceId;
+            this.networkPartitionId = windows.networkPartitionId;
+            this.memberId = windows.memberId;
+        }
+    }
+
+    private static class RequestAggregate {
+
+        private final String clusterId;
+        private final String networkPartitionId;
+        private final float[] inFlightRequestCount;
+        private final float activeInstancesCount;
+        private final float servedRequestCount;
+
+        private RequestAggregate(RequestWindows windows) {
+            this.clusterId = windows.clusterId;
+            this.networkPartitionId = windows.networkPartitionId;
+            this.inFlightRequestCount = aggregate(windows.inFlightRequestCount);
+            this.activeInstancesCount = (float) windows.activeInstancesCount.getMean();
+            this.servedRequestCount = (float) windows.servedRequestCount;
+        }
+    }
+
+    /**
+     * Health statistics windows of a cluster instance or a member, guarded by the windows instance.
+     */
+    private static class HealthWindows {
+
+        private final String clusterId;
+        private final String clusterInstanceId;
+        private final String networkPartitionId;
+        private final String memberId;
+        private final StatisticsWindow loadAverage;
+        private final StatisticsWindow memoryConsumption;
+        private boolean removed;
+
+        private HealthWindows(String clusterId, String clusterInstanceId, String networkPartitionId,
+                              String memberId, int windowCapacity) {
+            this.clusterId = clusterId;
+            this.clusterInstanceId = clusterInstanceId;
+            this.networkPartitionId = networkPartitionId;
+            this.memberId = memberId;
+            this.loadAverage = new StatisticsWindow(windowCapacity);
+            this.memoryConsumption = new StatisticsWindow(windowCapacity);
+        }
+
+        /**
+         * Aggregate and clear the windows, returns null and marks the windows removed if they are empty.
+         */
+        private synchronized HealthAggregate aggregate() {
+            if (loadAverage.isEmpty() && memoryConsumption.isEmpty()) {
+                removed = true;
+                return null;
+            }
+            HealthAggregate aggregate = new HealthAggregate(this);
+            if (!loadAverage.isEmpty()) {
+                aggregate.loadAverage = HealthStatisticsAggregator.aggregate(loadAverage);
+                loadAverage.clear();
+            }
+            if (!memoryConsumption.isEmpty()) {
+                aggregate.memoryConsumption = HealthStatisticsAggregator.aggregate(memoryConsumption);
+                memoryConsumption.clear();
+            }
+            return aggregate;
+        }
+    }
+
+    /**
+     * In-flight request windows of a cluster network partition, guarded by the windows instance.
+     */
+    private static class RequestWindows {
+
+        private final String clusterId;
+        private final String networkPartitionId;
+        private final StatisticsWindow inFlightRequestCount;
+        private final StatisticsWindow activeInstancesCount;
+        private double servedRequestCount;
+        private boolean removed;
+
+        private RequestWindows(String clusterId, String networkPartitionId, int windowCapacity) {
+            this.clusterId = clusterId;
+            this.networkPartitionId = networkPartitionId;
+            this.inFlightRequestCount = new StatisticsWindow(windowCapacity);
+            this.activeInstancesCount = new StatisticsWindow(windowCapacity);
+        }
+
+        private synchronized RequestAggregate aggregate() {
+            if (inFlightRequestCount.isEmpty()) {
+                removed = true;
+                return null;
+            }
+            RequestAggregate aggregate = new RequestAggregate(this);
+            inFlightRequestCount.clear();
+            activeInstancesCount.clear();
+            servedRequestCount = 0;
+            return aggregate;
+        }
+    }
+
+    private static float[] aggregate(StatisticsWindow window) {
+        return new float[]{(float) window.getMean(), (float) window.getGradient(),
+                (float) window.getSecondDerivative()};
+    }
+}
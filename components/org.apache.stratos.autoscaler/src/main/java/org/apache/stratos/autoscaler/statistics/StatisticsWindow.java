@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one 
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY 
+ * KIND, either express or implied.  See the License for the 
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler.statistics;
+
+/**
+ * Time batch window of statistics values kept in primitive ring buffers. Mean, gradient and second
+ * derivative are calculated in constant time, the same way the stratos CEP extension calculates them:
+ * the gradient (per second) is calculated from the first and the last values of the window, and the
+ * second derivative is the gradient between the gradients of the two halves of the window. If the
+ * window is full the oldest value is overwritten.
+ */
+public class StatisticsWindow {
+
+    private static final long MILLISECONDS_FOR_A_SECOND = 1000;
+
+    private final double[] values;
+    private final long[] timestamps;
+    // Index of the oldest value
+    private int head;
+    private int size;
+    private double sum;
+
+    public StatisticsWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Statistics window capacity should be greater than zero");
+        }
+        this.values = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Add a value to the window.
+     * @param value statistics value
+     * @param timestamp time the value was received in milliseconds
+     */
+    public void add(double value, long timestamp) {
+        int index;
+        if (size == values.length) {
+            index = head;
+            sum -= values[index];
+            head = (head + 1) % values.length;
+        } else {
+            index = (head + size) % values.length;
+            size++;
+        }
+        values[index] = value;
+        timestamps[index] = timestamp;
+        sum += value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return (size == 0) ? 0 : sum / size;
+    }
+
+    /**
+     * Returns the gradient per second of the window, at least two values are required.
+     */
+    public double getGradient() {
+        if (size < 2) {
+            return 0;
+        }
+        return gradient(value(0), timestamp(0), value(size - 1), timestamp(size - 1));
+    }
+
+    /**
+     * Returns the second derivative per second of the window, at least three values are required.
+     */
+    public double getSecondDerivative() {
+        if (size < 3) {
+            return 0;
+        }
+        int half = size / 2;
+        long firstGradientTime = midpoint(timestamp(0), timestamp(half - 1));
+        long secondGradientTime = midpoint(timestamp(half), timestamp(size - 1));
+        double firstGradient = gradient(value(0), timestamp(0), value(half - 1), timestamp(half - 1));
+        double secondGradient = gradient(value(half), timestamp(half), value(size - 1), timestamp(size - 1));
+        return gradient(firstGradient, firstGradientTime, secondGradient, secondGradientTime);
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        sum = 0;
+    }
+
+    private double value(int position) {
+        return values[(head + position) % values.length];
+    }
+
+    private long timestamp(int position) {
+        return timestamps[(head + position) % values.length];
+    }
+
+    private static long midpoint(long firstTime, long lastTime) {
+        return firstTime + ((lastTime - firstTime) / 2);
+    }
+
+    private static double gradient(double firstValue, long firstTime, double lastValue, long lastTime) {
+        // Time gap is at least a second as in the CEP extension
+        long timeGap = Math.max(lastTime - firstTime, MILLISECONDS_FOR_A_SECOND);
+        return ((lastValue - firstValue) * MILLISECONDS_FOR_A_SECOND) / timeGap;
+    }
+}
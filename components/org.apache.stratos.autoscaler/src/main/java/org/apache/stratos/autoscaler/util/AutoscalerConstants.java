@@ -54,6 +54,9 @@ public final class AutoscalerConstants {
      * Cluster monitoring  interval
      */
     public static final String Cluster_MONITOR_INTERVAL = "autoscaler.cluster.monitorInterval";
+    public static final String CLUSTER_EVENT_DRIVEN_EVALUATION_ENABLED = "autoscaler.cluster.eventDrivenEvaluation.enabled";
+    public static final String CLUSTER_EVENT_DRIVEN_EVALUATION_DELAY = "autoscaler.cluster.eventDrivenEvaluation.delay";
+    public static final String CLUSTER_EVENT_DRIVEN_EVALUATION_MIN_INTERVAL = "autoscaler.cluster.eventDrivenEvaluation.minInterval";
 
     public static final String SERVICE_GROUP = "/groups";
 
@@ -75,6 +78,13 @@ public final class AutoscalerConstants {
     public static final String CLUSTER_MONITOR_SCHEDULER_ID = "cluster.monitor.scheduler";
     public static final String CLUSTER_MONITOR_THREAD_POOL_ID = "cluster.monitor.thread.pool";
     public static final String CLUSTER_MONITOR_THREAD_POOL_SIZE = "cluster.monitor.thread.pool.size";
+    public static final String CLOUD_CONTROLLER_CLIENT_THREAD_POOL_ID = "cloud.controller.client.thread.pool";
+    public static final String CLOUD_CONTROLLER_CLIENT_STATISTICS_SCHEDULER_ID = "cloud.controller.client.statistics.scheduler";
+    public static final String APPLICATION_PERSISTER_SCHEDULER_ID = "application.persister.scheduler";
+    public static final String HEALTH_STATISTICS_AGGREGATOR_SCHEDULER_ID = "health.statistics.aggregator.scheduler";
+    public static final String MONITOR_SCHEDULER_TICK_DURATION = "autoscaler.monitor.scheduler.tick.duration";
+    public static final String MONITOR_SCHEDULER_QUEUE_SIZE = "autoscaler.monitor.scheduler.queue.size";
+    public static final String MONITOR_SCHEDULER_MAX_JITTER = "autoscaler.monitor.scheduler.max.jitter";
 	public static final String ROUND_ROBIN_ALGORITHM_ID = "round-robin";
 	public static final String ONE_AFTER_ANOTHER_ALGORITHM_ID = "one-after-another";
 	public static final String MEMBER_FAULT_EVENT_NAME = "member_fault";
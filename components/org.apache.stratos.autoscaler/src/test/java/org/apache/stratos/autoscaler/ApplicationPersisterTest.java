@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.applications.ApplicationPersister;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Application persister test.
+ */
+public class ApplicationPersisterTest {
+
+    @Test
+    public void testRequestsAreCoalesced() {
+        ApplicationPersister applicationPersister = new ApplicationPersister(60000);
+        try {
+            applicationPersister.persist("app1");
+            applicationPersister.persist("app1");
+            applicationPersister.persist("app2");
+            applicationPersister.remove("app2");
+            applicationPersister.persist("app1");
+
+            assertEquals(5, applicationPersister.getRequestCount());
+            assertEquals(2, applicationPersister.getPendingRequestCount());
+            assertEquals(0, applicationPersister.getCommitCount());
+        } finally {
+            applicationPersister.terminate();
+        }
+    }
+}
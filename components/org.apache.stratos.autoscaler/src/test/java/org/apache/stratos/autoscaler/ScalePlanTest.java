@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.context.partition.ClusterLevelPartitionContext;
+import org.apache.stratos.autoscaler.rule.ScalePlan;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Scale plan test.
+ */
+public class ScalePlanTest {
+
+    @Test
+    public void testScalePlan() {
+        ClusterLevelPartitionContext partitionContext1 = new ClusterLevelPartitionContext(0);
+        partitionContext1.setPartitionId("partition-1");
+        ClusterLevelPartitionContext partitionContext2 = new ClusterLevelPartitionContext(0);
+        partitionContext2.setPartitionId("partition-2");
+
+        ScalePlan scalePlan = new ScalePlan("cluster-1", null, false);
+        assertTrue(scalePlan.isEmpty());
+
+        scalePlan.addInstance(partitionContext1);
+        scalePlan.addInstance(partitionContext2);
+        scalePlan.addInstance(partitionContext1);
+        scalePlan.addInstances(partitionContext2, 0);
+        scalePlan.removeMember(partitionContext2, "member-1");
+        scalePlan.removeMember(partitionContext2, "member-1");
+
+        assertFalse(scalePlan.isEmpty());
+        assertEquals(3, scalePlan.getInstanceCount());
+        assertEquals(2, scalePlan.getInstanceCount("partition-1"));
+        assertEquals(1, scalePlan.getInstanceCount("partition-2"));
+        assertEquals(1, scalePlan.getMemberCountToRemove());
+        assertEquals(0, scalePlan.getMemberIdsToRemove("partition-1").size());
+        assertEquals(2, scalePlan.getPartitionContexts().size());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.client.ServiceCallStatistics;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Service call statistics test.
+ */
+public class ServiceCallStatisticsTest {
+
+    @Test
+    public void testRecord() {
+        ServiceCallStatistics statistics = new ServiceCallStatistics("startInstance");
+        assertEquals(0, statistics.getCallCount());
+        assertEquals(0, statistics.getAverageLatency(), 0);
+
+        statistics.record(100, true);
+        statistics.record(300, false);
+        statistics.record(200, true);
+
+        assertEquals(3, statistics.getCallCount());
+        assertEquals(1, statistics.getFailedCallCount());
+        assertEquals(300, statistics.getMaxLatency());
+        assertEquals(200, statistics.getAverageLatency(), 0.001);
+    }
+}
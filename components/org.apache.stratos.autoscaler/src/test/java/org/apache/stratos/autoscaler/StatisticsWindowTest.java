@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.statistics.StatisticsWindow;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Statistics window test.
+ */
+public class StatisticsWindowTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testMeanAndGradient() {
+        StatisticsWindow window = new StatisticsWindow(10);
+        assertTrue(window.isEmpty());
+        assertEquals(0, window.getMean(), DELTA);
+        assertEquals(0, window.getGradient(), DELTA);
+
+        window.add(0, 0);
+        window.add(5, 5000);
+        window.add(10, 10000);
+
+        assertFalse(window.isEmpty());
+        assertEquals(3, window.size());
+        assertEquals(15, window.getSum(), DELTA);
+        assertEquals(5, window.getMean(), DELTA);
+        assertEquals(1, window.getGradient(), DELTA);
+    }
+
+    @Test
+    public void testSecondDerivative() {
+        StatisticsWindow window = new StatisticsWindow(10);
+        window.add(0, 0);
+        window.add(10, 10000);
+        window.add(30, 20000);
+        window.add(60, 30000);
+
+        assertEquals(2, window.getGradient(), DELTA);
+        assertEquals(0.1, window.getSecondDerivative(), DELTA);
+    }
+
+    @Test
+    public void testOverflow() {
+        StatisticsWindow window = new StatisticsWindow(3);
+        window.add(1, 0);
+        window.add(2, 1000);
+        window.add(3, 2000);
+        window.add(4, 3000);
+
+        assertEquals(3, window.size());
+        assertEquals(9, window.getSum(), DELTA);
+        assertEquals(3, window.getMean(), DELTA);
+        assertEquals(1, window.getGradient(), DELTA);
+
+        window.clear();
+        assertTrue(window.isEmpty());
+        assertEquals(0, window.getSum(), DELTA);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.rule.KnowledgeBaseCache;
+import org.drools.KnowledgeBase;
+import org.drools.runtime.StatefulKnowledgeSession;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests compiled knowledge base caching and drools session pooling.
+ */
+public class TestKnowledgeBaseCache {
+
+    private static final String RULE_FILE_HEADER = "package org.apache.stratos.autoscaler.test\n" +
+            "global org.apache.stratos.autoscaler.rule.RuleLog log;\n" +
+            "global java.lang.String clusterId;\n";
+
+    private static File drlFile;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        // Check the rule file for changes on every call
+        System.setProperty("autoscaler.rule.file.check.interval", "0");
+        drlFile = File.createTempFile("knowledge-base-cache", ".drl");
+        writeRule(drlFile, "rule \"Rule1\"\nwhen\n    String()\nthen\n    log.debug(\"rule1\");\nend\n");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        KnowledgeBaseCache.getInstance().clear();
+        drlFile.delete();
+    }
+
+    @Test
+    public void testKnowledgeBaseCaching() throws IOException {
+        KnowledgeBaseCache cache = KnowledgeBaseCache.getInstance();
+        KnowledgeBase knowledgeBase = cache.getKnowledgeBase(drlFile);
+        assertNotNull(knowledgeBase);
+        assertSame(knowledgeBase, cache.getKnowledgeBase(drlFile));
+
+        // Touching the file without changing its content should not recompile the rules
+        assertTrue(drlFile.setLastModified(drlFile.lastModified() + 2000));
+        assertSame(knowledgeBase, cache.getKnowledgeBase(drlFile));
+
+        StatefulKnowledgeSession session = cache.borrowSession(drlFile);
+        session.insert("fact");
+        session.setGlobal("clusterId", "cluster-1");
+        cache.returnSession(drlFile, session);
+        StatefulKnowledgeSession pooledSession = cache.borrowSession(drlFile);
+        assertSame(session, pooledSession);
+        assertEquals(0, pooledSession.getFactHandles().size());
+        // Globals of the previous borrower are reset, the rule log is kept
+        assertNull(pooledSession.getGlobal("clusterId"));
+        assertNotNull(pooledSession.getGlobal("log"));
+
+        writeRule(drlFile, "rule \"Rule2\"\nwhen\n    Integer()\nthen\n    log.debug(\"rule2\");\nend\n");
+        assertTrue(drlFile.setLastModified(drlFile.lastModified() + 4000));
+        KnowledgeBase reloadedKnowledgeBase = cache.getKnowledgeBase(drlFile);
+        assertNotSame(knowledgeBase, reloadedKnowledgeBase);
+        assertFalse(cache.isCurrent(drlFile, pooledSession));
+
+        // Outdated sessions are disposed instead of being pooled
+        cache.returnSession(drlFile, pooledSession);
+        StatefulKnowledgeSession newSession = cache.borrowSession(drlFile);
+        assertNotSame(pooledSession, newSession);
+        assertTrue(cache.isCurrent(drlFile, newSession));
+        newSession.dispose();
+    }
+
+    private static void writeRule(File file, String rule) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(RULE_FILE_HEADER);
+            writer.write(rule);
+        } finally {
+            writer.close();
+        }
+    }
+}
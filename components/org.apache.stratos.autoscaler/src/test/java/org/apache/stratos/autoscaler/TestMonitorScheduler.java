@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.autoscaler;
+
+import org.apache.stratos.autoscaler.monitor.MonitorScheduler;
+import org.apache.stratos.autoscaler.monitor.ScheduledMonitorTask;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests periodic execution of monitor tasks in the monitor scheduler.
+ */
+public class TestMonitorScheduler {
+
+    private static final long TICK_DURATION = 10;
+    private static final long TIMEOUT = 10000;
+
+    @BeforeClass
+    public static void setUp() {
+        System.setProperty("autoscaler.monitor.scheduler.tick.duration", String.valueOf(TICK_DURATION));
+        System.setProperty("autoscaler.monitor.scheduler.max.jitter", "0");
+        System.setProperty("cluster.monitor.thread.pool.size", "2");
+        System.setProperty("autoscaler.monitor.scheduler.queue.size", "1");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        MonitorScheduler.shutdown();
+    }
+
+    @Test
+    public void testPeriodicExecution() throws InterruptedException {
+        final AtomicInteger executionCount = new AtomicInteger();
+        final CountDownLatch executionLatch = new CountDownLatch(5);
+        ScheduledMonitorTask task = MonitorScheduler.getInstance().schedule("cluster-1", new Runnable() {
+            @Override
+            public void run() {
+                executionCount.incrementAndGet();
+                executionLatch.countDown();
+            }
+        }, 100);
+
+        assertTrue("Monitor task was not executed periodically: " + executionCount.get(),
+                executionLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        task.cancel();
+        // Let an execution dispatched before cancelling complete
+        awaitOneOffTask("cluster-1/marker-1", 300);
+        int count = executionCount.get();
+        awaitOneOffTask("cluster-1/marker-2", 300);
+        assertEquals("Monitor task was executed after being cancelled", count, executionCount.get());
+    }
+
+    @Test
+    public void testOneOffExecution() throws InterruptedException {
+        final AtomicInteger executionCount = new AtomicInteger();
+        final CountDownLatch executionLatch = new CountDownLatch(1);
+        long scheduledTime = System.nanoTime();
+        ScheduledMonitorTask task = MonitorScheduler.getInstance().scheduleOnce("cluster-3/instance-1",
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        executionCount.incrementAndGet();
+                        executionLatch.countDown();
+                    }
+                }, 200);
+
+        assertTrue("One-off task was not executed", executionLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        long delay = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scheduledTime);
+        assertTrue("One-off task was executed before its delay: " + delay, delay >= 200 - TICK_DURATION);
+
+        // A one-off task expires only once
+        awaitOneOffTask("cluster-3/marker", 300);
+        assertEquals("One-off task was not executed exactly once", 1, executionCount.get());
+        assertEquals(1, task.getExecutionCount());
+    }
+
+    @Test
+    public void testOverlappingExecutionsSkipped() throws InterruptedException {
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        ScheduledMonitorTask task = MonitorScheduler.getInstance().schedule("cluster-2", new Runnable() {
+            @Override
+            public void run() {
+                startedLatch.countDown();
+                try {
+                    releaseLatch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignore) {
+                }
+            }
+        }, 100);
+
+        assertTrue("Monitor task was not executed", startedLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        // The task expires at least twice while the first execution is blocked
+        awaitOneOffTask("cluster-2/marker-1", 300);
+        releaseLatch.countDown();
+        task.cancel();
+        awaitOneOffTask("cluster-2/marker-2", 200);
+
+        assertTrue("Slow monitor task executions were not skipped", task.getSkippedCount() > 0);
+        assertTrue("Max execution time was not recorded: " + task.getMaxExecutionTime(),
+                task.getMaxExecutionTime() >= 300 - TICK_DURATION);
+    }
+
+    @Test
+    public void testRejectedExecutionReported() throws InterruptedException {
+        final Semaphore startedTasks = new Semaphore(0);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        Runnable blockingTask = new Runnable() {
+            @Override
+            public void run() {
+                startedTasks.release();
+                try {
+                    releaseLatch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        final AtomicInteger executionCount = new AtomicInteger();
+        Runnable countingTask = new Runnable() {
+            @Override
+            public void run() {
+                executionCount.incrementAndGet();
+            }
+        };
+        final CountDownLatch skippedLatch = new CountDownLatch(1);
+        Runnable skipHandler = new Runnable() {
+            @Override
+            public void run() {
+                skippedLatch.countDown();
+            }
+        };
+
+        try {
+            // Occupy both worker threads one at a time, then the single queue slot
+            MonitorScheduler.getInstance().scheduleOnce("cluster-4/blocking-1", blockingTask, 0);
+            assertTrue("Blocking task was not executed", startedTasks.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+            MonitorScheduler.getInstance().scheduleOnce("cluster-4/blocking-2", blockingTask, 0);
+            assertTrue("Blocking task was not executed", startedTasks.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+            MonitorScheduler.getInstance().scheduleOnce("cluster-4/queued", countingTask, 0);
+
+            ScheduledMonitorTask task = MonitorScheduler.getInstance().scheduleOnce("cluster-4/rejected",
+                    countingTask, 0, skipHandler);
+            assertTrue("Rejected execution was not reported", skippedLatch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            assertEquals(1, task.getSkippedCount());
+            assertEquals(0, task.getExecutionCount());
+        } finally {
+            releaseLatch.countDown();
+        }
+        awaitOneOffTask("cluster-4/marker", 100);
+        assertEquals("Queued task was not executed", 1, executionCount.get());
+    }
+
+    /**
+     * Schedule a one-off task and wait until it is executed.
+     */
+    private static void awaitOneOffTask(String taskId, long delayMillis) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        MonitorScheduler.getInstance().scheduleOnce(taskId, new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, delayMillis);
+        assertTrue("One-off task was not executed: " + taskId, latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+}
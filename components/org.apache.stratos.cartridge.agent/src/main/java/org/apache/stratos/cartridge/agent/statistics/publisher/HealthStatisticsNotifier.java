@@ -31,15 +31,24 @@ import java.io.File;
 import java.util.List;
 
 /**
- * Health statistics notifier thread for publishing statistics periodically to CEP.
+ * Health statistics notifier thread for publishing statistics periodically to CEP. Statistics
+ * are sampled at a higher frequency into local windows and the mean of each window is published
+ * at the end of each publisher interval.
  */
 public class HealthStatisticsNotifier implements Runnable {
     private static final Log log = LogFactory.getLog(HealthStatisticsNotifier.class);
 
+    private static final int MAX_WINDOW_SIZE = 1024;
+
     private final HealthStatisticsPublisher statsPublisher;
     private IHealthStatisticsReader statsReader;
     private long statsPublisherInterval = 15000;
-    private boolean terminated;
+    private long statsSamplerInterval = 1000;
+    private final HealthStatisticsWindow memoryConsumptionWindow;
+    private final HealthStatisticsWindow loadAverageWindow;
+    private volatile boolean terminated;
+    private long lastErrorLogTime;
+    private int suppressedErrorCount;
 
     public HealthStatisticsNotifier() {
         this.statsPublisher = HealthStatisticsPublisherFactory.createHealthStatisticsPublisher(
@@ -82,8 +91,17 @@ public class HealthStatisticsNotifier implements Runnable {
 
         String interval = System.getProperty("stats.notifier.interval");
         if (interval != null) {
-            statsPublisherInterval = Long.getLong(interval);
+            statsPublisherInterval = Long.parseLong(interval);
+        }
+        String samplerInterval = System.getProperty("stats.sampler.interval");
+        if (samplerInterval != null) {
+            statsSamplerInterval = Long.parseLong(samplerInterval);
         }
+        statsSamplerInterval = Math.max(1, Math.min(statsSamplerInterval, statsPublisherInterval));
+
+        int windowSize = (int) Math.min(MAX_WINDOW_SIZE, (statsPublisherInterval / statsSamplerInterval) + 1);
+        memoryConsumptionWindow = new HealthStatisticsWindow(windowSize);
+        loadAverageWindow = new HealthStatisticsWindow(windowSize);
     }
 
     @Override
@@ -94,55 +112,93 @@ public class HealthStatisticsNotifier implements Runnable {
         }
         else
         {
+            long lastPublishedTime = System.currentTimeMillis();
             while (!terminated) {
                 try {
                     try {
-                        Thread.sleep(statsPublisherInterval);
+                        Thread.sleep(statsSamplerInterval);
                     } catch (InterruptedException ignore) {
                     }
 
-                    if (statsPublisher.isEnabled()) {
-
-                        CartridgeStatistics stats = statsReader.getCartridgeStatistics();
-
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Publishing memory consumption: %f", stats.getMemoryUsage()));
-                        }
-                        statsPublisher.publish(
-                                CartridgeAgentConfiguration.getInstance().getClusterId(),
-                                CartridgeAgentConfiguration.getInstance().getClusterInstanceId(),
-                                CartridgeAgentConfiguration.getInstance().getNetworkPartitionId(),
-                                CartridgeAgentConfiguration.getInstance().getMemberId(),
-                                CartridgeAgentConfiguration.getInstance().getPartitionId(),
-                                CartridgeAgentConstants.MEMORY_CONSUMPTION,
-                                stats.getMemoryUsage()
-                        );
-
-                        if(log.isDebugEnabled()) {
-                            log.debug(String.format("Publishing load average: %f", stats.getProcessorUsage()));
-                        }
-                        statsPublisher.publish(
-                                CartridgeAgentConfiguration.getInstance().getClusterId(),
-                                CartridgeAgentConfiguration.getInstance().getClusterInstanceId(),
-                                CartridgeAgentConfiguration.getInstance().getNetworkPartitionId(),
-                                CartridgeAgentConfiguration.getInstance().getMemberId(),
-                                CartridgeAgentConfiguration.getInstance().getPartitionId(),
-                                CartridgeAgentConstants.LOAD_AVERAGE,
-                                stats.getProcessorUsage()
-                        );
-                    } else if (log.isWarnEnabled()) {
-                        log.warn("Statistics publisher is disabled");
+                    CartridgeStatistics stats = statsReader.getCartridgeStatistics();
+                    long currentTime = System.currentTimeMillis();
+                    memoryConsumptionWindow.add(currentTime, stats.getMemoryUsage());
+                    loadAverageWindow.add(currentTime, stats.getProcessorUsage());
+
+                    if (currentTime - lastPublishedTime >= statsPublisherInterval) {
+                        lastPublishedTime = currentTime;
+                        publishStatistics();
                     }
                 } catch (Exception e) {
-                    if (log.isErrorEnabled()) {
-                        log.error("Could not publish health statistics", e);
-                    }
+                    logError(e);
                 }
             }
             this.statsReader.delete();
         }
     }
 
+    /**
+     * Errors are logged at most once per publisher interval, since a failing reader would
+     * otherwise log an error on each sample.
+     */
+    private void logError(Exception e) {
+        long currentTime = System.currentTimeMillis();
+        if (currentTime - lastErrorLogTime >= statsPublisherInterval) {
+            log.error(String.format("Could not publish health statistics: [suppressed-errors] %d",
+                    suppressedErrorCount), e);
+            lastErrorLogTime = currentTime;
+            suppressedErrorCount = 0;
+        } else {
+            suppressedErrorCount++;
+            if (log.isDebugEnabled()) {
+                log.debug("Could not publish health statistics", e);
+            }
+        }
+    }
+
+    private void publishStatistics() {
+        try {
+            if (statsPublisher.isEnabled()) {
+                double memoryConsumption = memoryConsumptionWindow.getMean();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Publishing memory consumption: [mean] %f [max] %f [gradient] %f " +
+                                    "[samples] %d", memoryConsumption, memoryConsumptionWindow.getMax(),
+                            memoryConsumptionWindow.getGradient(), memoryConsumptionWindow.size()));
+                }
+                statsPublisher.publish(
+                        CartridgeAgentConfiguration.getInstance().getClusterId(),
+                        CartridgeAgentConfiguration.getInstance().getClusterInstanceId(),
+                        CartridgeAgentConfiguration.getInstance().getNetworkPartitionId(),
+                        CartridgeAgentConfiguration.getInstance().getMemberId(),
+                        CartridgeAgentConfiguration.getInstance().getPartitionId(),
+                        CartridgeAgentConstants.MEMORY_CONSUMPTION,
+                        memoryConsumption
+                );
+
+                double loadAverage = loadAverageWindow.getMean();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Publishing load average: [mean] %f [max] %f [gradient] %f " +
+                                    "[samples] %d", loadAverage, loadAverageWindow.getMax(),
+                            loadAverageWindow.getGradient(), loadAverageWindow.size()));
+                }
+                statsPublisher.publish(
+                        CartridgeAgentConfiguration.getInstance().getClusterId(),
+                        CartridgeAgentConfiguration.getInstance().getClusterInstanceId(),
+                        CartridgeAgentConfiguration.getInstance().getNetworkPartitionId(),
+                        CartridgeAgentConfiguration.getInstance().getMemberId(),
+                        CartridgeAgentConfiguration.getInstance().getPartitionId(),
+                        CartridgeAgentConstants.LOAD_AVERAGE,
+                        loadAverage
+                );
+            } else if (log.isWarnEnabled()) {
+                log.warn("Statistics publisher is disabled");
+            }
+        } finally {
+            memoryConsumptionWindow.clear();
+            loadAverageWindow.clear();
+        }
+    }
+
     /**
      * Terminate load balancer statistics notifier thread.
      */
@@ -26,20 +26,28 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cartridge.agent.config.CartridgeAgentConfiguration;
 import org.apache.stratos.cartridge.agent.util.CartridgeAgentUtils;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.management.ManagementFactory;
-import java.util.Scanner;
 
 /**
- * Health statistics reader.
+ * Health statistics reader. Statistics are read from the proc file system if it is available,
+ * else from the operating system MXBean.
  */
 public class HealthStatisticsReader implements IHealthStatisticsReader {
 
     private static final int MB = 1024 * 1024;
     private static final Log log = LogFactory.getLog(HealthStatisticsReader.class);
-    
+
+    private ProcStatisticsReader procStatisticsReader;
+
     public boolean init() {
+        if (!isWindows() && ProcStatisticsReader.isSupported()) {
+            try {
+                procStatisticsReader = new ProcStatisticsReader();
+            } catch (IOException e) {
+                log.warn("Could not open proc statistics, operating system MXBean will be used", e);
+            }
+        }
         return true;
     }
 
@@ -51,32 +59,18 @@ public class HealthStatisticsReader implements IHealthStatisticsReader {
     		totalMemory = (double)(osBean.getTotalPhysicalMemorySize()/ MB);
     		usedMemory = (double)((totalMemory - (osBean.getFreePhysicalMemorySize() / MB) ));
     	} else {
-    		String fName = "/proc/meminfo";
+    		ProcStatisticsReader reader = null;
     		try {
-    			FileInputStream f = new FileInputStream(fName);
-
-    			/* $ cat /proc/meminfo
-    			 * MemTotal:        2056964 kB
-    			 * MemFree:           16716 kB
-    			 * Buffers:            9776 kB
-    			 * Cached:           127220 kB
-    			 */
-    			Scanner scanner = new Scanner(f).useDelimiter("\\D+");
-    			try {
-    				long memTotal = scanner.nextLong();
-    				long memFree = scanner.nextLong();
-    				long buffers = scanner.nextLong();
-    				long cached = scanner.nextLong();
-
-    				totalMemory = memTotal;
-    				usedMemory = memTotal - (memFree + buffers + cached);
-    			} catch (Exception ex) {
-    				log.error("Could not calculate memory usage.", ex);
-    			} finally {
-    				scanner.close();
-    			}
+    			reader = new ProcStatisticsReader();
+    			reader.sample();
+    			totalMemory = 100;
+    			usedMemory = reader.getMemoryConsumption();
     		} catch (IOException ex) {
     			log.error("Could not calculate memory usage.", ex);
+    		} finally {
+    			if (reader != null) {
+    				reader.close();
+    			}
     		}
     	}
         
@@ -107,6 +101,9 @@ public class HealthStatisticsReader implements IHealthStatisticsReader {
     }
     
     public CartridgeStatistics getCartridgeStatistics() throws IOException {
+        if (procStatisticsReader != null) {
+            return getProcCartridgeStatistics();
+        }
         OperatingSystemMXBean osBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
         double totalMemory = (double)(osBean.getTotalPhysicalMemorySize()/ MB);
         double usedMemory = (double)((totalMemory - (osBean.getFreePhysicalMemorySize() / MB) ));
@@ -124,6 +121,21 @@ public class HealthStatisticsReader implements IHealthStatisticsReader {
         return (new CartridgeStatistics(memoryConsumption, loadAvgPercentage));
     }
 
+    private CartridgeStatistics getProcCartridgeStatistics() throws IOException {
+        procStatisticsReader.sample();
+        // assume system cores = available cores to JVM
+        int cores = Runtime.getRuntime().availableProcessors();
+        double memoryConsumption = procStatisticsReader.getMemoryConsumption();
+        double loadAvg = procStatisticsReader.getLoadAverage();
+        double loadAvgPercentage = (loadAvg / cores) * 100;
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Proc statistics: [memory-consumption] %.2f%% [load-average] %.2f [cores] %d " +
+                            "[cpu-usage] %.2f%% [process-cpu-usage] %.2f%%", memoryConsumption, loadAvg, cores,
+                    procStatisticsReader.getCpuUsage(), procStatisticsReader.getProcessCpuUsage()));
+        }
+        return new CartridgeStatistics(memoryConsumption, loadAvgPercentage);
+    }
 
     public static boolean allPortsActive() {
         return CartridgeAgentUtils.checkPortsActive(CartridgeAgentConfiguration.getInstance().getListenAddress(),
@@ -136,5 +148,9 @@ public class HealthStatisticsReader implements IHealthStatisticsReader {
     }
 
     public void delete() {
+        if (procStatisticsReader != null) {
+            procStatisticsReader.close();
+            procStatisticsReader = null;
+        }
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.statistics.publisher;
+
+/**
+ * Fixed size ring buffer of health statistics samples. Samples are aggregated locally into
+ * mean, max and gradient values before they are published, the oldest sample is overwritten
+ * once the window is full.
+ */
+public class HealthStatisticsWindow {
+
+    private final long[] timestamps;
+    private final double[] values;
+    private int start;
+    private int count;
+
+    public HealthStatisticsWindow(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Health statistics window size should be greater than zero");
+        }
+        timestamps = new long[size];
+        values = new double[size];
+    }
+
+    /**
+     * Add a sample to the window.
+     * @param timestamp sample time in milliseconds
+     * @param value sample value
+     */
+    public void add(long timestamp, double value) {
+        int index = (start + count) % values.length;
+        timestamps[index] = timestamp;
+        values[index] = value;
+        if (count < values.length) {
+            count++;
+        } else {
+            start = (start + 1) % values.length;
+        }
+    }
+
+    public double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[(start + i) % values.length];
+        }
+        return sum / count;
+    }
+
+    public double getMax() {
+        if (count == 0) {
+            return 0;
+        }
+        double max = values[start];
+        for (int i = 1; i < count; i++) {
+            max = Math.max(max, values[(start + i) % values.length]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the least squares slope of the samples per second.
+     */
+    public double getGradient() {
+        if (count < 2) {
+            return 0;
+        }
+        long baseTime = timestamps[start];
+        double meanTime = 0, meanValue = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % values.length;
+            meanTime += (timestamps[index] - baseTime) / 1000d;
+            meanValue += values[index];
+        }
+        meanTime /= count;
+        meanValue /= count;
+
+        double covariance = 0, variance = 0;
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % values.length;
+            double time = ((timestamps[index] - baseTime) / 1000d) - meanTime;
+            covariance += time * (values[index] - meanValue);
+            variance += time * time;
+        }
+        return (variance > 0) ? (covariance / variance) : 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        start = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.statistics.publisher;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reads memory, load average and cpu statistics from the linux proc file system. Proc files are
+ * kept open and re-read from the beginning on each sample into a reused buffer, values are parsed
+ * directly from the buffer, hence sampling does not fork processes or allocate objects.
+ */
+public class ProcStatisticsReader {
+
+    private static final Log log = LogFactory.getLog(ProcStatisticsReader.class);
+
+    public static final String PROC_MEMINFO = "/proc/meminfo";
+    public static final String PROC_STAT = "/proc/stat";
+    public static final String PROC_LOADAVG = "/proc/loadavg";
+
+    private static final byte[] MEM_TOTAL = "MemTotal:".getBytes();
+    private static final byte[] MEM_FREE = "MemFree:".getBytes();
+    private static final byte[] MEM_AVAILABLE = "MemAvailable:".getBytes();
+    private static final byte[] BUFFERS = "Buffers:".getBytes();
+    private static final byte[] CACHED = "Cached:".getBytes();
+    private static final byte[] CPU = "cpu ".getBytes();
+
+    // Number of fields after the process name in /proc/<pid>/stat before utime
+    private static final int PROCESS_STAT_UTIME_OFFSET = 11;
+    private static final int CPU_TIME_FIELD_COUNT = 8;
+
+    private final byte[] buffer = new byte[8192];
+    private final RandomAccessFile meminfoFile;
+    private final RandomAccessFile statFile;
+    private final RandomAccessFile loadavgFile;
+    private final RandomAccessFile processStatFile;
+
+    private double memoryConsumption;
+    private double loadAverage;
+    private double cpuUsage;
+    private double processCpuUsage;
+    private long lastCpuTotalTime;
+    private long lastCpuIdleTime;
+    private long lastProcessCpuTime;
+
+    /**
+     * Create a proc statistics reader for the current process.
+     * @throws FileNotFoundException if proc files are not available
+     */
+    public ProcStatisticsReader() throws FileNotFoundException {
+        this("self");
+    }
+
+    /**
+     * Create a proc statistics reader.
+     * @param pid process id of the process of which cpu usage is sampled
+     * @throws FileNotFoundException if proc files are not available
+     */
+    public ProcStatisticsReader(String pid) throws FileNotFoundException {
+        this(PROC_MEMINFO, PROC_STAT, PROC_LOADAVG, "/proc/" + pid + "/stat");
+    }
+
+    /**
+     * Create a proc statistics reader for the given files, files opened are closed if a file
+     * could not be opened.
+     * @param meminfoPath path of the meminfo file
+     * @param statPath path of the stat file
+     * @param loadavgPath path of the loadavg file
+     * @param processStatPath path of the process stat file, process cpu usage is not sampled if
+     *                        the file is not available
+     * @throws FileNotFoundException if the meminfo, stat or loadavg file is not available
+     */
+    public ProcStatisticsReader(String meminfoPath, String statPath, String loadavgPath, String processStatPath)
+            throws FileNotFoundException {
+        RandomAccessFile meminfo = null, stat = null, loadavg = null;
+        try {
+            meminfo = new RandomAccessFile(meminfoPath, "r");
+            stat = new RandomAccessFile(statPath, "r");
+            loadavg = new RandomAccessFile(loadavgPath, "r");
+        } catch (FileNotFoundException e) {
+            close(meminfo);
+            close(stat);
+            throw e;
+        }
+        meminfoFile = meminfo;
+        statFile = stat;
+        loadavgFile = loadavg;
+
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(processStatPath, "r");
+        } catch (FileNotFoundException e) {
+            log.warn(String.format("Process statistics not found: [path] %s", processStatPath));
+        }
+        processStatFile = file;
+    }
+
+    /**
+     * Returns true if the proc file system is available.
+     */
+    public static boolean isSupported() {
+        return new File(PROC_MEMINFO).canRead() && new File(PROC_STAT).canRead()
+                && new File(PROC_LOADAVG).canRead();
+    }
+
+    /**
+     * Read a new sample from the proc file system. Cpu usage values are calculated for the
+     * period since the previous sample.
+     * @throws IOException if a proc file could not be read
+     */
+    public synchronized void sample() throws IOException {
+        readMemoryConsumption();
+        readLoadAverage();
+        long cpuTotalTime = lastCpuTotalTime;
+        readCpuUsage();
+        if (processStatFile != null) {
+            readProcessCpuUsage(lastCpuTotalTime - cpuTotalTime);
+        }
+    }
+
+    private void readMemoryConsumption() throws IOException {
+        int length = read(meminfoFile);
+        long memTotal = readValue(MEM_TOTAL, length);
+        long memAvailable = readValue(MEM_AVAILABLE, length);
+        if (memAvailable < 0) {
+            // Kernels older than 3.14 do not report available memory
+            memAvailable = Math.max(readValue(MEM_FREE, length), 0) + Math.max(readValue(BUFFERS, length), 0)
+                    + Math.max(readValue(CACHED, length), 0);
+        }
+        if (memTotal <= 0) {
+            throw new IOException("Could not find total memory in " + PROC_MEMINFO);
+        }
+        memoryConsumption = ((double) (memTotal - memAvailable) / memTotal) * 100;
+    }
+
+    private void readLoadAverage() throws IOException {
+        int length = read(loadavgFile);
+        // $ cat /proc/loadavg
+        // 0.20 0.18 0.12 1/80 11206
+        loadAverage = parseDouble(0, length);
+    }
+
+    private void readCpuUsage() throws IOException {
+        int length = read(statFile);
+        // $ cat /proc/stat
+        // cpu  user nice system idle iowait irq softirq steal guest guest_nice
+        int offset = indexOfKey(CPU, length);
+        if (offset < 0) {
+            throw new IOException("Could not find cpu times in " + PROC_STAT);
+        }
+        offset += CPU.length;
+        long totalTime = 0, idleTime = 0;
+        for (int i = 0; i < CPU_TIME_FIELD_COUNT; i++) {
+            offset = skipSpaces(offset, length);
+            long value = parseLong(offset, length);
+            totalTime += value;
+            if ((i == 3) || (i == 4)) {
+                idleTime += value;
+            }
+            offset = skipField(offset, length);
+        }
+        long totalDelta = totalTime - lastCpuTotalTime;
+        long idleDelta = idleTime - lastCpuIdleTime;
+        cpuUsage = (totalDelta > 0) ? ((double) (totalDelta - idleDelta) / totalDelta) * 100 : 0;
+        lastCpuTotalTime = totalTime;
+        lastCpuIdleTime = idleTime;
+    }
+
+    private void readProcessCpuUsage(long cpuTotalDelta) throws IOException {
+        int length = read(processStatFile);
+        // $ cat /proc/<pid>/stat
+        // pid (comm) state ppid pgrp session tty_nr tpgid flags minflt cminflt majflt cmajflt utime stime
+        int offset = length - 1;
+        while ((offset >= 0) && (buffer[offset] != ')')) {
+            offset--;
+        }
+        if (offset < 0) {
+            throw new IOException("Could not parse process statistics");
+        }
+        offset++;
+        for (int i = 0; i < PROCESS_STAT_UTIME_OFFSET; i++) {
+            offset = skipField(skipSpaces(offset, length), length);
+        }
+        offset = skipSpaces(offset, length);
+        long processCpuTime = parseLong(offset, length);
+        offset = skipSpaces(skipField(offset, length), length);
+        processCpuTime += parseLong(offset, length);
+
+        long processDelta = processCpuTime - lastProcessCpuTime;
+        processCpuUsage = (cpuTotalDelta > 0) ? ((double) processDelta / cpuTotalDelta) * 100 : 0;
+        lastProcessCpuTime = processCpuTime;
+    }
+
+    /**
+     * Read a proc file from the beginning into the buffer.
+     * @return number of bytes read
+     */
+    private int read(RandomAccessFile file) throws IOException {
+        file.seek(0);
+        int length = 0;
+        int count;
+        while ((length < buffer.length) && ((count = file.read(buffer, length, buffer.length - length)) > 0)) {
+            length += count;
+        }
+        return length;
+    }
+
+    /**
+     * Find the value of a key at the beginning of a line, returns -1 if the key is not found.
+     */
+    private long readValue(byte[] key, int length) {
+        int offset = indexOfKey(key, length);
+        if (offset < 0) {
+            return -1;
+        }
+        return parseLong(skipSpaces(offset + key.length, length), length);
+    }
+
+    private int indexOfKey(byte[] key, int length) {
+        int lineStart = 0;
+        while (lineStart < length) {
+            if (startsWith(key, lineStart, length)) {
+                return lineStart;
+            }
+            while ((lineStart < length) && (buffer[lineStart] != '\n')) {
+                lineStart++;
+            }
+            lineStart++;
+        }
+        return -1;
+    }
+
+    private boolean startsWith(byte[] key, int offset, int length) {
+        if (offset + key.length > length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer[offset + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipSpaces(int offset, int length) {
+        while ((offset < length) && (buffer[offset] == ' ' || buffer[offset] == '\t')) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private int skipField(int offset, int length) {
+        while ((offset < length) && (buffer[offset] != ' ') && (buffer[offset] != '\n')) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private long parseLong(int offset, int length) {
+        long value = 0;
+        while ((offset < length) && (buffer[offset] >= '0') && (buffer[offset] <= '9')) {
+            value = (value * 10) + (buffer[offset] - '0');
+            offset++;
+        }
+        return value;
+    }
+
+    private double parseDouble(int offset, int length) {
+        double value = parseLong(offset, length);
+        while ((offset < length) && (buffer[offset] >= '0') && (buffer[offset] <= '9')) {
+            offset++;
+        }
+        if ((offset < length) && (buffer[offset] == '.')) {
+            offset++;
+            double scale = 0.1;
+            while ((offset < length) && (buffer[offset] >= '0') && (buffer[offset] <= '9')) {
+                value += (buffer[offset] - '0') * scale;
+                scale /= 10;
+                offset++;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns used memory as a percentage of total memory.
+     */
+    public synchronized double getMemoryConsumption() {
+        return memoryConsumption;
+    }
+
+    /**
+     * Returns the one minute load average.
+     */
+    public synchronized double getLoadAverage() {
+        return loadAverage;
+    }
+
+    /**
+     * Returns cpu usage of the system as a percentage since the previous sample.
+     */
+    public synchronized double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    /**
+     * Returns cpu usage of the process as a percentage of total cpu time since the previous sample.
+     */
+    public synchronized double getProcessCpuUsage() {
+        return processCpuUsage;
+    }
+
+    /**
+     * Close proc files.
+     */
+    public synchronized void close() {
+        close(meminfoFile);
+        close(statFile);
+        close(loadavgFile);
+        close(processStatFile);
+    }
+
+    private static void close(RandomAccessFile file) {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
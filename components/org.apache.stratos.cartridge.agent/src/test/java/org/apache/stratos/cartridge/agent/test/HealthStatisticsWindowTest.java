@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.test;
+
+import org.apache.stratos.cartridge.agent.statistics.publisher.HealthStatisticsWindow;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test aggregation of health statistics samples in a window.
+ */
+public class HealthStatisticsWindowTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testGradient() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(10);
+        // Value increases by 2 per second
+        for (int i = 0; i < 5; i++) {
+            window.add(10000 + (i * 1000), 50 + (i * 2));
+        }
+        assertEquals(2, window.getGradient(), DELTA);
+        assertEquals(54, window.getMean(), DELTA);
+        assertEquals(58, window.getMax(), DELTA);
+    }
+
+    @Test
+    public void testNegativeGradient() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(10);
+        window.add(0, 90);
+        window.add(500, 85);
+        window.add(1000, 80);
+        assertEquals(-10, window.getGradient(), DELTA);
+    }
+
+    @Test
+    public void testGradientOfNoisySamples() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(10);
+        // Least squares slope of (0, 1), (1, 3), (2, 2), (3, 4) is 0.8
+        window.add(0, 1);
+        window.add(1000, 3);
+        window.add(2000, 2);
+        window.add(3000, 4);
+        assertEquals(0.8, window.getGradient(), DELTA);
+    }
+
+    @Test
+    public void testGradientWithoutEnoughSamples() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(10);
+        assertEquals(0, window.getGradient(), DELTA);
+        window.add(1000, 50);
+        assertEquals(0, window.getGradient(), DELTA);
+        // Samples taken at the same time do not have a slope
+        window.add(1000, 60);
+        assertEquals(0, window.getGradient(), DELTA);
+    }
+
+    @Test
+    public void testGradientAfterWrapAround() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(3);
+        window.add(0, 100);
+        window.add(1000, 0);
+        // Oldest samples are overwritten, remaining samples increase by 5 per second
+        window.add(2000, 10);
+        window.add(3000, 15);
+        window.add(4000, 20);
+        assertEquals(3, window.size());
+        assertEquals(5, window.getGradient(), DELTA);
+        assertEquals(15, window.getMean(), DELTA);
+        assertEquals(20, window.getMax(), DELTA);
+    }
+
+    @Test
+    public void testClear() {
+        HealthStatisticsWindow window = new HealthStatisticsWindow(3);
+        window.add(0, 10);
+        window.add(1000, 20);
+        window.clear();
+        assertEquals(0, window.size());
+        assertEquals(0, window.getMean(), DELTA);
+        assertEquals(0, window.getGradient(), DELTA);
+    }
+}
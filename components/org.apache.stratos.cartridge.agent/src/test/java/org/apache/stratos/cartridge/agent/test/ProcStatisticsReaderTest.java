@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cartridge.agent.test;
+
+import org.apache.stratos.cartridge.agent.statistics.publisher.ProcStatisticsReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test parsing of proc files by the proc statistics reader.
+ */
+public class ProcStatisticsReaderTest {
+
+    private static final double DELTA = 0.0001;
+
+    private File meminfoFile;
+    private File statFile;
+    private File loadavgFile;
+    private File processStatFile;
+    private ProcStatisticsReader reader;
+
+    @Before
+    public void setUp() throws IOException {
+        meminfoFile = createFile("meminfo");
+        statFile = createFile("stat");
+        loadavgFile = createFile("loadavg");
+        processStatFile = createFile("pid-stat");
+
+        write(meminfoFile, "MemTotal:        8000000 kB\n" +
+                "MemFree:         1000000 kB\n" +
+                "MemAvailable:    2000000 kB\n" +
+                "Buffers:          500000 kB\n" +
+                "Cached:          1500000 kB\n");
+        write(statFile, "cpu  100 0 100 700 100 0 0 0 0 0\n" +
+                "cpu0 100 0 100 700 100 0 0 0 0 0\n" +
+                "intr 12345\n");
+        write(loadavgFile, "0.75 0.50 0.25 1/80 11206\n");
+        // Process name contains spaces and parentheses
+        write(processStatFile, "1234 (java (main) x) S 1 1 1 0 -1 4194560 100 0 0 0 50 25 0 0 20 0\n");
+        reader = new ProcStatisticsReader(meminfoFile.getPath(), statFile.getPath(), loadavgFile.getPath(),
+                processStatFile.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        reader.close();
+    }
+
+    @Test
+    public void testMemoryConsumption() throws IOException {
+        reader.sample();
+        assertEquals(75, reader.getMemoryConsumption(), DELTA);
+    }
+
+    @Test
+    public void testMemoryConsumptionWithoutMemAvailable() throws IOException {
+        write(meminfoFile, "MemTotal:        8000000 kB\n" +
+                "MemFree:         1000000 kB\n" +
+                "Buffers:          500000 kB\n" +
+                "Cached:          1500000 kB\n");
+        reader.sample();
+        assertEquals(62.5, reader.getMemoryConsumption(), DELTA);
+    }
+
+    @Test(expected = IOException.class)
+    public void testMemoryConsumptionWithoutMemTotal() throws IOException {
+        write(meminfoFile, "MemFree:         1000000 kB\n");
+        reader.sample();
+    }
+
+    @Test
+    public void testLoadAverage() throws IOException {
+        reader.sample();
+        assertEquals(0.75, reader.getLoadAverage(), DELTA);
+    }
+
+    @Test
+    public void testCpuUsage() throws IOException {
+        reader.sample();
+        assertEquals(20, reader.getCpuUsage(), DELTA);
+
+        // 1000 ticks elapsed, 600 of them idle
+        write(statFile, "cpu  400 0 200 1200 200 0 0 0 0 0\n");
+        reader.sample();
+        assertEquals(40, reader.getCpuUsage(), DELTA);
+    }
+
+    @Test
+    public void testProcessCpuUsage() throws IOException {
+        reader.sample();
+        assertEquals(7.5, reader.getProcessCpuUsage(), DELTA);
+
+        // 1000 ticks elapsed, 300 of them used by the process
+        write(statFile, "cpu  400 0 200 1200 200 0 0 0 0 0\n");
+        write(processStatFile, "1234 (java (main) x) S 1 1 1 0 -1 4194560 100 0 0 0 250 125 0 0 20 0\n");
+        reader.sample();
+        assertEquals(30, reader.getProcessCpuUsage(), DELTA);
+    }
+
+    @Test
+    public void testMissingProcessStatistics() throws IOException {
+        reader.close();
+        reader = new ProcStatisticsReader(meminfoFile.getPath(), statFile.getPath(), loadavgFile.getPath(),
+                processStatFile.getPath() + ".missing");
+        reader.sample();
+        assertEquals(0, reader.getProcessCpuUsage(), DELTA);
+        assertEquals(75, reader.getMemoryConsumption(), DELTA);
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingProcFile() throws IOException {
+        new ProcStatisticsReader(meminfoFile.getPath(), statFile.getPath(), loadavgFile.getPath() + ".missing",
+                processStatFile.getPath());
+    }
+
+    private static File createFile(String name) throws IOException {
+        File file = File.createTempFile("proc-" + name, ".txt");
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Overwrite the file in place, hence the file kept open by the reader sees the new content.
+     */
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+    }
+}
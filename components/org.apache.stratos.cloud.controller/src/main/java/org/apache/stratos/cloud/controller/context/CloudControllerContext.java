@@ -35,10 +35,10 @@ import org.apache.stratos.cloud.controller.exception.NonExistingKubernetesHostEx
 import org.apache.stratos.cloud.controller.internal.ServiceReferenceHolder;
 import org.apache.stratos.cloud.controller.registry.RegistryManager;
 import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
+import org.apache.stratos.common.clustering.DistributedMultiMap;
 import org.apache.stratos.common.clustering.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.wso2.carbon.databridge.agent.thrift.AsyncDataPublisher;
-import org.wso2.carbon.registry.core.exceptions.RegistryException;
 
 import java.io.Serializable;
 import java.util.*;
@@ -55,7 +55,7 @@ public class CloudControllerContext implements Serializable {
     private static final long serialVersionUID = -2662307358852779897L;
     private static final Log log = LogFactory.getLog(CloudControllerContext.class);
 
-    private static final String CC_CLUSTER_ID_TO_MEMBER_CTX_MAP = "CC_CLUSTER_ID_TO_MEMBER_CTX_MAP";
+    private static final String CC_CLUSTER_ID_TO_MEMBER_IDS_MULTI_MAP = "CC_CLUSTER_ID_TO_MEMBER_IDS_MULTI_MAP";
     private static final String CC_CLUSTER_ID_TO_CLUSTER_CTX = "CC_CLUSTER_ID_TO_CLUSTER_CTX";
     private static final String CC_MEMBER_ID_TO_MEMBER_CTX_MAP = "CC_MEMBER_ID_TO_MEMBER_CTX_MAP";
     private static final String CC_MEMBER_ID_TO_SCH_TASK_MAP = "CC_MEMBER_ID_TO_SCH_TASK_MAP";
@@ -64,9 +64,12 @@ public class CloudControllerContext implements Serializable {
     private static final String CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP = "CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP";
     private static final String CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP = "CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP";
     private static final String CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP = "CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP";
+    private static final String CC_CONTEXT_DIRTY_KEYS_MAP = "CC_CONTEXT_DIRTY_KEYS_MAP";
 
     private static final String CC_CLUSTER_CTX_WRITE_LOCK = "CC_CLUSTER_CTX_WRITE_LOCK";
     private static final String CC_MEMBER_CTX_WRITE_LOCK = "CC_MEMBER_CTX_WRITE_LOCK";
+    private static final String CC_MEMBER_WRITE_LOCK = "CC_MEMBER_WRITE_LOCK";
+    private static final int CC_MEMBER_WRITE_LOCK_STRIPES = 256;
     private static final String CC_SCH_TASK_WRITE_LOCK = "CC_SCH_TASK_WRITE_LOCK";
     private static final String CC_KUB_GROUP_WRITE_LOCK = "CC_KUB_GROUP_WRITE_LOCK";
     private static final String CC_KUB_CLUSTER_CTX_WRITE_LOCK = "CC_KUB_CLUSTER_CTX_WRITE_LOCK";
@@ -88,9 +91,9 @@ public class CloudControllerContext implements Serializable {
 
     /**
      * Key - cluster id
-     * Value - list of {@link MemberContext}
+     * Value - member ids of the cluster, each member id is stored as a separate entry
      */
-    private Map<String, List<MemberContext>> clusterIdToMemberContextListMap;
+    private transient DistributedMultiMap<String, String> clusterIdToMemberIdsMap;
 
     /**
      * Key - member id
@@ -150,6 +153,7 @@ public class CloudControllerContext implements Serializable {
 
     private transient AsyncDataPublisher dataPublisher;
     private boolean coordinator;
+    private final transient CloudControllerContextPersister persister;
 
     private CloudControllerContext() {
         // Check clustering status
@@ -163,14 +167,26 @@ public class CloudControllerContext implements Serializable {
 
         // Initialize objects
         kubernetesClustersMap = distributedObjectProvider.getMap(CC_KUB_GROUP_ID_TO_GROUP_MAP);
-        clusterIdToMemberContextListMap = distributedObjectProvider.getMap(CC_CLUSTER_ID_TO_MEMBER_CTX_MAP);
+        clusterIdToMemberIdsMap = distributedObjectProvider.getMultiMap(CC_CLUSTER_ID_TO_MEMBER_IDS_MULTI_MAP);
         memberIdToMemberContextMap = distributedObjectProvider.getMap(CC_MEMBER_ID_TO_MEMBER_CTX_MAP);
         memberIdToScheduledTaskMap = distributedObjectProvider.getMap(CC_MEMBER_ID_TO_SCH_TASK_MAP);
         kubClusterIdToKubClusterContextMap = distributedObjectProvider.getMap(CC_KUB_CLUSTER_ID_TO_KUB_CLUSTER_CTX_MAP);
-        clusterIdToContextMap = distributedObjectProvider.getMap(CC_CLUSTER_ID_TO_CLUSTER_CTX);
+        clusterIdToContextMap = distributedObjectProvider.getNearCachedMap(CC_CLUSTER_ID_TO_CLUSTER_CTX);
         cartridgeTypeToPartitionIdsMap = distributedObjectProvider.getMap(CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP);
-        cartridgeTypeToCartridgeMap = distributedObjectProvider.getMap(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP);
-        serviceGroupNameToServiceGroupMap = distributedObjectProvider.getMap(CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP);
+        cartridgeTypeToCartridgeMap = distributedObjectProvider.getNearCachedMap(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP);
+        serviceGroupNameToServiceGroupMap = distributedObjectProvider.getNearCachedMap(
+                CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP);
+
+        // Initialize persister
+        persister = new CloudControllerContextPersister(CloudControllerConstants.CONTEXT_RESOURCE,
+                distributedObjectProvider.getMap(CC_CONTEXT_DIRTY_KEYS_MAP));
+        persister.addMap(CC_KUB_GROUP_ID_TO_GROUP_MAP, kubernetesClustersMap);
+        persister.addMap(CC_MEMBER_ID_TO_MEMBER_CTX_MAP, memberIdToMemberContextMap);
+        persister.addMap(CC_KUB_CLUSTER_ID_TO_KUB_CLUSTER_CTX_MAP, kubClusterIdToKubClusterContextMap);
+        persister.addMap(CC_CLUSTER_ID_TO_CLUSTER_CTX, clusterIdToContextMap);
+        persister.addMap(CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP, cartridgeTypeToPartitionIdsMap);
+        persister.addMap(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP, cartridgeTypeToCartridgeMap);
+        persister.addMap(CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP, serviceGroupNameToServiceGroupMap);
 
         // Update context from the registry
         updateContextFromRegistry();
@@ -208,6 +224,9 @@ public class CloudControllerContext implements Serializable {
     }
 
     public Cartridge getCartridge(String cartridgeType) {
+        if (cartridgeType == null) {
+            return null;
+        }
         return cartridgeTypeToCartridgeMap.get(cartridgeType);
     }
 
@@ -227,6 +246,18 @@ public class CloudControllerContext implements Serializable {
         return acquireWriteLock(CC_MEMBER_CTX_WRITE_LOCK);
     }
 
+    /**
+     * Acquire write lock of a member for serializing the instance life-cycle operations of the
+     * member. Member write locks are striped by member id, hence the number of lock objects
+     * does not grow with the number of members.
+     * @param memberId member id
+     * @return member write lock
+     */
+    public Lock acquireMemberWriteLock(String memberId) {
+        int stripe = (memberId.hashCode() & 0x7fffffff) % CC_MEMBER_WRITE_LOCK_STRIPES;
+        return acquireWriteLock(CC_MEMBER_WRITE_LOCK + "_" + stripe);
+    }
+
     public Lock acquireScheduleTaskWriteLock() {
         return acquireWriteLock(CC_SCH_TASK_WRITE_LOCK);
     }
@@ -249,16 +280,21 @@ public class CloudControllerContext implements Serializable {
 
     public void addCartridge(Cartridge cartridge) {
         cartridgeTypeToCartridgeMap.put(cartridge.getType(), cartridge);
+        persister.markDirty(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP, cartridge.getType());
     }
 
-    public void removeCartridge(Cartridge cartridge) {
+    public boolean removeCartridge(Cartridge cartridge) {
         if(cartridgeTypeToCartridgeMap.containsKey(cartridge.getType())) {
             cartridgeTypeToCartridgeMap.remove(cartridge.getType());
+            persister.markDirty(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP, cartridge.getType());
+            return true;
         }
+        return false;
     }
 
     public void updateCartridge(Cartridge cartridge) {
         cartridgeTypeToCartridgeMap.put(cartridge.getType(), cartridge);
+        persister.markDirty(CC_CARTRIDGE_TYPE_TO_CARTRIDGES_MAP, cartridge.getType());
     }
 
     public ServiceGroup getServiceGroup(String name) {
@@ -267,6 +303,7 @@ public class CloudControllerContext implements Serializable {
 
     public void addServiceGroup(ServiceGroup serviceGroup) {
         serviceGroupNameToServiceGroupMap.put(serviceGroup.getName(), serviceGroup);
+        persister.markDirty(CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP, serviceGroup.getName());
     }
 
     public void removeServiceGroups(List<ServiceGroup> serviceGroups) {
@@ -275,10 +312,13 @@ public class CloudControllerContext implements Serializable {
         }
     }
 
-    private void removeServiceGroup(ServiceGroup serviceGroup) {
+    public boolean removeServiceGroup(ServiceGroup serviceGroup) {
         if(serviceGroupNameToServiceGroupMap.containsKey(serviceGroup.getName())) {
             serviceGroupNameToServiceGroupMap.remove(serviceGroup.getName());
+            persister.markDirty(CC_SERVICE_GROUP_NAME_TO_SERVICE_GROUP_MAP, serviceGroup.getName());
+            return true;
         }
+        return false;
     }
 
     public AsyncDataPublisher getDataPublisher() {
@@ -315,16 +355,8 @@ public class CloudControllerContext implements Serializable {
 
     public void addMemberContext(MemberContext memberContext) {
         memberIdToMemberContextMap.put(memberContext.getMemberId(), memberContext);
-
-        List<MemberContext> memberContextList;
-        if ((memberContextList = clusterIdToMemberContextListMap.get(memberContext.getClusterId())) == null) {
-            memberContextList = new ArrayList<MemberContext>();
-        }
-        if (memberContextList.contains(memberContext)) {
-            memberContextList.remove(memberContext);
-        }
-        memberContextList.add(memberContext);
-        clusterIdToMemberContextListMap.put(memberContext.getClusterId(), memberContextList);
+        clusterIdToMemberIdsMap.put(memberContext.getClusterId(), memberContext.getMemberId());
+        persister.markDirty(CC_MEMBER_ID_TO_MEMBER_CTX_MAP, memberContext.getMemberId());
         if (log.isDebugEnabled()) {
             log.debug("Added member context to the cloud controller context: " + memberContext);
         }
@@ -332,16 +364,8 @@ public class CloudControllerContext implements Serializable {
 
     public void updateMemberContext(MemberContext memberContext) {
         memberIdToMemberContextMap.put(memberContext.getMemberId(), memberContext);
-
-        List<MemberContext> memberContextList;
-        if ((memberContextList = clusterIdToMemberContextListMap.get(memberContext.getClusterId())) == null) {
-            memberContextList = new ArrayList<MemberContext>();
-        }
-        if (memberContextList.contains(memberContext)) {
-            memberContextList.remove(memberContext);
-        }
-        memberContextList.add(memberContext);
-        clusterIdToMemberContextListMap.put(memberContext.getClusterId(), memberContextList);
+        clusterIdToMemberIdsMap.put(memberContext.getClusterId(), memberContext.getMemberId());
+        persister.markDirty(CC_MEMBER_ID_TO_MEMBER_CTX_MAP, memberContext.getMemberId());
         if (log.isDebugEnabled()) {
             log.debug("Member context updated in the cloud controller context: " + memberContext);
         }
@@ -352,14 +376,11 @@ public class CloudControllerContext implements Serializable {
     }
 
     public List<MemberContext> removeMemberContextsOfCluster(String clusterId) {
-        List<MemberContext> memberContextList = clusterIdToMemberContextListMap.get(clusterId);
-        clusterIdToMemberContextListMap.remove(clusterId);
-        if (memberContextList == null) {
-            return new ArrayList<MemberContext>();
-        }
-        for (MemberContext memberContext : memberContextList) {
-            String memberId = memberContext.getMemberId();
+        Collection<String> memberIds = clusterIdToMemberIdsMap.remove(clusterId);
+        List<MemberContext> memberContextList = getMemberContexts(memberIds);
+        for (String memberId : memberIds) {
             memberIdToMemberContextMap.remove(memberId);
+            persister.markDirty(CC_MEMBER_ID_TO_MEMBER_CTX_MAP, memberId);
             ScheduledFuture<?> task = memberIdToScheduledTaskMap.get(memberId);
             memberIdToScheduledTaskMap.remove(memberId);
             stopTask(task);
@@ -375,20 +396,12 @@ public class CloudControllerContext implements Serializable {
     public MemberContext removeMemberContext(String clusterId, String memberId) {
         MemberContext removedMemberContext = memberIdToMemberContextMap.get(memberId);
         memberIdToMemberContextMap.remove(memberId);
+        persister.markDirty(CC_MEMBER_ID_TO_MEMBER_CTX_MAP, memberId);
 
-        List<MemberContext> memberContextList = clusterIdToMemberContextListMap.get(clusterId);
-        if (memberContextList != null) {
-            List<MemberContext> newCtxts = new ArrayList<MemberContext>(memberContextList);
-            for (Iterator<MemberContext> iterator = newCtxts.iterator(); iterator.hasNext(); ) {
-                MemberContext memberContext = iterator.next();
-                if (memberId.equals(memberContext.getMemberId())) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Member context removed from cloud controller context: [member-id] " + memberId);
-                    }
-                    iterator.remove();
-                }
+        if (clusterIdToMemberIdsMap.remove(clusterId, memberId)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Member context removed from cloud controller context: [member-id] " + memberId);
             }
-            clusterIdToMemberContextListMap.put(clusterId, newCtxts);
         }
         ScheduledFuture<?> task = memberIdToScheduledTaskMap.get(memberId);
         memberIdToScheduledTaskMap.remove(memberId);
@@ -407,25 +420,56 @@ public class CloudControllerContext implements Serializable {
         return memberIdToMemberContextMap.get(memberId);
     }
 
+    /**
+     * Returns member contexts of a cluster, member contexts are read in a single batched call.
+     * @param clusterId cluster id
+     * @return member contexts of the cluster, or null if no members are found
+     */
     public List<MemberContext> getMemberContextsOfClusterId(String clusterId) {
-        return clusterIdToMemberContextListMap.get(clusterId);
+        Collection<String> memberIds = clusterIdToMemberIdsMap.get(clusterId);
+        if (memberIds.isEmpty()) {
+            return null;
+        }
+        return getMemberContexts(memberIds);
+    }
+
+    private List<MemberContext> getMemberContexts(Collection<String> memberIds) {
+        List<MemberContext> memberContexts = new ArrayList<MemberContext>();
+        if (memberIds.isEmpty()) {
+            return memberContexts;
+        }
+        Map<String, MemberContext> memberIdToMemberContext = distributedObjectProvider.getAll(
+                CC_MEMBER_ID_TO_MEMBER_CTX_MAP, new HashSet<String>(memberIds));
+        for (String memberId : memberIds) {
+            MemberContext memberContext = memberIdToMemberContext.get(memberId);
+            if (memberContext != null) {
+                memberContexts.add(memberContext);
+            }
+        }
+        return memberContexts;
     }
 
     public void addClusterContext(ClusterContext clusterContext) {
         clusterIdToContextMap.put(clusterContext.getClusterId(), clusterContext);
+        persister.markDirty(CC_CLUSTER_ID_TO_CLUSTER_CTX, clusterContext.getClusterId());
     }
 
     public void updateClusterContext(ClusterContext clusterContext) {
         clusterIdToContextMap.put(clusterContext.getClusterId(), clusterContext);
+        persister.markDirty(CC_CLUSTER_ID_TO_CLUSTER_CTX, clusterContext.getClusterId());
     }
 
     public ClusterContext getClusterContext(String clusterId) {
+        if (clusterId == null) {
+            return null;
+        }
         return clusterIdToContextMap.get(clusterId);
     }
 
     public ClusterContext removeClusterContext(String clusterId) {
         ClusterContext removed = clusterIdToContextMap.get(clusterId);
         clusterIdToContextMap.remove(clusterId);
+        persister.markDirty(CC_CLUSTER_ID_TO_CLUSTER_CTX, clusterId);
         return removed;
     }
 
@@ -444,10 +488,12 @@ public class CloudControllerContext implements Serializable {
         }
         list.add(partitionId);
         cartridgeTypeToPartitionIdsMap.put(cartridgeType, list);
+        persister.markDirty(CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP, cartridgeType);
     }
 
     public void removeFromCartridgeTypeToPartitionIds(String cartridgeType) {
         cartridgeTypeToPartitionIdsMap.remove(cartridgeType);
+        persister.markDirty(CC_CARTRIDGE_TYPE_TO_PARTITION_IDS_MAP, cartridgeType);
     }
 
     public KubernetesClusterContext getKubernetesClusterContext(String kubernetesClusterId) {
@@ -458,6 +504,12 @@ public class CloudControllerContext implements Serializable {
         kubClusterIdToKubClusterContextMap.put(
                 kubernetesClusterContext.getKubernetesClusterId(),
                 kubernetesClusterContext);
+        persister.markDirty(CC_KUB_CLUSTER_ID_TO_KUB_CLUSTER_CTX_MAP,
+                kubernetesClusterContext.getKubernetesClusterId());
+    }
+
+    public void updateKubernetesClusterContext(KubernetesClusterContext kubernetesClusterContext) {
+        addKubernetesClusterContext(kubernetesClusterContext);
     }
     
     /**
@@ -466,6 +518,7 @@ public class CloudControllerContext implements Serializable {
     public synchronized void removeKubernetesCluster(String kubernetesClusterId) {
         // Remove entry from information model
         kubernetesClustersMap.remove(kubernetesClusterId);
+        persister.markDirty(CC_KUB_GROUP_ID_TO_GROUP_MAP, kubernetesClusterId);
     }
 
     /**
@@ -501,6 +554,7 @@ public class CloudControllerContext implements Serializable {
 
             // Update information model
             kubernetesClusterStored.setKubernetesHosts(kubernetesHostsArray);
+            updateKubernetesCluster(kubernetesClusterStored);
 
             if (log.isInfoEnabled()) {
                 log.info(String.format("Kubernetes host removed successfully: [id] %s", kubernetesHostId));
@@ -514,10 +568,12 @@ public class CloudControllerContext implements Serializable {
 
     public void addKubernetesCluster(KubernetesCluster kubernetesCluster) {
         kubernetesClustersMap.put(kubernetesCluster.getClusterId(), kubernetesCluster);
+        persister.markDirty(CC_KUB_GROUP_ID_TO_GROUP_MAP, kubernetesCluster.getClusterId());
     }
 
     public void updateKubernetesCluster(KubernetesCluster kubernetesCluster) {
         kubernetesClustersMap.put(kubernetesCluster.getClusterId(), kubernetesCluster);
+        persister.markDirty(CC_KUB_GROUP_ID_TO_GROUP_MAP, kubernetesCluster.getClusterId());
     }
     
     public boolean kubernetesClusterExists(KubernetesCluster kubernetesCluster) {
@@ -614,39 +670,76 @@ public class CloudControllerContext implements Serializable {
     }
 
     public void setCoordinator(boolean coordinator) {
+        boolean elected = coordinator && !this.coordinator;
         this.coordinator = coordinator;
+        if (elected && isClustered()) {
+            // Changes made by other members are only persisted by the coordinator
+            persister.schedulePeriodicFlush();
+            if (persister.isEmpty()) {
+                // The cluster has been started, read the context persisted by the previous cluster
+                updateContextFromRegistry();
+                return;
+            }
+            // The previous coordinator may have left changes unpersisted and registry resources
+            // of removed entries behind
+            try {
+                persister.resync();
+            } catch (Exception e) {
+                log.error("Could not resynchronize cloud controller context with registry", e);
+                persister.markAllDirty();
+                persister.requestFlush();
+            }
+        }
     }
 
+    /**
+     * Persist cloud controller context in the registry. Changes are persisted asynchronously,
+     * persist requests made within the flush interval are coalesced.
+     */
     public void persist() {
         if ((!isClustered()) || (isCoordinator())) {
-            try {
-                RegistryManager.getInstance().persist(CloudControllerConstants.DATA_RESOURCE, this);
-            } catch (RegistryException e) {
-                log.error("Could not persist cloud controller context in registry", e);
-            }
+            persister.requestFlush();
+        }
+    }
+
+    /**
+     * Persist pending changes of the cloud controller context synchronously.
+     */
+    public void persistPendingChanges() {
+        if ((!isClustered()) || (isCoordinator())) {
+            persister.flush();
         }
     }
 
     private void updateContextFromRegistry() {
         if ((!isClustered()) || (isCoordinator())) {
             try {
+                if (persister.load(executorService)) {
+                    updateMemberIdsOfClusters();
+                    return;
+                }
+
+                // Read cloud controller context persisted as a single resource by previous versions
                 Object dataObj = RegistryManager.getInstance().read(CloudControllerConstants.DATA_RESOURCE);
                 if (dataObj != null) {
                     if (dataObj instanceof CloudControllerContext) {
                         CloudControllerContext serializedObj = (CloudControllerContext) dataObj;
 
                         copyMap(serializedObj.kubernetesClustersMap, kubernetesClustersMap);
-                        copyMap(serializedObj.clusterIdToMemberContextListMap, clusterIdToMemberContextListMap);
                         copyMap(serializedObj.memberIdToMemberContextMap, memberIdToMemberContextMap);
                         copyMap(serializedObj.kubClusterIdToKubClusterContextMap, kubClusterIdToKubClusterContextMap);
                         copyMap(serializedObj.clusterIdToContextMap, clusterIdToContextMap);
                         copyMap(serializedObj.cartridgeTypeToPartitionIdsMap, cartridgeTypeToPartitionIdsMap);
                         copyMap(serializedObj.cartridgeTypeToCartridgeMap, cartridgeTypeToCartridgeMap);
                         copyMap(serializedObj.serviceGroupNameToServiceGroupMap, serviceGroupNameToServiceGroupMap);
+                        updateMemberIdsOfClusters();
 
                         if (log.isDebugEnabled()) {
                             log.debug("Cloud controller context is read from the registry");
                         }
+                        // Persist context entries as separate resources
+                        persister.markAllDirty();
+                        persister.requestFlush();
                     } else {
                         if (log.isDebugEnabled()) {
                             log.debug("Cloud controller context could not be found in the registry");
@@ -661,6 +754,15 @@ public class CloudControllerContext implements Serializable {
         }
     }
 
+    /**
+     * Build the cluster id to member ids index from the member contexts read from the registry.
+     */
+    private void updateMemberIdsOfClusters() {
+        for (MemberContext memberContext : memberIdToMemberContextMap.values()) {
+            clusterIdToMemberIdsMap.put(memberContext.getClusterId(), memberContext.getMemberId());
+        }
+    }
+
     private void copyMap(Map sourceMap, Map destinationMap) {
         for(Object key : sourceMap.keySet()) {
             destinationMap.put(key, sourceMap.get(key));
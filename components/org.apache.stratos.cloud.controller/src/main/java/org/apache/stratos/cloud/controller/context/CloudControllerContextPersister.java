@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.cloud.controller.context;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.cloud.controller.registry.RegistryManager;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence of the cloud controller context. Each map entry of the context is
+ * persisted as a separate registry resource, hence the cost of persisting grows with the size of
+ * the change rather than with the size of the context. Persist requests are coalesced and flushed
+ * asynchronously in a single registry transaction once the flush interval elapses.
+ *
+ * Keys are marked dirty when their entries are put or removed, only dirty entries are serialized
+ * on flush. The digest of each persisted entry is kept, hence an entry which is marked dirty without
+ * being changed is not written again.
+ *
+ * Dirty keys are kept in a distributed map when clustering is enabled, hence keys marked on any
+ * member are flushed by the coordinator. A member elected as the coordinator should call
+ * {@link #resync()}, since it does not know which entries have been persisted.
+ */
+public class CloudControllerContextPersister {
+
+    private static final Log log = LogFactory.getLog(CloudControllerContextPersister.class);
+
+    private static final String FLUSH_INTERVAL = "cloud.controller.context.persistence.flush.interval";
+
+    private final String resourcePath;
+    private final long flushInterval;
+    private final Map<String, Map> maps;
+    private final Map<DirtyKey, Boolean> dirtyKeys;
+    private final Map<String, String> persistedDigests;
+    private final Set<String> stalePaths;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean flushScheduled;
+    private final AtomicBoolean periodicFlushScheduled;
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong updatedResourceCount = new AtomicLong();
+    private final AtomicLong removedResourceCount = new AtomicLong();
+
+    /**
+     * @param resourcePath registry path of the context
+     * @param dirtyKeys    map for keeping dirty keys, should be shared by all members of the cluster
+     */
+    public CloudControllerContextPersister(String resourcePath, Map dirtyKeys) {
+        this.resourcePath = resourcePath;
+        this.flushInterval = Long.getLong(FLUSH_INTERVAL, 1000);
+        this.maps = new LinkedHashMap<String, Map>();
+        this.dirtyKeys = dirtyKeys;
+        this.persistedDigests = new HashMap<String, String>();
+        this.stalePaths = new HashSet<String>();
+        this.scheduler = StratosThreadPool.getScheduledExecutorService(
+                "cloud.controller.context.persister.thread.pool", 1);
+        this.flushScheduled = new AtomicBoolean();
+        this.periodicFlushScheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Add a map to be persisted, map keys and values should be serializable.
+     *
+     * @param name name of the map, used as the name of the registry collection of the map
+     * @param map  map to be persisted
+     */
+    public void addMap(String name, Map map) {
+        maps.put(name, map);
+    }
+
+    /**
+     * Mark an entry of a map as changed, the entry is persisted or removed from the registry
+     * in the next flush.
+     *
+     * @param name name of the map
+     * @param key  key of the entry put or removed
+     */
+    public void markDirty(String name, Object key) {
+        if (key != null) {
+            dirtyKeys.put(new DirtyKey(name, key), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Mark all entries of all maps as changed, used when the context is copied into the maps
+     * without going through the cloud controller context.
+     */
+    public void markAllDirty() {
+        for (Map.Entry<String, Map> mapEntry : maps.entrySet()) {
+            for (Object key : new ArrayList<Object>(mapEntry.getValue().keySet())) {
+                markDirty(mapEntry.getKey(), key);
+            }
+        }
+    }
+
+    /**
+     * Returns true if none of the maps has an entry.
+     */
+    public boolean isEmpty() {
+        for (Map map : maps.values()) {
+            if (!map.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare the registry with the maps after this member has been elected as the coordinator.
+     * Registry resources which do not belong to an entry of the maps are removed, and all entries
+     * are persisted in the next flush.
+     */
+    public synchronized void resync() throws RegistryException {
+        RegistryManager registryManager = RegistryManager.getInstance();
+        if (registryManager.resourceExists(resourcePath)) {
+            for (Map.Entry<String, Map> mapEntry : maps.entrySet()) {
+                String mapResourcePath = getMapResourcePath(mapEntry.getKey());
+                Set<String> entryPaths = new HashSet<String>();
+                for (Object key : new ArrayList<Object>(mapEntry.getValue().keySet())) {
+                    entryPaths.add(getEntryResourcePath(mapResourcePath, key));
+                }
+                for (String childPath : registryManager.getChildren(mapResourcePath)) {
+                    if (!entryPaths.contains(childPath)) {
+                        stalePaths.add(childPath);
+                    } else if (!persistedDigests.containsKey(childPath)) {
+                        // Content is not known, the entry is written again in the next flush
+                        persistedDigests.put(childPath, "");
+                    }
+                }
+            }
+        }
+        markAllDirty();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Cloud controller context resynchronized with registry: [stale-resources] %d",
+                    stalePaths.size()));
+        }
+        requestFlush();
+    }
+
+    /**
+     * Load persisted map entries from the registry. Entries are read in parallel using the given
+     * executor service.
+     *
+     * @return true if the persisted context was found in the registry
+     */
+    public synchronized boolean load(ExecutorService executorService) throws RegistryException {
+        final RegistryManager registryManager = RegistryManager.getInstance();
+        if (!registryManager.resourceExists(resourcePath)) {
+            return false;
+        }
+
+        int entryCount = 0;
+        for (Map.Entry<String, Map> mapEntry : maps.entrySet()) {
+            String[] children = registryManager.getChildren(getMapResourcePath(mapEntry.getKey()));
+            Map<String, Future<Object>> jobs = new LinkedHashMap<String, Future<Object>>();
+            for (final String childPath : children) {
+                jobs.put(childPath, executorService.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return registryManager.read(childPath);
+                    }
+                }));
+            }
+
+            for (Map.Entry<String, Future<Object>> job : jobs.entrySet()) {
+                try {
+                    Object content = job.getValue().get();
+                    if (content instanceof Map.Entry) {
+                        Map.Entry entry = (Map.Entry) content;
+                        mapEntry.getValue().put(entry.getKey(), entry.getValue());
+                        persistedDigests.put(job.getKey(), calculateDigest(serialize(entry)));
+                        entryCount++;
+                    } else {
+                        log.warn("Invalid cloud controller context resource found in registry: " + job.getKey());
+                    }
+                } catch (Exception e) {
+                    log.error("Could not read cloud controller context resource from registry: " + job.getKey(), e);
+                }
+            }
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Cloud controller context loaded from registry: [entries] %d", entryCount));
+        }
+        return true;
+    }
+
+    /**
+     * Request the context to be persisted. Requests made before the scheduled flush is
+     * executed are coalesced into a single flush.
+     */
+    public void requestFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flushScheduled.set(false);
+                    try {
+                        flush();
+                    } catch (Exception e) {
+                        log.error("Could not persist cloud controller context", e);
+                    }
+                }
+            }, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Flush once every flush interval if any key has been marked dirty, used by the coordinator
+     * for persisting changes made by other members of the cluster.
+     */
+    public void schedulePeriodicFlush() {
+        if (periodicFlushScheduled.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (!dirtyKeys.isEmpty()) {
+                            flush();
+                        }
+                    } catch (Exception e) {
+                        log.error("Could not persist cloud controller context", e);
+                    }
+                }
+            }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Persist dirty map entries and remove deleted map entries from the registry.
+     */
+    public synchronized void flush() {
+        Map<String, List<Object>> flushedKeys = drainDirtyKeys();
+        Map<String, byte[]> updatedResources = new HashMap<String, byte[]>();
+        Map<String, String> updatedDigests = new HashMap<String, String>();
+        List<String> removedPaths = new ArrayList<String>(stalePaths);
+        boolean complete = true;
+
+        for (Map.Entry<String, Map> mapEntry : maps.entrySet()) {
+            String mapName = mapEntry.getKey();
+            String mapResourcePath = getMapResourcePath(mapName);
+            List<Object> keys = flushedKeys.get(mapName);
+            if (keys == null) {
+                continue;
+            }
+
+            for (Object key : keys) {
+                String path = getEntryResourcePath(mapResourcePath, key);
+                Object value = mapEntry.getValue().get(key);
+                if (value == null) {
+                    if (persistedDigests.containsKey(path)) {
+                        removedPaths.add(path);
+                    }
+                    continue;
+                }
+                try {
+                    byte[] content = serialize(new AbstractMap.SimpleEntry(key, value));
+                    String digest = calculateDigest(content);
+                    if (!digest.equals(persistedDigests.get(path))) {
+                        updatedResources.put(path, content);
+                        updatedDigests.put(path, digest);
+                    }
+                } catch (Exception e) {
+                    // Entry is being updated, it will be persisted in the next flush
+                    if (log.isDebugEnabled()) {
+                        log.debug("Could not serialize cloud controller context entry: " + key, e);
+                    }
+                    markDirty(mapName, key);
+                    complete = false;
+                }
+            }
+        }
+
+        if (!updatedResources.isEmpty() || !removedPaths.isEmpty()) {
+            long startTime = System.currentTimeMillis();
+            try {
+                RegistryManager.getInstance().persist(updatedResources, removedPaths);
+            } catch (RegistryException e) {
+                log.error("Could not persist cloud controller context in registry", e);
+                for (Map.Entry<String, List<Object>> entry : flushedKeys.entrySet()) {
+                    for (Object key : entry.getValue()) {
+                        markDirty(entry.getKey(), key);
+                    }
+                }
+                requestFlush();
+                return;
+            }
+            persistedDigests.putAll(updatedDigests);
+            for (String path : removedPaths) {
+                persistedDigests.remove(path);
+                stalePaths.remove(path);
+            }
+            flushCount.incrementAndGet();
+            updatedResourceCount.addAndGet(updatedResources.size());
+            removedResourceCount.addAndGet(removedPaths.size());
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Cloud controller context persisted: [updated] %d [removed] %d [time] %dms",
+                        updatedResources.size(), removedPaths.size(), System.currentTimeMillis() - startTime));
+            }
+        }
+
+        if (!complete) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Remove dirty keys before their entries are read, a key marked again once removed here is
+     * persisted in the next flush.
+     *
+     * @return dirty keys by map name
+     */
+    private Map<String, List<Object>> drainDirtyKeys() {
+        Map<String, List<Object>> keys = new HashMap<String, List<Object>>();
+        for (DirtyKey dirtyKey : new ArrayList<DirtyKey>(dirtyKeys.keySet())) {
+            if ((dirtyKeys.remove(dirtyKey) != null) && maps.containsKey(dirtyKey.mapName)) {
+                List<Object> mapKeys = keys.get(dirtyKey.mapName);
+                if (mapKeys == null) {
+                    mapKeys = new ArrayList<Object>();
+                    keys.put(dirtyKey.mapName, mapKeys);
+                }
+                mapKeys.add(dirtyKey.key);
+            }
+        }
+        return keys;
+    }
+
+    private String getMapResourcePath(String mapName) {
+        return resourcePath + "/" + mapName;
+    }
+
+    private static String getEntryResourcePath(String mapResourcePath, Object key) {
+        return mapResourcePath + "/" + calculateDigest(String.valueOf(key));
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        return RegistryManager.getInstance().serializeToByteArray((Serializable) object);
+    }
+
+    private static String calculateDigest(String value) {
+        try {
+            return calculateDigest(value.getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String calculateDigest(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not calculate cloud controller context digest", e);
+        }
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getUpdatedResourceCount() {
+        return updatedResourceCount.get();
+    }
+
+    public long getRemovedResourceCount() {
+        return removedResourceCount.get();
+    }
+
+    /**
+     * Key of a map entry to be persisted.
+     */
+    private static class DirtyKey implements Serializable {
+
+        private static final long serialVersionUID = 4165736231834556117L;
+
+        private final String mapName;
+        private final Object key;
+
+        private DirtyKey(String mapName, Object key) {
+            this.mapName = mapName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof DirtyKey)) {
+                return false;
+            }
+            DirtyKey dirtyKey = (DirtyKey) object;
+            return mapName.equals(dirtyKey.mapName) && key.equals(dirtyKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mapName.hashCode() + key.hashCode();
+        }
+    }
+}
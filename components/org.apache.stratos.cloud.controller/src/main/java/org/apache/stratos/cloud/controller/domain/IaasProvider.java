@@ -25,6 +25,7 @@ import org.apache.stratos.cloud.controller.iaases.Iaas;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.jclouds.compute.ComputeService;
 import org.jclouds.compute.domain.Template;
+import org.jclouds.compute.domain.internal.TemplateImpl;
 
 import java.io.Serializable;
 import java.util.HashMap;
@@ -207,6 +208,27 @@ public class IaasProvider implements Serializable {
 		return new IaasProvider(this);
 	}
 
+    /**
+     * Create a copy of this IaaS provider for starting a single instance. The compute service is
+     * shared, the template options are cloned and a separate IaaS object is created without
+     * initializing it again. Hence the payload of an instance can be set on the copy without
+     * affecting instances being started concurrently.
+     * @return IaaS provider copy
+     * @throws InvalidIaasProviderException if the IaaS object could not be created
+     */
+    public IaasProvider copyForInstance() throws InvalidIaasProviderException {
+        // Make sure the compute service and the template have been built
+        getIaas();
+
+        IaasProvider iaasProvider = new IaasProvider(this);
+        if (template != null) {
+            iaasProvider.template = new TemplateImpl(template.getImage(), template.getHardware(),
+                    template.getLocation(), template.getOptions().clone());
+        }
+        iaasProvider.iaas = CloudControllerUtil.createIaasInstance(iaasProvider);
+        return iaasProvider;
+    }
+
     public String getClassName() {
         return className;
     }
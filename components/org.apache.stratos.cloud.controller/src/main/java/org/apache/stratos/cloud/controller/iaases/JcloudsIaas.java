@@ -41,6 +41,7 @@ import org.jclouds.rest.ResourceNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 /**
  * An abstraction for defining jclouds IaaS features.
@@ -269,10 +270,18 @@ public abstract class JcloudsIaas extends Iaas {
             	memberContext.setPrivateIPs(new String[0]);
             } 
 
-            CloudControllerContext.getInstance().updateMemberContext(memberContext);
+            Lock lock = null;
+            try {
+                lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+                CloudControllerContext.getInstance().updateMemberContext(memberContext);
 
-            // persist in registry
-            CloudControllerContext.getInstance().persist();
+                // persist in registry
+                CloudControllerContext.getInstance().persist();
+            } finally {
+                if (lock != null) {
+                    CloudControllerContext.getInstance().releaseWriteLock(lock);
+                }
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("IP allocation process ended for " + memberContext);
@@ -44,10 +44,14 @@ import org.apache.stratos.kubernetes.client.model.EnvironmentVariable;
 import org.apache.stratos.kubernetes.client.model.Labels;
 import org.apache.stratos.kubernetes.client.model.Pod;
 import org.apache.stratos.kubernetes.client.model.Service;
+import org.apache.stratos.kubernetes.client.watch.PodCache;
+import org.apache.stratos.kubernetes.client.watch.ResourceFuture;
 import org.apache.stratos.messaging.domain.topology.KubernetesService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -58,6 +62,7 @@ public class KubernetesIaas extends Iaas {
     private static final Log log = LogFactory.getLog(KubernetesIaas.class);
 
     private static final long DEFAULT_POD_ACTIVATION_TIMEOUT = 300000; // 5 min
+    private static final long POD_STATUS_CHECK_INTERVAL = 5000; // 5 sec
     private static final String PAYLOAD_PARAMETER_SEPARATOR = ",";
     private static final String PAYLOAD_PARAMETER_NAME_VALUE_SEPARATOR = "=";
     private static final String PAYLOAD_PARAMETER_PREFIX = "payload_parameter.";
@@ -299,38 +304,57 @@ public class KubernetesIaas extends Iaas {
         String podId = CloudControllerUtil.replaceDotsWithDash(memberContext.getMemberId());
         labels.setName(podId);
 
+        // Wait for the pod watch to report the pod as running, the pod cache is checked every
+        // few seconds and the API is queried directly if the watch is not in sync
+        PodCache podCache = kubernetesApi.getPodCache();
+        ResourceFuture<Pod> podFuture = podCache.waitForPodStatus(podId, KubernetesConstants.POD_STATUS_RUNNING);
+
         Pod pod;
         List<Pod> pods;
         boolean podCreated = false;
-        boolean podRunning = false;
         long startTime = System.currentTimeMillis();
 
-        while (!podRunning) {
-            pods = kubernetesApi.queryPods(new Labels[]{labels});
-            if ((pods != null) && (pods.size() > 0)) {
-                if (pods.size() > 1) {
-                    throw new RuntimeException("System error, more than one pod found with the same pod id: " + podId);
-                }
-
-                pod = pods.get(0);
-                podCreated = true;
-                if (pod.getCurrentState().getStatus().equals(KubernetesConstants.POD_STATUS_RUNNING)) {
+        try {
+            while (true) {
+                try {
+                    pod = podFuture.get(POD_STATUS_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
                     log.info(String.format("Pod status changed to running: [member-id] %s [pod-id] %s",
                             memberContext.getMemberId(), pod.getId()));
                     return pod;
+                } catch (TimeoutException ignore) {
+                }
+
+                if (podCache.isSynced()) {
+                    pods = podCache.getByLabel(podId);
                 } else {
-                    if (log.isInfoEnabled()) {
-                        log.info(String.format("Waiting pod status to be changed to running: [member-id] %s " +
-                                        "[pod-id] %s [current-pod-status] %s ", memberContext.getMemberId(),
-                                pod.getId(), pod.getCurrentState().getStatus().toLowerCase()));
+                    pods = kubernetesApi.queryPods(new Labels[]{labels});
+                }
+                if ((pods != null) && (pods.size() > 0)) {
+                    if (pods.size() > 1) {
+                        throw new RuntimeException("System error, more than one pod found with the same pod id: " + podId);
+                    }
+
+                    pod = pods.get(0);
+                    podCreated = true;
+                    if (pod.getCurrentState().getStatus().equals(KubernetesConstants.POD_STATUS_RUNNING)) {
+                        log.info(String.format("Pod status changed to running: [member-id] %s [pod-id] %s",
+                                memberContext.getMemberId(), pod.getId()));
+                        return pod;
+                    } else {
+                        if (log.isInfoEnabled()) {
+                            log.info(String.format("Waiting pod status to be changed to running: [member-id] %s " +
+                                            "[pod-id] %s [current-pod-status] %s ", memberContext.getMemberId(),
+                                    pod.getId(), pod.getCurrentState().getStatus().toLowerCase()));
+                        }
                     }
                 }
-            }
 
-            if ((System.currentTimeMillis() - startTime) > podActivationTimeout) {
-                break;
+                if ((System.currentTimeMillis() - startTime) > podActivationTimeout) {
+                    break;
+                }
             }
-            Thread.sleep(5000);
+        } finally {
+            podFuture.cancel(false);
         }
 
         String replicationControllerId = CloudControllerUtil.replaceDotsWithDash(memberContext.getMemberId());
@@ -495,6 +519,8 @@ public class KubernetesIaas extends Iaas {
             }
             if(servicePortsUpdated) {
                 // Persist service ports added to port mappings
+                CloudControllerContext.getInstance().updateCartridge(cartridge);
+                CloudControllerContext.getInstance().updateKubernetesClusterContext(kubernetesClusterContext);
                 CloudControllerContext.getInstance().persist();
             }
         }
@@ -540,6 +566,7 @@ public class KubernetesIaas extends Iaas {
                         log.error("Could not remove kubernetes service: [cluster-id] " + clusterId, e);
                     }
                 }
+                CloudControllerContext.getInstance().updateKubernetesClusterContext(kubClusterContext);
             }
 
             List<MemberContext> memberContextsRemoved = new ArrayList<MemberContext>();
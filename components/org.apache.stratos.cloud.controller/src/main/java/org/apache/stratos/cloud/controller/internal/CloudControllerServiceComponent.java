@@ -29,11 +29,13 @@ import org.apache.stratos.cloud.controller.messaging.publisher.TopologySynchroni
 import org.apache.stratos.cloud.controller.messaging.publisher.TopologySynchronizerTaskScheduler;
 import org.apache.stratos.cloud.controller.messaging.receiver.application.ApplicationEventReceiver;
 import org.apache.stratos.cloud.controller.messaging.receiver.cluster.status.ClusterStatusTopicReceiver;
+import org.apache.stratos.cloud.controller.messaging.receiver.initializer.InitializerTopicReceiver;
 import org.apache.stratos.cloud.controller.messaging.receiver.instance.status.InstanceStatusTopicReceiver;
 import org.apache.stratos.cloud.controller.services.CloudControllerService;
 import org.apache.stratos.cloud.controller.services.impl.CloudControllerServiceImpl;
 import org.apache.stratos.common.clustering.DistributedObjectProvider;
 import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.kubernetes.client.watch.ResourceCacheRegistry;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.util.MessagingUtil;
 import org.osgi.framework.BundleContext;
@@ -67,6 +69,7 @@ public class CloudControllerServiceComponent {
 
 	private ClusterStatusTopicReceiver clusterStatusTopicReceiver;
 	private InstanceStatusTopicReceiver instanceStatusTopicReceiver;
+	private InitializerTopicReceiver initializerTopicReceiver;
 	private ApplicationEventReceiver applicationEventReceiver;
     private ExecutorService executorService;
 
@@ -136,6 +139,14 @@ public class CloudControllerServiceComponent {
             log.info("Instance status event receiver thread started");
         }
 
+        initializerTopicReceiver = new InitializerTopicReceiver();
+        initializerTopicReceiver.setExecutorService(executorService);
+        initializerTopicReceiver.execute();
+
+        if (log.isInfoEnabled()) {
+            log.info("Initializer event receiver thread started");
+        }
+
         if (log.isInfoEnabled()) {
             log.info("Scheduling topology synchronizer task");
         }
@@ -207,6 +218,13 @@ public class CloudControllerServiceComponent {
     }
 
 	protected void deactivate(ComponentContext ctx) {
+        // Persist pending changes of cloud controller context
+        try {
+            CloudControllerContext.getInstance().persistPendingChanges();
+        } catch (Exception e) {
+            log.warn("An error occurred while persisting cloud controller context", e);
+        }
+
         // Close event publisher connections to message broker
         try {
             EventPublisherPool.close(MessagingUtil.Topics.TOPOLOGY_TOPIC.getTopicName());
@@ -214,6 +232,13 @@ public class CloudControllerServiceComponent {
             log.warn("An error occurred while closing cloud controller topology event publisher", e);
         }
 
+        // Stop Kubernetes resource watches
+        try {
+            ResourceCacheRegistry.getInstance().terminateAll();
+        } catch (Exception e) {
+            log.warn("An error occurred while stopping Kubernetes resource watches", e);
+        }
+
         // Shutdown executor service
         if(executorService != null) {
             try {
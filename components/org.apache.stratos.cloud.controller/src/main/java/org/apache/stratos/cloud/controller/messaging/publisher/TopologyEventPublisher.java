@@ -25,7 +25,9 @@ import org.apache.stratos.cloud.controller.domain.Cartridge;
 import org.apache.stratos.cloud.controller.domain.ClusterContext;
 import org.apache.stratos.cloud.controller.domain.MemberContext;
 import org.apache.stratos.cloud.controller.domain.PortMapping;
+import org.apache.stratos.cloud.controller.messaging.topology.TopologyManager;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
+import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.broker.publish.EventPublisher;
 import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
 import org.apache.stratos.messaging.domain.application.ClusterDataHolder;
@@ -33,15 +35,18 @@ import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Port;
 import org.apache.stratos.messaging.domain.topology.ServiceType;
 import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.domain.topology.TopologyDigest;
 import org.apache.stratos.messaging.event.Event;
 import org.apache.stratos.messaging.event.instance.status.InstanceStartedEvent;
 import org.apache.stratos.messaging.event.topology.*;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * this is to send the relevant events from cloud controller to topology topic
@@ -49,6 +54,10 @@ import java.util.Set;
 public class TopologyEventPublisher {
     private static final Log log = LogFactory.getLog(TopologyEventPublisher.class);
 
+    // A single thread publishes sequenced events in the order their sequence numbers were assigned
+    private static final ExecutorService sequencedEventExecutor = StratosThreadPool.getExecutorService(
+            "topology.event.publisher.thread.pool", 1);
+
     public static void sendServiceCreateEvent(List<Cartridge> cartridgeList) {
         ServiceCreatedEvent serviceCreatedEvent;
         for (Cartridge cartridge : cartridgeList) {
@@ -318,6 +327,17 @@ public class TopologyEventPublisher {
         publishEvent(completeTopologyEvent);
     }
 
+    public static void sendTopologyDigestEvent(Topology topology) {
+        TopologyDigestEvent topologyDigestEvent = new TopologyDigestEvent(topology.getVersion(),
+                TopologyDigest.calculate(topology));
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Publishing topology digest event: [topology-version] %d",
+                    topology.getVersion()));
+        }
+        publishEvent(topologyDigestEvent);
+    }
+
     public static void sendClusterTerminatingEvent(ClusterInstanceTerminatingEvent clusterTerminatingEvent) {
 
         if (log.isInfoEnabled()) {
@@ -342,9 +362,45 @@ public class TopologyEventPublisher {
         publishEvent(clusterTerminatedEvent);
     }
 
+    /**
+     * Publish an event. Topology change events are sequenced to let subscribers detect missed
+     * events. Topology builder publishes them within the write lock section of the topology
+     * change, the sequence number is assigned and the event is serialized holding the topology
+     * write lock, which is reentrant, hence sequence numbers follow the order of topology changes.
+     * The event is then published by a single publisher thread once the lock is released, hence
+     * a slow message broker does not block topology readers and writers.
+     * Should not be invoked holding the topology read lock.
+     * @param event event to be published
+     */
     public static void publishEvent(Event event) {
         String topic = MessagingUtil.getMessageTopicName(event);
-        EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
-        eventPublisher.publish(event);
+        final EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
+        if ((event instanceof TopologyEvent) && !(event instanceof CompleteTopologyEvent)
+                && !(event instanceof TopologyDigestEvent)) {
+            TopologyManager.acquireWriteLock();
+            try {
+                final long sequenceNumber = TopologyManager.getTopology().nextVersion();
+                ((TopologyEvent) event).setSequenceNumber(sequenceNumber);
+                final String message = JsonCodec.toJson(event);
+                sequencedEventExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        // Persist the version before publishing, sequence numbers of published
+                        // events are not reused after a restart
+                        CloudControllerUtil.persistTopologyVersion(sequenceNumber);
+                        try {
+                            eventPublisher.publishJson(message, true);
+                        } catch (Exception e) {
+                            log.error(String.format("Could not publish topology event: [topic] %s " +
+                                    "[sequence-number] %d", eventPublisher.getTopicName(), sequenceNumber), e);
+                        }
+                    }
+                });
+            } finally {
+                TopologyManager.releaseWriteLock();
+            }
+        } else {
+            eventPublisher.publish(event);
+        }
     }
 }
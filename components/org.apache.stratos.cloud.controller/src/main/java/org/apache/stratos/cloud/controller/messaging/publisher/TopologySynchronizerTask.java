@@ -22,15 +22,21 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.config.CloudControllerConfig;
 import org.apache.stratos.cloud.controller.context.CloudControllerContext;
+import org.apache.stratos.cloud.controller.domain.TopologyConfig;
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyManager;
+import org.apache.stratos.cloud.controller.util.CloudControllerConstants;
 import org.wso2.carbon.ntask.core.Task;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TopologySynchronizerTask implements Task {
 
     private static final Log log = LogFactory.getLog(TopologySynchronizerTask.class);
 
+    // Task instances are created per execution by the task service, hence the counter is shared
+    private static final AtomicLong executionCount = new AtomicLong();
+
     @Override
     public void execute() {
         if (log.isDebugEnabled()) {
@@ -52,16 +58,44 @@ public class TopologySynchronizerTask implements Task {
         }
 
         try {
-            // Publish complete topology event
             if (TopologyManager.getTopology() != null) {
                 CloudControllerContext.getInstance().setTopologySyncRunning(true);
-                TopologyEventPublisher.sendCompleteTopologyEvent(TopologyManager.getTopology());
+                if (executionCount.getAndIncrement() % getCompleteTopologyInterval() == 0) {
+                    // Publish complete topology event for subscribers which do not request it
+                    TopologyEventPublisher.sendCompleteTopologyEvent(TopologyManager.getTopology());
+                } else {
+                    // Publish topology digest, subscribers request the complete topology if out of sync
+                    TopologyManager.acquireReadLock();
+                    try {
+                        TopologyEventPublisher.sendTopologyDigestEvent(TopologyManager.getTopology());
+                    } finally {
+                        TopologyManager.releaseReadLock();
+                    }
+                }
             }
         } finally {
             CloudControllerContext.getInstance().setTopologySyncRunning(false);
         }
     }
     
+    /**
+     * Number of synchronization runs between two complete topology events, digest events are
+     * published in between. A value of 1 publishes the complete topology on every run.
+     */
+    private int getCompleteTopologyInterval() {
+        TopologyConfig topologyConfig = CloudControllerConfig.getInstance().getTopologyConfig();
+        String interval = (topologyConfig == null) ? null :
+                topologyConfig.getProperty(CloudControllerConstants.COMPLETE_TOPOLOGY_INTERVAL_PROPERTY);
+        if (interval != null) {
+            try {
+                return Math.max(1, Integer.parseInt(interval.trim()));
+            } catch (NumberFormatException e) {
+                log.warn(String.format("Invalid complete topology interval: %s", interval));
+            }
+        }
+        return CloudControllerConstants.COMPLETE_TOPOLOGY_INTERVAL;
+    }
+
     @Override
     public void init() {
     }
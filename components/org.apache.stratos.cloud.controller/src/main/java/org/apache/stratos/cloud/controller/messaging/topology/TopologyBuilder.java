@@ -81,10 +81,10 @@ public class TopologyBuilder {
                     TopologyManager.updateTopology(topology);
                 }
             }
+            TopologyEventPublisher.sendServiceCreateEvent(cartridgeList);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        TopologyEventPublisher.sendServiceCreateEvent(cartridgeList);
 
     }
 
@@ -98,10 +98,10 @@ public class TopologyBuilder {
                         TopologyManager.acquireWriteLock();
                         topology.removeService(cartridge.getType());
                         TopologyManager.updateTopology(topology);
+                        TopologyEventPublisher.sendServiceRemovedEvent(cartridgeList);
                     } finally {
                         TopologyManager.releaseWriteLock();
                     }
-                    TopologyEventPublisher.sendServiceRemovedEvent(cartridgeList);
                 } else {
                     log.warn(String.format("Service %s does not exist..", cartridge.getType()));
                 }
@@ -138,11 +138,10 @@ public class TopologyBuilder {
                 service.addCluster(cluster);
                 TopologyManager.updateTopology(topology);
             }
+            TopologyEventPublisher.sendClusterCreatedEvent(cluster);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-
-        TopologyEventPublisher.sendClusterCreatedEvent(cluster);
     }
 
     public static void handleApplicationClustersCreated(String appId, List<Cluster> appClusters) {
@@ -163,10 +162,10 @@ public class TopologyBuilder {
             }
 
             TopologyManager.updateTopology(topology);
+            TopologyEventPublisher.sendApplicationClustersCreated(appId, appClusters);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        TopologyEventPublisher.sendApplicationClustersCreated(appId, appClusters);
     }
 
     public static void handleApplicationClustersRemoved(String appId, Set<ClusterDataHolder> clusterData) {
@@ -198,13 +197,11 @@ public class TopologyBuilder {
             }
 
             TopologyManager.updateTopology(topology);
-
+            TopologyEventPublisher.sendApplicationClustersRemoved(appId, clusterData);
         } finally {
             TopologyManager.releaseWriteLock();
         }
 
-        TopologyEventPublisher.sendApplicationClustersRemoved(appId, clusterData);
-
     }
 
     public static void handleClusterReset(ClusterStatusClusterResetEvent event) {
@@ -370,10 +367,10 @@ public class TopologyBuilder {
             Cluster cluster = service.removeCluster(ctxt.getClusterId());
             deploymentPolicy = cluster.getDeploymentPolicyName();
             TopologyManager.updateTopology(topology);
+            TopologyEventPublisher.sendClusterRemovedEvent(ctxt, deploymentPolicy);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        TopologyEventPublisher.sendClusterRemovedEvent(ctxt, deploymentPolicy);
     }
 
     /**
@@ -407,11 +404,10 @@ public class TopologyBuilder {
 			member.setProperties(CloudControllerUtil.toJavaUtilProperties(memberContext.getProperties()));
 			cluster.addMember(member);
 			TopologyManager.updateTopology(topology);
+			TopologyEventPublisher.sendMemberCreatedEvent(memberContext);
 		} finally {
 			TopologyManager.releaseWriteLock();
 		}
-		
-		TopologyEventPublisher.sendMemberCreatedEvent(memberContext);
 	}
 
     /**
@@ -690,10 +686,10 @@ public class TopologyBuilder {
             log.info("Member Ready to shut down event adding status started");
 
             TopologyManager.updateTopology(topology);
+            TopologyEventPublisher.sendMemberReadyToShutdownEvent(memberReadyToShutdownEvent);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        TopologyEventPublisher.sendMemberReadyToShutdownEvent(memberReadyToShutdownEvent);
         //publishing data
         StatisticsDataPublisher.publish(instanceReadyToShutdownEvent.getMemberId(),
                 instanceReadyToShutdownEvent.getPartitionId(),
@@ -750,11 +746,11 @@ public class TopologyBuilder {
             log.info("member maintenance mode event adding status started");
 
             TopologyManager.updateTopology(topology);
+            //publishing data
+            TopologyEventPublisher.sendMemberMaintenanceModeEvent(memberMaintenanceModeEvent);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        //publishing data
-        TopologyEventPublisher.sendMemberMaintenanceModeEvent(memberMaintenanceModeEvent);
 
     }
 
@@ -798,14 +794,14 @@ public class TopologyBuilder {
             properties = member.getProperties();
             cluster.removeMember(member);
             TopologyManager.updateTopology(topology);
+            /* @TODO leftover from grouping_poc*/
+            String groupAlias = null;
+            TopologyEventPublisher.sendMemberTerminatedEvent(serviceName, clusterId, memberId,
+                    clusterInstanceId, networkPartitionId,
+                    partitionId, properties, groupAlias);
         } finally {
             TopologyManager.releaseWriteLock();
         }
-        /* @TODO leftover from grouping_poc*/
-        String groupAlias = null;
-        TopologyEventPublisher.sendMemberTerminatedEvent(serviceName, clusterId, memberId,
-                clusterInstanceId, networkPartitionId,
-                partitionId, properties, groupAlias);
     }
 
     public static void handleMemberSuspended() {
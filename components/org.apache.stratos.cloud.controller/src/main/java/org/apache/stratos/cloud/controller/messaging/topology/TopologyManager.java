@@ -18,12 +18,12 @@
  */
 package org.apache.stratos.cloud.controller.messaging.topology;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.cloud.controller.util.CloudControllerUtil;
 import org.apache.stratos.common.concurrent.locks.ReadWriteLock;
 import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.util.JsonCodec;
 
 
 /**
@@ -80,6 +80,11 @@ public class TopologyManager {
                         }
                         topology = new Topology();
                     }
+                    // Topology events may have been published after the topology was persisted
+                    long version = CloudControllerUtil.retrieveTopologyVersion();
+                    if (version > topology.getVersion()) {
+                        topology.setVersion(version);
+                    }
                     if (log.isDebugEnabled()) {
                         log.debug("Topology initialized");
                     }
@@ -108,8 +113,7 @@ public class TopologyManager {
     }
 
     private static String toJson(Object object) {
-        Gson gson = new Gson();
-        return gson.toJson(object);
+        return JsonCodec.toJson(object);
     }
 }
 
@@ -25,6 +25,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.common.internal.ServiceReferenceHolder;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.Resource;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
@@ -33,6 +34,7 @@ import org.wso2.carbon.registry.core.session.UserRegistry;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.*;
+import java.util.Map;
 
 /**
  * Registry manager provides functionality for persisting resources in the registry and reading them back.
@@ -87,12 +89,79 @@ public class RegistryManager {
     }
 
     /**
-     * Returns an object stored in the given resource path.
+     * Persist the given serialized resources and remove the given resources in a single registry transaction.
+     *
+     * @param resources            serialized resources against resource paths
+     * @param removedResourcePaths paths of the resources to be removed
+     */
+    public synchronized void persist(Map<String, byte[]> resources, java.util.Collection<String> removedResourcePaths)
+            throws RegistryException {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Persisting resources in registry: [updated] %d [removed] %d",
+                    resources.size(), removedResourcePaths.size()));
+        }
+
+        Registry registry = getRegistry();
+
+        try {
+            PrivilegedCarbonContext ctx = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            ctx.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+            ctx.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+
+            registry.beginTransaction();
+
+            for (Map.Entry<String, byte[]> entry : resources.entrySet()) {
+                Resource nodeResource = registry.newResource();
+                nodeResource.setContent(entry.getValue());
+                registry.put(entry.getKey(), nodeResource);
+            }
+            for (String resourcePath : removedResourcePaths) {
+                if (registry.resourceExists(resourcePath)) {
+                    registry.delete(resourcePath);
+                }
+            }
+
+            registry.commitTransaction();
+        } catch (Exception e) {
+            String msg = "Failed to persist resources in registry";
+            registry.rollbackTransaction();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
+
+    /**
+     * Returns the paths of the child resources of a collection, or an empty array if the collection
+     * does not exist.
+     * @param collectionPath
+     * @return
+     * @throws RegistryException
+     */
+    public String[] getChildren(String collectionPath) throws RegistryException {
+        Registry registry = getRegistry();
+        if (!registry.resourceExists(collectionPath)) {
+            return new String[0];
+        }
+        Resource resource = registry.get(collectionPath);
+        if (resource instanceof Collection) {
+            String[] children = ((Collection) resource).getChildren();
+            return (children != null) ? children : new String[0];
+        }
+        return new String[0];
+    }
+
+    public boolean resourceExists(String resourcePath) throws RegistryException {
+        return getRegistry().resourceExists(resourcePath);
+    }
+
+    /**
+     * Returns an object stored in the given resource path. Reads do not use registry transactions,
+     * hence they are not serialized, allowing resources to be read in parallel.
      * @param resourcePath
      * @return
      * @throws org.wso2.carbon.registry.core.exceptions.RegistryException
      */
-    public synchronized Object read(String resourcePath) throws RegistryException {
+    public Object read(String resourcePath) throws RegistryException {
         try {
             Registry registry = getRegistry();
 
@@ -148,7 +217,7 @@ public class RegistryManager {
      * @return
      * @throws java.io.IOException
      */
-    private byte[]  serializeToByteArray(Serializable serializableObject) throws IOException {
+    public byte[] serializeToByteArray(Serializable serializableObject) throws IOException {
 
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         ObjectOutput out = null;
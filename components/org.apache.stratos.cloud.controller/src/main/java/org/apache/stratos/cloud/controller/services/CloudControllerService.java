@@ -200,6 +200,16 @@ public interface CloudControllerService {
      */
     CartridgeInfo getCartridgeInfo(String cartridgeType) throws CartridgeNotFoundException;
 
+    /**
+     * Returns the information regarding the given cartridges in a single call. Cartridge types which
+     * are not registered are skipped.
+     *
+     * @param cartridgeTypes
+     *            types of the cartridges.
+     * @return {@link org.apache.stratos.cloud.controller.domain.CartridgeInfo} array of the registered cartridges.
+     */
+    CartridgeInfo[] getCartridgeInfos(String[] cartridgeTypes);
+
     /**
      * Calling this method will result in returning the types of {@link org.apache.stratos.cloud.controller.domain.Cartridge}s
      * registered in Cloud Controller.
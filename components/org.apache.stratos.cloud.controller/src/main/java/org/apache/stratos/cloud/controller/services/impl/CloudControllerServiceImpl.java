@@ -28,6 +28,7 @@ import org.apache.stratos.cloud.controller.domain.*;
 import org.apache.stratos.cloud.controller.domain.Cartridge;
 import org.apache.stratos.cloud.controller.domain.Dependencies;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesCluster;
+import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesClusterContext;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesHost;
 import org.apache.stratos.cloud.controller.domain.kubernetes.KubernetesMaster;
 import org.apache.stratos.cloud.controller.exception.*;
@@ -50,6 +51,7 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
@@ -194,7 +196,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
         Cartridge cartridge = null;
         if ((cartridge = CloudControllerContext.getInstance().getCartridge(cartridgeType)) != null) {
-            if (CloudControllerContext.getInstance().getCartridges().remove(cartridge)) {
+            if (CloudControllerContext.getInstance().removeCartridge(cartridge)) {
                 // invalidate partition validation cache
                 CloudControllerContext.getInstance().removeFromCartridgeTypeToPartitionIds(cartridgeType);
 
@@ -280,7 +282,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         serviceGroup = CloudControllerContext.getInstance().getServiceGroup(name);
 
         if (serviceGroup != null) {
-            if (CloudControllerContext.getInstance().getServiceGroups().remove(serviceGroup)) {
+            if (CloudControllerContext.getInstance().removeServiceGroup(serviceGroup)) {
                 CloudControllerContext.getInstance().persist();
                 if (log.isInfoEnabled()) {
                     log.info("Successfully removed the cartridge group: [group-name] " + serviceGroup);
@@ -351,12 +353,45 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
         handleNullObject(instanceContexts, "Instance start-up failed, member contexts is null");
 
-        List<MemberContext> memberContextList = new ArrayList<MemberContext>();
-        for(InstanceContext instanceContext : instanceContexts) {
+        // Start instances concurrently, instance creation is limited per partition by the instance creator
+        List<Future<MemberContext>> jobList = new ArrayList<Future<MemberContext>>();
+        for(final InstanceContext instanceContext : instanceContexts) {
             if(instanceContext != null) {
-                MemberContext memberContext = startInstance(instanceContext);
-                memberContextList.add(memberContext);
+                Callable<MemberContext> worker = new Callable<MemberContext>() {
+                    @Override
+                    public MemberContext call() throws Exception {
+                        return startInstance(instanceContext);
+                    }
+                };
+                jobList.add(CloudControllerContext.getInstance().getExecutorService().submit(worker));
+            }
+        }
+
+        List<MemberContext> memberContextList = new ArrayList<MemberContext>();
+        Exception exception = null;
+        for (Future<MemberContext> job : jobList) {
+            try {
+                memberContextList.add(job.get());
+            } catch (ExecutionException e) {
+                // Error has been logged by start instance
+                if (exception == null) {
+                    exception = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CloudControllerException("Interrupted while starting instances", e);
+            }
+        }
+        // Instances started successfully are returned, an exception is only thrown if none could be started
+        if ((exception != null) && memberContextList.isEmpty()) {
+            if (exception instanceof CartridgeNotFoundException) {
+                throw (CartridgeNotFoundException) exception;
+            } else if (exception instanceof InvalidIaasProviderException) {
+                throw (InvalidIaasProviderException) exception;
+            } else if (exception instanceof CloudControllerException) {
+                throw (CloudControllerException) exception;
             }
+            throw new CloudControllerException("Could not start instances", exception);
         }
         MemberContext[] memberContextsArray = memberContextList.toArray(new MemberContext[memberContextList.size()]);
         return memberContextsArray;
@@ -437,8 +472,11 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                 log.debug("Payload: " + payload.toString());
             }
 
-            iaasProvider.setPayload(payload.toString().getBytes());
-            iaas.setDynamicPayload(iaasProvider.getPayload());
+            // Instances are started concurrently, hence the payload is set on a copy of the
+            // IaaS provider used only by this instance
+            IaasProvider instanceIaasProvider = iaasProvider.copyForInstance();
+            instanceIaasProvider.setPayload(payload.toString().getBytes());
+            instanceIaasProvider.getIaas().setDynamicPayload(instanceIaasProvider.getPayload());
 
             if (clusterContext.isVolumeRequired()) {
                 if (clusterContext.getVolumes() != null) {
@@ -448,6 +486,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
                             createVolumeAndSetInClusterContext(volume, iaasProvider);
                         }
                     }
+                    CloudControllerContext.getInstance().updateClusterContext(clusterContext);
                 }
             }
 
@@ -455,7 +494,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
             if (log.isDebugEnabled()) {
                 log.debug("Starting the instance creator thread...");
             }
-            executorService.execute(new InstanceCreator(memberContext, iaasProvider));
+            executorService.execute(new InstanceCreator(memberContext, instanceIaasProvider));
 
             TopologyBuilder.handleMemberCreatedEvent(memberContext);
             return memberContext;
@@ -765,6 +804,26 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         throw new CartridgeNotFoundException(msg);
     }
 
+    @Override
+    public CartridgeInfo[] getCartridgeInfos(String[] cartridgeTypes) {
+        if (cartridgeTypes == null) {
+            return new CartridgeInfo[0];
+        }
+
+        List<CartridgeInfo> cartridgeInfos = new ArrayList<CartridgeInfo>(cartridgeTypes.length);
+        for (String cartridgeType : cartridgeTypes) {
+            Cartridge cartridge = CloudControllerContext.getInstance().getCartridge(cartridgeType);
+            if (cartridge == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Could not find cartridge: [cartridge-type] " + cartridgeType);
+                }
+                continue;
+            }
+            cartridgeInfos.add(CloudControllerUtil.toCartridgeInfo(cartridge));
+        }
+        return cartridgeInfos.toArray(new CartridgeInfo[cartridgeInfos.size()]);
+    }
+
     @Override
     public void unregisterService(String clusterId) throws UnregisteredClusterException {
         final String clusterId_ = clusterId;
@@ -1205,7 +1264,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
             }
             CloudControllerUtil.validateKubernetesHost(kubernetesHost);
 
-            KubernetesCluster kubernetesCluster = getKubernetesCluster(kubernetesClusterId);
+            KubernetesCluster kubernetesCluster = CloudControllerContext.getInstance().getKubernetesCluster(kubernetesClusterId);
             ArrayList<KubernetesHost> kubernetesHostArrayList;
 
             if (kubernetesCluster.getKubernetesHosts() == null) {
@@ -1255,6 +1314,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
             try {
                 // Remove entry from information model
                 CloudControllerContext.getInstance().removeKubernetesCluster(kubernetesClusterId);
+                terminateKubernetesWatches(kubernetesClusterId);
 
                 if (log.isInfoEnabled()) {
                     log.info(String.format("Kubernetes cluster removed successfully: [id] %s", kubernetesClusterId));
@@ -1309,6 +1369,7 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
                 // Update information model
                 kubernetesClusterStored.setKubernetesHosts(kubernetesHostsArray);
+                CloudControllerContext.getInstance().updateKubernetesCluster(kubernetesClusterStored);
 
                 if (log.isInfoEnabled()) {
                     log.info(String.format("Kubernetes host removed successfully: [id] %s", kubernetesHostId));
@@ -1327,6 +1388,17 @@ public class CloudControllerServiceImpl implements CloudControllerService {
         }
     }
 
+    /**
+     * Stop the resource watches of a Kubernetes cluster, watches are started again on next use.
+     */
+    private void terminateKubernetesWatches(String kubernetesClusterId) {
+        KubernetesClusterContext kubernetesClusterContext = CloudControllerContext.getInstance().
+                getKubernetesClusterContext(kubernetesClusterId);
+        if (kubernetesClusterContext != null) {
+            kubernetesClusterContext.getKubApi().terminateWatches();
+        }
+    }
+
     @Override
     public boolean updateKubernetesMaster(KubernetesMaster kubernetesMaster)
             throws InvalidKubernetesMasterException, NonExistingKubernetesMasterException {
@@ -1342,6 +1414,8 @@ public class CloudControllerServiceImpl implements CloudControllerService {
 
                 // Update information model
                 kubernetesClusterStored.setKubernetesMaster(kubernetesMaster);
+                CloudControllerContext.getInstance().updateKubernetesCluster(kubernetesClusterStored);
+                terminateKubernetesWatches(kubernetesClusterStored.getClusterId());
 
                 CloudControllerContext.getInstance().persist();
 
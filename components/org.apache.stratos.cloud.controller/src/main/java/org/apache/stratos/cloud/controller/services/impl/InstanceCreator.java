@@ -30,15 +30,29 @@ import org.apache.stratos.cloud.controller.messaging.publisher.StatisticsDataPub
 import org.apache.stratos.cloud.controller.messaging.topology.TopologyBuilder;
 import org.apache.stratos.messaging.domain.topology.MemberStatus;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.Lock;
 
 /**
- * Instance creator runnable.
+ * Instance creator runnable. Only a write lock of the member being created is held while
+ * the instance is provisioned, the member context write lock is held while the member context
+ * is updated. Hence instances are provisioned in parallel, the number of instances being
+ * provisioned concurrently in a partition is limited to avoid exceeding IaaS API rate limits.
+ * The given IaaS provider should be a copy holding the payload of the member being created.
  */
 public class InstanceCreator implements Runnable {
 
     private static final Log log = LogFactory.getLog(InstanceCreator.class);
 
+    private static final String MAX_CONCURRENT_INSTANCE_CREATIONS =
+            "cloud.controller.partition.max.concurrent.instance.creations";
+    private static final int maxConcurrentInstanceCreations =
+            Integer.getInteger(MAX_CONCURRENT_INSTANCE_CREATIONS, 10);
+    private static final ConcurrentMap<String, Semaphore> partitionIdToSemaphoreMap =
+            new ConcurrentHashMap<String, Semaphore>();
+
     private MemberContext memberContext;
     private IaasProvider iaasProvider;
 
@@ -49,17 +63,24 @@ public class InstanceCreator implements Runnable {
 
     @Override
     public void run() {
-        Lock lock = null;
+        Lock memberLock = null;
+        Semaphore partitionSemaphore = null;
         try {
-            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
-
             String clusterId = memberContext.getClusterId();
             Partition partition = memberContext.getPartition();
             ClusterContext clusterContext = CloudControllerContext.getInstance().getClusterContext(clusterId);
             Iaas iaas = iaasProvider.getIaas();
 
+            Semaphore semaphore = getPartitionSemaphore(partition.getId());
+            semaphore.acquire();
+            // Only release the permit in finally once it has been acquired
+            partitionSemaphore = semaphore;
+            memberLock = CloudControllerContext.getInstance().acquireMemberWriteLock(memberContext.getMemberId());
+
             // Start instance
+            long startTime = System.currentTimeMillis();
             memberContext = startInstance(iaas, memberContext);
+            long createTime = System.currentTimeMillis() - startTime;
 
             if (log.isInfoEnabled()) {
                 log.info(String.format("Instance started successfully: [cartridge-type] %s [cluster-id] %s [instance-id] %s " +
@@ -70,13 +91,28 @@ public class InstanceCreator implements Runnable {
             }
 
             // Attach volumes
+            startTime = System.currentTimeMillis();
             attachVolumes(iaas, clusterContext, memberContext);
+            long volumeTime = System.currentTimeMillis() - startTime;
 
             // Allocate IP addresses
+            startTime = System.currentTimeMillis();
             iaas.allocateIpAddresses(clusterId, memberContext, partition);
+            long ipTime = System.currentTimeMillis() - startTime;
+
+            partitionSemaphore.release();
+            partitionSemaphore = null;
 
             // Update topology
+            startTime = System.currentTimeMillis();
             TopologyBuilder.handleMemberInitializedEvent(memberContext);
+            long topologyTime = System.currentTimeMillis() - startTime;
+
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Instance creation time: [member-id] %s [create] %dms [volume] %dms " +
+                                "[ip] %dms [topology] %dms", memberContext.getMemberId(), createTime, volumeTime,
+                        ipTime, topologyTime));
+            }
 
             // Publish instance creation statistics to BAM
             StatisticsDataPublisher.publish(
@@ -92,12 +128,27 @@ public class InstanceCreator implements Runnable {
                     memberContext.getCartridgeType(), memberContext.getClusterId());
             log.error(message, e);
         } finally {
-            if (lock != null) {
-                CloudControllerContext.getInstance().releaseWriteLock(lock);
+            if (partitionSemaphore != null) {
+                partitionSemaphore.release();
+            }
+            if (memberLock != null) {
+                CloudControllerContext.getInstance().releaseWriteLock(memberLock);
             }
         }
     }
 
+    private static Semaphore getPartitionSemaphore(String partitionId) {
+        Semaphore semaphore = partitionIdToSemaphoreMap.get(partitionId);
+        if (semaphore == null) {
+            semaphore = new Semaphore(maxConcurrentInstanceCreations);
+            Semaphore existingSemaphore = partitionIdToSemaphoreMap.putIfAbsent(partitionId, semaphore);
+            if (existingSemaphore != null) {
+                semaphore = existingSemaphore;
+            }
+        }
+        return semaphore;
+    }
+
     private MemberContext startInstance(Iaas iaas, MemberContext memberContext) throws CartridgeNotFoundException {
         memberContext = iaas.startInstance(memberContext);
 
@@ -111,8 +162,16 @@ public class InstanceCreator implements Runnable {
         }
 
         // Update member context and persist changes
-        CloudControllerContext.getInstance().updateMemberContext(memberContext);
-        CloudControllerContext.getInstance().persist();
+        Lock lock = null;
+        try {
+            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+            CloudControllerContext.getInstance().updateMemberContext(memberContext);
+            CloudControllerContext.getInstance().persist();
+        } finally {
+            if (lock != null) {
+                CloudControllerContext.getInstance().releaseWriteLock(lock);
+            }
+        }
 
         return memberContext;
     }
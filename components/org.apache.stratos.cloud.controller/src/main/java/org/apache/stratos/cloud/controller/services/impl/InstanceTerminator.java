@@ -49,21 +49,30 @@ public class InstanceTerminator implements Runnable {
 
     @Override
     public void run() {
-        Lock lock = null;
+        Lock memberLock = null;
         try {
-            lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+            // Wait until the instance creation of the member is completed
+            memberLock = CloudControllerContext.getInstance().acquireMemberWriteLock(memberContext.getMemberId());
             // Terminate the instance
             iaas.terminateInstance(memberContext);
 
             // Execute member termination post process
-            CloudControllerServiceUtil.executeMemberTerminationPostProcess(memberContext);
+            Lock lock = null;
+            try {
+                lock = CloudControllerContext.getInstance().acquireMemberContextWriteLock();
+                CloudControllerServiceUtil.executeMemberTerminationPostProcess(memberContext);
+            } finally {
+                if (lock != null) {
+                    CloudControllerContext.getInstance().releaseWriteLock(lock);
+                }
+            }
         } catch (Exception e) {
             String msg = "Instance termination failed! " + memberContext.toString();
             log.error(msg, e);
             throw new CloudControllerException(msg, e);
         } finally {
-            if(lock != null) {
-                CloudControllerContext.getInstance().releaseWriteLock(lock);
+            if(memberLock != null) {
+                CloudControllerContext.getInstance().releaseWriteLock(memberLock);
             }
         }
     }
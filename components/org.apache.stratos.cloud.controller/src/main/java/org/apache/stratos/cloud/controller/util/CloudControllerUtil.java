@@ -324,6 +324,30 @@ public class CloudControllerUtil {
       }
     }
 
+    /**
+     * Persist the last topology version assigned to a topology event.
+     */
+    public static void persistTopologyVersion(long version) {
+        try {
+            RegistryManager.getInstance().persist(CloudControllerConstants.TOPOLOGY_VERSION_RESOURCE, version);
+        } catch (RegistryException e) {
+            log.error(String.format("Failed to persist the topology version in registry: [version] %d", version), e);
+        }
+    }
+
+    /**
+     * Returns the last topology version assigned to a topology event, or -1 if it is not found.
+     */
+    public static long retrieveTopologyVersion() {
+        try {
+            Object dataObj = RegistryManager.getInstance().read(CloudControllerConstants.TOPOLOGY_VERSION_RESOURCE);
+            return (dataObj instanceof Long) ? (Long) dataObj : -1;
+        } catch (Exception e) {
+            log.error("Unable to retrieve the topology version from registry", e);
+            return -1;
+        }
+    }
+
     public static Topology retrieveTopology() {
         try {
             Object dataObj = RegistryManager.getInstance().read(CloudControllerConstants.TOPOLOGY_RESOURCE);
@@ -126,6 +126,10 @@ public class CloudControllerServiceClient {
 		return stub.getCartridgeInfo(cartridgeType);
 	}
 
+	public CartridgeInfo[] getCartridgeInfos(String[] cartridgeTypes) throws RemoteException {
+		return stub.getCartridgeInfos(cartridgeTypes);
+	}
+
     public ClusterContext getClusterContext (String clusterId) throws RemoteException {
 
         return stub.getClusterContext(clusterId);
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.clustering;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Distributed multi map interface. Each value of a key is stored as a separate entry, hence adding
+ * or removing a value of a key does not rewrite the other values of the key. Values of a key are
+ * unique, adding an existing value has no effect.
+ */
+public interface DistributedMultiMap<K, V> {
+
+    /**
+     * Add a value to the given key.
+     * @param key
+     * @param value
+     * @return true if the value was added
+     */
+    boolean put(K key, V value);
+
+    /**
+     * Returns the values of the given key, an empty collection is returned if the key is not found.
+     * @param key
+     * @return
+     */
+    Collection<V> get(K key);
+
+    /**
+     * Remove a value of the given key.
+     * @param key
+     * @param value
+     * @return true if the value was removed
+     */
+    boolean remove(K key, V value);
+
+    /**
+     * Remove all values of the given key.
+     * @param key
+     * @return values removed
+     */
+    Collection<V> remove(K key);
+
+    boolean containsKey(K key);
+
+    Set<K> keySet();
+
+    /**
+     * Returns the number of key value pairs in the multi map.
+     * @return
+     */
+    int size();
+}
@@ -22,6 +22,7 @@ package org.apache.stratos.common.clustering;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -32,12 +33,37 @@ import java.util.concurrent.locks.Lock;
  */
 public interface DistributedObjectProvider extends Serializable {
     /**
-     * Returns a distributed map if clustering is enabled, else returns a local hash map.
+     * Returns a distributed map if clustering is enabled, else returns a local concurrent hash map.
      * @param name
      * @return
      */
     Map getMap(String name);
 
+    /**
+     * Returns a distributed map with a local near cache if clustering is enabled, else returns a local
+     * concurrent hash map. Near cache entries are invalidated when entries are changed in the cluster,
+     * hence near caches should be used for read mostly maps.
+     * @param name
+     * @return
+     */
+    Map getNearCachedMap(String name);
+
+    /**
+     * Returns entries of the given keys of a map. Entries of a distributed map are read in a single
+     * batched call.
+     * @param name
+     * @param keys
+     * @return
+     */
+    Map getAll(String name, Set keys);
+
+    /**
+     * Returns access statistics of a near cached map, null is returned if the map is not near cached.
+     * @param name
+     * @return
+     */
+    MapStatistics getMapStatistics(String name);
+
     /**
      * Removes a map from the object provider.
      * @param name
@@ -45,7 +71,7 @@ public interface DistributedObjectProvider extends Serializable {
     void removeMap(String name);
 
     /**
-     * Returns a distributed list if clustering is enabled, else returns a local array list.
+     * Returns a distributed list if clustering is enabled, else returns a local copy on write array list.
      * @param name
      * @return
      */
@@ -58,15 +84,38 @@ public interface DistributedObjectProvider extends Serializable {
     void removeList(String name);
 
     /**
-     * Acquires a distributed lock if clustering is enabled, else acquires a local reentrant lock and
-     * returns the lock object.
+     * Returns a distributed multi map if clustering is enabled, else returns a local multi map.
+     * @param name
+     * @return
+     */
+    DistributedMultiMap getMultiMap(String name);
+
+    /**
+     * Remove a multi map from the object provider.
+     * @param name
+     */
+    void removeMultiMap(String name);
+
+    /**
+     * Acquires a distributed lock if clustering is enabled, else acquires the write lock of a local
+     * reentrant read/write lock and returns the lock object.
      * @param object
      * @return
      */
     Lock acquireLock(Object object);
 
     /**
-     * Releases a given distributed/local lock.
+     * Acquires a distributed lock if clustering is enabled, else acquires the read lock of a local
+     * reentrant read/write lock and returns the lock object. Read locks of the same object can be
+     * held by many threads at once. A read lock can not be upgraded, a thread holding the read lock
+     * of an object should not acquire the write lock of the same object.
+     * @param object
+     * @return
+     */
+    Lock acquireReadLock(Object object);
+
+    /**
+     * Releases a given distributed/local lock, either a read lock or a write lock.
      * @param lock
      */
     void releaseLock(Lock lock);
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.clustering;
+
+/**
+ * Access statistics of a near cached distributed map.
+ */
+public class MapStatistics {
+
+    private final String name;
+    private final int cachedEntryCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long remoteCallCount;
+    private final long invalidationCount;
+
+    public MapStatistics(String name, int cachedEntryCount, long hitCount, long missCount, long remoteCallCount,
+                         long invalidationCount) {
+        this.name = name;
+        this.cachedEntryCount = cachedEntryCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.remoteCallCount = remoteCallCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCachedEntryCount() {
+        return cachedEntryCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the ratio of lookups served by the near cache.
+     * @return
+     */
+    public double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return (lookups == 0) ? 0 : (double) hitCount / lookups;
+    }
+
+    public long getRemoteCallCount() {
+        return remoteCallCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[map] %s [cached-entries] %d [hits] %d [misses] %d [hit-ratio] %.2f " +
+                        "[remote-calls] %d [invalidations] %d", name, cachedEntryCount, hitCount, missCount,
+                getHitRatio(), remoteCallCount, invalidationCount);
+    }
+}
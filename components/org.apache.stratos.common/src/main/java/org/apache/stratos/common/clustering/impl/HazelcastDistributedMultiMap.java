@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.clustering.impl;
+
+import com.hazelcast.core.MultiMap;
+import org.apache.stratos.common.clustering.DistributedMultiMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Distributed multi map backed by a Hazelcast multi map, values of a key are stored as separate
+ * entries of the multi map.
+ */
+public class HazelcastDistributedMultiMap<K, V> implements DistributedMultiMap<K, V> {
+
+    private final MultiMap<K, V> multiMap;
+
+    public HazelcastDistributedMultiMap(MultiMap<K, V> multiMap) {
+        this.multiMap = multiMap;
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        return multiMap.put(key, value);
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+        Collection<V> values = multiMap.get(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<V>(values);
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        return multiMap.remove(key, value);
+    }
+
+    @Override
+    public Collection<V> remove(K key) {
+        Collection<V> values = multiMap.remove(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<V>(values);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return multiMap.containsKey(key);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new HashSet<K>(multiMap.keySet());
+    }
+
+    @Override
+    public int size() {
+        return multiMap.size();
+    }
+
+    public void destroy() {
+        multiMap.destroy();
+    }
+}
@@ -26,55 +26,91 @@ import com.hazelcast.core.IMap;
 import org.apache.axis2.engine.AxisConfiguration;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.clustering.DistributedMultiMap;
 import org.apache.stratos.common.clustering.DistributedObjectProvider;
+import org.apache.stratos.common.clustering.MapStatistics;
 import org.apache.stratos.common.internal.ServiceReferenceHolder;
 import org.wso2.carbon.caching.impl.MapEntryListener;
 import org.wso2.carbon.core.clustering.hazelcast.HazelcastDistributedMapProvider;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Provides objects to be managed in distributed and non-distributed environments.
+ * Provides objects to be managed in distributed and non-distributed environments. In non-distributed
+ * mode maps and lists are concurrent collections and locks are read/write locks created per lock object,
+ * hence readers acquiring read locks do not block each other.
+ *
+ * Read mostly distributed maps can be near cached, near cache entries are invalidated by the entry
+ * listeners of the distributed map. Near caches can be disabled and sized using system properties.
  */
 public class HazelcastDistributedObjectProvider implements DistributedObjectProvider {
     private static final Log log = LogFactory.getLog(HazelcastDistributedObjectProvider.class);
 
+    public static final String NEAR_CACHE_ENABLED = "stratos.distributed.map.near.cache.enabled";
+    public static final String NEAR_CACHE_MAX_SIZE = "stratos.distributed.map.near.cache.max.size";
+
     private HazelcastDistributedMapProvider mapProvider;
     private HazelcastDistributedListProvider listProvider;
-    private Map<String, Map> mapsMap;
-    private Map<String, List> listsMap;
-    private Map<Object, Lock> locksMap;
+    private final ConcurrentMap<String, Map> mapsMap;
+    private final ConcurrentMap<String, List> listsMap;
+    private final ConcurrentMap<Object, ReadWriteLock> locksMap;
+    private final ConcurrentMap<String, NearCachedDistributedMap> nearCachedMapsMap;
+    private final ConcurrentMap<String, DistributedMultiMap> multiMapsMap;
+    private final boolean nearCacheEnabled;
+    private final int nearCacheMaxSize;
 
     public HazelcastDistributedObjectProvider() {
         HazelcastInstance hazelcastInstance = ServiceReferenceHolder.getInstance().getHazelcastInstance();
         mapProvider = new HazelcastDistributedMapProvider(hazelcastInstance);
         listProvider = new HazelcastDistributedListProvider(hazelcastInstance);
-        mapsMap = new HashMap<String, Map>();
-        listsMap = new HashMap<String, List>();
-        locksMap = new HashMap<Object, Lock>();
+        mapsMap = new ConcurrentHashMap<String, Map>();
+        listsMap = new ConcurrentHashMap<String, List>();
+        locksMap = new ConcurrentHashMap<Object, ReadWriteLock>();
+        nearCachedMapsMap = new ConcurrentHashMap<String, NearCachedDistributedMap>();
+        multiMapsMap = new ConcurrentHashMap<String, DistributedMultiMap>();
+        nearCacheEnabled = Boolean.parseBoolean(System.getProperty(NEAR_CACHE_ENABLED, "true"));
+        nearCacheMaxSize = Integer.getInteger(NEAR_CACHE_MAX_SIZE, 10000);
     }
 
     /**
-     * Returns a distributed map if clustering is enabled, else returns a local hash map.
+     * Returns a distributed map if clustering is enabled, else returns a local concurrent hash map.
      * @param name
      * @return
      */
     @Override
     public Map getMap(final String name) {
-        if(mapsMap.containsKey(name)) {
-            return mapsMap.get(name);
+        Map map = mapsMap.get(name);
+        if(map != null) {
+            return map;
+        }
+        synchronized (mapsMap) {
+            map = mapsMap.get(name);
+            if(map == null) {
+                map = createMap(name);
+                if(map != null) {
+                    mapsMap.put(name, map);
+                }
+            }
         }
+        return map;
+    }
 
+    private Map createMap(final String name) {
         Map map = null;
         if(isClustered()) {
             map = mapProvider.getMap(name, new MapEntryListener() {
                 @Override
                 public <X> void entryAdded(X key) {
+                    invalidateNearCache(name, key);
                     if(log.isDebugEnabled()) {
                         log.debug(String.format("Entry added to distributed map: [name] %s [key] %s",
                                 name, key));
@@ -83,6 +119,7 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
 
                 @Override
                 public <X> void entryRemoved(X key) {
+                    invalidateNearCache(name, key);
                     if(log.isDebugEnabled()) {
                         log.debug(String.format("Entry removed from distributed map: [name] %s [key] %s",
                                 name, key));
@@ -91,6 +128,7 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
 
                 @Override
                 public <X> void entryUpdated(X key) {
+                    invalidateNearCache(name, key);
                     if(log.isDebugEnabled()) {
                         log.debug(String.format("Entry updated in distributed map: [name] %s [key] %s",
                                 name, key));
@@ -98,40 +136,169 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
                 }
             });
         } else {
-            map = new HashMap<Object, Object>();
+            map = new ConcurrentHashMap<Object, Object>();
+        }
+        return map;
+    }
+
+    private void invalidateNearCache(String name, Object key) {
+        NearCachedDistributedMap nearCachedMap = nearCachedMapsMap.get(name);
+        if(nearCachedMap != null) {
+            nearCachedMap.invalidate(key);
         }
+    }
+
+    /**
+     * Returns a near cached distributed map if clustering is enabled, else returns a local concurrent
+     * hash map. If the map has already been created without a near cache, the existing map is returned.
+     * @param name
+     * @return
+     */
+    @Override
+    public Map getNearCachedMap(String name) {
+        Map map = mapsMap.get(name);
         if(map != null) {
-            mapsMap.put(name, map);
+            return map;
+        }
+        synchronized (mapsMap) {
+            map = mapsMap.get(name);
+            if(map == null) {
+                map = createMap(name);
+                if((map != null) && isClustered() && nearCacheEnabled) {
+                    IMap distributedMap = getHazelcastInstance().getMap(name);
+                    NearCachedDistributedMap nearCachedMap = new NearCachedDistributedMap(name, map,
+                            distributedMap, nearCacheMaxSize);
+                    nearCachedMapsMap.put(name, nearCachedMap);
+                    map = nearCachedMap;
+                }
+                if(map != null) {
+                    mapsMap.put(name, map);
+                }
+            }
         }
         return map;
     }
 
+    /**
+     * Returns entries of the given keys of a map, entries of a distributed map are read in a single
+     * batched call.
+     * @param name
+     * @param keys
+     * @return
+     */
+    @Override
+    public Map getAll(String name, Set keys) {
+        Map map = getMap(name);
+        if(map instanceof NearCachedDistributedMap) {
+            return ((NearCachedDistributedMap) map).getAll(keys);
+        }
+        if(isClustered()) {
+            IMap distributedMap = getHazelcastInstance().getMap(name);
+            return distributedMap.getAll(keys);
+        }
+        Map entries = new HashMap();
+        for(Object key : keys) {
+            Object value = map.get(key);
+            if(value != null) {
+                entries.put(key, value);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns access statistics of a near cached map, null is returned if the map is not near cached.
+     * @param name
+     * @return
+     */
+    @Override
+    public MapStatistics getMapStatistics(String name) {
+        NearCachedDistributedMap nearCachedMap = nearCachedMapsMap.get(name);
+        return (nearCachedMap != null) ? nearCachedMap.getStatistics() : null;
+    }
+
     /**
      * Remove map from provider
      * @param name
      */
     public void removeMap(String name) {
-        if(mapsMap.containsKey(name)) {
-            if(isClustered()) {
-                IMap map = (IMap) mapsMap.get(name);
+        synchronized (mapsMap) {
+            Map map = mapsMap.remove(name);
+            NearCachedDistributedMap nearCachedMap = nearCachedMapsMap.remove(name);
+            if(nearCachedMap != null) {
+                map = nearCachedMap.getDelegate();
+                nearCachedMap.invalidateAll();
+            }
+            if((map != null) && isClustered()) {
                 mapProvider.removeMap(name);
-                map.destroy();
+                ((IMap) map).destroy();
+            }
+        }
+    }
+
+    /**
+     * Returns a distributed multi map if clustering is enabled, else returns a local multi map.
+     * @param name
+     * @return
+     */
+    @Override
+    public DistributedMultiMap getMultiMap(String name) {
+        DistributedMultiMap multiMap = multiMapsMap.get(name);
+        if(multiMap != null) {
+            return multiMap;
+        }
+        synchronized (multiMapsMap) {
+            multiMap = multiMapsMap.get(name);
+            if(multiMap == null) {
+                if(isClustered()) {
+                    multiMap = new HazelcastDistributedMultiMap(getHazelcastInstance().getMultiMap(name));
+                } else {
+                    multiMap = new LocalMultiMap();
+                }
+                multiMapsMap.put(name, multiMap);
+            }
+        }
+        return multiMap;
+    }
+
+    /**
+     * Remove a multi map from the object provider.
+     * @param name
+     */
+    @Override
+    public void removeMultiMap(String name) {
+        synchronized (multiMapsMap) {
+            DistributedMultiMap multiMap = multiMapsMap.remove(name);
+            if(multiMap instanceof HazelcastDistributedMultiMap) {
+                ((HazelcastDistributedMultiMap) multiMap).destroy();
             }
-            mapsMap.remove(name);
         }
     }
 
     /**
-     * Returns a distributed list if clustering is enabled, else returns a local array list.
+     * Returns a distributed list if clustering is enabled, else returns a local copy on write array list.
      * @param name
      * @return
      */
     @Override
     public List getList(final String name) {
-        if(listsMap.containsKey(name)) {
-            return listsMap.get(name);
+        List list = listsMap.get(name);
+        if(list != null) {
+            return list;
+        }
+        synchronized (listsMap) {
+            list = listsMap.get(name);
+            if(list == null) {
+                list = createList(name);
+                if(list != null) {
+                    listsMap.put(name, list);
+                }
+            }
         }
+        return list;
+    }
 
+    private List createList(final String name) {
         List list = null;
         if(isClustered()) {
             list = listProvider.getList(name, new ListEntryListener() {
@@ -150,10 +317,7 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
                 }
             });
         } else {
-            list = new ArrayList();
-        }
-        if(list != null) {
-            listsMap.put(name, list);
+            list = new CopyOnWriteArrayList();
         }
         return list;
     }
@@ -164,19 +328,18 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
      */
     @Override
     public void removeList(String name) {
-        if(listsMap.containsKey(name)) {
-            if(isClustered()) {
-                IList list = (IList)listsMap.get(name);
+        synchronized (listsMap) {
+            List list = listsMap.remove(name);
+            if((list != null) && isClustered()) {
                 listProvider.removeList(name);
-                list.destroy();
+                ((IList) list).destroy();
             }
-            listsMap.remove(name);
         }
     }
 
     /**
-     * Acquires a distributed lock if clustering is enabled, else acquires a local reentrant lock and
-     * returns the lock object.
+     * Acquires a distributed lock if clustering is enabled, else acquires the write lock of a local
+     * reentrant read/write lock and returns the lock object.
      * @param object
      * @return
      */
@@ -185,20 +348,42 @@ public class HazelcastDistributedObjectProvider implements DistributedObjectProv
         if(isClustered()) {
             return acquireDistributedLock(object);
         } else {
-            Lock lock = locksMap.get(object);
-            if(lock == null) {
-                synchronized (object) {
-                    if(lock == null) {
-                        lock = new ReentrantLock();
-                        locksMap.put(object, lock);
-                    }
-                }
-            }
+            Lock lock = getLocalLock(object).writeLock();
             lock.lock();
             return lock;
         }
     }
 
+    /**
+     * Acquires a distributed lock if clustering is enabled, else acquires the read lock of a local
+     * reentrant read/write lock and returns the lock object.
+     * @param object
+     * @return
+     */
+    @Override
+    public Lock acquireReadLock(Object object) {
+        if(isClustered()) {
+            // Distributed locks are exclusive
+            return acquireDistributedLock(object);
+        } else {
+            Lock lock = getLocalLock(object).readLock();
+            lock.lock();
+            return lock;
+        }
+    }
+
+    private ReadWriteLock getLocalLock(Object object) {
+        ReadWriteLock lock = locksMap.get(object);
+        if(lock == null) {
+            ReadWriteLock newLock = new ReentrantReadWriteLock();
+            lock = locksMap.putIfAbsent(object, newLock);
+            if(lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
     /**
      * Releases a given distributed/local lock.
      * @param lock
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.clustering.impl;
+
+import org.apache.stratos.common.clustering.DistributedMultiMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi map used when clustering is disabled.
+ */
+public class LocalMultiMap<K, V> implements DistributedMultiMap<K, V> {
+
+    private final Map<K, Set<V>> map = new HashMap<K, Set<V>>();
+    private int size;
+
+    @Override
+    public synchronized boolean put(K key, V value) {
+        Set<V> values = map.get(key);
+        if (values == null) {
+            values = new LinkedHashSet<V>();
+            map.put(key, values);
+        }
+        if (values.add(value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Collection<V> get(K key) {
+        Set<V> values = map.get(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<V>(values);
+    }
+
+    @Override
+    public synchronized boolean remove(K key, V value) {
+        Set<V> values = map.get(key);
+        if ((values != null) && values.remove(value)) {
+            size--;
+            if (values.isEmpty()) {
+                map.remove(key);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Collection<V> remove(K key) {
+        Set<V> values = map.remove(key);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        size -= values.size();
+        return new ArrayList<V>(values);
+    }
+
+    @Override
+    public synchronized boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public synchronized Set<K> keySet() {
+        return new HashSet<K>(map.keySet());
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+}
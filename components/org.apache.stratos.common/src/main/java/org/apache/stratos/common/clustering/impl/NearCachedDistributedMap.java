@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.common.clustering.impl;
+
+import com.hazelcast.core.IMap;
+import org.apache.stratos.common.clustering.MapStatistics;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed map with a local near cache for read mostly maps. Values read from the distributed
+ * map are cached locally and invalidated when the entry is added, updated or removed in the
+ * cluster. Writes are sent to the distributed map and invalidate the local entry.
+ *
+ * Values returned by the near cache are shared by the callers of this member, similar to a local
+ * map. As with any distributed map, a modified value needs to be put() back to the map to be
+ * replicated.
+ */
+public class NearCachedDistributedMap<K, V> implements Map<K, V> {
+
+    private final String name;
+    private final Map<K, V> delegate;
+    private final IMap<K, V> distributedMap;
+    private final int maxSize;
+    private final ConcurrentMap<Object, V> cache = new ConcurrentHashMap<Object, V>();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong remoteCallCount = new AtomicLong();
+
+    /**
+     * @param name           name of the distributed map
+     * @param delegate       distributed map
+     * @param distributedMap hazelcast map used for batched reads, may be null
+     * @param maxSize        maximum number of entries cached locally
+     */
+    public NearCachedDistributedMap(String name, Map<K, V> delegate, IMap<K, V> distributedMap, int maxSize) {
+        this.name = name;
+        this.delegate = delegate;
+        this.distributedMap = distributedMap;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Invalidate the locally cached entry of the given key.
+     * @param key
+     */
+    public void invalidate(Object key) {
+        invalidationCount.incrementAndGet();
+        cache.remove(key);
+    }
+
+    /**
+     * Invalidate all locally cached entries.
+     */
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = cache.get(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return value;
+        }
+        missCount.incrementAndGet();
+        long invalidations = invalidationCount.get();
+        value = delegate.get(key);
+        remoteCallCount.incrementAndGet();
+        if (value != null) {
+            cacheValue(key, value, invalidations);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the entries of the given keys. Entries not found in the near cache are read from the
+     * distributed map in a single batched call.
+     * @param keys
+     * @return
+     */
+    public Map<K, V> getAll(Set<K> keys) {
+        Map<K, V> result = new HashMap<K, V>();
+        Set<K> missingKeys = new HashSet<K>();
+        for (K key : keys) {
+            V value = cache.get(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        hitCount.addAndGet(result.size());
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+
+        missCount.addAndGet(missingKeys.size());
+        long invalidations = invalidationCount.get();
+        Map<K, V> remoteEntries;
+        if (distributedMap != null) {
+            remoteEntries = distributedMap.getAll(missingKeys);
+            remoteCallCount.incrementAndGet();
+        } else {
+            remoteEntries = new HashMap<K, V>();
+            for (K key : missingKeys) {
+                V value = delegate.get(key);
+                remoteCallCount.incrementAndGet();
+                if (value != null) {
+                    remoteEntries.put(key, value);
+                }
+            }
+        }
+        for (Map.Entry<K, V> entry : remoteEntries.entrySet()) {
+            if (entry.getValue() != null) {
+                cacheValue(entry.getKey(), entry.getValue(), invalidations);
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void cacheValue(Object key, V value, long invalidations) {
+        if (cache.size() >= maxSize) {
+            return;
+        }
+        cache.put(key, value);
+        // An invalidation received while the value was being read may refer to a newer value
+        if (invalidationCount.get() != invalidations) {
+            cache.remove(key, value);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        try {
+            remoteCallCount.incrementAndGet();
+            return delegate.put(key, value);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        try {
+            remoteCallCount.incrementAndGet();
+            return delegate.remove(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        try {
+            remoteCallCount.incrementAndGet();
+            delegate.putAll(map);
+        } finally {
+            for (Object key : map.keySet()) {
+                invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            remoteCallCount.incrementAndGet();
+            delegate.clear();
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int size() {
+        remoteCallCount.incrementAndGet();
+        return delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        remoteCallCount.incrementAndGet();
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        remoteCallCount.incrementAndGet();
+        return delegate.containsValue(value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        remoteCallCount.incrementAndGet();
+        return delegate.keySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        remoteCallCount.incrementAndGet();
+        return delegate.values();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        remoteCallCount.incrementAndGet();
+        return delegate.entrySet();
+    }
+
+    public Map<K, V> getDelegate() {
+        return delegate;
+    }
+
+    public MapStatistics getStatistics() {
+        return new MapStatistics(name, cache.size(), hitCount.get(), missCount.get(), remoteCallCount.get(),
+                invalidationCount.get());
+    }
+}
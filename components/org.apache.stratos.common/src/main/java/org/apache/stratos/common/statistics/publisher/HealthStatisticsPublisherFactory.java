@@ -19,6 +19,7 @@
 
 package org.apache.stratos.common.statistics.publisher;
 
+import org.apache.stratos.common.statistics.publisher.embedded.EmbeddedHealthStatisticsPublisher;
 import org.apache.stratos.common.statistics.publisher.wso2.cep.WSO2CEPHealthStatisticsPublisher;
 
 /**
@@ -29,6 +30,8 @@ public class HealthStatisticsPublisherFactory {
     public static HealthStatisticsPublisher createHealthStatisticsPublisher(StatisticsPublisherType type) {
         if(type == StatisticsPublisherType.WSO2CEP) {
             return new WSO2CEPHealthStatisticsPublisher();
+        } else if(type == StatisticsPublisherType.EMBEDDED) {
+            return new EmbeddedHealthStatisticsPublisher();
         } else {
             throw new RuntimeException("Unknown statistics publisher type");
         }
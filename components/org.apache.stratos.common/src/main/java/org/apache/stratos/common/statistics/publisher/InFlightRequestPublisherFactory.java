@@ -19,6 +19,7 @@
 
 package org.apache.stratos.common.statistics.publisher;
 
+import org.apache.stratos.common.statistics.publisher.embedded.EmbeddedInFlightRequestPublisher;
 import org.apache.stratos.common.statistics.publisher.wso2.cep.WSO2CEPInFlightRequestPublisher;
 
 /**
@@ -29,6 +30,8 @@ public class InFlightRequestPublisherFactory {
     public static InFlightRequestPublisher createInFlightRequestPublisher(StatisticsPublisherType type) {
         if(type == StatisticsPublisherType.WSO2CEP) {
             return new WSO2CEPInFlightRequestPublisher();
+        } else if(type == StatisticsPublisherType.EMBEDDED) {
+            return new EmbeddedInFlightRequestPublisher();
         } else {
             throw new RuntimeException("Unknown statistics publisher type");
         }
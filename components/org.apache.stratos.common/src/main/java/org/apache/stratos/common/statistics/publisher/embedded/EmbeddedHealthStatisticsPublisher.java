@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.common.statistics.publisher.embedded;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.statistics.publisher.HealthStatisticsPublisher;
+
+/**
+ * Health statistics publisher for publishing statistics to the embedded statistics receiver.
+ */
+public class EmbeddedHealthStatisticsPublisher extends EmbeddedStatisticsPublisher implements HealthStatisticsPublisher {
+
+    private static final Log log = LogFactory.getLog(EmbeddedHealthStatisticsPublisher.class);
+
+    @Override
+    public void publish(String clusterId, String clusterInstanceId, String networkPartitionId, String memberId,
+                        String partitionId, String health, double value) {
+        if (!isEnabled()) {
+            return;
+        }
+        EmbeddedStatisticsReceiver receiver = getReceiver();
+        if (receiver == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Embedded statistics receiver not found, health statistics dropped: " +
+                        "[member] %s [health] %s", memberId, health));
+            }
+            return;
+        }
+        receiver.receiveHealthStatistics(clusterId, clusterInstanceId, networkPartitionId, memberId, partitionId,
+                health, value);
+    }
+
+    /**
+     * Publish a payload in the order of the health statistics stream definition of WSO2 CEP.
+     * @param payload cluster id, cluster instance id, network partition id, member id, partition id, health, value
+     */
+    @Override
+    public void publish(Object[] payload) {
+        publish((String) payload[0], (String) payload[1], (String) payload[2], (String) payload[3],
+                (String) payload[4], (String) payload[5], ((Number) payload[6]).doubleValue());
+    }
+}
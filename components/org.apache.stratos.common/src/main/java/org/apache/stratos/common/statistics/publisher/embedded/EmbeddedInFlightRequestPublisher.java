@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.common.statistics.publisher.embedded;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.statistics.publisher.InFlightRequestPublisher;
+
+/**
+ * In-flight request publisher for publishing statistics to the embedded statistics receiver.
+ */
+public class EmbeddedInFlightRequestPublisher extends EmbeddedStatisticsPublisher implements InFlightRequestPublisher {
+
+    private static final Log log = LogFactory.getLog(EmbeddedInFlightRequestPublisher.class);
+
+    @Override
+    public void publish(String clusterId, String networkPartitionId, int activeInstancesCount,
+                        int inFlightRequestCount, int servedRequestCount) {
+        if (!isEnabled()) {
+            return;
+        }
+        EmbeddedStatisticsReceiver receiver = getReceiver();
+        if (receiver == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Embedded statistics receiver not found, in-flight request count " +
+                        "dropped: [cluster] %s", clusterId));
+            }
+            return;
+        }
+        receiver.receiveInFlightRequestCount(clusterId, networkPartitionId, activeInstancesCount,
+                inFlightRequestCount, servedRequestCount);
+    }
+
+    /**
+     * Publish a payload in the order of the load balancer statistics stream definition of WSO2 CEP.
+     * @param payload cluster id, network partition id, active instances count, in-flight request count,
+     *                served request count
+     */
+    @Override
+    public void publish(Object[] payload) {
+        publish((String) payload[0], (String) payload[1], ((Number) payload[2]).intValue(),
+                ((Number) payload[3]).intValue(), ((Number) payload[4]).intValue());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.common.statistics.publisher.embedded;
+
+import org.apache.stratos.common.statistics.publisher.StatisticsPublisher;
+
+/**
+ * Embedded statistics publisher. Statistics are handed over to the receiver registered in the
+ * same JVM, instead of sending them to a complex event processor. Publishers running in other
+ * processes cannot reach the receiver, hence this is only used by the mock IaaS.
+ */
+public abstract class EmbeddedStatisticsPublisher implements StatisticsPublisher {
+
+    private static volatile EmbeddedStatisticsReceiver receiver;
+
+    private volatile boolean enabled;
+
+    /**
+     * Register the receiver of embedded statistics, statistics are dropped if a receiver is not registered.
+     * @param statisticsReceiver statistics receiver or null to unregister
+     */
+    public static void setReceiver(EmbeddedStatisticsReceiver statisticsReceiver) {
+        receiver = statisticsReceiver;
+    }
+
+    public static EmbeddedStatisticsReceiver getReceiver() {
+        return receiver;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
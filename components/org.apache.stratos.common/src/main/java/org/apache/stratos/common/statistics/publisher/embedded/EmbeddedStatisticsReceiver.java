@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.common.statistics.publisher.embedded;
+
+/**
+ * Receiver of statistics published by embedded statistics publishers within the same JVM.
+ */
+public interface EmbeddedStatisticsReceiver {
+
+    /**
+     * Receive health statistics of a member.
+     * @param clusterId Cluster id of the member
+     * @param clusterInstanceId Cluster instance id of the member
+     * @param networkPartitionId Network partition id of the member
+     * @param memberId Member id
+     * @param partitionId Partition id of the member
+     * @param health Health type: memory_consumption | load_average | ports_not_open
+     * @param value Health type value
+     */
+    void receiveHealthStatistics(String clusterId, String clusterInstanceId, String networkPartitionId,
+                                 String memberId, String partitionId, String health, double value);
+
+    /**
+     * Receive in-flight request count of a cluster.
+     * @param clusterId Cluster id
+     * @param networkPartitionId Network partition id of the cluster
+     * @param activeInstancesCount Active member instance count of the cluster
+     * @param inFlightRequestCount In-flight request count of the cluster
+     * @param servedRequestCount Served request count of the cluster
+     */
+    void receiveInFlightRequestCount(String clusterId, String networkPartitionId, int activeInstancesCount,
+                                     int inFlightRequestCount, int servedRequestCount);
+}
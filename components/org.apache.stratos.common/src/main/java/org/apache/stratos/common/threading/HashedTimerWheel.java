@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.common.threading;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel advanced by a single daemon thread. Timeouts are expired on the timer thread,
+ * hence {@link Timeout#expire()} should only hand the actual work over to an executor. Scheduling
+ * is thread safe, the wheel itself is only accessed by the timer thread.
+ */
+public class HashedTimerWheel {
+
+    private static final Log log = LogFactory.getLog(HashedTimerWheel.class);
+
+    private final String name;
+    private final long tickDuration;
+    private final long tickDurationNanos;
+    private final int mask;
+    private final List<Timeout>[] wheel;
+    private final ConcurrentLinkedQueue<Timeout> pendingTimeouts;
+    private final TickListener tickListener;
+    private Thread timerThread;
+    private volatile boolean running;
+    private volatile long startTime;
+    // Only accessed by the timer thread
+    private long tick;
+
+    /**
+     * @param name         name of the timer thread
+     * @param tickDuration tick duration in milliseconds
+     * @param wheelSize    number of buckets in the wheel, should be a power of two
+     * @param tickListener invoked on the timer thread after each tick, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, long tickDuration, int wheelSize, TickListener tickListener) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration should be greater than zero: " + tickDuration);
+        }
+        if ((wheelSize <= 0) || ((wheelSize & (wheelSize - 1)) != 0)) {
+            throw new IllegalArgumentException("Wheel size should be a power of two: " + wheelSize);
+        }
+        this.name = name;
+        this.tickDuration = tickDuration;
+        this.tickDurationNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        this.mask = wheelSize - 1;
+        this.tickListener = tickListener;
+        this.pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+        this.wheel = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new LinkedList<Timeout>();
+        }
+    }
+
+    /**
+     * Start the timer thread, does nothing if the timer has already been started.
+     */
+    public synchronized void start() {
+        if (timerThread != null) {
+            return;
+        }
+        running = true;
+        startTime = System.nanoTime();
+        timerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runTicks();
+            }
+        }, name);
+        timerThread.setDaemon(true);
+        timerThread.start();
+    }
+
+    /**
+     * Stop the timer thread, timeouts which have not expired are discarded.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (timerThread != null) {
+            timerThread.interrupt();
+        }
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Schedule a timeout to be expired once the given delay has elapsed. The timeout is expired
+     * on the first tick at or after its deadline.
+     */
+    public void schedule(Timeout timeout, long delay, TimeUnit unit) {
+        timeout.deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay));
+        pendingTimeouts.offer(timeout);
+    }
+
+    private void runTicks() {
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickDurationNanos;
+            long sleepTime = deadline - System.nanoTime();
+            if (sleepTime > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepTime);
+                } catch (InterruptedException ignore) {
+                }
+                // Woken up early or interrupted, check the running flag and the deadline again
+                continue;
+            }
+            tick++;
+            // The bucket of this tick is expired before pending timeouts are added, hence a new
+            // timeout never lands in a bucket which has already been processed
+            expireTimeouts();
+            transferPendingTimeouts();
+            if (tickListener != null) {
+                try {
+                    tickListener.ticked(tick);
+                } catch (Exception e) {
+                    log.error(String.format("Tick listener failed: [timer] %s", name), e);
+                }
+            }
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Timer wheel stopped: [timer] %s", name));
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                long elapsed = timeout.deadline - startTime;
+                timeout.deadlineTick = (elapsed > 0) ? (elapsed + tickDurationNanos - 1) / tickDurationNanos : 0;
+                addToWheel(timeout);
+            }
+        }
+    }
+
+    private void expireTimeouts() {
+        List<Timeout> bucket = wheel[(int) (tick & mask)];
+        List<Timeout> rescheduledTimeouts = null;
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+
+            long period;
+            try {
+                period = timeout.expire();
+            } catch (Exception e) {
+                log.error(String.format("Could not expire timeout: [timer] %s", name), e);
+                continue;
+            }
+            if (period > 0) {
+                timeout.deadlineTick += Math.max(1, period / tickDuration);
+                if (rescheduledTimeouts == null) {
+                    rescheduledTimeouts = new LinkedList<Timeout>();
+                }
+                rescheduledTimeouts.add(timeout);
+            }
+        }
+        if (rescheduledTimeouts != null) {
+            for (Timeout timeout : rescheduledTimeouts) {
+                addToWheel(timeout);
+            }
+        }
+    }
+
+    /**
+     * Add a timeout to the wheel once the bucket of the current tick has been processed.
+     */
+    private void addToWheel(Timeout timeout) {
+        if (timeout.deadlineTick <= tick) {
+            timeout.deadlineTick = tick + 1;
+        }
+        timeout.remainingRounds = (timeout.deadlineTick - tick - 1) / wheel.length;
+        wheel[(int) (timeout.deadlineTick & mask)].add(timeout);
+    }
+
+    /**
+     * Invoked on the timer thread after each tick.
+     */
+    public interface TickListener {
+        void ticked(long tick);
+    }
+
+    /**
+     * A timeout scheduled on the wheel.
+     */
+    public abstract static class Timeout {
+
+        private volatile long deadline;
+        // Wheel position, only accessed by the timer thread
+        private long deadlineTick;
+        private long remainingRounds;
+
+        /**
+         * Cancelled timeouts are removed from the wheel without being expired.
+         */
+        public abstract boolean isCancelled();
+
+        /**
+         * Invoked on the timer thread when the timeout expires, should not block.
+         * @return the period in milliseconds after which the timeout should expire again,
+         * zero or negative for a one-off timeout
+         */
+        protected abstract long expire();
+    }
+}
@@ -21,16 +21,26 @@ package org.apache.stratos.common.test;
 
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import org.apache.stratos.common.clustering.DistributedMultiMap;
+import org.apache.stratos.common.clustering.MapStatistics;
 import org.apache.stratos.common.clustering.impl.HazelcastDistributedObjectProvider;
 import org.apache.stratos.common.internal.ServiceReferenceHolder;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -42,6 +52,8 @@ public class DistributedObjectProviderTest {
     public static final String MAP_1_WRITE_LOCK = "MAP1_WRITE_LOCK";
     public static final String LIST_1 = "LIST1";
     public static final String LIST_1_WRITE_LOCK = "LIST1_WRITE_LOCK";
+    public static final String MULTI_MAP_1 = "MULTI_MAP1";
+    public static final String NEAR_CACHED_MAP_1 = "NEAR_CACHED_MAP1";
     private static HazelcastInstance hazelcastInstance;
 
     @BeforeClass
@@ -107,4 +119,161 @@ public class DistributedObjectProviderTest {
             provider.removeList(LIST_1);
         }
     }
+
+    @Test
+    public void testReadLockLocal() throws InterruptedException {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(null);
+        final HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        final CountDownLatch readLockAcquired = new CountDownLatch(1);
+        final CountDownLatch writeLockAcquired = new CountDownLatch(1);
+
+        Lock readLock = provider.acquireReadLock(MAP_1_WRITE_LOCK);
+        try {
+            // Readers should not block each other
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Lock lock = provider.acquireReadLock(MAP_1_WRITE_LOCK);
+                    readLockAcquired.countDown();
+                    provider.releaseLock(lock);
+                }
+            }).start();
+            assertTrue("Read lock was blocked by another reader", readLockAcquired.await(5, TimeUnit.SECONDS));
+
+            // Writers should be blocked by readers
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Lock lock = provider.acquireLock(MAP_1_WRITE_LOCK);
+                    writeLockAcquired.countDown();
+                    provider.releaseLock(lock);
+                }
+            }).start();
+            assertFalse("Write lock was acquired while a read lock is held",
+                    writeLockAcquired.await(200, TimeUnit.MILLISECONDS));
+        } finally {
+            provider.releaseLock(readLock);
+        }
+        assertTrue("Write lock was not acquired once the read lock is released",
+                writeLockAcquired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testMultiMapLocal() {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(null);
+        HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        testMultiMap(provider);
+    }
+
+    @Test
+    public void testMultiMapDistributed() {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(hazelcastInstance);
+        HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        testMultiMap(provider);
+    }
+
+    private void testMultiMap(HazelcastDistributedObjectProvider provider) {
+        DistributedMultiMap<String, String> multiMap = provider.getMultiMap(MULTI_MAP_1);
+        try {
+            assertTrue(multiMap.put("key1", "value1"));
+            assertTrue(multiMap.put("key1", "value2"));
+            assertFalse(multiMap.put("key1", "value1"));
+            assertTrue(multiMap.put("key2", "value3"));
+            assertEquals(3, multiMap.size());
+            assertEquals(2, multiMap.get("key1").size());
+            assertTrue(multiMap.get("key3").isEmpty());
+
+            assertTrue(multiMap.remove("key1", "value1"));
+            assertEquals(1, multiMap.get("key1").size());
+            Collection<String> values = multiMap.remove("key2");
+            assertEquals(1, values.size());
+            assertTrue(values.contains("value3"));
+            assertFalse(multiMap.containsKey("key2"));
+            assertEquals(1, multiMap.size());
+        } finally {
+            provider.removeMultiMap(MULTI_MAP_1);
+        }
+    }
+
+    @Test
+    public void testGetAllLocal() {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(null);
+        HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        Map<String, String> map = provider.getMap(MAP_1);
+        try {
+            map.put("key1", "value1");
+            map.put("key2", "value2");
+            Set<String> keys = new HashSet<String>();
+            keys.add("key1");
+            keys.add("key3");
+            Map<String, String> entries = provider.getAll(MAP_1, keys);
+            assertEquals(1, entries.size());
+            assertEquals("value1", entries.get("key1"));
+            assertNull(provider.getMapStatistics(MAP_1));
+        } finally {
+            provider.removeMap(MAP_1);
+        }
+    }
+
+    @Test
+    public void testNearCachedMapDistributed() throws InterruptedException {
+        ServiceReferenceHolder.getInstance().setHazelcastInstance(hazelcastInstance);
+        HazelcastDistributedObjectProvider provider = new HazelcastDistributedObjectProvider();
+        // A second provider on the same cluster acts as another member with its own near cache
+        HazelcastDistributedObjectProvider otherProvider = new HazelcastDistributedObjectProvider();
+        Map<String, String> map = provider.getNearCachedMap(NEAR_CACHED_MAP_1);
+        Map<String, String> otherMap = otherProvider.getNearCachedMap(NEAR_CACHED_MAP_1);
+        try {
+            // Entries are written by the other member, hence this member is only invalidated by
+            // the entry listener
+            otherMap.put("key1", "value1");
+            otherMap.put("key2", "value2");
+            waitForInvalidations(provider, 2);
+
+            // First read is a miss, subsequent reads are served by the near cache
+            for (int i = 0; i < 3; i++) {
+                assertEquals("value1", map.get("key1"));
+            }
+            assertStatistics(provider, 2, 1);
+
+            Set<String> keys = new HashSet<String>();
+            keys.add("key1");
+            keys.add("key2");
+            Map<String, String> entries = provider.getAll(NEAR_CACHED_MAP_1, keys);
+            assertEquals(2, entries.size());
+            assertEquals("value2", entries.get("key2"));
+            assertStatistics(provider, 3, 2);
+            assertEquals(2, provider.getMapStatistics(NEAR_CACHED_MAP_1).getCachedEntryCount());
+
+            // A put from another member invalidates the entry cached by this member
+            otherMap.put("key1", "value3");
+            waitForInvalidations(provider, 3);
+            assertEquals("value3", map.get("key1"));
+            assertEquals("value3", map.get("key1"));
+            assertStatistics(provider, 4, 3);
+        } finally {
+            provider.removeMap(NEAR_CACHED_MAP_1);
+        }
+    }
+
+    private void assertStatistics(HazelcastDistributedObjectProvider provider, long hitCount, long missCount) {
+        MapStatistics mapStatistics = provider.getMapStatistics(NEAR_CACHED_MAP_1);
+        assertNotNull(mapStatistics);
+        assertEquals(hitCount, mapStatistics.getHitCount());
+        assertEquals(missCount, mapStatistics.getMissCount());
+    }
+
+    /**
+     * Entry listener events are delivered asynchronously, wait until the expected number of
+     * invalidations have been received before reading from the near cache.
+     */
+    private void waitForInvalidations(HazelcastDistributedObjectProvider provider, long invalidationCount)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((provider.getMapStatistics(NEAR_CACHED_MAP_1).getInvalidationCount() < invalidationCount)
+                && (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+        assertEquals(invalidationCount, provider.getMapStatistics(NEAR_CACHED_MAP_1).getInvalidationCount());
+    }
 }
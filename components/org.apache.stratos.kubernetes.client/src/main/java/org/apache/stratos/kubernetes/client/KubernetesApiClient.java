@@ -21,7 +21,6 @@
 package org.apache.stratos.kubernetes.client;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpStatus;
@@ -31,6 +30,10 @@ import org.apache.stratos.kubernetes.client.interfaces.KubernetesAPIClientInterf
 import org.apache.stratos.kubernetes.client.model.*;
 import org.apache.stratos.kubernetes.client.rest.HttpResponse;
 import org.apache.stratos.kubernetes.client.rest.RestClient;
+import org.apache.stratos.kubernetes.client.watch.PodCache;
+import org.apache.stratos.kubernetes.client.watch.ReplicationControllerCache;
+import org.apache.stratos.kubernetes.client.watch.ResourceCacheRegistry;
+import org.apache.stratos.kubernetes.client.watch.ServiceCache;
 
 import java.net.URI;
 import java.util.ArrayList;
@@ -39,6 +42,8 @@ import java.util.List;
 public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
     private static final Log log = LogFactory.getLog(KubernetesApiClient.class);
+    // Gson instances are thread safe, hence shared among all requests
+    private static final Gson gson = new Gson();
     public static final String CONTEXT_PODS = "pods";
     private RestClient restClient;
     private String baseURL;
@@ -48,6 +53,35 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
         baseURL = endpointUrl;
     }
 
+    /**
+     * Returns the pod cache of this Kubernetes cluster, the pod watch is started on first use.
+     */
+    public PodCache getPodCache() {
+        return ResourceCacheRegistry.getInstance().getPodCache(restClient, baseURL);
+    }
+
+    /**
+     * Returns the replication controller cache of this Kubernetes cluster, the replication
+     * controller watch is started on first use.
+     */
+    public ReplicationControllerCache getReplicationControllerCache() {
+        return ResourceCacheRegistry.getInstance().getReplicationControllerCache(restClient, baseURL);
+    }
+
+    /**
+     * Returns the service cache of this Kubernetes cluster, the service watch is started on first use.
+     */
+    public ServiceCache getServiceCache() {
+        return ResourceCacheRegistry.getInstance().getServiceCache(restClient, baseURL);
+    }
+
+    /**
+     * Stop all watches of this Kubernetes cluster. Watches are started again on next use.
+     */
+    public void terminateWatches() {
+        ResourceCacheRegistry.getInstance().terminate(baseURL);
+    }
+
     @Override
     public void createPod(String podId, String podName, String dockerImage, List<Port> ports)
             throws KubernetesClientException {
@@ -105,8 +139,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             return gson.fromJson(content, Pod.class);
         } catch (KubernetesClientException e) {
             throw e;
@@ -132,8 +164,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             PodList result = gson.fromJson(content, PodList.class);
 
             List<Pod> podList = new ArrayList<Pod>();
@@ -154,8 +184,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
     private void createPod(Pod pod) throws KubernetesClientException {
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             String content = gson.toJson(pod);
             if (log.isDebugEnabled()) {
                 log.debug("Create pod request body: " + content);
@@ -240,8 +268,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             return gson.fromJson(content, ReplicationController.class);
         } catch (KubernetesClientException e) {
             throw e;
@@ -267,8 +293,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             ReplicationControllerList controllerList = gson.fromJson(content, ReplicationControllerList.class);
 
             List<ReplicationController> replicationControllers = new ArrayList<ReplicationController>();
@@ -366,8 +390,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
             throws KubernetesClientException {
 
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             String content = gson.toJson(replicationController);
             if (log.isDebugEnabled()) {
                 log.debug("CreateReplicationController request body : " + content);
@@ -407,8 +429,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
             throws KubernetesClientException {
 
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             String content = gson.toJson(replicationController);
             if (log.isDebugEnabled()) {
                 log.debug("Update kubernetes replication controller request body: "
@@ -550,8 +570,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             return gson.fromJson(content, Service.class);
         } catch (KubernetesClientException e) {
             throw e;
@@ -577,8 +595,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
 
             String content = response.getContent();
 
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             ServiceList result = gson.fromJson(content, ServiceList.class);
 
             List<Service> serviceList = new ArrayList<Service>();
@@ -600,8 +616,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
     private void createService(Service service) throws KubernetesClientException {
 
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             String content = gson.toJson(service);
             if (log.isDebugEnabled()) {
                 log.debug("CreateService Request Body : " + content);
@@ -690,8 +704,6 @@ public class KubernetesApiClient implements KubernetesAPIClientInterface {
             }
 
             String content = response.getContent();
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             PodList result = gson.fromJson(content, PodList.class);
 
             List<Pod> podList = new ArrayList<Pod>();
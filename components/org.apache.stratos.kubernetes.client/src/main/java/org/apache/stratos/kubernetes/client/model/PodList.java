@@ -31,6 +31,7 @@ public class PodList {
 
 	private String kind;
 	private String apiVersion;
+	private String resourceVersion;
 	private Pod[] items;
 	
 	public String getKind() {
@@ -45,6 +46,12 @@ public class PodList {
 	public void setApiVersion(String apiVersion) {
 		this.apiVersion = apiVersion;
 	}
+	public String getResourceVersion() {
+		return resourceVersion;
+	}
+	public void setResourceVersion(String resourceVersion) {
+		this.resourceVersion = resourceVersion;
+	}
 	public Pod[] getItems() {
 		return items;
 	}
@@ -31,6 +31,7 @@ public class ServiceList {
 
 	private String kind;
 	private String apiVersion;
+	private String resourceVersion;
 	private Service[] items;
 	
 	public String getKind() {
@@ -45,6 +46,12 @@ public class ServiceList {
 	public void setApiVersion(String apiVersion) {
 		this.apiVersion = apiVersion;
 	}
+	public String getResourceVersion() {
+		return resourceVersion;
+	}
+	public void setResourceVersion(String resourceVersion) {
+		this.resourceVersion = resourceVersion;
+	}
 	public Service[] getItems() {
 		return items;
 	}
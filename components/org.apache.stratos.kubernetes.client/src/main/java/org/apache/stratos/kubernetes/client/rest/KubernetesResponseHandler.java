@@ -21,7 +21,6 @@
 package org.apache.stratos.kubernetes.client.rest;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
@@ -40,6 +39,8 @@ import java.io.InputStreamReader;
  */
 public class KubernetesResponseHandler implements ResponseHandler<HttpResponse>{
     private static final Log log = LogFactory.getLog(KubernetesResponseHandler.class);
+    // Gson instances are thread safe, hence shared among all requests
+    private static final Gson gson = new Gson();
 
     @Override
     public HttpResponse handleResponse(org.apache.http.HttpResponse response) throws ClientProtocolException,
@@ -77,8 +78,6 @@ public class KubernetesResponseHandler implements ResponseHandler<HttpResponse>{
 
     private boolean isJson(String content) {
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             gson.fromJson(content, Object.class);
             return true;
         } catch (JsonSyntaxException ignore) {
@@ -88,8 +87,6 @@ public class KubernetesResponseHandler implements ResponseHandler<HttpResponse>{
 
     private KubernetesResponse parseKubernetesResponse(String result) {
         try {
-            GsonBuilder gsonBuilder = new GsonBuilder();
-            Gson gson = gsonBuilder.create();
             return gson.fromJson(result, KubernetesResponse.class);
         } catch (Exception e) {
             log.error("Could not parse kubernetes api response", e);
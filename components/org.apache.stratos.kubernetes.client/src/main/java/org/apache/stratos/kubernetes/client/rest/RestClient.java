@@ -18,8 +18,11 @@
  */
 package org.apache.stratos.kubernetes.client.rest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
@@ -28,6 +31,7 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
 
 public class RestClient {
 
@@ -114,6 +118,38 @@ public class RestClient {
 		}
     }
     
+    /**
+     * Handle a long-lived http get request such as a watch, the response body is handed over to
+     * the stream handler while it is being received.
+     *
+     * @param resourcePath This should be REST endpoint
+     * @param readTimeout socket read timeout in milliseconds, zero for no timeout
+     * @param streamHandler handler reading the response body
+     * @throws Exception if any errors occur when executing the request
+     */
+    public void doStream(URI resourcePath, int readTimeout, StreamHandler streamHandler) throws Exception {
+        HttpGet getRequest = null;
+        try {
+            getRequest = new HttpGet(resourcePath);
+            getRequest.addHeader("Content-Type", "application/json");
+            HttpConnectionParams.setSoTimeout(getRequest.getParams(), readTimeout);
+
+            org.apache.http.HttpResponse response = httpClient.execute(getRequest);
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK) {
+                throw new IOException(String.format("Could not open stream: [resource-path] %s [status-code] %d",
+                        resourcePath, statusCode));
+            }
+            InputStream inputStream = response.getEntity().getContent();
+            streamHandler.handle(inputStream);
+        } finally {
+            if (getRequest != null) {
+                // Do not try to consume the rest of an open ended stream
+                getRequest.abort();
+            }
+        }
+    }
+
     private void releaseConnection(HttpRequestBase request) {
         if (request != null) {
             request.releaseConnection();
@@ -0,0 +1,382 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.stratos.kubernetes.client.watch;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.stratos.kubernetes.client.exceptions.KubernetesClientException;
+import org.apache.stratos.kubernetes.client.rest.HttpResponse;
+import org.apache.stratos.kubernetes.client.rest.RestClient;
+import org.apache.stratos.kubernetes.client.rest.StreamHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of Kubernetes resources of one kind kept up to date by a watch stream. Resources
+ * are listed once, then changes are received over a long-lived watch request. The resources
+ * are listed again whenever the watch stream ends, fails, or is idle for the resync interval.
+ * Resources are indexed by id and by name label, callers may wait for a resource to satisfy
+ * a condition using futures completed by watch events.
+ *
+ * @param <T> resource type
+ * @param <L> resource list type
+ */
+public abstract class KubernetesResourceCache<T, L> implements Runnable {
+
+    private static final Log log = LogFactory.getLog(KubernetesResourceCache.class);
+    // Gson instances are thread safe, hence shared among all caches
+    private static final Gson gson = new Gson();
+
+    public static final String RESYNC_INTERVAL = "kubernetes.watch.resync.interval";
+    public static final String RETRY_INTERVAL = "kubernetes.watch.retry.interval";
+
+    private static final String EVENT_TYPE_ADDED = "ADDED";
+    private static final String EVENT_TYPE_MODIFIED = "MODIFIED";
+    private static final String EVENT_TYPE_DELETED = "DELETED";
+    private static final String EVENT_TYPE_ERROR = "ERROR";
+
+    private final String resourceName;
+    private final Class<T> resourceType;
+    private final Class<L> resourceListType;
+    private final RestClient restClient;
+    private final String baseURL;
+    private final int resyncInterval;
+    private final long retryInterval;
+
+    private final Map<String, T> resourcesById = new ConcurrentHashMap<String, T>();
+    private final Map<String, Set<String>> resourceIdsByLabel = new ConcurrentHashMap<String, Set<String>>();
+    private final List<ResourceFuture<T>> pendingFutures = new CopyOnWriteArrayList<ResourceFuture<T>>();
+    private final Object updateLock = new Object();
+
+    private final AtomicLong eventCount = new AtomicLong();
+    private final AtomicLong resyncCount = new AtomicLong();
+    private volatile boolean synced;
+    private volatile boolean terminated;
+    private Thread watcherThread;
+
+    protected KubernetesResourceCache(String resourceName, Class<T> resourceType, Class<L> resourceListType,
+                                      RestClient restClient, String baseURL) {
+        this.resourceName = resourceName;
+        this.resourceType = resourceType;
+        this.resourceListType = resourceListType;
+        this.restClient = restClient;
+        this.baseURL = baseURL;
+        this.resyncInterval = Integer.getInteger(RESYNC_INTERVAL, 300000);
+        this.retryInterval = Long.getLong(RETRY_INTERVAL, 5000);
+    }
+
+    protected abstract String getId(T resource);
+
+    protected abstract String getLabelName(T resource);
+
+    protected abstract T[] getItems(L resourceList);
+
+    protected abstract String getResourceVersion(L resourceList);
+
+    /**
+     * Start the watcher thread.
+     */
+    public synchronized void start() {
+        if (watcherThread != null) {
+            return;
+        }
+        watcherThread = new Thread(this, "kubernetes-" + resourceName + "-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Stop watching, the watcher thread exits once the current watch request returns.
+     */
+    public void terminate() {
+        terminated = true;
+        synced = false;
+    }
+
+    @Override
+    public void run() {
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Kubernetes resource watcher started: [resource] %s [base-url] %s",
+                    resourceName, baseURL));
+        }
+        while (!terminated) {
+            try {
+                String resourceVersion = resync();
+                watch(resourceVersion);
+            } catch (SocketTimeoutException e) {
+                // Watch stream was idle for the resync interval
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Kubernetes watch stream timed out, resynchronizing: [resource] %s",
+                            resourceName));
+                }
+            } catch (Exception e) {
+                synced = false;
+                if (!terminated) {
+                    log.warn(String.format("Kubernetes watch failed, will retry in %d ms: [resource] %s",
+                            retryInterval, resourceName), e);
+                    try {
+                        Thread.sleep(retryInterval);
+                    } catch (InterruptedException ignore) {
+                        terminate();
+                    }
+                }
+            }
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Kubernetes resource watcher stopped: [resource] %s", resourceName));
+        }
+    }
+
+    /**
+     * List all resources and replace the cached resources.
+     * @return resource version to start watching from
+     */
+    private String resync() throws Exception {
+        URI uri = new URIBuilder(baseURL + resourceName).build();
+        HttpResponse response = restClient.doGet(uri);
+        if ((response == null) || (response.getStatusCode() != HttpStatus.SC_OK)) {
+            throw new KubernetesClientException(String.format("Could not list resources: [resource] %s " +
+                    "[status-code] %s", resourceName, (response != null) ? response.getStatusCode() : null));
+        }
+
+        L resourceList = gson.fromJson(response.getContent(), resourceListType);
+        Map<String, T> resources = new HashMap<String, T>();
+        T[] items = (resourceList != null) ? getItems(resourceList) : null;
+        if (items != null) {
+            for (T resource : items) {
+                if ((resource != null) && (getId(resource) != null)) {
+                    resources.put(getId(resource), resource);
+                }
+            }
+        }
+
+        synchronized (updateLock) {
+            for (String resourceId : new ArrayList<String>(resourcesById.keySet())) {
+                if (!resources.containsKey(resourceId)) {
+                    remove(resourceId);
+                }
+            }
+            for (T resource : resources.values()) {
+                put(resource);
+            }
+            synced = true;
+        }
+        for (T resource : resources.values()) {
+            completeFutures(resource);
+        }
+
+        resyncCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Kubernetes resources synchronized: [resource] %s [count] %d",
+                    resourceName, resources.size()));
+        }
+        return (resourceList != null) ? getResourceVersion(resourceList) : null;
+    }
+
+    private void watch(String resourceVersion) throws Exception {
+        URIBuilder uriBuilder = new URIBuilder(baseURL + "watch/" + resourceName);
+        if (resourceVersion != null) {
+            uriBuilder.addParameter("resourceVersion", resourceVersion);
+        }
+        restClient.doStream(uriBuilder.build(), resyncInterval, new StreamHandler() {
+            @Override
+            public void handle(InputStream inputStream) throws IOException {
+                readEvents(inputStream);
+            }
+        });
+    }
+
+    /**
+     * Read watch events, each event is a JSON object with the event type and the resource.
+     */
+    private void readEvents(InputStream inputStream) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(inputStream, "UTF-8"));
+        reader.setLenient(true);
+        while (!terminated && (reader.peek() != JsonToken.END_DOCUMENT)) {
+            String type = null;
+            T resource = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("type".equals(name)) {
+                    type = reader.nextString();
+                } else if ("object".equals(name) && !EVENT_TYPE_ERROR.equals(type)) {
+                    resource = gson.fromJson(reader, resourceType);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            onEvent(type, resource);
+        }
+    }
+
+    private void onEvent(String type, T resource) throws IOException {
+        eventCount.incrementAndGet();
+        if (EVENT_TYPE_ERROR.equals(type)) {
+            throw new IOException(String.format("Kubernetes watch error event received: [resource] %s",
+                    resourceName));
+        }
+        if ((resource == null) || (getId(resource) == null)) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Kubernetes watch event received: [resource] %s [type] %s [id] %s",
+                    resourceName, type, getId(resource)));
+        }
+
+        if (EVENT_TYPE_ADDED.equals(type) || EVENT_TYPE_MODIFIED.equals(type)) {
+            synchronized (updateLock) {
+                put(resource);
+            }
+            completeFutures(resource);
+        } else if (EVENT_TYPE_DELETED.equals(type)) {
+            synchronized (updateLock) {
+                remove(getId(resource));
+            }
+        }
+    }
+
+    private void put(T resource) {
+        String resourceId = getId(resource);
+        T previous = resourcesById.put(resourceId, resource);
+        if (previous != null) {
+            removeFromLabelIndex(getLabelName(previous), resourceId);
+        }
+        String labelName = getLabelName(resource);
+        if (labelName != null) {
+            Set<String> resourceIds = resourceIdsByLabel.get(labelName);
+            if (resourceIds == null) {
+                resourceIds = Collections.synchronizedSet(new HashSet<String>());
+                resourceIdsByLabel.put(labelName, resourceIds);
+            }
+            resourceIds.add(resourceId);
+        }
+    }
+
+    private void remove(String resourceId) {
+        T previous = resourcesById.remove(resourceId);
+        if (previous != null) {
+            removeFromLabelIndex(getLabelName(previous), resourceId);
+        }
+    }
+
+    private void removeFromLabelIndex(String labelName, String resourceId) {
+        if (labelName == null) {
+            return;
+        }
+        Set<String> resourceIds = resourceIdsByLabel.get(labelName);
+        if (resourceIds != null) {
+            resourceIds.remove(resourceId);
+            if (resourceIds.isEmpty()) {
+                resourceIdsByLabel.remove(labelName);
+            }
+        }
+    }
+
+    private void completeFutures(T resource) {
+        for (ResourceFuture<T> future : pendingFutures) {
+            if (future.complete(resource)) {
+                pendingFutures.remove(future);
+            }
+        }
+    }
+
+    void removeFuture(ResourceFuture<T> future) {
+        pendingFutures.remove(future);
+    }
+
+    /**
+     * Returns a future completed once a resource satisfying the condition is found in the cache.
+     */
+    public ResourceFuture<T> waitFor(ResourceCondition<T> condition) {
+        ResourceFuture<T> future = new ResourceFuture<T>(this, condition);
+        pendingFutures.add(future);
+        // Check resources already in the cache
+        for (T resource : resourcesById.values()) {
+            if (future.complete(resource)) {
+                pendingFutures.remove(future);
+                break;
+            }
+        }
+        return future;
+    }
+
+    public T get(String resourceId) {
+        return resourcesById.get(resourceId);
+    }
+
+    /**
+     * Returns resources with the given name label.
+     */
+    public List<T> getByLabel(String labelName) {
+        List<T> resources = new ArrayList<T>();
+        Set<String> resourceIds = resourceIdsByLabel.get(labelName);
+        if (resourceIds != null) {
+            synchronized (resourceIds) {
+                for (String resourceId : resourceIds) {
+                    T resource = resourcesById.get(resourceId);
+                    if (resource != null) {
+                        resources.add(resource);
+                    }
+                }
+            }
+        }
+        return resources;
+    }
+
+    public List<T> getAll() {
+        return new ArrayList<T>(resourcesById.values());
+    }
+
+    /**
+     * Returns true if the cache has been synchronized and the watch stream is healthy, callers
+     * should query the Kubernetes API directly otherwise.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    public long getResyncCount() {
+        return resyncCount.get();
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.stratos.kubernetes.client.watch;
+
+import org.apache.stratos.kubernetes.client.model.Pod;
+import org.apache.stratos.kubernetes.client.model.PodList;
+import org.apache.stratos.kubernetes.client.rest.RestClient;
+
+/**
+ * Pod cache kept up to date by a watch stream.
+ */
+public class PodCache extends KubernetesResourceCache<Pod, PodList> {
+
+    public PodCache(RestClient restClient, String baseURL) {
+        super("pods", Pod.class, PodList.class, restClient, baseURL);
+    }
+
+    /**
+     * Returns a future completed once a pod with the given name label reaches the given status.
+     * @param labelName name label of the pod
+     * @param status pod status, for an example Running
+     */
+    public ResourceFuture<Pod> waitForPodStatus(final String labelName, final String status) {
+        return waitFor(new ResourceCondition<Pod>() {
+            @Override
+            public boolean matches(Pod pod) {
+                return (pod.getLabels() != null) && labelName.equals(pod.getLabels().getName()) &&
+                        (pod.getCurrentState() != null) && status.equals(pod.getCurrentState().getStatus());
+            }
+        });
+    }
+
+    @Override
+    protected String getId(Pod resource) {
+        return resource.getId();
+    }
+
+    @Override
+    protected String getLabelName(Pod resource) {
+        return (resource.getLabels() != null) ? resource.getLabels().getName() : null;
+    }
+
+    @Override
+    protected Pod[] getItems(PodList resourceList) {
+        return resourceList.getItems();
+    }
+
+    @Override
+    protected String getResourceVersion(PodList resourceList) {
+        return resourceList.getResourceVersion();
+    }
+}
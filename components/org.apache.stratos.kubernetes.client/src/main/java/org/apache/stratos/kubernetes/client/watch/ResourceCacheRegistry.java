@@ -0,0 +1,118 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.stratos.kubernetes.client.watch;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.kubernetes.client.rest.RestClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the resource caches of Kubernetes clusters, keyed by API base URL. Kubernetes API
+ * clients are recreated whenever their owners are deserialized, hence caches are kept in this
+ * registry to start only one set of watches per Kubernetes cluster. Caches are started on first
+ * use and stopped by calling {@link #terminate(String)} or {@link #terminateAll()}.
+ */
+public class ResourceCacheRegistry {
+
+    private static final Log log = LogFactory.getLog(ResourceCacheRegistry.class);
+
+    private static final ResourceCacheRegistry instance = new ResourceCacheRegistry();
+
+    private final Map<String, PodCache> podCaches = new HashMap<String, PodCache>();
+    private final Map<String, ReplicationControllerCache> replicationControllerCaches =
+            new HashMap<String, ReplicationControllerCache>();
+    private final Map<String, ServiceCache> serviceCaches = new HashMap<String, ServiceCache>();
+
+    private ResourceCacheRegistry() {
+    }
+
+    public static ResourceCacheRegistry getInstance() {
+        return instance;
+    }
+
+    public synchronized PodCache getPodCache(RestClient restClient, String baseURL) {
+        PodCache podCache = podCaches.get(baseURL);
+        if (podCache == null) {
+            podCache = new PodCache(restClient, baseURL);
+            podCache.start();
+            podCaches.put(baseURL, podCache);
+        }
+        return podCache;
+    }
+
+    public synchronized ReplicationControllerCache getReplicationControllerCache(RestClient restClient,
+                                                                                 String baseURL) {
+        ReplicationControllerCache replicationControllerCache = replicationControllerCaches.get(baseURL);
+        if (replicationControllerCache == null) {
+            replicationControllerCache = new ReplicationControllerCache(restClient, baseURL);
+            replicationControllerCache.start();
+            replicationControllerCaches.put(baseURL, replicationControllerCache);
+        }
+        return replicationControllerCache;
+    }
+
+    public synchronized ServiceCache getServiceCache(RestClient restClient, String baseURL) {
+        ServiceCache serviceCache = serviceCaches.get(baseURL);
+        if (serviceCache == null) {
+            serviceCache = new ServiceCache(restClient, baseURL);
+            serviceCache.start();
+            serviceCaches.put(baseURL, serviceCache);
+        }
+        return serviceCache;
+    }
+
+    /**
+     * Stop the watches of the Kubernetes cluster with the given API base URL.
+     */
+    public synchronized void terminate(String baseURL) {
+        List<KubernetesResourceCache<?, ?>> caches = new ArrayList<KubernetesResourceCache<?, ?>>();
+        addIfNotNull(caches, podCaches.remove(baseURL));
+        addIfNotNull(caches, replicationControllerCaches.remove(baseURL));
+        addIfNotNull(caches, serviceCaches.remove(baseURL));
+        for (KubernetesResourceCache<?, ?> cache : caches) {
+            cache.terminate();
+        }
+        if (!caches.isEmpty() && log.isInfoEnabled()) {
+            log.info(String.format("Kubernetes watches stopped: [base-url] %s", baseURL));
+        }
+    }
+
+    /**
+     * Stop the watches of all Kubernetes clusters.
+     */
+    public synchronized void terminateAll() {
+        List<String> baseURLs = new ArrayList<String>(podCaches.keySet());
+        baseURLs.addAll(replicationControllerCaches.keySet());
+        baseURLs.addAll(serviceCaches.keySet());
+        for (String baseURL : baseURLs) {
+            terminate(baseURL);
+        }
+    }
+
+    private void addIfNotNull(List<KubernetesResourceCache<?, ?>> caches, KubernetesResourceCache<?, ?> cache) {
+        if (cache != null) {
+            caches.add(cache);
+        }
+    }
+}
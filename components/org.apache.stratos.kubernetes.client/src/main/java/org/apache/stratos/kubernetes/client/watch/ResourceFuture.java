@@ -0,0 +1,106 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.stratos.kubernetes.client.watch;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Future completed by a resource cache once a resource satisfying the given condition is
+ * added or modified.
+ */
+public class ResourceFuture<T> implements Future<T> {
+
+    private final KubernetesResourceCache<T, ?> resourceCache;
+    private final ResourceCondition<T> condition;
+    private final CountDownLatch latch;
+    private volatile T resource;
+    private volatile boolean cancelled;
+
+    ResourceFuture(KubernetesResourceCache<T, ?> resourceCache, ResourceCondition<T> condition) {
+        this.resourceCache = resourceCache;
+        this.condition = condition;
+        this.latch = new CountDownLatch(1);
+    }
+
+    /**
+     * Complete the future if the resource satisfies the condition.
+     * @return true if the future was completed by this invocation
+     */
+    boolean complete(T resource) {
+        if (!condition.matches(resource)) {
+            return false;
+        }
+        synchronized (this) {
+            if (latch.getCount() == 0) {
+                return false;
+            }
+            this.resource = resource;
+            latch.countDown();
+            return true;
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (latch.getCount() == 0) {
+                return false;
+            }
+            cancelled = true;
+            latch.countDown();
+        }
+        resourceCache.removeFuture(this);
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return (latch.getCount() == 0);
+    }
+
+    @Override
+    public T get() throws InterruptedException {
+        latch.await();
+        return getResource();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return getResource();
+    }
+
+    private T getResource() {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        return resource;
+    }
+}
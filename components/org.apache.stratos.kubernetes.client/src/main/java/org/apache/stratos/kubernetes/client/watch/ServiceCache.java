@@ -0,0 +1,53 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.stratos.kubernetes.client.watch;
+
+import org.apache.stratos.kubernetes.client.model.Service;
+import org.apache.stratos.kubernetes.client.model.ServiceList;
+import org.apache.stratos.kubernetes.client.rest.RestClient;
+
+/**
+ * Service cache kept up to date by a watch stream.
+ */
+public class ServiceCache extends KubernetesResourceCache<Service, ServiceList> {
+
+    public ServiceCache(RestClient restClient, String baseURL) {
+        super("services", Service.class, ServiceList.class, restClient, baseURL);
+    }
+
+    @Override
+    protected String getId(Service resource) {
+        return resource.getId();
+    }
+
+    @Override
+    protected String getLabelName(Service resource) {
+        return (resource.getLabels() != null) ? resource.getLabels().getName() : null;
+    }
+
+    @Override
+    protected Service[] getItems(ServiceList resourceList) {
+        return resourceList.getItems();
+    }
+
+    @Override
+    protected String getResourceVersion(ServiceList resourceList) {
+        return resourceList.getResourceVersion();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.stratos.kubernetes.client.unit;
+
+import com.google.gson.Gson;
+import junit.framework.TestCase;
+import org.apache.stratos.kubernetes.client.model.Labels;
+import org.apache.stratos.kubernetes.client.model.Pod;
+import org.apache.stratos.kubernetes.client.model.PodList;
+import org.apache.stratos.kubernetes.client.model.State;
+import org.apache.stratos.kubernetes.client.rest.HttpResponse;
+import org.apache.stratos.kubernetes.client.rest.RestClient;
+import org.apache.stratos.kubernetes.client.rest.StreamHandler;
+import org.apache.stratos.kubernetes.client.watch.PodCache;
+import org.apache.stratos.kubernetes.client.watch.ResourceFuture;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pod cache tests, the Kubernetes API is replaced by a rest client returning a pod list and
+ * a single batch of watch events.
+ */
+@Category(org.apache.stratos.kubernetes.client.UnitTests.class)
+public class PodCacheUnitTest extends TestCase {
+
+    private static final long TIMEOUT = 10000;
+    private static final Gson gson = new Gson();
+
+    private PodCache podCache;
+    private MockRestClient restClient;
+
+    @After
+    public void tearDown() {
+        if (podCache != null) {
+            podCache.terminate();
+        }
+        if (restClient != null) {
+            restClient.release();
+        }
+    }
+
+    @Test
+    public void testInitialListIndexed() throws Exception {
+        startPodCache(createPodList("5", createPod("pod-1", "pod-label-1", "Running")));
+        assertTrue("Watch events were not processed", restClient.awaitEventsProcessed());
+
+        assertTrue("Pod cache is not synced", podCache.isSynced());
+        assertEquals("pod-1", podCache.get("pod-1").getId());
+        assertEquals(1, podCache.getByLabel("pod-label-1").size());
+        assertEquals(0, podCache.getByLabel("pod-label-2").size());
+        assertEquals("Watch was not started from the listed resource version",
+                "5", restClient.getWatchResourceVersion());
+    }
+
+    @Test
+    public void testWatchEventsApplied() throws Exception {
+        startPodCache(createPodList("5", createPod("pod-1", "pod-label-1", "Pending"),
+                        createPod("pod-2", "pod-label-2", "Running")),
+                createEvent("MODIFIED", createPod("pod-1", "pod-label-1", "Running")),
+                createEvent("ADDED", createPod("pod-3", "pod-label-3", "Pending")),
+                createEvent("DELETED", createPod("pod-2", "pod-label-2", "Running")));
+        assertTrue("Watch events were not processed", restClient.awaitEventsProcessed());
+
+        assertEquals("Running", podCache.get("pod-1").getCurrentState().getStatus());
+        assertNotNull("Added pod not found", podCache.get("pod-3"));
+        assertEquals(1, podCache.getByLabel("pod-label-3").size());
+        assertNull("Deleted pod found", podCache.get("pod-2"));
+        assertEquals(0, podCache.getByLabel("pod-label-2").size());
+        assertEquals(2, podCache.getAll().size());
+        assertEquals(3, podCache.getEventCount());
+    }
+
+    @Test
+    public void testLabelIndexUpdatedOnModification() throws Exception {
+        startPodCache(createPodList("5", createPod("pod-1", "pod-label-1", "Running")),
+                createEvent("MODIFIED", createPod("pod-1", "pod-label-2", "Running")));
+        assertTrue("Watch events were not processed", restClient.awaitEventsProcessed());
+
+        assertEquals(0, podCache.getByLabel("pod-label-1").size());
+        assertEquals(1, podCache.getByLabel("pod-label-2").size());
+    }
+
+    @Test
+    public void testFutureCompletedByWatchEvent() throws Exception {
+        restClient = new MockRestClient(createPodList("5", createPod("pod-1", "pod-label-1", "Pending")),
+                createEvent("MODIFIED", createPod("pod-1", "pod-label-1", "Running")));
+        podCache = new PodCache(restClient, "http://localhost:8080/api/v1beta1/");
+        ResourceFuture<Pod> future = podCache.waitForPodStatus("pod-label-1", "Running");
+        assertFalse("Future completed before the pod is running", future.isDone());
+
+        podCache.start();
+        Pod pod = future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        assertEquals("pod-1", pod.getId());
+        assertEquals("Running", pod.getCurrentState().getStatus());
+    }
+
+    @Test
+    public void testFutureCompletedByCachedPod() throws Exception {
+        startPodCache(createPodList("5", createPod("pod-1", "pod-label-1", "Running")));
+        assertTrue("Watch events were not processed", restClient.awaitEventsProcessed());
+
+        ResourceFuture<Pod> future = podCache.waitForPodStatus("pod-label-1", "Running");
+        assertTrue("Future was not completed by the cached pod", future.isDone());
+        assertEquals("pod-1", future.get().getId());
+
+        ResourceFuture<Pod> pendingFuture = podCache.waitForPodStatus("pod-label-1", "Failed");
+        assertFalse(pendingFuture.isDone());
+        assertTrue(pendingFuture.cancel(false));
+        assertTrue(pendingFuture.isCancelled());
+    }
+
+    private void startPodCache(String podList, String... events) {
+        restClient = new MockRestClient(podList, events);
+        podCache = new PodCache(restClient, "http://localhost:8080/api/v1beta1/");
+        podCache.start();
+    }
+
+    private static Pod createPod(String podId, String labelName, String status) {
+        Pod pod = new Pod();
+        pod.setId(podId);
+        Labels labels = new Labels();
+        labels.setName(labelName);
+        pod.setLabels(labels);
+        State currentState = new State();
+        currentState.setStatus(status);
+        pod.setCurrentState(currentState);
+        return pod;
+    }
+
+    private static String createPodList(String resourceVersion, Pod... pods) {
+        PodList podList = new PodList();
+        podList.setResourceVersion(resourceVersion);
+        podList.setItems(pods);
+        return gson.toJson(podList);
+    }
+
+    private static String createEvent(String type, Pod pod) {
+        return String.format("{\"type\":\"%s\",\"object\":%s}", type, gson.toJson(pod));
+    }
+
+    /**
+     * Rest client returning the given pod list and streaming the given watch events once. The
+     * watch request is held open afterwards until the client is released.
+     */
+    private static class MockRestClient extends RestClient {
+
+        private final String podList;
+        private final String[] events;
+        private final CountDownLatch eventsProcessed = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile String watchResourceVersion;
+
+        MockRestClient(String podList, String... events) {
+            this.podList = podList;
+            this.events = events;
+        }
+
+        @Override
+        public HttpResponse doGet(URI resourcePath) throws Exception {
+            HttpResponse response = new HttpResponse();
+            response.setStatusCode(200);
+            response.setContent(podList);
+            return response;
+        }
+
+        @Override
+        public void doStream(URI resourcePath, int readTimeout, StreamHandler streamHandler) throws Exception {
+            if (eventsProcessed.getCount() > 0) {
+                String query = resourcePath.getQuery();
+                watchResourceVersion = (query != null) ? query.substring(query.indexOf('=') + 1) : null;
+                StringBuilder content = new StringBuilder();
+                for (String event : events) {
+                    content.append(event).append('\n');
+                }
+                streamHandler.handle(new ByteArrayInputStream(content.toString().getBytes("UTF-8")));
+                eventsProcessed.countDown();
+            }
+            released.await();
+        }
+
+        boolean awaitEventsProcessed() throws InterruptedException {
+            return eventsProcessed.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
+        String getWatchResourceVersion() {
+            return watchResourceVersion;
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.load.balancer.extension.api;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load balancer configuration reloader thread. Topology events only mark the load balancer
+ * configuration as outdated, the configuration is then reloaded by this thread once the reload
+ * delay has elapsed and at most once per reload window. Hence a burst of topology events,
+ * for instance while a cluster scales out, results in a single reload. The configuration is
+ * generated from the read only topology snapshot, hence the topology is not locked while the
+ * load balancer is being reloaded. A failed reload is retried after the reload window.
+ */
+public class LoadBalancerConfigurationReloader implements Runnable {
+    private static final Log log = LogFactory.getLog(LoadBalancerConfigurationReloader.class);
+
+    public static final String THREAD_NAME = "load-balancer-configuration-reloader";
+
+    private static final String RELOAD_DELAY = "load.balancer.reload.delay";
+    private static final String RELOAD_WINDOW = "load.balancer.reload.window";
+
+    private final LoadBalancer loadBalancer;
+    private final long reloadDelay;
+    private final long reloadWindow;
+    private final Object reloadLock = new Object();
+    private boolean reloadRequired;
+    private volatile boolean terminated;
+    private long lastReloadTime;
+
+    private final AtomicLong requestedCount = new AtomicLong();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalReloadLatency = new AtomicLong();
+    private final AtomicLong maxReloadLatency = new AtomicLong();
+
+    public LoadBalancerConfigurationReloader(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+        this.reloadDelay = Long.getLong(RELOAD_DELAY, 500);
+        this.reloadWindow = Long.getLong(RELOAD_WINDOW, 5000);
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("%s: %dms %s: %dms", RELOAD_DELAY, reloadDelay, RELOAD_WINDOW, reloadWindow));
+        }
+    }
+
+    /**
+     * Mark load balancer configuration as outdated. This does not block the caller.
+     */
+    public void requestReload() {
+        requestedCount.incrementAndGet();
+        synchronized (reloadLock) {
+            reloadRequired = true;
+            reloadLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!terminated) {
+            try {
+                synchronized (reloadLock) {
+                    while (!reloadRequired && !terminated) {
+                        reloadLock.wait();
+                    }
+                }
+                if (terminated) {
+                    break;
+                }
+
+                // Wait for the remaining events of the burst and until the reload window elapses
+                long waitTime = Math.max(reloadDelay, (lastReloadTime + reloadWindow) - System.currentTimeMillis());
+                if (waitTime > 0) {
+                    synchronized (reloadLock) {
+                        long endTime = System.currentTimeMillis() + waitTime;
+                        long remainingTime = waitTime;
+                        while ((remainingTime > 0) && !terminated) {
+                            reloadLock.wait(remainingTime);
+                            remainingTime = endTime - System.currentTimeMillis();
+                        }
+                    }
+                    if (terminated) {
+                        break;
+                    }
+                }
+
+                synchronized (reloadLock) {
+                    reloadRequired = false;
+                }
+                if (!reload()) {
+                    // Retry once the reload window elapses, unless a new reload is requested meanwhile
+                    synchronized (reloadLock) {
+                        reloadRequired = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Load balancer configuration reloader interrupted");
+                }
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Reload load balancer configuration using the latest topology snapshot.
+     * @return true if the configuration was reloaded
+     */
+    private boolean reload() {
+        long startTime = System.currentTimeMillis();
+        try {
+            // Snapshots are read only, hence no topology lock is held while the load balancer reloads
+            loadBalancer.reload(TopologyManager.getTopologySnapshot());
+
+            long latency = System.currentTimeMillis() - startTime;
+            long count = reloadCount.incrementAndGet();
+            totalReloadLatency.addAndGet(latency);
+            updateMaxReloadLatency(latency);
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Load balancer configuration reloaded: [reload-count] %d " +
+                        "[requested-count] %d [latency] %dms", count, requestedCount.get(), latency));
+            }
+            return true;
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            if (log.isErrorEnabled()) {
+                log.error(String.format("Could not reload load balancer configuration, retrying in %dms",
+                        reloadWindow), e);
+            }
+            return false;
+        } finally {
+            lastReloadTime = System.currentTimeMillis();
+        }
+    }
+
+    private void updateMaxReloadLatency(long latency) {
+        long max;
+        while (latency > (max = maxReloadLatency.get())) {
+            if (maxReloadLatency.compareAndSet(max, latency)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Terminate load balancer configuration reloader thread, pending reloads are discarded.
+     */
+    public void terminate() {
+        terminated = true;
+        synchronized (reloadLock) {
+            reloadLock.notifyAll();
+        }
+    }
+
+    /**
+     * Get number of reloads requested by topology events.
+     */
+    public long getRequestedCount() {
+        return requestedCount.get();
+    }
+
+    /**
+     * Get number of successful reloads.
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * Get number of failed reloads.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Get average latency of successful reloads in milliseconds.
+     */
+    public long getAverageReloadLatency() {
+        long count = reloadCount.get();
+        return (count > 0) ? (totalReloadLatency.get() / count) : 0;
+    }
+
+    /**
+     * Get maximum latency of successful reloads in milliseconds.
+     */
+    public long getMaxReloadLatency() {
+        return maxReloadLatency.get();
+    }
+}
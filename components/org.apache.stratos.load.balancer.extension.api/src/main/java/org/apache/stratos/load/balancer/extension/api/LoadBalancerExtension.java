@@ -42,6 +42,7 @@ public class LoadBalancerExtension {
 	private boolean loadBalancerStarted;
 	private TopologyEventReceiver topologyEventReceiver;
 	private LoadBalancerStatisticsNotifier statisticsNotifier;
+	private LoadBalancerConfigurationReloader configurationReloader;
 	private boolean terminated;
 	private ExecutorService executorService;
 
@@ -63,6 +64,15 @@ public class LoadBalancerExtension {
 				log.info("Load balancer extension started");
 			}
 
+			// Configuration reloader generates the configuration from topology snapshots
+			TopologyManager.setSnapshotEnabled(true);
+
+			// Start configuration reloader thread
+			configurationReloader = new LoadBalancerConfigurationReloader(loadBalancer);
+			Thread configurationReloaderThread = new Thread(configurationReloader,
+					LoadBalancerConfigurationReloader.THREAD_NAME);
+			configurationReloaderThread.start();
+
 			// Start topology receiver thread
 			topologyEventReceiver = new TopologyEventReceiver();
 			addEventListeners();
@@ -143,14 +153,9 @@ public class LoadBalancerExtension {
 	}
 
 	private void reloadConfiguration() {
-		try {
-			if (loadBalancerStarted) {
-				loadBalancer.reload(TopologyManager.getTopology());
-			}
-		} catch (Exception e) {
-			if (log.isErrorEnabled()) {
-				log.error("Could not reload load balancer configuration", e);
-			}
+		// Reloads are coalesced by the configuration reloader thread
+		if (loadBalancerStarted) {
+			configurationReloader.requestReload();
 		}
 	}
 
@@ -161,9 +166,16 @@ public class LoadBalancerExtension {
 		if (statisticsNotifier != null) {
 			statisticsNotifier.terminate();
 		}
+		if (configurationReloader != null) {
+			configurationReloader.terminate();
+		}
 		terminated = true;
 	}
 
+	public LoadBalancerConfigurationReloader getConfigurationReloader() {
+		return configurationReloader;
+	}
+
 	public ExecutorService getExecutorService() {
 		return executorService;
 	}
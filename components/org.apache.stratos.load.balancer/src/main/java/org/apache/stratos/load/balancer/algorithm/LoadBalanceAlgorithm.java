@@ -37,19 +37,14 @@ public interface LoadBalanceAlgorithm {
     public String getName();
 
     /**
-     * Apply the algorithm and return the next member.
+     * Apply the algorithm and return the next member. Implementations are invoked concurrently
+     * for all requests and should not keep state outside the algorithm context.
      *
+     * @param members          members of the cluster, this list must not be modified
      * @param algorithmContext
      * @return
      */
-    public Member getNextMember(AlgorithmContext algorithmContext);
-
-    /**
-     * Set member list of a given cluster.
-     *
-     * @param members
-     */
-    public void setMembers(List<Member> members);
+    public Member getNextMember(List<Member> members, AlgorithmContext algorithmContext);
 
     /**
      * Reset the algorithm and start from the beginning.
@@ -25,68 +25,44 @@ import org.apache.stratos.load.balancer.context.AlgorithmContext;
 import org.apache.stratos.messaging.domain.topology.Member;
 
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This is the implementation of the round robin load balancing algorithm. It simply iterates
- * through the endpoint list one by one for until an active endpoint is found.
+ * through the endpoint list one by one for until an active endpoint is found. The current member
+ * index is advanced atomically, hence members are selected without locking.
  */
 public class RoundRobin implements LoadBalanceAlgorithm {
     private static final Log log = LogFactory.getLog(RoundRobin.class);
 
-    private List<Member> members;
-    private final Lock lock = new ReentrantLock();
-
     @Override
     public String getName() {
         return "Round Robin";
     }
 
     @Override
-    public Member getNextMember(AlgorithmContext algorithmContext) {
-        if (members.size() == 0) {
+    public Member getNextMember(List<Member> members, AlgorithmContext algorithmContext) {
+        int memberCount = members.size();
+        if (memberCount == 0) {
             return null;
         }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Searching for next member: [service] %s [cluster]: %s [member-count]: %d [current-index] %d", algorithmContext.getServiceName(), algorithmContext.getClusterId(), memberCount, algorithmContext.getCurrentMemberIndex()));
+        }
         Member current = null;
-        lock.lock();
-        try {
-            int currentMemberIndex = algorithmContext.getCurrentMemberIndex();
-            if (currentMemberIndex >= members.size()) {
-                currentMemberIndex = 0;
+        for (int i = 0; i < memberCount; i++) {
+            current = members.get(algorithmContext.nextMemberIndex(memberCount));
+            if (current.isActive()) {
+                break;
             }
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Searching for next member: [service] %s [cluster]: %s [member-count]: %d [current-index] %d", algorithmContext.getServiceName(), algorithmContext.getClusterId(), members.size(), currentMemberIndex));
-            }
-            int index = members.size();
-            do {
-                current = members.get(currentMemberIndex);
-                if (currentMemberIndex == members.size() - 1) {
-                    currentMemberIndex = 0;
-                } else {
-                    currentMemberIndex++;
-                }
-                index--;
-            } while ((!current.isActive()) && index > 0);
-            algorithmContext.setCurrentMemberIndex(currentMemberIndex);
-        } finally {
-            lock.unlock();
         }
         return current;
     }
 
-    @Override
-    public void setMembers(List<Member> members) {
-        this.members = members;
-    }
-
     @Override
     public void reset(AlgorithmContext algorithmContext) {
-        synchronized (algorithmContext) {
-            algorithmContext.setCurrentMemberIndex(0);
-            if (log.isDebugEnabled()) {
-                log.debug("Round robin load balance algorithm was reset");
-            }
+        algorithmContext.setCurrentMemberIndex(0);
+        if (log.isDebugEnabled()) {
+            log.debug("Round robin load balance algorithm was reset");
         }
     }
 
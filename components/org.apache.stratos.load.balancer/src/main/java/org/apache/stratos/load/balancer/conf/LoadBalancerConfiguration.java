@@ -101,6 +101,7 @@ public class LoadBalancerConfiguration {
             LoadBalancerContext.getInstance().clear();
             // Clear topology
             TopologyManager.getTopology().clear();
+            TopologyManager.updateTopologySnapshot();
         }
     }
 
@@ -512,6 +513,7 @@ public class LoadBalancerConfiguration {
                             }
                         } finally {
                             //TopologyManager.releaseWriteLock();
+                            TopologyManager.updateTopologySnapshotForService(service.getServiceName());
                         }
 
                         // Add cluster to load balancer context
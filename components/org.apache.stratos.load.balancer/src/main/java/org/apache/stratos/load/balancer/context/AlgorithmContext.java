@@ -19,30 +19,22 @@
 
 package org.apache.stratos.load.balancer.context;
 
-import org.apache.stratos.load.balancer.context.map.AlgorithmContextMap;
-
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Algorithm context is used for identifying the cluster and its current member for executing load balancing algorithms.
+ * The current member index is kept in an atomic counter to let algorithms select members without locking.
  * Key: service name, cluster id
  */
 public class AlgorithmContext {
     private String serviceName;
     private String clusterId;
+    private final AtomicInteger currentMemberIndex;
 
     public AlgorithmContext(String serviceName, String clusterId) {
         this.serviceName = serviceName;
         this.clusterId = clusterId;
-        Lock lock = null;
-        try {
-            lock = AlgorithmContextMap.getInstance().acquireCurrentMemberIndexLock();
-            AlgorithmContextMap.getInstance().putCurrentMemberIndex(serviceName, clusterId, 0);
-        } finally {
-            if(lock != null) {
-                AlgorithmContextMap.getInstance().releaseCurrentMemberIndexLock(lock);
-            }
-        }
+        this.currentMemberIndex = new AtomicInteger(0);
     }
 
     public String getServiceName() {
@@ -54,18 +46,21 @@ public class AlgorithmContext {
     }
 
     public int getCurrentMemberIndex() {
-        return AlgorithmContextMap.getInstance().getCurrentMemberIndex(getServiceName(), getClusterId());
+        return currentMemberIndex.get();
     }
 
     public void setCurrentMemberIndex(int currentMemberIndex) {
-        Lock lock = null;
-        try {
-            lock = AlgorithmContextMap.getInstance().acquireCurrentMemberIndexLock();
-            AlgorithmContextMap.getInstance().putCurrentMemberIndex(getServiceName(), getClusterId(), currentMemberIndex);
-        } finally {
-            if(lock != null) {
-                AlgorithmContextMap.getInstance().releaseCurrentMemberIndexLock(lock);
-            }
-        }
+        this.currentMemberIndex.set(currentMemberIndex);
+    }
+
+    /**
+     * Atomically move the current member index to the next member.
+     *
+     * @param memberCount number of members in the cluster
+     * @return index of the member to be used, in the range [0, memberCount)
+     */
+    public int nextMemberIndex(int memberCount) {
+        // Mask the sign bit to keep the index positive once the counter overflows
+        return (currentMemberIndex.getAndIncrement() & Integer.MAX_VALUE) % memberCount;
     }
 }
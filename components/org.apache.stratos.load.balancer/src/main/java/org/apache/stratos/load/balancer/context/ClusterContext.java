@@ -19,8 +19,14 @@
 
 package org.apache.stratos.load.balancer.context;
 
-import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -31,10 +37,12 @@ public class ClusterContext {
     private String clusterId;
     private AlgorithmContext algorithmContext;
     private Properties properties;
+    private volatile MemberSnapshot memberSnapshot;
 
     public ClusterContext(String serviceName, String clusterId) {
         this.serviceName = serviceName;
         this.clusterId = clusterId;
+        this.algorithmContext = new AlgorithmContext(serviceName, clusterId);
     }
 
     public String getServiceName() {
@@ -60,4 +68,75 @@ public class ClusterContext {
     public void setProperties(Properties properties) {
         this.properties = properties;
     }
+
+    /**
+     * Get an immutable snapshot of the members of the given cluster. Members are read from the
+     * topology snapshot without acquiring topology locks, the live cluster is read holding the
+     * cluster read lock if it has not yet been published to the topology snapshot. The member
+     * list is only rebuilt when the cluster has been updated by topology events, hence this does
+     * not allocate memory on the request path.
+     *
+     * @param cluster cluster of this context
+     * @return unmodifiable list of members
+     */
+    public List<Member> getMembers(Cluster cluster) {
+        MemberSnapshot snapshot = memberSnapshot;
+        Cluster snapshotCluster = findSnapshotCluster(cluster);
+        if (snapshotCluster != null) {
+            // Snapshot clusters are never modified once published, a new snapshot cluster is
+            // published on each update. Member versions are not copied, hence only the cluster
+            // reference is compared.
+            if ((snapshot == null) || (snapshot.cluster != snapshotCluster)) {
+                List<Member> members = Collections.unmodifiableList(
+                        new ArrayList<Member>(snapshotCluster.getMembers()));
+                snapshot = new MemberSnapshot(snapshotCluster, 0, members);
+                memberSnapshot = snapshot;
+            }
+            return snapshot.members;
+        }
+
+        if ((snapshot == null) || (snapshot.cluster != cluster) ||
+                (snapshot.memberVersion != cluster.getMemberVersion())) {
+            snapshot = createMemberSnapshot(cluster);
+            memberSnapshot = snapshot;
+        }
+        return snapshot.members;
+    }
+
+    private Cluster findSnapshotCluster(Cluster cluster) {
+        if (!TopologyManager.isSnapshotEnabled()) {
+            return null;
+        }
+        Service service = TopologyManager.getTopologySnapshot().getService(cluster.getServiceName());
+        if (service == null) {
+            return null;
+        }
+        return service.getCluster(cluster.getClusterId());
+    }
+
+    private MemberSnapshot createMemberSnapshot(Cluster cluster) {
+        TopologyManager.acquireReadLockForCluster(cluster.getServiceName(), cluster.getClusterId());
+        try {
+            int memberVersion = cluster.getMemberVersion();
+            List<Member> members = Collections.unmodifiableList(new ArrayList<Member>(cluster.getMembers()));
+            return new MemberSnapshot(cluster, memberVersion, members);
+        } finally {
+            TopologyManager.releaseReadLockForCluster(cluster.getServiceName(), cluster.getClusterId());
+        }
+    }
+
+    /**
+     * Members of a cluster at a given member version.
+     */
+    private static class MemberSnapshot {
+        private final Cluster cluster;
+        private final int memberVersion;
+        private final List<Member> members;
+
+        private MemberSnapshot(Cluster cluster, int memberVersion, List<Member> members) {
+            this.cluster = cluster;
+            this.memberVersion = memberVersion;
+            this.members = members;
+        }
+    }
 }
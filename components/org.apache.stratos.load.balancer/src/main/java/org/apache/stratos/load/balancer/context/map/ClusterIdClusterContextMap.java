@@ -51,6 +51,16 @@ public class ClusterIdClusterContextMap {
         concurrentHashMap.put(clusterContext.getClusterId(), clusterContext);
     }
 
+    /**
+     * Add cluster context if a cluster context does not exist for the cluster id.
+     * @param clusterContext cluster context to be added
+     * @return existing cluster context or the given cluster context if it was added
+     */
+    public ClusterContext addClusterContextIfAbsent(ClusterContext clusterContext) {
+        ClusterContext existing = concurrentHashMap.putIfAbsent(clusterContext.getClusterId(), clusterContext);
+        return (existing != null) ? existing : clusterContext;
+    }
+
     public void removeClusterContext(String clusterId) {
         concurrentHashMap.remove(clusterId);
     }
@@ -26,11 +26,10 @@ import org.apache.stratos.load.balancer.algorithm.LoadBalanceAlgorithm;
 import org.apache.stratos.load.balancer.conf.LoadBalancerConfiguration;
 import org.apache.stratos.load.balancer.context.ClusterContext;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
+import org.apache.stratos.load.balancer.context.map.ClusterIdClusterContextMap;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Member;
 
-import java.util.ArrayList;
-
 /**
  * Implements core load balancing logic for identifying the next member
  * according to the incoming request information.
@@ -97,26 +96,22 @@ public class RequestDelegator {
         return null;
     }
 
-	/**
-	 * This operation should be synchronized in order to find a member
-	 * correctly. This has no performance impact as per the load tests
-	 * carried out. 
-	 */
-    private synchronized Member findNextMemberInCluster(Cluster cluster) {
+    /**
+     * Find the next member of the cluster using the load balance algorithm. Member selection is
+     * lock free, members are read from an immutable snapshot of the cluster context and the
+     * algorithm state is kept in the algorithm context of the cluster.
+     */
+    private Member findNextMemberInCluster(Cluster cluster) {
         // Find algorithm context of the cluster
-        ClusterContext clusterContext = LoadBalancerContext.getInstance().getClusterIdClusterContextMap().getClusterContext(cluster.getClusterId());
+        ClusterIdClusterContextMap clusterContextMap = LoadBalancerContext.getInstance().getClusterIdClusterContextMap();
+        ClusterContext clusterContext = clusterContextMap.getClusterContext(cluster.getClusterId());
         if (clusterContext == null) {
-            clusterContext = new ClusterContext(cluster.getServiceName(), cluster.getClusterId());
-            LoadBalancerContext.getInstance().getClusterIdClusterContextMap().addClusterContext(clusterContext);
+            clusterContext = clusterContextMap.addClusterContextIfAbsent(
+                    new ClusterContext(cluster.getServiceName(), cluster.getClusterId()));
         }
 
         AlgorithmContext algorithmContext = clusterContext.getAlgorithmContext();
-        if (algorithmContext == null) {
-            algorithmContext = new AlgorithmContext(cluster.getServiceName(), cluster.getClusterId());
-            clusterContext.setAlgorithmContext(algorithmContext);
-        }
-        algorithm.setMembers(new ArrayList<Member>(cluster.getMembers()));
-        Member member = algorithm.getNextMember(algorithmContext);
+        Member member = algorithm.getNextMember(clusterContext.getMembers(cluster), algorithmContext);
         if (member == null) {
             if (log.isWarnEnabled()) {
                 log.warn(String.format("Could not find a member in cluster: [service] %s [cluster] %s", cluster.getServiceName(), cluster.getClusterId()));
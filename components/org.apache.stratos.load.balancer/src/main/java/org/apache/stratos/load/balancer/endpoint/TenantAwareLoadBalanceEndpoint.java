@@ -28,9 +28,7 @@ import org.apache.stratos.load.balancer.conf.LoadBalancerConfiguration;
 import org.apache.stratos.load.balancer.conf.domain.MemberIpType;
 import org.apache.stratos.load.balancer.conf.domain.TenantIdentifier;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestIncrementCallable;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.load.balancer.util.LoadBalancerConstants;
 import org.apache.stratos.messaging.domain.tenant.Tenant;
 import org.apache.stratos.messaging.domain.topology.Cluster;
@@ -55,7 +53,6 @@ import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
-import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -741,8 +738,7 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
             if (StringUtils.isBlank(clusterId)) {
                 throw new RuntimeException("Cluster id not found in message context");
             }
-            FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-            LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+            LoadBalancerStatisticsCollector.getInstance().incrementInFlightRequestCount(clusterId);
         } catch (Exception e) {
             if (log.isDebugEnabled()) {
                 log.debug("Could not increment in-flight request count", e);
@@ -756,8 +752,7 @@ public class TenantAwareLoadBalanceEndpoint extends org.apache.synapse.endpoints
             if (StringUtils.isBlank(clusterId)) {
                 throw new RuntimeException("Cluster id not found in message context");
             }
-            FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-            LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+            LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
         } catch (Exception e) {
             if (log.isDebugEnabled()) {
                 log.debug("Could not decrement in-flight request count", e);
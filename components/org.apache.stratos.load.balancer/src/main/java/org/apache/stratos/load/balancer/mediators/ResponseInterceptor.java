@@ -19,16 +19,13 @@
 package org.apache.stratos.load.balancer.mediators;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.load.balancer.util.LoadBalancerConstants;
 import org.apache.synapse.ManagedLifecycle;
 import org.apache.synapse.MessageContext;
 import org.apache.synapse.core.SynapseEnvironment;
 import org.apache.synapse.mediators.AbstractMediator;
 
-import java.util.concurrent.FutureTask;
-
 /**
  * This Synapse mediator counts the responses that are going across LB.
  */
@@ -48,8 +45,7 @@ public class ResponseInterceptor extends AbstractMediator implements ManagedLife
             }
             String clusterId = (String) messageContext.getProperty(LoadBalancerConstants.CLUSTER_ID);
             if (StringUtils.isNotBlank(clusterId)) {
-                FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-                LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
+                LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
             } else{
             	if (log.isDebugEnabled()) {
                     log.debug("Could not decrement in-flight request count : cluster id not found in message context");
@@ -24,7 +24,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.load.balancer.context.LoadBalancerContext;
 import org.apache.stratos.load.balancer.context.LoadBalancerContextUtil;
-import org.apache.stratos.load.balancer.context.map.AlgorithmContextMap;
+import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Member;
 import org.apache.stratos.messaging.domain.topology.MemberStatus;
@@ -250,10 +250,12 @@ public class LoadBalancerTopologyEventReceiver extends TopologyEventReceiver {
                         clusterRemovedEvent.getClusterId());
 
                 try {
-                    AlgorithmContextMap.getInstance().removeCluster(clusterRemovedEvent.getServiceName(),
+                    LoadBalancerContext.getInstance().getClusterIdClusterContextMap().removeClusterContext(
+                            clusterRemovedEvent.getClusterId());
+                    LoadBalancerStatisticsCollector.getInstance().removeClusterRequestCounter(
                             clusterRemovedEvent.getClusterId());
                 } catch (Exception e) {
-                    log.error("Could not remove cluster from load balancer algorithm context map", e);
+                    log.error("Could not remove cluster context from load balancer context", e);
                 }
 
                 try {
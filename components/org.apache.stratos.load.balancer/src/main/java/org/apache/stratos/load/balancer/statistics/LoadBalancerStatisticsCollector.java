@@ -25,23 +25,22 @@ import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatistics
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Member;
 
-import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * This is the load balancer statistics collector.
+ * This is the load balancer statistics collector. Request counts are kept in a striped
+ * {@link RequestCounter} per cluster, which is resolved once per request and updated
+ * without locking.
  */
 public class LoadBalancerStatisticsCollector implements LoadBalancerStatisticsReader {
     private static final Log log = LogFactory.getLog(LoadBalancerStatisticsCollector.class);
 
     private static volatile LoadBalancerStatisticsCollector instance;
-    // Map<ClusterId, Integer>
-    private Map<String, Integer> clusterIdRequestCountMap;
-    private Map<String, Integer> clusterIdServedRequestCountMap;
+    // Map<ClusterId, RequestCounter>
+    private final ConcurrentHashMap<String, RequestCounter> clusterIdRequestCounterMap;
 
     private LoadBalancerStatisticsCollector() {
-        clusterIdRequestCountMap = new ConcurrentHashMap<String, Integer>();
-        clusterIdServedRequestCountMap = new ConcurrentHashMap<String, Integer>();
+        clusterIdRequestCounterMap = new ConcurrentHashMap<String, RequestCounter>();
     }
 
     public static LoadBalancerStatisticsCollector getInstance() {
@@ -67,100 +66,95 @@ public class LoadBalancerStatisticsCollector implements LoadBalancerStatisticsRe
         }
     }
 
-    public int getInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (clusterIdRequestCountMap.containsKey(clusterId)) {
-                Integer count = clusterIdRequestCountMap.get(clusterId);
-                if(count != null) {
-                    return count;
-                }
+    /**
+     * Returns the request counter of the given cluster, creating it if it does not exist.
+     */
+    public RequestCounter getClusterRequestCounter(String clusterId) {
+        RequestCounter requestCounter = clusterIdRequestCounterMap.get(clusterId);
+        if (requestCounter == null) {
+            RequestCounter newRequestCounter = new RequestCounter(
+                    Runtime.getRuntime().availableProcessors());
+            requestCounter = clusterIdRequestCounterMap.putIfAbsent(clusterId, newRequestCounter);
+            if (requestCounter == null) {
+                requestCounter = newRequestCounter;
             }
-            return 0;
         }
+        return requestCounter;
+    }
+
+    /**
+     * Remove the request counter of the given cluster.
+     */
+    public void removeClusterRequestCounter(String clusterId) {
+        clusterIdRequestCounterMap.remove(clusterId);
+    }
+
+    public int getInFlightRequestCount(String clusterId) {
+        RequestCounter requestCounter = clusterIdRequestCounterMap.get(clusterId);
+        return (requestCounter != null) ? requestCounter.getInFlightRequestCount() : 0;
     }
 
     /**
      * Returns the number of requests served since the last time this function was called.
      */
-    public int getServedRequestCount(String clusterId){
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (clusterIdServedRequestCountMap.containsKey(clusterId)) {
-                Integer servedCount = clusterIdServedRequestCountMap.get(clusterId);
-                if (servedCount != null) {
-                    clusterIdServedRequestCountMap.put(clusterId, 0);
-                    return servedCount;
-                }
-            }
-            return 0;
-        }
+    public int getServedRequestCount(String clusterId) {
+        RequestCounter requestCounter = clusterIdRequestCounterMap.get(clusterId);
+        return (requestCounter != null) ? requestCounter.getAndResetServedRequestCount() : 0;
     }
 
     public int getActiveInstancesCount(Cluster cluster) {
         int activeInstances = 0;
-        for( Member member :cluster.getMembers()){
-            if(member.isActive()){
+        for (Member member : cluster.getMembers()) {
+            if (member.isActive()) {
                 activeInstances++;
             }
-
-        }return activeInstances;
-
+        }
+        return activeInstances;
     }
 
-    void incrementInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (StringUtils.isBlank(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Cluster id is null, could not increment in-flight request count");
-                }
-                return;
-            }
-            Integer count = 0;
-            if (clusterIdRequestCountMap.containsKey(clusterId)) {
-                count = clusterIdRequestCountMap.get(clusterId);
-            }
-            count++;
-            clusterIdRequestCountMap.put(clusterId, count);
-
+    /**
+     * Increment the in-flight request count of the given cluster.
+     */
+    public void incrementInFlightRequestCount(String clusterId) {
+        if (StringUtils.isBlank(clusterId)) {
             if (log.isDebugEnabled()) {
-                log.debug(String.format("In-flight request count incremented: [cluster] %s [count] %s ", clusterId,
-                        count));
-
+                log.debug("Cluster id is null, could not increment in-flight request count");
             }
+            return;
+        }
+        RequestCounter requestCounter = getClusterRequestCounter(clusterId);
+        requestCounter.requestSent();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight request count incremented: [cluster] %s [count] %s ",
+                    clusterId, requestCounter.getInFlightRequestCount()));
         }
     }
 
-    void decrementInFlightRequestCount(String clusterId) {
-        synchronized (LoadBalancerStatisticsCollector.class) {
-            if (StringUtils.isBlank(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Cluster id is null, could not decrement in-flight request count");
-                }
-                return;
+    /**
+     * Decrement the in-flight request count and increment the served request count of the
+     * given cluster.
+     */
+    public void decrementInFlightRequestCount(String clusterId) {
+        if (StringUtils.isBlank(clusterId)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Cluster id is null, could not decrement in-flight request count");
             }
+            return;
+        }
 
-            if (!clusterIdRequestCountMap.containsKey(clusterId)) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("In-flight request count not found for cluster, could not decrement in-flight request count: [cluster] %s ", clusterId));
-                }
-            } else {
-                Integer count = clusterIdRequestCountMap.get(clusterId);
-                if (count != null) {
-                    count = (count >= 1) ? (count - 1) : 0;
-                }
-                clusterIdRequestCountMap.put(clusterId, count);
-
-                Integer servedCount = 0;
-                if (clusterIdServedRequestCountMap.containsKey(clusterId)) {
-                    servedCount = clusterIdServedRequestCountMap.get(clusterId);
-                }
-                servedCount++;
-                clusterIdServedRequestCountMap.put(clusterId, servedCount);
-
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("In-flight request count decremented: [cluster] %s [count] %s ", clusterId,
-                            count));
-                }
+        RequestCounter requestCounter = clusterIdRequestCounterMap.get(clusterId);
+        if (requestCounter == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("In-flight request count not found for cluster, could not decrement in-flight request count: [cluster] %s ", clusterId));
             }
+            return;
+        }
+        requestCounter.requestServed();
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight request count decremented: [cluster] %s [count] %s ",
+                    clusterId, requestCounter.getInFlightRequestCount()));
         }
     }
-}
\ No newline at end of file
+}
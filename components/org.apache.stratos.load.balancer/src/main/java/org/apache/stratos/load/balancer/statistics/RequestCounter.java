@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.load.balancer.statistics;
+
+/**
+ * In-flight and served request counts of a cluster. Instances are resolved once per request and
+ * then updated without any locking.
+ */
+public class RequestCounter {
+
+    private final StripedCounter inFlightRequestCount;
+    private final StripedCounter servedRequestCount;
+
+    public RequestCounter(int concurrency) {
+        inFlightRequestCount = new StripedCounter(concurrency);
+        servedRequestCount = new StripedCounter(concurrency);
+    }
+
+    public void requestSent() {
+        inFlightRequestCount.increment();
+    }
+
+    public void requestServed() {
+        inFlightRequestCount.decrement();
+        servedRequestCount.increment();
+    }
+
+    public int getInFlightRequestCount() {
+        // Increments and decrements may land on different cells, a transient negative sum is
+        // reported as zero
+        long count = inFlightRequestCount.sum();
+        return (count > 0) ? (int) count : 0;
+    }
+
+    /**
+     * Returns the number of requests served since the last time this method was called.
+     */
+    public int getAndResetServedRequestCount() {
+        return (int) servedRequestCount.sumThenReset();
+    }
+}
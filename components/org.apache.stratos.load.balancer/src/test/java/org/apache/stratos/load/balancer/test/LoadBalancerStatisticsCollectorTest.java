@@ -19,18 +19,12 @@
 
 package org.apache.stratos.load.balancer.test;
 
-import org.apache.stratos.load.balancer.statistics.InFlightRequestIncrementCallable;
 import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsCollector;
 import org.junit.Assert;
-import org.apache.stratos.load.balancer.statistics.InFlightRequestDecrementCallable;
-import org.apache.stratos.load.balancer.statistics.LoadBalancerStatisticsExecutor;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
-import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
-
 /**
  * Load balancer statistics collector tests.
  */
@@ -45,43 +39,81 @@ public class LoadBalancerStatisticsCollectorTest {
         String clusterId = "cluster1";
         String incrementErrorMessage = "Could not increment in-flight request count: ";
         String decrementErrorMessage = "Could not decrement in-flight request count: ";
+        LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
 
-        FutureTask<Object> task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 1, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 1, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 2, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 2, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestIncrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(incrementErrorMessage, 3, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.incrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(incrementErrorMessage, 3, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 2, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 2, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 1, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 1, collector.getInFlightRequestCount(clusterId));
 
-        task = new FutureTask<Object>(new InFlightRequestDecrementCallable(clusterId));
-        executeTask(task);
-        Assert.assertEquals(decrementErrorMessage, 0, LoadBalancerStatisticsCollector.getInstance().getInFlightRequestCount(clusterId));
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(decrementErrorMessage, 0, collector.getInFlightRequestCount(clusterId));
 
         LoadBalancerStatisticsCollector.clear();
     }
 
-    private void executeTask(FutureTask<Object> task) {
-        Future future = LoadBalancerStatisticsExecutor.getInstance().getService().submit(task);
-        while(!future.isDone()) {
-            // Wait until task get executed
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                // Might not need to trace
-            }
+    /**
+     * Test served request count reset.
+     */
+    @Test
+    public void testServedRequestCountCalculation() {
+        String clusterId = "cluster2";
+        LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
+
+        collector.incrementInFlightRequestCount(clusterId);
+        collector.incrementInFlightRequestCount(clusterId);
+        collector.incrementInFlightRequestCount(clusterId);
+        collector.decrementInFlightRequestCount(clusterId);
+        collector.decrementInFlightRequestCount(clusterId);
+        Assert.assertEquals(1, collector.getInFlightRequestCount(clusterId));
+        Assert.assertEquals(2, collector.getServedRequestCount(clusterId));
+        Assert.assertEquals(0, collector.getServedRequestCount(clusterId));
+
+        collector.removeClusterRequestCounter(clusterId);
+        Assert.assertEquals(0, collector.getInFlightRequestCount(clusterId));
+
+        LoadBalancerStatisticsCollector.clear();
+    }
+
+    /**
+     * Test in-flight request count calculation with concurrent updates.
+     */
+    @Test
+    public void testConcurrentRequestCountCalculation() throws InterruptedException {
+        final String clusterId = "cluster3";
+        final int threadCount = 8;
+        final int requestCount = 10000;
+        final LoadBalancerStatisticsCollector collector = LoadBalancerStatisticsCollector.getInstance();
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < requestCount; j++) {
+                        collector.incrementInFlightRequestCount(clusterId);
+                        collector.decrementInFlightRequestCount(clusterId);
+                    }
+                }
+            });
+            threads[i].start();
         }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, collector.getInFlightRequestCount(clusterId));
+        Assert.assertEquals(threadCount * requestCount, collector.getServedRequestCount(clusterId));
+
+        LoadBalancerStatisticsCollector.clear();
     }
 }
@@ -0,0 +1,94 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.stratos.load.balancer.test;
+
+import org.apache.stratos.load.balancer.algorithm.RoundRobin;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.MemberStatus;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Round robin load balance algorithm tests.
+ */
+@RunWith(JUnit4.class)
+public class RoundRobinTest {
+
+    /***
+     * Test whether active members are selected in round robin order and inactive members are skipped.
+     */
+    @Test
+    public void testMemberSelection() {
+        List<Member> members = new ArrayList<Member>();
+        members.add(createMember("member1", true));
+        members.add(createMember("member2", false));
+        members.add(createMember("member3", true));
+        members = Collections.unmodifiableList(members);
+
+        RoundRobin roundRobin = new RoundRobin();
+        AlgorithmContext algorithmContext = new AlgorithmContext("service1", "cluster1");
+        String errorMessage = "Round robin algorithm returned an unexpected member";
+        Assert.assertEquals(errorMessage, "member1", roundRobin.getNextMember(members, algorithmContext).getMemberId());
+        Assert.assertEquals(errorMessage, "member3", roundRobin.getNextMember(members, algorithmContext).getMemberId());
+        Assert.assertEquals(errorMessage, "member1", roundRobin.getNextMember(members, algorithmContext).getMemberId());
+
+        roundRobin.reset(algorithmContext);
+        Assert.assertEquals(errorMessage, "member1", roundRobin.getNextMember(members, algorithmContext).getMemberId());
+    }
+
+    /***
+     * Test whether the member index stays within the member list once the counter overflows.
+     */
+    @Test
+    public void testMemberIndexOverflow() {
+        List<Member> members = new ArrayList<Member>();
+        members.add(createMember("member1", true));
+        members.add(createMember("member2", true));
+        members.add(createMember("member3", true));
+
+        RoundRobin roundRobin = new RoundRobin();
+        AlgorithmContext algorithmContext = new AlgorithmContext("service1", "cluster1");
+        algorithmContext.setCurrentMemberIndex(Integer.MAX_VALUE - 1);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNotNull("Round robin algorithm did not return a member",
+                    roundRobin.getNextMember(members, algorithmContext));
+        }
+        Assert.assertNull("Round robin algorithm returned a member for an empty cluster",
+                roundRobin.getNextMember(new ArrayList<Member>(), algorithmContext));
+    }
+
+    private Member createMember(String memberId, boolean active) {
+        Member member = new Member("service1", "cluster1", memberId, "cluster-instance1", "network-partition1",
+                "partition1", System.currentTimeMillis());
+        if (active) {
+            member.setStatus(MemberStatus.Initialized);
+            member.setStatus(MemberStatus.Starting);
+            member.setStatus(MemberStatus.Active);
+        }
+        return member;
+    }
+}
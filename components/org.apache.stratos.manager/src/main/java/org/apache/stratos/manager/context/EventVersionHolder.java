@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.manager.context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local versions of the topology and the applications, versions are incremented when events
+ * which change them are received by the stratos manager event receivers. Consumers such as the
+ * REST API may cache data read from the back-end services against these versions.
+ */
+public class EventVersionHolder {
+
+    private static volatile EventVersionHolder instance;
+
+    private final AtomicLong topologyVersion;
+    private final AtomicLong applicationsVersion;
+
+    public static EventVersionHolder getInstance() {
+        if (instance == null) {
+            synchronized (EventVersionHolder.class) {
+                if (instance == null) {
+                    instance = new EventVersionHolder();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private EventVersionHolder() {
+        topologyVersion = new AtomicLong();
+        applicationsVersion = new AtomicLong();
+    }
+
+    public long getTopologyVersion() {
+        return topologyVersion.get();
+    }
+
+    public long updateTopologyVersion() {
+        return topologyVersion.incrementAndGet();
+    }
+
+    public long getApplicationsVersion() {
+        return applicationsVersion.get();
+    }
+
+    public long updateApplicationsVersion() {
+        return applicationsVersion.incrementAndGet();
+    }
+}
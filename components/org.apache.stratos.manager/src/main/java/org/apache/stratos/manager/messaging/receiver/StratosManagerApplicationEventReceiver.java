@@ -21,6 +21,13 @@ package org.apache.stratos.manager.messaging.receiver;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.manager.context.EventVersionHolder;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.listener.application.ApplicationCreatedEventListener;
+import org.apache.stratos.messaging.listener.application.ApplicationDeletedEventListener;
+import org.apache.stratos.messaging.listener.application.ApplicationInstanceActivatedEventListener;
+import org.apache.stratos.messaging.listener.application.ApplicationInstanceTerminatedEventListener;
+import org.apache.stratos.messaging.listener.application.ApplicationUndeployedEventListener;
 import org.apache.stratos.messaging.message.receiver.application.ApplicationsEventReceiver;
 
 /**
@@ -45,5 +52,36 @@ public class StratosManagerApplicationEventReceiver extends ApplicationsEventRec
 	}
 
     private void addEventListeners() {
+        // Events which change the status of applications
+        addEventListener(new ApplicationCreatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateApplicationsVersion();
+            }
+        });
+        addEventListener(new ApplicationInstanceActivatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateApplicationsVersion();
+            }
+        });
+        addEventListener(new ApplicationInstanceTerminatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateApplicationsVersion();
+            }
+        });
+        addEventListener(new ApplicationUndeployedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateApplicationsVersion();
+            }
+        });
+        addEventListener(new ApplicationDeletedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateApplicationsVersion();
+            }
+        });
     }
 }
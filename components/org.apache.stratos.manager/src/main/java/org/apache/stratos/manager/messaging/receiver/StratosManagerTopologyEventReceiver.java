@@ -21,6 +21,10 @@ package org.apache.stratos.manager.messaging.receiver;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.manager.context.EventVersionHolder;
+import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.listener.topology.ServiceCreatedEventListener;
+import org.apache.stratos.messaging.listener.topology.ServiceRemovedEventListener;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyEventReceiver;
 
 public class StratosManagerTopologyEventReceiver extends TopologyEventReceiver {
@@ -28,6 +32,7 @@ public class StratosManagerTopologyEventReceiver extends TopologyEventReceiver {
     private static final Log log = LogFactory.getLog(StratosManagerTopologyEventReceiver.class);
 
     public StratosManagerTopologyEventReceiver() {
+        addEventListeners();
     }
 
     @Override
@@ -38,4 +43,20 @@ public class StratosManagerTopologyEventReceiver extends TopologyEventReceiver {
             log.info("Stratos manager topology event receiver thread started");
         }
     }
+
+    private void addEventListeners() {
+        // Services are created and removed when cartridges are added and removed
+        addEventListener(new ServiceCreatedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateTopologyVersion();
+            }
+        });
+        addEventListener(new ServiceRemovedEventListener() {
+            @Override
+            protected void onEvent(Event event) {
+                EventVersionHolder.getInstance().updateTopologyVersion();
+            }
+        });
+    }
 }
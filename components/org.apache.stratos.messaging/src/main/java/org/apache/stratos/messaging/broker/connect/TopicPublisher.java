@@ -19,6 +19,8 @@
 
 package org.apache.stratos.messaging.broker.connect;
 
+import java.util.List;
+
 /**
  * Topic publisher interface to be implemented by a transport specific topic publisher.
  */
@@ -30,4 +32,11 @@ public interface TopicPublisher extends TopicConnector {
      * @param retry
      */
     public abstract void publish(String message, boolean retry);
+
+    /**
+     * Publish a batch of messages to a topic in the message broker in the given order.
+     * @param messages
+     * @param retry
+     */
+    public abstract void publish(List<String> messages, boolean retry);
 }
@@ -28,6 +28,8 @@ import org.apache.stratos.messaging.domain.exception.MessagingException;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
 import javax.jms.TopicSession;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * AMQP topic publisher.
@@ -52,8 +54,21 @@ public class AmqpTopicPublisher extends AmqpTopicConnector implements TopicPubli
      */
     @Override
     public void publish(String message, boolean retry) {
-        boolean published = false;
-        while(!published) {
+        publish(Collections.singletonList(message), retry);
+    }
+
+    /**
+     * Publish a batch of messages to message broker using a single topic session.
+     * If the connection breaks in the middle of a batch, only the messages which
+     * were not published will be sent after reconnecting.
+     * @param messages Messages to be published
+     * @param retry Retry if message broker is not available
+     */
+    @Override
+    public void publish(List<String> messages, boolean retry) {
+        int publishedCount = 0;
+        while(publishedCount < messages.size()) {
+            TopicSession topicSession = null;
             try {
                 while (connectionStatus == ConnectionStatus.ReConnecting) {
                     // Connection has been broken, wait until reconnected
@@ -70,18 +85,20 @@ public class AmqpTopicPublisher extends AmqpTopicConnector implements TopicPubli
                     connectionStatus = ConnectionStatus.Connected;
                 }
 
-                TopicSession topicSession = newSession();
+                topicSession = newSession();
                 Topic topic = lookupTopic(topicName);
                 if (topic == null) {
                     // if the topic doesn't exist, create it.
                     topic = topicSession.createTopic(topicName);
                 }
                 javax.jms.TopicPublisher topicPublisher = topicSession.createPublisher(topic);
-                TextMessage textMessage = topicSession.createTextMessage(message);
-                topicPublisher.publish(textMessage);
-                published = true;
+                while (publishedCount < messages.size()) {
+                    TextMessage textMessage = topicSession.createTextMessage(messages.get(publishedCount));
+                    topicPublisher.publish(textMessage);
+                    publishedCount++;
+                }
             } catch (Exception e) {
-                String errorMessage = "Could not publish to topic: [topic-name] %s";
+                String errorMessage = String.format("Could not publish to topic: [topic-name] %s", topicName);
                 log.error(errorMessage, e);
                 if(!retry) {
                     // Retry is disabled, throw exception
@@ -89,6 +106,17 @@ public class AmqpTopicPublisher extends AmqpTopicConnector implements TopicPubli
                 }
                 // Try to reconnect
                 reconnect();
+            } finally {
+                closeSession(topicSession);
+            }
+        }
+    }
+
+    private void closeSession(TopicSession topicSession) {
+        if (topicSession != null) {
+            try {
+                topicSession.close();
+            } catch (Exception ignore) {
             }
         }
     }
@@ -26,6 +26,9 @@ import org.apache.stratos.messaging.domain.exception.MessagingException;
 import org.apache.stratos.messaging.util.MessagingConstants;
 import org.eclipse.paho.client.mqttv3.*;
 
+import java.util.LinkedList;
+import java.util.List;
+
 /**
  * Mqtt topic connector
  * Usage: Create an instance and invoke connect() to connect to the message broker. Once connected invoke publish()
@@ -36,6 +39,9 @@ public class MqttTopicPublisher extends MqttTopicConnector implements TopicPubli
 
     protected static final Log log = LogFactory.getLog(MqttTopicPublisher.class);
 
+    // Paho does not allow more than 10 in-flight messages per client
+    private static final int MAX_IN_FLIGHT_MESSAGES = 10;
+
     private String topicName;
 
     public MqttTopicPublisher(String topicName) {
@@ -62,4 +68,43 @@ public class MqttTopicPublisher extends MqttTopicConnector implements TopicPubli
             throw new MessagingException(errorMessage, e);
         }
     }
+
+    /**
+     * Publish a batch of messages without waiting for each delivery to complete before sending the
+     * next message. At most {@link #MAX_IN_FLIGHT_MESSAGES} messages are kept in flight and the
+     * method returns once all deliveries have completed.
+     * @param messages Messages to be published
+     * @param retry Retry if message broker is not available
+     */
+    @Override
+    public void publish(List<String> messages, boolean retry) {
+        if(mqttClient == null) {
+            String error = "Could not publish messages to topic, MQTT client has not been initialized";
+            if(log.isErrorEnabled()) {
+                log.error(error);
+            }
+            throw new MessagingException(error);
+        }
+
+        try {
+            MqttTopic topic = mqttClient.getTopic(topicName);
+            LinkedList<MqttDeliveryToken> pendingTokens = new LinkedList<MqttDeliveryToken>();
+            for (String message : messages) {
+                if (pendingTokens.size() >= MAX_IN_FLIGHT_MESSAGES) {
+                    pendingTokens.removeFirst().waitForCompletion();
+                }
+                MqttMessage mqttMessage = new MqttMessage(message.getBytes());
+                mqttMessage.setQos(MessagingConstants.QOS);
+                pendingTokens.add(topic.publish(mqttMessage));
+            }
+            for (MqttDeliveryToken token : pendingTokens) {
+                token.waitForCompletion();
+            }
+        } catch (Exception e) {
+            String errorMessage = String.format("Could not publish messages: [topic] %s [message-count] %d",
+                    topicName, messages.size());
+            log.error(errorMessage, e);
+            throw new MessagingException(errorMessage, e);
+        }
+    }
 }
@@ -131,11 +131,12 @@ public class MqttTopicSubscriber extends MqttTopicConnector implements TopicSubs
         @Override
         public void messageArrived(String topic, MqttMessage message) throws Exception {
 
-            String messageText = new String(message.getPayload());
+            // Keep the raw payload, message text is decoded only when required
+            Message message_ = new Message(topic, message.getPayload());
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Message received: %s", messageText));
+                log.debug(String.format("Message received: %s", message_.getText()));
             }
-            messageListener.messageReceived(new Message(topic, messageText));
+            messageListener.messageReceived(message_);
         }
 
         @Override
@@ -19,24 +19,69 @@
 
 package org.apache.stratos.messaging.broker.publish;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.broker.connect.TopicPublisher;
 import org.apache.stratos.messaging.broker.connect.TopicPublisherFactory;
 import org.apache.stratos.messaging.event.Event;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * A topic publisher for publishing messages to a message broker topic.
  * Messages will be published in JSON format.
+ *
+ * By default messages are published synchronously in the calling thread. If asynchronous
+ * publishing is enabled via the system property stratos.messaging.publisher.async, messages
+ * are serialized in the calling thread, queued in a bounded queue of this publisher and sent
+ * to the topic in batches by a dedicated sender thread. Publishers of different topics do not
+ * block each other in either mode.
  */
 public class EventPublisher {
 
     private static final Log log = LogFactory.getLog(EventPublisher.class);
 
+    public static final String ASYNC_PUBLISHING_ENABLED = "stratos.messaging.publisher.async";
+    public static final String QUEUE_SIZE = "stratos.messaging.publisher.queue.size";
+    public static final String BATCH_SIZE = "stratos.messaging.publisher.batch.size";
+    public static final String OVERFLOW_POLICY = "stratos.messaging.publisher.overflow.policy";
+
+    private static final int DEFAULT_QUEUE_SIZE = 10000;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Action to be taken when the publisher queue is full.
+     */
+    public static enum OverflowPolicy {
+        /** Block the calling thread until space is available in the queue */
+        BLOCK,
+        /** Drop the message and increment the dropped message count */
+        DROP
+    }
+
 	private final String topicName;
 	private final TopicPublisher topicPublisher;
+    private final Object publisherLock = new Object();
+    private boolean connected;
+
+    private final BlockingQueue<PublishRequest> queue;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread senderThread;
+    private volatile boolean closed;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalPublishLatency = new AtomicLong();
+    private final AtomicLong maxPublishLatency = new AtomicLong();
 
     /**
 	 * @param topicName topic name of this publisher instance.
@@ -45,8 +90,23 @@ public class EventPublisher {
 		this.topicName = topicName;
         String protocol = MessagingUtil.getMessagingProtocol();
         this.topicPublisher = TopicPublisherFactory.createTopicPublisher(protocol, topicName);
+
+        boolean async = Boolean.getBoolean(ASYNC_PUBLISHING_ENABLED);
+        this.batchSize = Math.max(1, MessagingUtil.getNumericSystemProperty(DEFAULT_BATCH_SIZE, BATCH_SIZE));
+        this.overflowPolicy = readOverflowPolicy();
+        if (async) {
+            int queueSize = Math.max(1, MessagingUtil.getNumericSystemProperty(DEFAULT_QUEUE_SIZE, QUEUE_SIZE));
+            this.queue = new ArrayBlockingQueue<PublishRequest>(queueSize);
+            this.senderThread = new Thread(new Sender(), "event-publisher-" + topicName);
+            this.senderThread.setDaemon(true);
+            this.senderThread.start();
+        } else {
+            this.queue = null;
+            this.senderThread = null;
+        }
 		if (log.isDebugEnabled()) {
-			log.debug(String.format("Topic publisher created: [protocol] %s [topic] %s", protocol, topicName));
+			log.debug(String.format("Topic publisher created: [protocol] %s [topic] %s [async] %s", protocol,
+                    topicName, async));
 		}
 	}
 
@@ -63,12 +123,247 @@ public class EventPublisher {
 	 */
 
 	public void publish(Object messageObj, boolean retry) {
-		synchronized (EventPublisher.class) {
-            Gson gson = new Gson();
-            String message = gson.toJson(messageObj);
+        // Serialize in the calling thread to capture the state of the object at the time of publishing
+        publishJson(JsonCodec.toJson(messageObj), retry);
+	}
 
-            topicPublisher.connect();
+    /**
+     * Publish a message which has already been converted to JSON.
+     */
+    public void publishJson(String message, boolean retry) {
+        if (queue == null) {
+            long startTime = System.nanoTime();
+            synchronized (publisherLock) {
+                publishToTopic(message, retry);
+            }
+            recordPublished(1, System.nanoTime() - startTime);
+            return;
+        }
+
+        if (closed) {
+            throw new IllegalStateException(String.format("Event publisher has been closed: [topic] %s", topicName));
+        }
+        PublishRequest request = new PublishRequest(message, retry);
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!queue.offer(request)) {
+                long dropped = droppedCount.incrementAndGet();
+                if (log.isWarnEnabled()) {
+                    log.warn(String.format("Event publisher queue is full, message dropped: [topic] %s " +
+                            "[dropped-count] %d", topicName, dropped));
+                }
+            }
+        } else {
+            try {
+                queue.put(request);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(String.format("Interrupted while queuing message: [topic] %s",
+                        topicName), e);
+            }
+        }
+    }
+
+    /**
+     * Stop the sender thread after publishing queued messages and disconnect from the message broker.
+     */
+    public void close() {
+        closed = true;
+        if (senderThread != null) {
+            senderThread.interrupt();
+            try {
+                senderThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (publisherLock) {
+            if (connected) {
+                topicPublisher.disconnect();
+                connected = false;
+            }
+        }
+    }
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    /**
+     * @return number of messages waiting in the publisher queue
+     */
+    public int getQueueDepth() {
+        return (queue == null) ? 0 : queue.size();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * @return average time in milliseconds between accepting a message and publishing it to the topic
+     */
+    public double getAveragePublishLatency() {
+        long count = publishedCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        return totalPublishLatency.get() / (count * 1000000.0);
+    }
+
+    /**
+     * @return maximum time in milliseconds between accepting a message and publishing it to the topic
+     */
+    public long getMaxPublishLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxPublishLatency.get());
+    }
+
+    private void publishToTopic(String message, boolean retry) {
+        connect();
+        try {
             topicPublisher.publish(message, retry);
+        } catch (RuntimeException e) {
+            disconnect();
+            throw e;
         }
-	}
+    }
+
+    private void publishToTopic(List<String> messages, boolean retry) {
+        connect();
+        try {
+            topicPublisher.publish(messages, retry);
+        } catch (RuntimeException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Connect to the message broker once and reuse the connection for subsequent messages,
+     * a new connection is only made after a publishing failure.
+     */
+    private void connect() {
+        if (!connected) {
+            topicPublisher.connect();
+            connected = true;
+        }
+    }
+
+    /**
+     * Disconnect after a publishing failure so that the broken connection is closed before
+     * connecting again.
+     */
+    private void disconnect() {
+        connected = false;
+        try {
+            topicPublisher.disconnect();
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Could not disconnect from message broker: [topic] %s", topicName), e);
+            }
+        }
+    }
+
+    private void recordPublished(int count, long latency) {
+        publishedCount.addAndGet(count);
+        totalPublishLatency.addAndGet(latency * count);
+        long max = maxPublishLatency.get();
+        while ((latency > max) && !maxPublishLatency.compareAndSet(max, latency)) {
+            max = maxPublishLatency.get();
+        }
+    }
+
+    private static OverflowPolicy readOverflowPolicy() {
+        String value = System.getProperty(OVERFLOW_POLICY);
+        if (value == null) {
+            return OverflowPolicy.BLOCK;
+        }
+        try {
+            return OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn(String.format("Invalid event publisher overflow policy: %s, using %s", value,
+                    OverflowPolicy.BLOCK));
+            return OverflowPolicy.BLOCK;
+        }
+    }
+
+    /**
+     * A message waiting in the publisher queue.
+     */
+    private static class PublishRequest {
+        private final String message;
+        private final boolean retry;
+        private final long createdTime;
+
+        private PublishRequest(String message, boolean retry) {
+            this.message = message;
+            this.retry = retry;
+            this.createdTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Drains the publisher queue and publishes messages with the same retry flag in batches.
+     */
+    private class Sender implements Runnable {
+
+        @Override
+        public void run() {
+            List<PublishRequest> batch = new ArrayList<PublishRequest>(batchSize);
+            while (!closed || !queue.isEmpty()) {
+                try {
+                    PublishRequest first = closed ? queue.poll() : queue.take();
+                    if (first == null) {
+                        break;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    publishBatch(batch);
+                } catch (InterruptedException ignore) {
+                    // Publisher is being closed, remaining messages will be published before exiting
+                } catch (Exception e) {
+                    log.error(String.format("Could not publish messages: [topic] %s", topicName), e);
+                } finally {
+                    batch.clear();
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Event publisher sender thread stopped: [topic] %s", topicName));
+            }
+        }
+
+        private void publishBatch(List<PublishRequest> batch) {
+            int start = 0;
+            while (start < batch.size()) {
+                boolean retry = batch.get(start).retry;
+                int end = start;
+                List<String> messages = new ArrayList<String>(batch.size() - start);
+                while ((end < batch.size()) && (batch.get(end).retry == retry)) {
+                    messages.add(batch.get(end).message);
+                    end++;
+                }
+                try {
+                    synchronized (publisherLock) {
+                        publishToTopic(messages, retry);
+                    }
+                    long now = System.nanoTime();
+                    for (int i = start; i < end; i++) {
+                        recordPublished(1, now - batch.get(i).createdTime);
+                    }
+                } catch (Exception e) {
+                    failedCount.addAndGet(end - start);
+                    log.error(String.format("Could not publish messages: [topic] %s [message-count] %d",
+                            topicName, end - start), e);
+                }
+                start = end;
+            }
+        }
+    }
 }
@@ -53,7 +53,8 @@ public class EventPublisherPool {
     public static void close(String topicName) {
         synchronized (EventPublisherPool.class) {
             if(topicNameEventPublisherMap.containsKey(topicName)) {
-                topicNameEventPublisherMap.remove(topicName);
+                EventPublisher eventPublisher = topicNameEventPublisherMap.remove(topicName);
+                eventPublisher.close();
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Event publisher closed and removed from pool: [topic] %s", topicName));
                 }
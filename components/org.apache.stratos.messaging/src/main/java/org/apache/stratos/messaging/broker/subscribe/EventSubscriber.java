@@ -23,27 +23,71 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.broker.connect.RetryTimer;
 import org.apache.stratos.messaging.broker.connect.TopicSubscriberFactory;
+import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.util.MessagingUtil;
 import org.eclipse.paho.client.mqttv3.MqttException;
 
 /**
- * Event subscriber for receiving published by event publisher.
+ * Event subscriber for receiving published by event publisher. By default subscribers of the
+ * same topic share a single broker connection through the event subscriber pool.
  */
 public class EventSubscriber implements Runnable {
 
     private static final Log log = LogFactory.getLog(EventSubscriber.class);
+
+    public static final String SHARED_CONNECTIONS_ENABLED = "stratos.messaging.subscriber.shared.connections";
+
     private final org.apache.stratos.messaging.broker.connect.TopicSubscriber topicSubscriber;
 
 	private final String topicName;
-	private boolean subscribed;
+    private final MessageListener messageListener;
+    private final SubscriptionFilter subscriptionFilter;
+    private final boolean shared;
+	private volatile boolean subscribed;
+    private volatile boolean terminated;
+    private volatile EventSubscriberPool.Registration registration;
 
 	/**
 	 * @param topicName topic name of this subscriber instance.
 	 */
 	public EventSubscriber(String topicName, MessageListener messageListener) {
+        this(topicName, messageListener, null);
+	}
+
+    /**
+     * @param topicName topic name of this subscriber instance.
+     * @param subscriptionFilter filter applied before delivering messages to the listener, may be null
+     */
+    public EventSubscriber(String topicName, MessageListener messageListener, SubscriptionFilter subscriptionFilter) {
+        this(topicName, messageListener, subscriptionFilter,
+                Boolean.parseBoolean(System.getProperty(SHARED_CONNECTIONS_ENABLED, "true")));
+    }
+
+    EventSubscriber(String topicName, MessageListener messageListener, SubscriptionFilter subscriptionFilter,
+                    boolean shared) {
 		this.topicName = topicName;
+        this.messageListener = messageListener;
+        this.subscriptionFilter = subscriptionFilter;
+        this.shared = shared;
+        if (shared) {
+            // Broker connection is created by the event subscriber pool
+            this.topicSubscriber = null;
+            return;
+        }
+
         String protocol = MessagingUtil.getMessagingProtocol();
-        this.topicSubscriber = TopicSubscriberFactory.createTopicSubscriber(protocol, messageListener, topicName);
+        MessageListener topicMessageListener = messageListener;
+        if (subscriptionFilter != null) {
+            topicMessageListener = new MessageListener() {
+                @Override
+                public void messageReceived(Message message) {
+                    if (EventSubscriber.this.subscriptionFilter.accept(message)) {
+                        EventSubscriber.this.messageListener.messageReceived(message);
+                    }
+                }
+            };
+        }
+        this.topicSubscriber = TopicSubscriberFactory.createTopicSubscriber(protocol, topicMessageListener, topicName);
 
 		if (log.isDebugEnabled()) {
 			log.debug(String.format("Topic subscriber created: [protocol] %s [topic] %s", protocol, topicName));
@@ -64,13 +108,22 @@ public class EventSubscriber implements Runnable {
 	/**
 	 * Subscribes to a topic. If for some reason the connection to the topic got
 	 * lost, this will perform re-subscription periodically, until a connection
-	 * obtained.
+	 * obtained. Shared subscribers register the message listener with the event
+	 * subscriber pool and return immediately.
 	 */
 	@Override
 	public void run() {
+        if (shared) {
+            synchronized (this) {
+                if (!terminated && (registration == null)) {
+                    registration = EventSubscriberPool.register(topicName, messageListener, subscriptionFilter);
+                }
+            }
+            return;
+        }
 
         RetryTimer retryTimer = new RetryTimer();
-        while (!subscribed) {
+        while (!subscribed && !terminated) {
             try {
                 doSubscribe();
             } catch (Exception e) {
@@ -95,12 +148,26 @@ public class EventSubscriber implements Runnable {
 	 * Terminate topic subscriber.
 	 */
 	public void terminate() {
+        terminated = true;
+        if (shared) {
+            synchronized (this) {
+                if (registration != null) {
+                    EventSubscriberPool.unregister(registration);
+                    registration = null;
+                }
+            }
+            return;
+        }
         if(topicSubscriber != null) {
             topicSubscriber.disconnect();
         }
     }
 
 	public boolean isSubscribed() {
+        if (shared) {
+            EventSubscriberPool.Registration registration_ = registration;
+            return (registration_ != null) && registration_.isSubscribed();
+        }
 		return subscribed;
 	}
 }
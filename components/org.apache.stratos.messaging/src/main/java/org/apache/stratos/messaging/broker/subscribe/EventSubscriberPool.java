@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.broker.subscribe;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.Message;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event subscriber pool will make sure that only one broker connection is created for each
+ * topic in a JVM. Message listeners registered for a topic share the connection and messages
+ * received are delivered to each of them, the connection is closed once the last message
+ * listener is unregistered.
+ */
+public class EventSubscriberPool {
+    private static final Log log = LogFactory.getLog(EventSubscriberPool.class);
+    private static Map<String, SharedEventSubscriber> topicNameEventSubscriberMap =
+            new HashMap<String, SharedEventSubscriber>();
+
+    /**
+     * Register a message listener for the given topic, a subscriber is created and connected
+     * in the background if the topic does not have one.
+     * @param topicName topic name
+     * @param messageListener message listener
+     * @param subscriptionFilter filter applied before delivering messages to the listener, may be null
+     * @return registration which can be used to unregister the message listener
+     */
+    public static Registration register(String topicName, MessageListener messageListener,
+                                        SubscriptionFilter subscriptionFilter) {
+        synchronized (EventSubscriberPool.class) {
+            SharedEventSubscriber sharedEventSubscriber = topicNameEventSubscriberMap.get(topicName);
+            if (sharedEventSubscriber == null) {
+                sharedEventSubscriber = new SharedEventSubscriber(topicName);
+                topicNameEventSubscriberMap.put(topicName, sharedEventSubscriber);
+                sharedEventSubscriber.start();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Event subscriber instance created: [topic] %s", topicName));
+                }
+            }
+            Registration registration = new Registration(sharedEventSubscriber, messageListener, subscriptionFilter);
+            sharedEventSubscriber.registrations.add(registration);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Message listener registered: [topic] %s [listener-count] %d", topicName,
+                        sharedEventSubscriber.registrations.size()));
+            }
+            return registration;
+        }
+    }
+
+    /**
+     * Unregister a message listener, the subscriber of the topic is terminated if no other
+     * message listener is registered.
+     */
+    public static void unregister(Registration registration) {
+        synchronized (EventSubscriberPool.class) {
+            SharedEventSubscriber sharedEventSubscriber = registration.sharedEventSubscriber;
+            if (!sharedEventSubscriber.registrations.remove(registration)) {
+                return;
+            }
+            String topicName = sharedEventSubscriber.topicName;
+            if (sharedEventSubscriber.registrations.isEmpty() &&
+                    (topicNameEventSubscriberMap.get(topicName) == sharedEventSubscriber)) {
+                topicNameEventSubscriberMap.remove(topicName);
+                sharedEventSubscriber.eventSubscriber.terminate();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Event subscriber terminated and removed from pool: [topic] %s",
+                            topicName));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of message listeners registered for the given topic.
+     */
+    public static int getMessageListenerCount(String topicName) {
+        synchronized (EventSubscriberPool.class) {
+            SharedEventSubscriber sharedEventSubscriber = topicNameEventSubscriberMap.get(topicName);
+            return (sharedEventSubscriber != null) ? sharedEventSubscriber.registrations.size() : 0;
+        }
+    }
+
+    /**
+     * A message listener registered with a shared event subscriber.
+     */
+    public static class Registration {
+        private final SharedEventSubscriber sharedEventSubscriber;
+        private final MessageListener messageListener;
+        private final SubscriptionFilter subscriptionFilter;
+
+        private Registration(SharedEventSubscriber sharedEventSubscriber, MessageListener messageListener,
+                             SubscriptionFilter subscriptionFilter) {
+            this.sharedEventSubscriber = sharedEventSubscriber;
+            this.messageListener = messageListener;
+            this.subscriptionFilter = subscriptionFilter;
+        }
+
+        public String getTopicName() {
+            return sharedEventSubscriber.topicName;
+        }
+
+        public boolean isSubscribed() {
+            return sharedEventSubscriber.eventSubscriber.isSubscribed();
+        }
+
+        private void deliver(Message message) {
+            if ((subscriptionFilter == null) || subscriptionFilter.accept(message)) {
+                messageListener.messageReceived(message);
+            }
+        }
+    }
+
+    /**
+     * Subscriber of a topic delivering received messages to the registered message listeners.
+     */
+    private static class SharedEventSubscriber implements MessageListener {
+        private final String topicName;
+        private final EventSubscriber eventSubscriber;
+        private final List<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+
+        private SharedEventSubscriber(String topicName) {
+            this.topicName = topicName;
+            this.eventSubscriber = new EventSubscriber(topicName, this, null, false);
+        }
+
+        private void start() {
+            Thread subscriberThread = new Thread(eventSubscriber, "shared-event-subscriber-" + topicName);
+            subscriberThread.start();
+        }
+
+        @Override
+        public void messageReceived(Message message) {
+            for (Registration registration : registrations) {
+                try {
+                    registration.deliver(message);
+                } catch (Exception e) {
+                    log.error(String.format("Could not deliver message to message listener: [topic] %s",
+                            topicName), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.broker.subscribe;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.Message;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Subscription filter matching top level properties of event messages, for an example
+ * clusterId or memberId. A message is rejected if it has one of the given properties with a
+ * different value, messages which do not have the properties are accepted. The message is
+ * scanned with a streaming reader without building the event.
+ */
+public class PropertySubscriptionFilter implements SubscriptionFilter {
+
+    private static final Log log = LogFactory.getLog(PropertySubscriptionFilter.class);
+
+    private final Map<String, String> properties;
+
+    public PropertySubscriptionFilter(String propertyName, String propertyValue) {
+        this(Collections.singletonMap(propertyName, propertyValue));
+    }
+
+    public PropertySubscriptionFilter(Map<String, String> properties) {
+        this.properties = new HashMap<String, String>(properties);
+    }
+
+    @Override
+    public boolean accept(Message message) {
+        JsonReader reader = new JsonReader(message.getReader());
+        reader.setLenient(true);
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return true;
+            }
+            reader.beginObject();
+            int matchedCount = 0;
+            while (reader.hasNext()) {
+                String expectedValue = properties.get(reader.nextName());
+                if ((expectedValue != null) && (reader.peek() == JsonToken.STRING)) {
+                    if (!expectedValue.equals(reader.nextString())) {
+                        return false;
+                    }
+                    if (++matchedCount == properties.size()) {
+                        return true;
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Could not apply subscription filter, message accepted: [topic] %s",
+                        message.getTopicName()), e);
+            }
+            return true;
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
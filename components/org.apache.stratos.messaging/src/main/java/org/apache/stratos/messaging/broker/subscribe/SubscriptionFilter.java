@@ -16,23 +16,18 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.stratos.load.balancer.statistics;
 
-import java.util.concurrent.Callable;
+package org.apache.stratos.messaging.broker.subscribe;
+
+import org.apache.stratos.messaging.domain.Message;
 
 /**
- * In-flight request decrement callable definition.
+ * Filter applied to received messages before they are delivered to a message listener.
  */
-public class InFlightRequestDecrementCallable implements Callable<Object> {
-    private String clusterId;
-
-    public InFlightRequestDecrementCallable(String clusterId) {
-        this.clusterId = clusterId;
-    }
-
-    @Override
-    public Object call() throws Exception {
-        LoadBalancerStatisticsCollector.getInstance().decrementInFlightRequestCount(clusterId);
-        return null;
-    }
+public interface SubscriptionFilter {
+    /**
+     * Returns true if the message should be delivered to the message listener.
+     * @param message Message received
+     */
+    public boolean accept(Message message);
 }
@@ -21,26 +21,58 @@ package org.apache.stratos.messaging.domain;
 
 import org.apache.stratos.messaging.util.MessagingUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
 /**
- * Message definition.
+ * Message definition. A message received as bytes keeps the raw payload and decodes its text
+ * only when requested, hence large messages can be read without an intermediate string.
  */
 public class Message {
     private final String topicName;
-    private final String text;
+    private final byte[] payload;
+    private volatile String text;
     private final String eventClassName;
 
     public Message(String topicName, String text) {
         this.topicName = topicName;
+        this.payload = null;
         this.text = text;
         this.eventClassName = MessagingUtil.getEventClassNameForTopic(topicName);
     }
 
+    public Message(String topicName, byte[] payload) {
+        this.topicName = topicName;
+        this.payload = payload;
+        this.eventClassName = MessagingUtil.getEventClassNameForTopic(topicName);
+    }
+
     public String getTopicName() {
         return topicName;
     }
 
     public String getText() {
-        return text;
+        String text_ = text;
+        if ((text_ == null) && (payload != null)) {
+            text_ = new String(payload, Charset.defaultCharset());
+            text = text_;
+        }
+        return text_;
+    }
+
+    /**
+     * Returns a reader for the message content, the raw payload is read if the text has not
+     * been decoded.
+     */
+    public Reader getReader() {
+        String text_ = text;
+        if ((text_ == null) && (payload != null)) {
+            return new InputStreamReader(new ByteArrayInputStream(payload), Charset.defaultCharset());
+        }
+        return new StringReader((text_ != null) ? text_ : "");
     }
 
     public String getEventClassName() {
@@ -25,6 +25,7 @@ import org.apache.stratos.messaging.util.MessagingUtil;
 import org.apache.stratos.messaging.adapters.MapAdapter;
 
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 import java.io.Serializable;
 import java.util.*;
@@ -50,6 +51,8 @@ public class Cluster implements Serializable {
     // Key: Member.memberId
     @XmlJavaTypeAdapter(MapAdapter.class)
     private Map<String, Member> memberMap;
+    // Incremented when members are added or removed, not serialized
+    private transient volatile int memberVersion;
 
     //private ClusterStatus status;
 
@@ -132,10 +135,22 @@ public class Cluster implements Serializable {
 
     public void addMember(Member member) {
         memberMap.put(member.getMemberId(), member);
+        memberVersion++;
     }
 
     public void removeMember(Member member) {
         memberMap.remove(member.getMemberId());
+        memberVersion++;
+    }
+
+    /**
+     * Returns a counter which changes whenever members are added to or removed from the cluster.
+     * This can be used for caching derived member lists.
+     * @return member version
+     */
+    @XmlTransient
+    public int getMemberVersion() {
+        return memberVersion;
     }
 
     public Member getMember(String memberId) {
@@ -286,6 +301,7 @@ public class Cluster implements Serializable {
 
     public void setMemberMap(Map<String, Member> memberMap) {
         this.memberMap = memberMap;
+        memberVersion++;
     }
 
     public boolean equals(Object other) {
@@ -47,6 +47,34 @@ public class Service implements Serializable{
         this.portMap = new HashMap<Integer, Port>();
     }
 
+    /**
+     * Create a copy of the given service sharing its clusters.
+     */
+    private Service(Service service) {
+        this.serviceName = service.serviceName;
+        this.serviceType = service.serviceType;
+        this.clusterIdClusterMap = new HashMap<String, Cluster>(service.clusterIdClusterMap);
+        this.portMap = new HashMap<Integer, Port>(service.portMap);
+        this.properties = service.properties;
+    }
+
+    /**
+     * Returns a copy of this service in which the given cluster is replaced. Other clusters are
+     * shared with this service, which is not modified.
+     * @param clusterId id of the cluster to be replaced
+     * @param cluster new cluster, or null to remove the cluster from the copy
+     * @return service copy
+     */
+    public Service withCluster(String clusterId, Cluster cluster) {
+        Service service = new Service(this);
+        if (cluster == null) {
+            service.clusterIdClusterMap.remove(clusterId);
+        } else {
+            service.clusterIdClusterMap.put(clusterId, cluster);
+        }
+        return service;
+    }
+
     public String getServiceName() {
         return serviceName;
     }
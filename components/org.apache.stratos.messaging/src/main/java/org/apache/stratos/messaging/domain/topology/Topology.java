@@ -37,12 +37,40 @@ public class Topology implements Serializable {
     private Map<String, Service> serviceMap;
 
     private boolean initialized;
+    // Sequence number of the last topology change
+    private volatile long version;
     private static Log log = LogFactory.getLog(Topology.class);
 
     public Topology() {
         this.serviceMap = new HashMap<String, Service>();
     }
 
+    /**
+     * Create a copy of the given topology sharing its services.
+     */
+    private Topology(Topology topology) {
+        this.serviceMap = new HashMap<String, Service>(topology.serviceMap);
+        this.initialized = topology.initialized;
+        this.version = topology.version;
+    }
+
+    /**
+     * Returns a copy of this topology in which the given service is replaced. Other services are
+     * shared with this topology, which is not modified.
+     * @param serviceName name of the service to be replaced
+     * @param service new service, or null to remove the service from the copy
+     * @return topology copy
+     */
+    public Topology withService(String serviceName, Service service) {
+        Topology topology = new Topology(this);
+        if (service == null) {
+            topology.serviceMap.remove(serviceName);
+        } else {
+            topology.serviceMap.put(serviceName, service);
+        }
+        return topology;
+    }
+
     public Collection<Service> getServices() {
         return serviceMap.values();
     }
@@ -87,8 +115,24 @@ public class Topology implements Serializable {
         return initialized;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Increment the topology version for a topology change.
+     * @return new topology version
+     */
+    public synchronized long nextVersion() {
+        return ++version;
+    }
+
     @Override
     public String toString() {
-        return "Topology [serviceMap=" + serviceMap + ", initialized=" + initialized + "]";
+        return "Topology [serviceMap=" + serviceMap + ", initialized=" + initialized + ", version=" + version + "]";
     }
 }
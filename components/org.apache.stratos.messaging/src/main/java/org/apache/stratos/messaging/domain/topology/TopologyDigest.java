@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.domain.topology;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates compact digests of the topology which can be compared by subscribers to verify
+ * whether their local topology is in sync with the cloud controller without transferring the
+ * complete topology. A cluster digest covers the member ids and member statuses of the cluster.
+ */
+public class TopologyDigest {
+
+    private TopologyDigest() {
+    }
+
+    /**
+     * Calculate digests of all clusters in the topology.
+     * @param topology topology
+     * @return cluster id to cluster digest map
+     */
+    public static Map<String, String> calculate(Topology topology) {
+        Map<String, String> clusterDigests = new HashMap<String, String>();
+        for (Service service : topology.getServices()) {
+            for (Cluster cluster : service.getClusters()) {
+                clusterDigests.put(cluster.getClusterId(), calculate(cluster));
+            }
+        }
+        return clusterDigests;
+    }
+
+    /**
+     * Calculate the digest of a cluster. Members are ordered by member id, hence the digest
+     * does not depend on the iteration order of the member map.
+     * @param cluster cluster
+     * @return cluster digest
+     */
+    public static String calculate(Cluster cluster) {
+        List<String> memberStates = new ArrayList<String>();
+        for (Member member : cluster.getMembers()) {
+            memberStates.add(member.getMemberId() + ":" + member.getStatus());
+        }
+        Collections.sort(memberStates);
+
+        // 64-bit FNV-1a hash of the member states
+        long hash = 0xcbf29ce484222325L;
+        for (String memberState : memberStates) {
+            for (int i = 0; i < memberState.length(); i++) {
+                hash ^= memberState.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= ';';
+            hash *= 0x100000001b3L;
+        }
+        return memberStates.size() + "-" + Long.toHexString(hash);
+    }
+}
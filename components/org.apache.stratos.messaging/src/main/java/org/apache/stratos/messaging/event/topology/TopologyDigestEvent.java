@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.event.topology;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * This event is fired periodically by cloud controller with the topology version and a digest
+ * of each cluster instead of the complete topology. Subscribers compare it with their local
+ * topology and request the complete topology only if it does not match.
+ */
+public class TopologyDigestEvent extends TopologyEvent implements Serializable {
+    private static final long serialVersionUID = 2815270418467209473L;
+
+    private final long version;
+    // Key: cluster id, value: cluster digest
+    private final Map<String, String> clusterDigests;
+
+    public TopologyDigestEvent(long version, Map<String, String> clusterDigests) {
+        this.version = version;
+        this.clusterDigests = clusterDigests;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, String> getClusterDigests() {
+        return clusterDigests;
+    }
+}
@@ -24,8 +24,19 @@ import org.apache.stratos.messaging.event.Event;
 import java.io.Serializable;
 
 /**
- * Represents all topology events.
+ * Represents all topology events. Each topology change event carries the topology version
+ * produced by the change, which allows subscribers to detect missed events.
  */
 public abstract class TopologyEvent extends Event implements Serializable {
     private static final long serialVersionUID = -3279032168352271675L;
+
+    private long sequenceNumber;
+
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    public void setSequenceNumber(long sequenceNumber) {
+        this.sequenceNumber = sequenceNumber;
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.messaging.message.processor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Processing counters and a lock free latency histogram of a single event type. Messages for which
+ * the message processor returned false are counted as not processed, messages for which it threw
+ * an exception are counted as failed. Bucket 0 counts
+ * latencies below 1 microsecond and bucket i counts latencies in [2^(i-1), 2^i) microseconds,
+ * percentiles are reported as the upper bound of the bucket they fall into.
+ */
+public class MessageProcessingStatistics {
+
+    private static final int BUCKET_COUNT = 40;
+
+    private final String eventType;
+    private final AtomicLong processedCount;
+    private final AtomicLong notProcessedCount;
+    private final AtomicLong failedCount;
+    private final AtomicLong totalLatencyMicros;
+    private final AtomicLongArray buckets;
+
+    public MessageProcessingStatistics(String eventType) {
+        this.eventType = eventType;
+        this.processedCount = new AtomicLong();
+        this.notProcessedCount = new AtomicLong();
+        this.failedCount = new AtomicLong();
+        this.totalLatencyMicros = new AtomicLong();
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    /**
+     * Record a message handed over to the message processor.
+     * @param latencyNanos time spent in the message processor
+     * @param processed value returned by the message processor
+     */
+    public void record(long latencyNanos, boolean processed) {
+        if (processed) {
+            processedCount.incrementAndGet();
+        } else {
+            notProcessedCount.incrementAndGet();
+        }
+        recordLatency(latencyNanos);
+    }
+
+    /**
+     * Record a message for which the message processor threw an exception.
+     * @param latencyNanos time spent in the message processor
+     */
+    public void recordFailure(long latencyNanos) {
+        failedCount.incrementAndGet();
+        recordLatency(latencyNanos);
+    }
+
+    private void recordLatency(long latencyNanos) {
+        long latencyMicros = latencyNanos / 1000;
+        totalLatencyMicros.addAndGet(latencyMicros);
+        buckets.incrementAndGet(bucketIndex(latencyMicros));
+    }
+
+    private static int bucketIndex(long latencyMicros) {
+        if (latencyMicros <= 0) {
+            return 0;
+        }
+        int index = 64 - Long.numberOfLeadingZeros(latencyMicros);
+        return (index < BUCKET_COUNT) ? index : (BUCKET_COUNT - 1);
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    public long getNotProcessedCount() {
+        return notProcessedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns the number of messages handed over to the message processor.
+     */
+    public long getMessageCount() {
+        return processedCount.get() + notProcessedCount.get() + failedCount.get();
+    }
+
+    /**
+     * Returns the average processing latency in microseconds, or -1 if no message has been recorded.
+     */
+    public long getAverageLatencyMicros() {
+        long count = getMessageCount();
+        if (count == 0) {
+            return -1;
+        }
+        return totalLatencyMicros.get() / count;
+    }
+
+    /**
+     * Returns the latency in microseconds below which the given percentage of the recorded
+     * messages fall, or -1 if no message has been recorded.
+     * @param percentile a value between 0 and 100
+     */
+    public long getLatencyPercentileMicros(double percentile) {
+        if ((percentile < 0) || (percentile > 100)) {
+            throw new IllegalArgumentException("Percentile should be between 0 and 100: " + percentile);
+        }
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return -1;
+        }
+        long rank = (long) Math.ceil((percentile / 100.0) * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if ((seen >= rank) && (seen > 0)) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKET_COUNT - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[event-type] %s [processed] %d [not-processed] %d [failed] %d [avg-latency-us] %d " +
+                        "[p99-latency-us] %d", eventType, getProcessedCount(), getNotProcessedCount(), getFailedCount(),
+                getAverageLatencyMicros(), getLatencyPercentileMicros(99));
+    }
+}
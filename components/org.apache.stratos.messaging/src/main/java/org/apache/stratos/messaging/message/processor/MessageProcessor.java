@@ -19,6 +19,7 @@
 
 package org.apache.stratos.messaging.message.processor;
 
+import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.domain.topology.Topology;
 import org.apache.stratos.messaging.event.EventObservable;
 
@@ -41,4 +42,16 @@ public abstract class MessageProcessor extends EventObservable {
 	 * @return whether the processing was successful or not.
 	 */
 	public abstract boolean process(String type, String message, Object object);
+
+	/**
+	 * Message processing logic for messages received from the message broker. Message processors
+	 * of large messages may override this to decode the event directly from the message payload.
+	 * @param type type of the message.
+	 * @param message received message.
+	 * @param object Object that will get updated.
+	 * @return whether the processing was successful or not.
+	 */
+	public boolean process(String type, Message message, Object object) {
+		return process(type, message.getText(), object);
+	}
 }
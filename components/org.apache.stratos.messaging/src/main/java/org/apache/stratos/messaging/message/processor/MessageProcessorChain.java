@@ -19,26 +19,73 @@
 
 package org.apache.stratos.messaging.message.processor;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.event.Event;
 import org.apache.stratos.messaging.listener.EventListener;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Message processor chain definition.
+ * Message processor chain definition. Message processors added with their event type are
+ * dispatched through a hash table keyed by event class name, processors added without an
+ * event type are reached by walking the chain.
+ *
+ * Processing statistics are kept per event type and logged once every statistics log interval
+ * (stratos.messaging.processor.statistics.log.interval in milliseconds, zero disables logging).
  */
 public abstract class MessageProcessorChain {
 
-    private LinkedList<MessageProcessor> list;
+    private static final Log log = LogFactory.getLog(MessageProcessorChain.class);
+
+    public static final String STATISTICS_LOG_INTERVAL = "stratos.messaging.processor.statistics.log.interval";
+
+    private final LinkedList<MessageProcessor> list = new LinkedList<MessageProcessor>();
+    private final Map<String, MessageProcessor> dispatchTable = new ConcurrentHashMap<String, MessageProcessor>();
+    private final Map<String, MessageProcessingStatistics> statisticsMap =
+            new ConcurrentHashMap<String, MessageProcessingStatistics>();
+    private final AtomicLong unhandledMessageCount = new AtomicLong();
+    private final long statisticsLogInterval = Long.getLong(STATISTICS_LOG_INTERVAL, 300000);
+    private final AtomicLong lastStatisticsLogTime = new AtomicLong(System.currentTimeMillis());
+    private volatile int untypedProcessorCount;
 
     public MessageProcessorChain() {
-        list = new LinkedList<MessageProcessor>();
         initialize();
     }
 
     protected abstract void initialize();
     public abstract void addEventListener(EventListener eventListener);
 
+    /**
+     * Add a message processor without an event type, messages are delegated to it by
+     * walking the chain.
+     */
     public void add(MessageProcessor messageProcessor) {
+        link(messageProcessor);
+        untypedProcessorCount++;
+    }
+
+    /**
+     * Add a message processor handling the given event type.
+     */
+    public void add(Class<? extends Event> eventClass, MessageProcessor messageProcessor) {
+        String eventType = eventClass.getName();
+        if (dispatchTable.containsKey(eventType)) {
+            throw new RuntimeException(String.format("A message processor has already been added for " +
+                    "event type: [event-type] %s", eventType));
+        }
+        link(messageProcessor);
+        dispatchTable.put(eventType, messageProcessor);
+        statisticsMap.put(eventType, new MessageProcessingStatistics(eventType));
+    }
+
+    private void link(MessageProcessor messageProcessor) {
         if(list.size() > 0) {
             list.getLast().setNext(messageProcessor);
         }
@@ -46,17 +93,115 @@ public abstract class MessageProcessorChain {
     }
 
     public void removeLast() {
-        list.removeLast();
+        MessageProcessor messageProcessor = list.removeLast();
         if(list.size() > 0) {
             list.getLast().setNext(null);
         }
+        if (!dispatchTable.values().remove(messageProcessor)) {
+            untypedProcessorCount--;
+        }
     }
 
     public boolean process(String type, String message, Object object) {
-        MessageProcessor root = list.getFirst();
-        if(root == null) {
+        return dispatch(type, message, null, object);
+    }
+
+    /**
+     * Process a message received from the message broker, message processors may decode the
+     * event directly from the message payload.
+     */
+    public boolean process(String type, Message message, Object object) {
+        return dispatch(type, null, message, object);
+    }
+
+    private boolean dispatch(String type, String text, Message message, Object object) {
+        if(list.isEmpty()) {
             throw new RuntimeException("Message processor chain is not initialized");
         }
-        return root.process(type, message, object);
+
+        MessageProcessor messageProcessor = (type != null) ? dispatchTable.get(type) : null;
+        if (messageProcessor == null) {
+            if (untypedProcessorCount > 0) {
+                // Fall back to walking the chain for processors without an event type
+                messageProcessor = list.getFirst();
+                if (message != null) {
+                    text = message.getText();
+                    message = null;
+                }
+            } else {
+                unhandledMessageCount.incrementAndGet();
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("No message processor found for event type: [chain] %s " +
+                            "[event-type] %s", getClass().getSimpleName(), type));
+                }
+                return false;
+            }
+        }
+
+        MessageProcessingStatistics statistics = (type != null) ? statisticsMap.get(type) : null;
+        long startTime = System.nanoTime();
+        try {
+            boolean processed;
+            if (message != null) {
+                processed = messageProcessor.process(type, message, object);
+            } else {
+                processed = messageProcessor.process(type, text, object);
+            }
+            if (statistics != null) {
+                statistics.record(System.nanoTime() - startTime, processed);
+            }
+            return processed;
+        } catch (RuntimeException e) {
+            if (statistics != null) {
+                statistics.recordFailure(System.nanoTime() - startTime);
+            }
+            throw e;
+        } finally {
+            logStatisticsIfRequired();
+        }
+    }
+
+    private void logStatisticsIfRequired() {
+        if ((statisticsLogInterval <= 0) || !log.isInfoEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lastLogTime = lastStatisticsLogTime.get();
+        if ((now - lastLogTime < statisticsLogInterval) || !lastStatisticsLogTime.compareAndSet(lastLogTime, now)) {
+            return;
+        }
+        for (MessageProcessingStatistics statistics : statisticsMap.values()) {
+            if (statistics.getMessageCount() > 0) {
+                log.info(String.format("Message processing statistics: [chain] %s %s",
+                        getClass().getSimpleName(), statistics));
+            }
+        }
+        long unhandledCount = unhandledMessageCount.get();
+        if (unhandledCount > 0) {
+            log.info(String.format("Messages without a message processor: [chain] %s [count] %d",
+                    getClass().getSimpleName(), unhandledCount));
+        }
+    }
+
+    /**
+     * Returns the number of messages for which no message processor was found.
+     */
+    public long getUnhandledMessageCount() {
+        return unhandledMessageCount.get();
+    }
+
+    /**
+     * Returns processing statistics of the given event type, or null if the event type
+     * is not handled by this chain.
+     */
+    public MessageProcessingStatistics getStatistics(String eventType) {
+        return statisticsMap.get(eventType);
+    }
+
+    /**
+     * Returns processing statistics of all event types handled by this chain.
+     */
+    public Collection<MessageProcessingStatistics> getStatistics() {
+        return new ArrayList<MessageProcessingStatistics>(statisticsMap.values());
     }
 }
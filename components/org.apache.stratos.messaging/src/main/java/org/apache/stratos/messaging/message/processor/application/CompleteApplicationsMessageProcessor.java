@@ -20,11 +20,13 @@ package org.apache.stratos.messaging.message.processor.application;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.domain.application.Application;
 import org.apache.stratos.messaging.domain.application.Applications;
 import org.apache.stratos.messaging.event.application.CompleteApplicationsEvent;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
 import org.apache.stratos.messaging.message.processor.application.updater.ApplicationsUpdater;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
 import java.util.Collection;
@@ -47,19 +49,7 @@ public class CompleteApplicationsMessageProcessor extends MessageProcessor {
             // Parse complete message and build event
             CompleteApplicationsEvent event = (CompleteApplicationsEvent) MessagingUtil.
                     jsonToObject(message, CompleteApplicationsEvent.class);
-
-            if (!applications.isInitialized()) {
-                ApplicationsUpdater.acquireWriteLockForApplications();
-                try {
-                    doProcess(event, applications);
-                } finally {
-                    ApplicationsUpdater.releaseWriteLockForApplications();
-                }
-            }
-
-            // Notify event listeners
-            notifyEventListeners(event);
-            return true;
+            return processEvent(event, applications);
 
         } else {
             if (nextProcessor != null) {
@@ -70,6 +60,32 @@ public class CompleteApplicationsMessageProcessor extends MessageProcessor {
         }
     }
 
+    @Override
+    public boolean process(String type, Message message, Object object) {
+        if (CompleteApplicationsEvent.class.getName().equals(type)) {
+            // Decode the event directly from the message payload
+            CompleteApplicationsEvent event = JsonCodec.fromJson(message.getReader(),
+                    CompleteApplicationsEvent.class);
+            return processEvent(event, (Applications) object);
+        }
+        return super.process(type, message, object);
+    }
+
+    private boolean processEvent(CompleteApplicationsEvent event, Applications applications) {
+        if (!applications.isInitialized()) {
+            ApplicationsUpdater.acquireWriteLockForApplications();
+            try {
+                doProcess(event, applications);
+            } finally {
+                ApplicationsUpdater.releaseWriteLockForApplications();
+            }
+        }
+
+        // Notify event listeners
+        notifyEventListeners(event);
+        return true;
+    }
+
     private void doProcess(CompleteApplicationsEvent event, Applications applications) {
         // add existing Applications to Topology
         Collection<Application> applicationsList = event.getApplications().getApplications().values();
@@ -21,6 +21,9 @@ package org.apache.stratos.messaging.message.processor.application.signup;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.event.application.signup.ApplicationSignUpAddedEvent;
+import org.apache.stratos.messaging.event.application.signup.ApplicationSignUpRemovedEvent;
+import org.apache.stratos.messaging.event.application.signup.CompleteApplicationSignUpsEvent;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.application.signup.CompleteApplicationSignUpsEventListener;
 import org.apache.stratos.messaging.listener.domain.mapping.DomainMappingAddedEventListener;
@@ -41,13 +44,13 @@ public class ApplicationSignUpMessageProcessorChain extends MessageProcessorChai
     @Override
     protected void initialize() {
         completeApplicationSignUpsMessageProcessor = new CompleteApplicationSignUpsMessageProcessor();
-        add(completeApplicationSignUpsMessageProcessor);
+        add(CompleteApplicationSignUpsEvent.class, completeApplicationSignUpsMessageProcessor);
 
         domainNameAddedMessageProcessor = new ApplicationSignUpAddedMessageProcessor();
-        add(domainNameAddedMessageProcessor);
+        add(ApplicationSignUpAddedEvent.class, domainNameAddedMessageProcessor);
 
         domainNameRemovedMessageProcessor = new ApplicationSignUpRemovedMessageProcessor();
-        add(domainNameRemovedMessageProcessor);
+        add(ApplicationSignUpRemovedEvent.class, domainNameRemovedMessageProcessor);
     }
 
     @Override
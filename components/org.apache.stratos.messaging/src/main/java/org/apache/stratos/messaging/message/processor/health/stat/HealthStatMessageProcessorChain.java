@@ -20,6 +20,7 @@
  */
 package org.apache.stratos.messaging.message.processor.health.stat;
 
+import org.apache.stratos.messaging.event.health.stat.*;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.health.stat.*;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
@@ -52,44 +53,44 @@ public class HealthStatMessageProcessorChain extends MessageProcessorChain {
 
         //Most frequent first order is defined in default
         memberAverageLoadAverageMessageProcessor = new MemberAverageLoadAverageMessageProcessor();
-        add(memberAverageLoadAverageMessageProcessor);
+        add(MemberAverageLoadAverageEvent.class, memberAverageLoadAverageMessageProcessor);
         memberGradientOfLoadAverageMessageProcessor = new MemberGradientOfLoadAverageMessageProcessor();
-        add(memberGradientOfLoadAverageMessageProcessor);
+        add(MemberGradientOfLoadAverageEvent.class, memberGradientOfLoadAverageMessageProcessor);
         memberSecondDerivativeOfLoadAverageMessageProcessor = new MemberSecondDerivativeOfLoadAverageMessageProcessor();
-        add(memberSecondDerivativeOfLoadAverageMessageProcessor);
+        add(MemberSecondDerivativeOfLoadAverageEvent.class, memberSecondDerivativeOfLoadAverageMessageProcessor);
 
         memberAverageMemoryConsumptionMessageProcessor = new MemberAverageMemoryConsumptionMessageProcessor();
-        add(memberAverageMemoryConsumptionMessageProcessor);
+        add(MemberAverageMemoryConsumptionEvent.class, memberAverageMemoryConsumptionMessageProcessor);
         memberGradientOfMemoryConsumptionMessageProcessor = new MemberGradientOfMemoryConsumptionMessageProcessor();
-        add(memberGradientOfMemoryConsumptionMessageProcessor);
+        add(MemberGradientOfMemoryConsumptionEvent.class, memberGradientOfMemoryConsumptionMessageProcessor);
         memberSecondDerivativeOfMemoryConsumptionMessageProcessor = new MemberSecondDerivativeOfMemoryConsumptionMessageProcessor();
-        add(memberSecondDerivativeOfMemoryConsumptionMessageProcessor);
+        add(MemberSecondDerivativeOfMemoryConsumptionEvent.class, memberSecondDerivativeOfMemoryConsumptionMessageProcessor);
 
         averageRequestsInFlightMessageProcessor = new AverageRequestsInFlightMessageProcessor();
-        add(averageRequestsInFlightMessageProcessor);
+        add(AverageRequestsInFlightEvent.class, averageRequestsInFlightMessageProcessor);
         averageRequestsServingCapabilityMessageProcessor = new AverageRequestsServingCapabilityMessageProcessor();
-        add(averageRequestsServingCapabilityMessageProcessor);
+        add(AverageRequestsServingCapabilityEvent.class, averageRequestsServingCapabilityMessageProcessor);
         gradientOfRequestsInFlightMessageProcessor = new GradientOfRequestsInFlightMessageProcessor();
-        add(gradientOfRequestsInFlightMessageProcessor);
+        add(GradientOfRequestsInFlightEvent.class, gradientOfRequestsInFlightMessageProcessor);
         secondDerivativeOfRequestsInFlightMessageProcessor = new SecondDerivativeOfRequestsInFlightMessageProcessor();
-        add(secondDerivativeOfRequestsInFlightMessageProcessor);
+        add(SecondDerivativeOfRequestsInFlightEvent.class, secondDerivativeOfRequestsInFlightMessageProcessor);
 
         averageLoadAverageMessageProcessor = new AverageLoadAverageMessageProcessor();
-        add(averageLoadAverageMessageProcessor);
+        add(AverageLoadAverageEvent.class, averageLoadAverageMessageProcessor);
         gradientOfLoadAverageMessageProcessor = new GradientOfLoadAverageMessageProcessor();
-        add(gradientOfLoadAverageMessageProcessor);
+        add(GradientOfLoadAverageEvent.class, gradientOfLoadAverageMessageProcessor);
         secondDerivativeOfLoadAverageMessageProcessor = new SecondDerivativeOfLoadAverageMessageProcessor();
-        add(secondDerivativeOfLoadAverageMessageProcessor);
+        add(SecondDerivativeOfLoadAverageEvent.class, secondDerivativeOfLoadAverageMessageProcessor);
 
         averageMemoryConsumptionMessageProcessor = new AverageMemoryConsumptionMessageProcessor();
-        add(averageMemoryConsumptionMessageProcessor);
+        add(AverageMemoryConsumptionEvent.class, averageMemoryConsumptionMessageProcessor);
         gradientOfMemoryConsumptionMessageProcessor = new GradientOfMemoryConsumptionMessageProcessor();
-        add(gradientOfMemoryConsumptionMessageProcessor);
+        add(GradientOfMemoryConsumptionEvent.class, gradientOfMemoryConsumptionMessageProcessor);
         secondDerivativeOfMemoryConsumptionMessageProcessor = new SecondDerivativeOfMemoryConsumptionMessageProcessor();
-        add(secondDerivativeOfMemoryConsumptionMessageProcessor);
+        add(SecondDerivativeOfMemoryConsumptionEvent.class, secondDerivativeOfMemoryConsumptionMessageProcessor);
 
         memberFaultMessageProcessor = new MemberFaultMessageProcessor();
-        add(memberFaultMessageProcessor);
+        add(MemberFaultEvent.class, memberFaultMessageProcessor);
     }
 
     public void addEventListener(EventListener eventListener) {
@@ -21,6 +21,9 @@ package org.apache.stratos.messaging.message.processor.instance.notifier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.event.instance.notifier.ArtifactUpdatedEvent;
+import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupClusterEvent;
+import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupMemberEvent;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.ArtifactUpdateEventListener;
 import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupClusterEventListener;
@@ -40,11 +43,11 @@ public class InstanceNotifierMessageProcessorChain extends MessageProcessorChain
     public void initialize() {
         // Add instance notifier event processors
         artifactUpdateMessageProcessor = new ArtifactUpdateMessageProcessor();
-        add(artifactUpdateMessageProcessor);
+        add(ArtifactUpdatedEvent.class, artifactUpdateMessageProcessor);
         instanceCleanupMemberNotifierMessageProcessor = new InstanceCleanupMemberNotifierMessageProcessor();
-        add(instanceCleanupMemberNotifierMessageProcessor);
+        add(InstanceCleanupMemberEvent.class, instanceCleanupMemberNotifierMessageProcessor);
         instanceCleanupClusterNotifierMessageProcessor = new InstanceCleanupClusterNotifierMessageProcessor();
-        add(instanceCleanupClusterNotifierMessageProcessor);
+        add(InstanceCleanupClusterEvent.class, instanceCleanupClusterNotifierMessageProcessor);
 
 
         if (log.isDebugEnabled()) {
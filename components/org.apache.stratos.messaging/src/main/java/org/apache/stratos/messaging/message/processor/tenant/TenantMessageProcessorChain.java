@@ -21,6 +21,7 @@ package org.apache.stratos.messaging.message.processor.tenant;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.event.tenant.*;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.tenant.*;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
@@ -41,22 +42,22 @@ public class TenantMessageProcessorChain extends MessageProcessorChain {
     public void initialize() {
         // Initialize tenant event processors
         completeTenantMessageProcessor = new CompleteTenantMessageProcessor();
-        add(completeTenantMessageProcessor);
+        add(CompleteTenantEvent.class, completeTenantMessageProcessor);
 
         tenantCreatedMessageProcessor = new TenantCreatedMessageProcessor();
-        add(tenantCreatedMessageProcessor);
+        add(TenantCreatedEvent.class, tenantCreatedMessageProcessor);
 
         tenantUpdatedMessageProcessor = new TenantUpdatedMessageProcessor();
-        add(tenantUpdatedMessageProcessor);
+        add(TenantUpdatedEvent.class, tenantUpdatedMessageProcessor);
 
         tenantRemovedMessageProcessor = new TenantRemovedMessageProcessor();
-        add(tenantRemovedMessageProcessor);
+        add(TenantRemovedEvent.class, tenantRemovedMessageProcessor);
 
         tenantSubscribedMessageProcessor = new TenantSubscribedMessageProcessor();
-        add(tenantSubscribedMessageProcessor);
+        add(TenantSubscribedEvent.class, tenantSubscribedMessageProcessor);
 
         tenantUnSubscribedMessageProcessor = new TenantUnSubscribedMessageProcessor();
-        add(tenantUnSubscribedMessageProcessor);
+        add(TenantUnSubscribedEvent.class, tenantUnSubscribedMessageProcessor);
 
         if (log.isDebugEnabled()) {
             log.debug("Tenant message processor chain initialized");
@@ -20,6 +20,7 @@ package org.apache.stratos.messaging.message.processor.topology;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.Message;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Member;
 import org.apache.stratos.messaging.domain.topology.Service;
@@ -30,6 +31,7 @@ import org.apache.stratos.messaging.message.filter.topology.TopologyMemberFilter
 import org.apache.stratos.messaging.message.filter.topology.TopologyServiceFilter;
 import org.apache.stratos.messaging.message.processor.MessageProcessor;
 import org.apache.stratos.messaging.message.processor.topology.updater.TopologyUpdater;
+import org.apache.stratos.messaging.util.JsonCodec;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
 import java.util.ArrayList;
@@ -52,21 +54,7 @@ public class CompleteTopologyMessageProcessor extends MessageProcessor {
         if (CompleteTopologyEvent.class.getName().equals(type)) {
         	// Parse complete message and build event
         	CompleteTopologyEvent event = (CompleteTopologyEvent) MessagingUtil.jsonToObject(message, CompleteTopologyEvent.class);
-
-            if (!topology.isInitialized()) {
-                TopologyUpdater.acquireWriteLock();
-
-                try {
-                    doProcess(event, topology);
-
-                } finally {
-                    TopologyUpdater.releaseWriteLock();
-                }
-            }
-
-            // Notify event listeners
-            notifyEventListeners(event);
-            return true;
+            return processEvent(event, topology);
 
         } else {
             if (nextProcessor != null) {
@@ -77,6 +65,44 @@ public class CompleteTopologyMessageProcessor extends MessageProcessor {
         }
     }
 
+    @Override
+    public boolean process(String type, Message message, Object object) {
+        if (CompleteTopologyEvent.class.getName().equals(type)) {
+            // Decode the event directly from the message payload
+            CompleteTopologyEvent event = JsonCodec.fromJson(message.getReader(), CompleteTopologyEvent.class);
+            return processEvent(event, (Topology) object);
+        }
+        return super.process(type, message, object);
+    }
+
+    private boolean processEvent(CompleteTopologyEvent event, Topology topology) {
+        TopologyVersionTracker versionTracker = TopologyVersionTracker.getInstance();
+        if (!topology.isInitialized() || versionTracker.isCompleteTopologyRequested()) {
+            TopologyUpdater.acquireWriteLock();
+
+            try {
+                if (topology.isInitialized()) {
+                    // Complete topology was requested since the local topology is out of sync
+                    if (log.isInfoEnabled()) {
+                        log.info(String.format("Re-synchronizing topology: [topology-version] %d " +
+                                "[complete-topology-version] %d", topology.getVersion(),
+                                event.getTopology().getVersion()));
+                    }
+                    topology.clear();
+                }
+                doProcess(event, topology);
+                topology.setVersion(event.getTopology().getVersion());
+                versionTracker.completeTopologyReceived();
+            } finally {
+                TopologyUpdater.releaseWriteLock();
+            }
+        }
+
+        // Notify event listeners
+        notifyEventListeners(event);
+        return true;
+    }
+
     private void doProcess (CompleteTopologyEvent event, Topology topology) {
 
         // Apply service filter
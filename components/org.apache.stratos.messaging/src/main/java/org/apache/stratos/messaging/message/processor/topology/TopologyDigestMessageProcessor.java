@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.processor.topology;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.domain.topology.TopologyDigest;
+import org.apache.stratos.messaging.event.topology.TopologyDigestEvent;
+import org.apache.stratos.messaging.message.filter.topology.TopologyClusterFilter;
+import org.apache.stratos.messaging.message.filter.topology.TopologyMemberFilter;
+import org.apache.stratos.messaging.message.filter.topology.TopologyServiceFilter;
+import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the topology digest sent by cloud controller with the local topology and
+ * requests the complete topology if they do not match.
+ */
+public class TopologyDigestMessageProcessor extends MessageProcessor {
+
+    private static final Log log = LogFactory.getLog(TopologyDigestMessageProcessor.class);
+    private MessageProcessor nextProcessor;
+
+    @Override
+    public void setNext(MessageProcessor nextProcessor) {
+        this.nextProcessor = nextProcessor;
+    }
+
+    @Override
+    public boolean process(String type, String message, Object object) {
+        Topology topology = (Topology) object;
+
+        if (TopologyDigestEvent.class.getName().equals(type)) {
+            // Parse complete message and build event
+            TopologyDigestEvent event = (TopologyDigestEvent) MessagingUtil.jsonToObject(message,
+                    TopologyDigestEvent.class);
+
+            if (!topology.isInitialized()) {
+                TopologyVersionTracker.getInstance().requestCompleteTopology();
+            } else {
+                // Topology is only read, the version is updated by the version tracker
+                TopologyManager.acquireReadLock();
+                try {
+                    doProcess(event, topology);
+                } finally {
+                    TopologyManager.releaseReadLock();
+                }
+            }
+
+            // Notify event listeners
+            notifyEventListeners(event);
+            return true;
+        } else {
+            if (nextProcessor != null) {
+                // ask the next processor to take care of the message.
+                return nextProcessor.process(type, message, topology);
+            }
+            return false;
+        }
+    }
+
+    private void doProcess(TopologyDigestEvent event, Topology topology) {
+        TopologyVersionTracker versionTracker = TopologyVersionTracker.getInstance();
+        long version = topology.getVersion();
+        if (version >= event.getVersion()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology is in sync: [topology-version] %d [digest-version] %d",
+                        version, event.getVersion()));
+            }
+            versionTracker.checkMissingSequenceNumbers();
+            return;
+        }
+
+        if (TopologyMemberFilter.getInstance().isActive()) {
+            // Cluster digests cannot be compared since members of clusters have been filtered,
+            // events up to the digest version are expected within the reorder window
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology version is behind digest: [topology-version] %d " +
+                        "[digest-version] %d", version, event.getVersion()));
+            }
+            versionTracker.versionAnnounced(topology, event.getVersion());
+            return;
+        }
+
+        Map<String, String> localDigests = new HashMap<String, String>();
+        for (Service service : topology.getServices()) {
+            for (Cluster cluster : service.getClusters()) {
+                localDigests.put(cluster.getClusterId(), TopologyDigest.calculate(cluster));
+            }
+        }
+
+        boolean filtered = TopologyServiceFilter.getInstance().isActive() ||
+                TopologyClusterFilter.getInstance().isActive();
+        for (Map.Entry<String, String> entry : event.getClusterDigests().entrySet()) {
+            String localDigest = localDigests.remove(entry.getKey());
+            if ((localDigest == null) && filtered) {
+                // Cluster has been excluded by a topology filter
+                continue;
+            }
+            if (!entry.getValue().equals(localDigest)) {
+                // Events of the cluster may still be in flight
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Cluster digest does not match: [cluster-id] %s " +
+                            "[topology-version] %d [digest-version] %d", entry.getKey(), version,
+                            event.getVersion()));
+                }
+                versionTracker.versionAnnounced(topology, event.getVersion());
+                return;
+            }
+        }
+        if (!localDigests.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Clusters not found in topology digest: %s [topology-version] %d " +
+                        "[digest-version] %d", localDigests.keySet(), version, event.getVersion()));
+            }
+            versionTracker.versionAnnounced(topology, event.getVersion());
+            return;
+        }
+
+        // Clusters are in sync, only the topology version has changed
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Topology version updated: [topology-version] %d [digest-version] %d",
+                    version, event.getVersion()));
+        }
+        versionTracker.versionSynchronized(topology, event.getVersion());
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.stratos.messaging.message.processor.topology;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.event.topology.*;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.listener.topology.*;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
@@ -33,6 +34,7 @@ public class TopologyMessageProcessorChain extends MessageProcessorChain {
     private static final Log log = LogFactory.getLog(TopologyMessageProcessorChain.class);
 
     private CompleteTopologyMessageProcessor completeTopologyMessageProcessor;
+    private TopologyDigestMessageProcessor topologyDigestMessageProcessor;
     private ServiceCreatedMessageProcessor serviceCreatedMessageProcessor;
     private ServiceRemovedMessageProcessor serviceRemovedMessageProcessor;
     private ApplicationClustersCreatedMessageProcessor appClustersCreatedMessageProcessor;
@@ -57,67 +59,70 @@ public class TopologyMessageProcessorChain extends MessageProcessorChain {
     public void initialize() {
         // Add topology event processors
         completeTopologyMessageProcessor = new CompleteTopologyMessageProcessor();
-        add(completeTopologyMessageProcessor);
+        add(CompleteTopologyEvent.class, completeTopologyMessageProcessor);
+
+        topologyDigestMessageProcessor = new TopologyDigestMessageProcessor();
+        add(TopologyDigestEvent.class, topologyDigestMessageProcessor);
 
         serviceCreatedMessageProcessor = new ServiceCreatedMessageProcessor();
-        add(serviceCreatedMessageProcessor);
+        add(ServiceCreatedEvent.class, serviceCreatedMessageProcessor);
 
         serviceRemovedMessageProcessor = new ServiceRemovedMessageProcessor();
-        add(serviceRemovedMessageProcessor);
+        add(ServiceRemovedEvent.class, serviceRemovedMessageProcessor);
 
         appClustersCreatedMessageProcessor = new ApplicationClustersCreatedMessageProcessor();
-        add(appClustersCreatedMessageProcessor);
+        add(ApplicationClustersCreatedEvent.class, appClustersCreatedMessageProcessor);
 
         appClustersRemovedMessageProcessor = new ApplicationClustersRemovedMessageProcessor();
-        add(appClustersRemovedMessageProcessor);
+        add(ApplicationClustersRemovedEvent.class, appClustersRemovedMessageProcessor);
 
         clusterCreatedMessageProcessor = new ClusterCreatedMessageProcessor();
-        add(clusterCreatedMessageProcessor);
+        add(ClusterCreatedEvent.class, clusterCreatedMessageProcessor);
 
         clusterActivatedProcessor = new ClusterInstanceActivatedProcessor();
-        add(clusterActivatedProcessor);
+        add(ClusterInstanceActivatedEvent.class, clusterActivatedProcessor);
 
         clusterInactivateProcessor = new ClusterInstanceInactivateProcessor();
-        add(clusterInactivateProcessor);
+        add(ClusterInstanceInactivateEvent.class, clusterInactivateProcessor);
 
         clusterRemovedMessageProcessor = new ClusterRemovedMessageProcessor();
-        add(clusterRemovedMessageProcessor);
+        add(ClusterRemovedEvent.class, clusterRemovedMessageProcessor);
 
         clusterTerminatedProcessor = new ClusterInstanceTerminatedProcessor();
-        add(clusterTerminatedProcessor);
+        add(ClusterInstanceTerminatedEvent.class, clusterTerminatedProcessor);
 
         clusterInstanceCreatedMessageProcessor = new ClusterInstanceCreatedMessageProcessor();
-        add(clusterInstanceCreatedMessageProcessor);
+        add(ClusterInstanceCreatedEvent.class, clusterInstanceCreatedMessageProcessor);
 
         clusterResetMessageProcessor = new ClusterResetMessageProcessor();
-        add(clusterResetMessageProcessor);
+        add(ClusterResetEvent.class, clusterResetMessageProcessor);
 
         clusterTerminatingProcessor = new ClusterInstanceTerminatingProcessor();
-        add(clusterTerminatingProcessor);
+        add(ClusterInstanceTerminatingEvent.class, clusterTerminatingProcessor);
 
         memberCreatedMessageProcessor = new MemberCreatedMessageProcessor();
-        add(memberCreatedMessageProcessor);
+        add(MemberCreatedEvent.class, memberCreatedMessageProcessor);
 
         memberInitializedMessageProcessor = new MemberInitializedMessageProcessor();
-        add(memberInitializedMessageProcessor);
+        add(MemberInitializedEvent.class, memberInitializedMessageProcessor);
 
         memberStartedMessageProcessor = new MemberStartedMessageProcessor();
-        add(memberStartedMessageProcessor);
+        add(MemberStartedEvent.class, memberStartedMessageProcessor);
 
         memberActivatedMessageProcessor = new MemberActivatedMessageProcessor();
-        add(memberActivatedMessageProcessor);
+        add(MemberActivatedEvent.class, memberActivatedMessageProcessor);
 
         memberReadyToShutdownProcessor = new MemberReadyToShutdownMessageProcessor();
-        add(memberReadyToShutdownProcessor);
+        add(MemberReadyToShutdownEvent.class, memberReadyToShutdownProcessor);
 
         memberMaintenanceModeProcessor = new MemberMaintenanceModeProcessor();
-        add(memberMaintenanceModeProcessor);
+        add(MemberMaintenanceModeEvent.class, memberMaintenanceModeProcessor);
 
         memberSuspendedMessageProcessor = new MemberSuspendedMessageProcessor();
-        add(memberSuspendedMessageProcessor);
+        add(MemberSuspendedEvent.class, memberSuspendedMessageProcessor);
 
         memberTerminatedMessageProcessor = new MemberTerminatedMessageProcessor();
-        add(memberTerminatedMessageProcessor);
+        add(MemberTerminatedEvent.class, memberTerminatedMessageProcessor);
 
         if (log.isDebugEnabled()) {
             log.debug("Topology message processor chain initialized X1");
@@ -127,6 +132,8 @@ public class TopologyMessageProcessorChain extends MessageProcessorChain {
     public void addEventListener(EventListener eventListener) {
         if (eventListener instanceof CompleteTopologyEventListener) {
             completeTopologyMessageProcessor.addEventListener(eventListener);
+        } else if (eventListener instanceof TopologyDigestEventListener) {
+            topologyDigestMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof ClusterCreatedEventListener) {
             clusterCreatedMessageProcessor.addEventListener(eventListener);
         } else if (eventListener instanceof ApplicationClustersCreatedEventListener) {
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.messaging.message.processor.topology;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.broker.publish.EventPublisher;
+import org.apache.stratos.messaging.broker.publish.EventPublisherPool;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.initializer.CompleteTopologyRequestEvent;
+import org.apache.stratos.messaging.util.MessagingUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks the version of the local topology of a subscriber using the sequence numbers of
+ * topology events and requests the complete topology from cloud controller when an event
+ * has been missed or the topology digest does not match. Topology events are published to
+ * different topics, hence they may be received out of order. A sequence number is only
+ * considered missed if it has not been received within the reorder window.
+ */
+public class TopologyVersionTracker {
+
+    private static final Log log = LogFactory.getLog(TopologyVersionTracker.class);
+
+    public static final String COMPLETE_TOPOLOGY_REQUEST_INTERVAL = "stratos.topology.complete.request.interval";
+    private static final int DEFAULT_COMPLETE_TOPOLOGY_REQUEST_INTERVAL = 10000;
+    public static final String EVENT_REORDER_WINDOW = "stratos.topology.event.reorder.window";
+    private static final int DEFAULT_EVENT_REORDER_WINDOW = 5000;
+    private static final int MAX_MISSING_SEQUENCE_NUMBERS = 1000;
+    private static final String SEQUENCE_NUMBER_FIELD = "sequenceNumber";
+
+    private static volatile TopologyVersionTracker instance;
+
+    private final String requestorId;
+    private final long requestInterval;
+    private final long reorderWindow;
+    // Sequence numbers not yet received against the time they were found missing
+    private final TreeMap<Long, Long> missingSequenceNumbers;
+    private volatile boolean completeTopologyRequested;
+    private volatile long lastRequestTime;
+
+    private TopologyVersionTracker() {
+        requestorId = MessagingUtil.getRandomString(23);
+        requestInterval = MessagingUtil.getNumericSystemProperty(DEFAULT_COMPLETE_TOPOLOGY_REQUEST_INTERVAL,
+                COMPLETE_TOPOLOGY_REQUEST_INTERVAL);
+        reorderWindow = MessagingUtil.getNumericSystemProperty(DEFAULT_EVENT_REORDER_WINDOW,
+                EVENT_REORDER_WINDOW);
+        missingSequenceNumbers = new TreeMap<Long, Long>();
+    }
+
+    public static TopologyVersionTracker getInstance() {
+        if (instance == null) {
+            synchronized (TopologyVersionTracker.class) {
+                if (instance == null) {
+                    instance = new TopologyVersionTracker();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Topology version tracker instance created");
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Update the topology version with the sequence number of a topology change event
+     * and request the complete topology if one or more events have not been received within
+     * the reorder window.
+     * @param topology local topology
+     * @param sequenceNumber sequence number of the event
+     */
+    public synchronized void eventReceived(Topology topology, long sequenceNumber) {
+        if ((sequenceNumber <= 0) || !topology.isInitialized()) {
+            // Event was not sequenced by the publisher or topology has not been initialized yet
+            return;
+        }
+
+        long version = topology.getVersion();
+        if (sequenceNumber > version) {
+            missingSequenceNumbers.remove(sequenceNumber);
+            if (version > 0) {
+                expectSequenceNumbers(version + 1, sequenceNumber - 1);
+            }
+            topology.setVersion(sequenceNumber);
+        } else if ((missingSequenceNumbers.remove(sequenceNumber) != null) && log.isDebugEnabled()) {
+            log.debug(String.format("Reordered topology event received: [topology-version] %d " +
+                    "[sequence-number] %d", version, sequenceNumber));
+        }
+        checkMissingSequenceNumbers();
+    }
+
+    /**
+     * Expect the topology events up to the given version, e.g. announced by a topology digest, to be
+     * received within the reorder window.
+     * @param topology local topology
+     * @param version version announced by cloud controller
+     */
+    public synchronized void versionAnnounced(Topology topology, long version) {
+        if (topology.isInitialized() && (version > topology.getVersion())) {
+            expectSequenceNumbers(topology.getVersion() + 1, version);
+        }
+        checkMissingSequenceNumbers();
+    }
+
+    /**
+     * Update the topology version to a version verified against a topology digest. Sequence numbers
+     * up to that version are no longer expected.
+     * @param topology local topology
+     * @param version verified topology version
+     */
+    public synchronized void versionSynchronized(Topology topology, long version) {
+        if (version > topology.getVersion()) {
+            topology.setVersion(version);
+        }
+        missingSequenceNumbers.headMap(version, true).clear();
+        checkMissingSequenceNumbers();
+    }
+
+    /**
+     * Request the complete topology if sequence numbers have not been received within the reorder
+     * window.
+     */
+    public synchronized void checkMissingSequenceNumbers() {
+        if (missingSequenceNumbers.isEmpty()) {
+            return;
+        }
+        // Sequence numbers are found missing in order, hence the first one is the oldest
+        Map.Entry<Long, Long> oldest = missingSequenceNumbers.firstEntry();
+        if ((missingSequenceNumbers.size() <= MAX_MISSING_SEQUENCE_NUMBERS) &&
+                (System.currentTimeMillis() - oldest.getValue() < reorderWindow)) {
+            return;
+        }
+        if (log.isWarnEnabled()) {
+            log.warn(String.format("Topology events have been missed: [first-sequence-number] %d " +
+                    "[missing-event-count] %d", oldest.getKey(), missingSequenceNumbers.size()));
+        }
+        missingSequenceNumbers.clear();
+        requestCompleteTopology();
+    }
+
+    private void expectSequenceNumbers(long from, long to) {
+        if (to - from >= MAX_MISSING_SEQUENCE_NUMBERS) {
+            if (log.isWarnEnabled()) {
+                log.warn(String.format("Topology events have been missed: [first-sequence-number] %d " +
+                        "[missing-event-count] %d", from, (to - from + 1)));
+            }
+            missingSequenceNumbers.clear();
+            requestCompleteTopology();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (long sequenceNumber = from; sequenceNumber <= to; sequenceNumber++) {
+            if (!missingSequenceNumbers.containsKey(sequenceNumber)) {
+                missingSequenceNumbers.put(sequenceNumber, now);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of sequence numbers not yet received within the reorder window.
+     */
+    public synchronized int getMissingSequenceNumberCount() {
+        return missingSequenceNumbers.size();
+    }
+
+    /**
+     * Request the complete topology from cloud controller. Requests are sent at most once within
+     * the configured request interval to avoid flooding cloud controller.
+     */
+    public void requestCompleteTopology() {
+        completeTopologyRequested = true;
+
+        long now = System.currentTimeMillis();
+        if (now - lastRequestTime < requestInterval) {
+            if (log.isDebugEnabled()) {
+                log.debug("Complete topology has already been requested");
+            }
+            return;
+        }
+        lastRequestTime = now;
+
+        try {
+            CompleteTopologyRequestEvent event = new CompleteTopologyRequestEvent(requestorId);
+            String topic = MessagingUtil.getMessageTopicName(event);
+            EventPublisher eventPublisher = EventPublisherPool.getPublisher(topic);
+            eventPublisher.publish(event, false);
+            if (log.isInfoEnabled()) {
+                log.info(String.format("Complete topology requested: [requestor-id] %s", requestorId));
+            }
+        } catch (Exception e) {
+            log.error("Could not request complete topology", e);
+        }
+    }
+
+    public boolean isCompleteTopologyRequested() {
+        return completeTopologyRequested;
+    }
+
+    /**
+     * Mark the requested complete topology as received.
+     */
+    public synchronized void completeTopologyReceived() {
+        completeTopologyRequested = false;
+        missingSequenceNumbers.clear();
+    }
+
+    /**
+     * Read the sequence number of a topology event from its JSON message. The message is streamed
+     * and other fields are skipped, hence the event is not built.
+     * @param json topology event message
+     * @return sequence number or 0 if not found
+     */
+    public static long readSequenceNumber(String json) {
+        if (json == null) {
+            return 0;
+        }
+        JsonReader reader = new JsonReader(new StringReader(json));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return 0;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (SEQUENCE_NUMBER_FIELD.equals(reader.nextName()) && (reader.peek() == JsonToken.NUMBER)) {
+                    return reader.nextLong();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException e) {
+            log.warn("Could not read sequence number of topology event", e);
+        } catch (RuntimeException e) {
+            log.warn("Could not read sequence number of topology event", e);
+        }
+        return 0;
+    }
+}
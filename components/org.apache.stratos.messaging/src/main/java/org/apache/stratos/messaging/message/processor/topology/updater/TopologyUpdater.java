@@ -77,6 +77,7 @@ public class TopologyUpdater {
      * Releases write lock for the Complete Topology
      */
     public static void releaseWriteLock() {
+        TopologyManager.updateTopologySnapshot();
         if(log.isDebugEnabled()) {
             log.debug("Write lock released for Topology");
         }
@@ -98,6 +99,7 @@ public class TopologyUpdater {
      * Releases write lock for the all Services
      */
     public static void releaseWriteLockForServices() {
+        TopologyManager.updateTopologySnapshot();
         if(log.isDebugEnabled()) {
             log.debug("Write lock released for Services");
         }
@@ -133,6 +135,8 @@ public class TopologyUpdater {
      */
     public static void releaseWriteLockForService (String serviceName) {
 
+        TopologyManager.updateTopologySnapshotForService(serviceName);
+
         TopologyLock topologyServiceLock = topologyLockHierarchy.getTopologyLockForService(serviceName);
         if (topologyServiceLock == null) {
             handleLockNotFound("Topology lock not found for Service " + serviceName);
@@ -183,6 +187,8 @@ public class TopologyUpdater {
      */
     public static void releaseWriteLockForCluster (String serviceName, String clusterId) {
 
+        TopologyManager.updateTopologySnapshotForCluster(serviceName, clusterId);
+
         TopologyLock topologyClusterLock = topologyLockHierarchy.getTopologyLockForCluster(clusterId);
         if (topologyClusterLock == null) {
             handleLockNotFound("Topology lock not found for Cluster " + clusterId);
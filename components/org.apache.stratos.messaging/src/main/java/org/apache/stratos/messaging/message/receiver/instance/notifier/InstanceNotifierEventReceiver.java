@@ -23,6 +23,7 @@ package org.apache.stratos.messaging.message.receiver.instance.notifier;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.broker.subscribe.EventSubscriber;
+import org.apache.stratos.messaging.broker.subscribe.SubscriptionFilter;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.util.MessagingUtil;
 
@@ -34,6 +35,7 @@ public class InstanceNotifierEventReceiver {
 	private final InstanceNotifierEventMessageDelegator messageDelegator;
 	private final InstanceNotifierEventMessageListener messageListener;
 	private EventSubscriber eventSubscriber;
+	private SubscriptionFilter subscriptionFilter;
 	private boolean terminated;
 
 	public InstanceNotifierEventReceiver() {
@@ -46,11 +48,21 @@ public class InstanceNotifierEventReceiver {
 		messageDelegator.addEventListener(eventListener);
 	}
 
+	/**
+	 * Set a filter to skip instance notifier events of other clusters or members before they
+	 * are queued, should be set before executing the receiver.
+	 * @param subscriptionFilter subscription filter
+	 */
+	public void setSubscriptionFilter(SubscriptionFilter subscriptionFilter) {
+		this.subscriptionFilter = subscriptionFilter;
+	}
+
 
 	public void execute() {
 		try {
 			// Start topic subscriber thread
-			eventSubscriber = new EventSubscriber(MessagingUtil.Topics.INSTANCE_NOTIFIER_TOPIC.getTopicName(), messageListener);
+			eventSubscriber = new EventSubscriber(MessagingUtil.Topics.INSTANCE_NOTIFIER_TOPIC.getTopicName(),
+					messageListener, subscriptionFilter);
 //			subscriber.setMessageListener(messageListener);
 			Thread subscriberThread = new Thread(eventSubscriber);
 
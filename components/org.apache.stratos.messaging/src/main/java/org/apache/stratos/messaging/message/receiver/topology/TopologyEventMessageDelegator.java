@@ -21,9 +21,13 @@ package org.apache.stratos.messaging.message.receiver.topology;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.domain.Message;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+import org.apache.stratos.messaging.event.topology.TopologyDigestEvent;
 import org.apache.stratos.messaging.listener.EventListener;
 import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
 import org.apache.stratos.messaging.message.processor.topology.TopologyMessageProcessorChain;
+import org.apache.stratos.messaging.message.processor.topology.TopologyVersionTracker;
 
 
 /**
@@ -34,13 +38,18 @@ class TopologyEventMessageDelegator implements Runnable {
 
     private static final Log log = LogFactory.getLog(TopologyEventMessageDelegator.class);
 
+    private static final String COMPLETE_TOPOLOGY_EVENT = CompleteTopologyEvent.class.getName();
+    private static final String TOPOLOGY_DIGEST_EVENT = TopologyDigestEvent.class.getName();
+
     private MessageProcessorChain processorChain;
+    private TopologyVersionTracker versionTracker;
     private TopologyEventMessageQueue messageQueue;
     private boolean terminated;
 
     public TopologyEventMessageDelegator(TopologyEventMessageQueue messageQueue) {
         this.messageQueue = messageQueue;
         this.processorChain = new TopologyMessageProcessorChain();
+        this.versionTracker = TopologyVersionTracker.getInstance();
     }
 
     public void addEventListener(EventListener eventListener) {
@@ -59,9 +68,6 @@ class TopologyEventMessageDelegator implements Runnable {
                     Message message = messageQueue.take();
                     String type = message.getEventClassName();
 
-                    // Retrieve the actual message
-                    String json = message.getText();
-
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Topology event message [%s] received from queue: %s", type,
                                 messageQueue.getClass()));
@@ -70,7 +76,15 @@ class TopologyEventMessageDelegator implements Runnable {
                     if (log.isDebugEnabled()) {
                         log.debug(String.format("Delegating topology event message: %s", type));
                     }
-                    processorChain.process(type, json, TopologyManager.getTopology());
+                    Topology topology = TopologyManager.getTopology();
+                    // Message processors decode the event from the message payload
+                    processorChain.process(type, message, topology);
+
+                    if (!COMPLETE_TOPOLOGY_EVENT.equals(type) && !TOPOLOGY_DIGEST_EVENT.equals(type)) {
+                        // Detect missed topology events using the sequence number of the event
+                        versionTracker.eventReceived(topology,
+                                TopologyVersionTracker.readSequenceNumber(message.getText()));
+                    }
                 } catch (InterruptedException ignore) {
                     log.info("Shutting down topology event message delegator...");
                     terminate();
@@ -21,9 +21,14 @@ package org.apache.stratos.messaging.message.receiver.topology;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Service;
 import org.apache.stratos.messaging.domain.topology.Topology;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLock;
 import org.apache.stratos.messaging.domain.topology.locking.TopologyLockHierarchy;
+import org.apache.stratos.messaging.util.JsonCodec;
+
+import java.util.ConcurrentModificationException;
 
 /**
  *  A singleton class for managing the topology data structure.
@@ -57,11 +62,23 @@ import org.apache.stratos.messaging.domain.topology.locking.TopologyLockHierarch
  *
  *          releasing:
  *          public static void releaseReadLockForService (String serviceName)
+ *
+ *  Lock free reads:
+ *
+ *  Consumers which read the topology without locks enable snapshots using setSnapshotEnabled().
+ *  Once enabled, a read only snapshot of the topology is published whenever a topology write lock
+ *  is released. Only the parts of the topology covered by the released lock are copied, the rest
+ *  is shared with the previous snapshot. getTopologySnapshot() returns the latest snapshot, which
+ *  gives a consistent view of the topology without acquiring any lock. Snapshots must not be
+ *  modified. Snapshots are disabled by default, hence other consumers do not copy the topology.
  */
 public class TopologyManager {
     private static final Log log = LogFactory.getLog(TopologyManager.class);
 
     private static volatile Topology topology;
+    private static volatile Topology topologySnapshot = new Topology();
+    private static volatile boolean snapshotEnabled;
+    private static final Object snapshotLock = new Object();
     private static volatile TopologyLockHierarchy topologyLockHierarchy =
             TopologyLockHierarchy.getInstance();
 
@@ -208,6 +225,148 @@ public class TopologyManager {
         //throw new RuntimeException(errorMsg);
     }
 
+    /**
+     * Enable or disable topology snapshots. A snapshot of the complete topology is published when
+     * snapshots are enabled.
+     * @param enabled true to publish topology snapshots on write lock release
+     */
+    public static void setSnapshotEnabled(boolean enabled) {
+        synchronized (snapshotLock) {
+            snapshotEnabled = enabled;
+            if (enabled) {
+                updateTopologySnapshot();
+            } else {
+                topologySnapshot = new Topology();
+            }
+        }
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Topology snapshots %s", (enabled ? "enabled" : "disabled")));
+        }
+    }
+
+    public static boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    /**
+     * Returns the latest read only topology snapshot. No lock is required for reading the snapshot.
+     * An empty topology is returned if snapshots are not enabled.
+     */
+    public static Topology getTopologySnapshot() {
+        return topologySnapshot;
+    }
+
+    /**
+     * Publish a new snapshot of the complete topology if snapshots are enabled. Should be invoked
+     * holding the complete topology or services write lock.
+     */
+    public static void updateTopologySnapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            Topology currentTopology = getTopology();
+            Topology snapshot = copy(currentTopology, Topology.class);
+            if (snapshot != null) {
+                topologySnapshot = snapshot;
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Topology snapshot updated: [version] %d", snapshot.getVersion()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish a new topology snapshot with the given service copied from the topology. Should be
+     * invoked holding the write lock of the service.
+     * @param serviceName service name
+     */
+    public static void updateTopologySnapshotForService(String serviceName) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            Topology currentTopology = getTopology();
+            Service service = currentTopology.getService(serviceName);
+            Service serviceCopy = null;
+            if (service != null) {
+                serviceCopy = copy(service, Service.class);
+                if (serviceCopy == null) {
+                    return;
+                }
+            }
+            Topology snapshot = topologySnapshot.withService(serviceName, serviceCopy);
+            snapshot.setInitialized(currentTopology.isInitialized());
+            snapshot.setVersion(currentTopology.getVersion());
+            topologySnapshot = snapshot;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology snapshot updated: [version] %d [service] %s",
+                        snapshot.getVersion(), serviceName));
+            }
+        }
+    }
+
+    /**
+     * Publish a new topology snapshot with the given cluster copied from the topology. Should be
+     * invoked holding the write lock of the cluster.
+     * @param serviceName service name
+     * @param clusterId cluster id
+     */
+    public static void updateTopologySnapshotForCluster(String serviceName, String clusterId) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            Topology currentTopology = getTopology();
+            Service service = currentTopology.getService(serviceName);
+            Service snapshotService = topologySnapshot.getService(serviceName);
+            if ((service == null) || (snapshotService == null)) {
+                // Service has been added or removed, copy the complete service
+                updateTopologySnapshotForService(serviceName);
+                return;
+            }
+            Cluster cluster = service.getCluster(clusterId);
+            Cluster clusterCopy = null;
+            if (cluster != null) {
+                clusterCopy = copy(cluster, Cluster.class);
+                if (clusterCopy == null) {
+                    return;
+                }
+            }
+            Topology snapshot = topologySnapshot.withService(serviceName,
+                    snapshotService.withCluster(clusterId, clusterCopy));
+            snapshot.setInitialized(currentTopology.isInitialized());
+            snapshot.setVersion(currentTopology.getVersion());
+            topologySnapshot = snapshot;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Topology snapshot updated: [version] %d [service] %s [cluster] %s",
+                        snapshot.getVersion(), serviceName, clusterId));
+            }
+        }
+    }
+
+    /**
+     * Deep copy a topology object. Topology objects may be modified by writers which do not hold
+     * the corresponding lock, the copy is retried if a concurrent modification is detected. Returns
+     * null if the object could not be copied, this is invoked while releasing topology locks and
+     * hence should never throw.
+     */
+    private static <T> T copy(T object, Class<T> type) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return JsonCodec.copy(object, type);
+            } catch (ConcurrentModificationException e) {
+                if (attempt >= 3) {
+                    log.warn("Could not update topology snapshot, topology was modified concurrently", e);
+                    return null;
+                }
+            } catch (RuntimeException e) {
+                log.error("Could not update topology snapshot", e);
+                return null;
+            }
+        }
+    }
+
     public static Topology getTopology() {
         if (topology == null) {
             synchronized (TopologyManager.class){
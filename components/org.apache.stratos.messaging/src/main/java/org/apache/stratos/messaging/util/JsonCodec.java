@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.messaging.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.apache.stratos.messaging.domain.application.Application;
+import org.apache.stratos.messaging.domain.application.Applications;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.event.application.CompleteApplicationsEvent;
+import org.apache.stratos.messaging.event.topology.CompleteTopologyEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared JSON codec for messaging events and domain objects. A single Gson instance is used
+ * and type adapters are cached in a concurrent map, type adapters of the messaging domain
+ * classes are built up front. Readers and writers are streamed, hence large messages can be
+ * decoded directly from the message payload without building an intermediate string.
+ */
+public class JsonCodec {
+
+    private static final Gson gson = new Gson();
+    private static final ConcurrentMap<Class<?>, TypeAdapter<?>> typeAdapters =
+            new ConcurrentHashMap<Class<?>, TypeAdapter<?>>();
+
+    static {
+        Class<?>[] types = new Class<?>[]{Topology.class, Service.class, Cluster.class, Member.class,
+                Applications.class, Application.class, CompleteTopologyEvent.class,
+                CompleteApplicationsEvent.class};
+        for (Class<?> type : types) {
+            typeAdapters.put(type, gson.getAdapter(type));
+        }
+    }
+
+    private JsonCodec() {
+    }
+
+    /**
+     * Returns the shared Gson instance, Gson instances are thread safe.
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> TypeAdapter<T> getTypeAdapter(Class<T> type) {
+        TypeAdapter<T> typeAdapter = (TypeAdapter<T>) typeAdapters.get(type);
+        if (typeAdapter == null) {
+            typeAdapter = gson.getAdapter(type);
+            TypeAdapter<T> existing = (TypeAdapter<T>) typeAdapters.putIfAbsent(type, typeAdapter);
+            if (existing != null) {
+                typeAdapter = existing;
+            }
+        }
+        return typeAdapter;
+    }
+
+    /**
+     * Serialize an object to a JSON string.
+     */
+    public static String toJson(Object object) {
+        StringWriter writer = new StringWriter();
+        toJson(object, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Serialize an object to the given writer.
+     */
+    @SuppressWarnings("unchecked")
+    public static void toJson(Object object, Writer writer) {
+        try {
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.setLenient(true);
+            jsonWriter.setHtmlSafe(true);
+            jsonWriter.setSerializeNulls(false);
+            if (object == null) {
+                jsonWriter.nullValue();
+            } else {
+                TypeAdapter<Object> typeAdapter = (TypeAdapter<Object>) getTypeAdapter(object.getClass());
+                typeAdapter.write(jsonWriter, object);
+            }
+            jsonWriter.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    /**
+     * Deserialize a JSON string to an object of the given type.
+     */
+    public static <T> T fromJson(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        return fromJson(new StringReader(json), type);
+    }
+
+    /**
+     * Deserialize a JSON payload to an object of the given type without decoding it to a string.
+     */
+    public static <T> T fromJson(byte[] payload, Class<T> type) {
+        if (payload == null) {
+            return null;
+        }
+        return fromJson(new InputStreamReader(new ByteArrayInputStream(payload), Charset.defaultCharset()), type);
+    }
+
+    /**
+     * Deserialize JSON read from the given reader to an object of the given type. Returns null
+     * if the reader is empty.
+     */
+    public static <T> T fromJson(Reader reader, Class<T> type) {
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        try {
+            jsonReader.peek();
+        } catch (EOFException e) {
+            return null;
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+        try {
+            T object = getTypeAdapter(type).read(jsonReader);
+            if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed");
+            }
+            return object;
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Deep copy an object using its type adapter, the object is copied through a JSON tree
+     * instead of a JSON string.
+     */
+    public static <T> T copy(T object, Class<T> type) {
+        TypeAdapter<T> typeAdapter = getTypeAdapter(type);
+        return typeAdapter.fromJsonTree(typeAdapter.toJsonTree(object));
+    }
+}
@@ -18,11 +18,9 @@
  */
 package org.apache.stratos.messaging.util;
 
-import com.google.gson.Gson;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.messaging.event.Event;
-import org.apache.stratos.messaging.message.JsonMessage;
 import org.apache.commons.lang.math.NumberUtils;
 
 import java.io.File;
@@ -70,7 +68,8 @@ public class MessagingUtil {
 		APPLICATION_SIGNUP_TOPIC("application/signup/#"),
 		CLUSTER_STATUS_TOPIC("cluster/status/#"),
 		TENANT_TOPIC("tenant/#"),
-		DOMAIN_MAPPING_TOPIC("domain/mapping/#");
+		DOMAIN_MAPPING_TOPIC("domain/mapping/#"),
+		INITIALIZER_TOPIC("initializer/#");
 
 		private String topicName;
 
@@ -161,7 +160,7 @@ public class MessagingUtil {
 	 * @return Object of the json String
 	 */
 	public static Object jsonToObject(String json, Class type) {
-		return (new JsonMessage(json, type)).getObject();
+		return JsonCodec.fromJson(json, type);
 	}
 
 	/**
@@ -171,9 +170,7 @@ public class MessagingUtil {
 	 * @return JSON string
 	 */
 	public static String ObjectToJson(Object obj) {
-		Gson gson = new Gson();
-		String result = gson.toJson(obj);
-		return result;
+		return JsonCodec.toJson(obj);
 	}
 
 	/**
@@ -0,0 +1,147 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.event.topology.MemberActivatedEvent;
+import org.apache.stratos.messaging.event.topology.MemberTerminatedEvent;
+import org.apache.stratos.messaging.listener.EventListener;
+import org.apache.stratos.messaging.message.processor.MessageProcessingStatistics;
+import org.apache.stratos.messaging.message.processor.MessageProcessor;
+import org.apache.stratos.messaging.message.processor.MessageProcessorChain;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Message processor chain dispatch tests.
+ */
+@RunWith(JUnit4.class)
+public class MessageProcessorChainTest {
+
+    @Test
+    public final void testMessageIsDispatchedToProcessorOfEventType() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+
+        Assert.assertTrue(chain.process(MemberTerminatedEvent.class.getName(), "{}", null));
+        Assert.assertEquals(0, chain.memberActivatedProcessor.invocationCount);
+        Assert.assertEquals(1, chain.memberTerminatedProcessor.invocationCount);
+
+        MessageProcessingStatistics statistics = chain.getStatistics(MemberTerminatedEvent.class.getName());
+        Assert.assertNotNull(statistics);
+        Assert.assertEquals(1, statistics.getProcessedCount());
+        Assert.assertEquals(0, statistics.getNotProcessedCount());
+        Assert.assertEquals(0, statistics.getFailedCount());
+        Assert.assertTrue(statistics.getLatencyPercentileMicros(99) >= 0);
+    }
+
+    @Test
+    public final void testNotProcessedMessageIsCounted() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+        chain.memberActivatedProcessor.result = false;
+
+        Assert.assertFalse(chain.process(MemberActivatedEvent.class.getName(), "{}", null));
+        MessageProcessingStatistics statistics = chain.getStatistics(MemberActivatedEvent.class.getName());
+        Assert.assertEquals(0, statistics.getProcessedCount());
+        Assert.assertEquals(1, statistics.getNotProcessedCount());
+        Assert.assertEquals(0, statistics.getFailedCount());
+        Assert.assertEquals(0, chain.getUnhandledMessageCount());
+    }
+
+    @Test
+    public final void testFailedProcessingIsCounted() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+        chain.memberActivatedProcessor.failure = new IllegalStateException("Processing failed");
+
+        try {
+            chain.process(MemberActivatedEvent.class.getName(), "{}", null);
+            Assert.fail("Processing failure was not propagated");
+        } catch (IllegalStateException expected) {
+        }
+        MessageProcessingStatistics statistics = chain.getStatistics(MemberActivatedEvent.class.getName());
+        Assert.assertEquals(0, statistics.getProcessedCount());
+        Assert.assertEquals(0, statistics.getNotProcessedCount());
+        Assert.assertEquals(1, statistics.getFailedCount());
+    }
+
+    @Test
+    public final void testUnhandledEventTypeIsCounted() {
+        TestMessageProcessorChain chain = new TestMessageProcessorChain();
+
+        Assert.assertFalse(chain.process("org.apache.stratos.messaging.event.UnknownEvent", "{}", null));
+        Assert.assertFalse(chain.process(null, "{}", null));
+        Assert.assertEquals(2, chain.getUnhandledMessageCount());
+        Assert.assertEquals(0, chain.memberActivatedProcessor.invocationCount);
+        Assert.assertEquals(0, chain.memberTerminatedProcessor.invocationCount);
+    }
+
+    private static class TestMessageProcessorChain extends MessageProcessorChain {
+
+        private TestMessageProcessor memberActivatedProcessor;
+        private TestMessageProcessor memberTerminatedProcessor;
+
+        @Override
+        protected void initialize() {
+            memberActivatedProcessor = new TestMessageProcessor(MemberActivatedEvent.class.getName());
+            add(MemberActivatedEvent.class, memberActivatedProcessor);
+
+            memberTerminatedProcessor = new TestMessageProcessor(MemberTerminatedEvent.class.getName());
+            add(MemberTerminatedEvent.class, memberTerminatedProcessor);
+        }
+
+        @Override
+        public void addEventListener(EventListener eventListener) {
+        }
+    }
+
+    private static class TestMessageProcessor extends MessageProcessor {
+
+        private final String eventType;
+        private MessageProcessor nextProcessor;
+        private int invocationCount;
+        private boolean result = true;
+        private RuntimeException failure;
+
+        private TestMessageProcessor(String eventType) {
+            this.eventType = eventType;
+        }
+
+        @Override
+        public void setNext(MessageProcessor nextProcessor) {
+            this.nextProcessor = nextProcessor;
+        }
+
+        @Override
+        public boolean process(String type, String message, Object object) {
+            if (eventType.equals(type)) {
+                invocationCount++;
+                if (failure != null) {
+                    throw failure;
+                }
+                return result;
+            }
+            if (nextProcessor != null) {
+                return nextProcessor.process(type, message, object);
+            }
+            throw new RuntimeException(String.format("Failed to process message using available message processors: " +
+                    "[type] %s", type));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.broker.subscribe.PropertySubscriptionFilter;
+import org.apache.stratos.messaging.domain.Message;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Subscription filter tests.
+ */
+@RunWith(JUnit4.class)
+public class SubscriptionFilterTest {
+
+    private static final String TOPIC_NAME = "instance/notifier/InstanceCleanupMemberEvent";
+
+    @Test
+    public final void testMessageWithMatchingPropertyIsAccepted() {
+        PropertySubscriptionFilter filter = new PropertySubscriptionFilter("memberId", "member-1");
+        Assert.assertTrue(filter.accept(new Message(TOPIC_NAME, "{\"memberId\":\"member-1\"}")));
+        Assert.assertTrue(filter.accept(new Message(TOPIC_NAME, "{\"memberId\":\"member-1\"}".getBytes())));
+    }
+
+    @Test
+    public final void testMessageWithOtherPropertyValueIsRejected() {
+        PropertySubscriptionFilter filter = new PropertySubscriptionFilter("memberId", "member-1");
+        Assert.assertFalse(filter.accept(new Message(TOPIC_NAME,
+                "{\"properties\":{\"memberId\":\"member-1\"},\"memberId\":\"member-2\"}")));
+        Assert.assertFalse(filter.accept(new Message(TOPIC_NAME, "{\"memberId\":\"member-2\"}".getBytes())));
+    }
+
+    @Test
+    public final void testMessageWithoutPropertyIsAccepted() {
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("clusterId", "cluster-1");
+        properties.put("memberId", "member-1");
+        PropertySubscriptionFilter filter = new PropertySubscriptionFilter(properties);
+        Assert.assertTrue(filter.accept(new Message(TOPIC_NAME, "{\"clusterId\":\"cluster-1\"}")));
+        Assert.assertFalse(filter.accept(new Message(TOPIC_NAME, "{\"clusterId\":\"cluster-2\"}")));
+        Assert.assertTrue(filter.accept(new Message(TOPIC_NAME, "{}")));
+    }
+}
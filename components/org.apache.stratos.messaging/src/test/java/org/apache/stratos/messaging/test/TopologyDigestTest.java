@@ -0,0 +1,132 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import com.google.gson.Gson;
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.MemberStatus;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.domain.topology.TopologyDigest;
+import org.apache.stratos.messaging.event.topology.ServiceRemovedEvent;
+import org.apache.stratos.messaging.message.processor.topology.TopologyVersionTracker;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Topology digest and topology event sequence number tests.
+ */
+@RunWith(JUnit4.class)
+public class TopologyDigestTest {
+
+    @Test
+    public final void testClusterDigestIndependentOfMemberOrder() {
+        Cluster cluster1 = new Cluster("service1", "cluster1", "deployment-policy1", "autoscale-policy1", "app1");
+        cluster1.addMember(createMember("member1"));
+        cluster1.addMember(createMember("member2"));
+
+        Cluster cluster2 = new Cluster("service1", "cluster1", "deployment-policy1", "autoscale-policy1", "app1");
+        cluster2.addMember(createMember("member2"));
+        cluster2.addMember(createMember("member1"));
+
+        Assert.assertEquals("Cluster digests do not match", TopologyDigest.calculate(cluster1),
+                TopologyDigest.calculate(cluster2));
+    }
+
+    @Test
+    public final void testClusterDigestChangesWithMemberStatus() {
+        Cluster cluster = new Cluster("service1", "cluster1", "deployment-policy1", "autoscale-policy1", "app1");
+        Member member = createMember("member1");
+        cluster.addMember(member);
+        String digest = TopologyDigest.calculate(cluster);
+
+        member.setStatus(MemberStatus.Initialized);
+        Assert.assertFalse("Cluster digest did not change with member status",
+                digest.equals(TopologyDigest.calculate(cluster)));
+
+        cluster.removeMember(member);
+        Assert.assertFalse("Cluster digest did not change with member removal",
+                digest.equals(TopologyDigest.calculate(cluster)));
+    }
+
+    @Test
+    public final void testReadSequenceNumber() {
+        ServiceRemovedEvent event = new ServiceRemovedEvent("service1");
+        event.setSequenceNumber(1234567890123L);
+        String json = new Gson().toJson(event);
+        Assert.assertEquals("Could not read sequence number", 1234567890123L,
+                TopologyVersionTracker.readSequenceNumber(json));
+        Assert.assertEquals("Sequence number found in message without sequence number", 0L,
+                TopologyVersionTracker.readSequenceNumber("{\"serviceName\":\"service1\"}"));
+    }
+
+    @Test
+    public final void testReadSequenceNumberIgnoresNestedFields() {
+        String json = "{\"serviceName\":\"service1\",\"properties\":{\"sequenceNumber\":5}," +
+                "\"sequenceNumber\":7}";
+        Assert.assertEquals("Nested sequence number was read", 7L, TopologyVersionTracker.readSequenceNumber(json));
+        Assert.assertEquals("Sequence number found in invalid message", 0L,
+                TopologyVersionTracker.readSequenceNumber("[\"sequenceNumber\",5]"));
+    }
+
+    @Test
+    public final void testReorderedEventsTolerated() {
+        TopologyVersionTracker versionTracker = TopologyVersionTracker.getInstance();
+        Topology topology = new Topology();
+        topology.setInitialized(true);
+        topology.setVersion(10);
+
+        versionTracker.eventReceived(topology, 13);
+        Assert.assertEquals("Topology version was not updated", 13L, topology.getVersion());
+        Assert.assertEquals("Missing sequence numbers were not tracked", 2,
+                versionTracker.getMissingSequenceNumberCount());
+
+        versionTracker.eventReceived(topology, 12);
+        versionTracker.eventReceived(topology, 11);
+        Assert.assertEquals("Topology version was changed by reordered events", 13L, topology.getVersion());
+        Assert.assertEquals("Reordered events were not received", 0, versionTracker.getMissingSequenceNumberCount());
+        Assert.assertFalse("Complete topology requested for reordered events",
+                versionTracker.isCompleteTopologyRequested());
+    }
+
+    @Test
+    public final void testVersionSynchronizedByDigest() {
+        TopologyVersionTracker versionTracker = TopologyVersionTracker.getInstance();
+        Topology topology = new Topology();
+        topology.setInitialized(true);
+        topology.setVersion(20);
+
+        versionTracker.versionAnnounced(topology, 23);
+        Assert.assertEquals("Announced sequence numbers were not expected", 3,
+                versionTracker.getMissingSequenceNumberCount());
+        Assert.assertEquals("Topology version was changed by announcement", 20L, topology.getVersion());
+
+        versionTracker.versionSynchronized(topology, 23);
+        Assert.assertEquals("Topology version was not synchronized", 23L, topology.getVersion());
+        Assert.assertEquals(0, versionTracker.getMissingSequenceNumberCount());
+    }
+
+    private Member createMember(String memberId) {
+        return new Member("service1", "cluster1", memberId, "cluster-instance1", "network-partition1",
+                "partition1", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+
+ *  http://www.apache.org/licenses/LICENSE-2.0
+
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.stratos.messaging.test;
+
+import org.apache.stratos.messaging.domain.topology.Cluster;
+import org.apache.stratos.messaging.domain.topology.Member;
+import org.apache.stratos.messaging.domain.topology.Service;
+import org.apache.stratos.messaging.domain.topology.ServiceType;
+import org.apache.stratos.messaging.domain.topology.Topology;
+import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Copy-on-write topology snapshot tests.
+ */
+@RunWith(JUnit4.class)
+public class TopologySnapshotTest {
+
+    @Before
+    public void setUp() {
+        TopologyManager.setSnapshotEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        TopologyManager.getTopology().clear();
+        TopologyManager.setSnapshotEnabled(false);
+    }
+
+    @Test
+    public final void testWithClusterSharesUnchangedClusters() {
+        Service service = new Service("service1", ServiceType.SingleTenant);
+        Cluster cluster1 = createCluster("cluster1");
+        Cluster cluster2 = createCluster("cluster2");
+        service.addCluster(cluster1);
+        service.addCluster(cluster2);
+
+        Cluster updatedCluster = createCluster("cluster2");
+        updatedCluster.addMember(createMember("cluster2", "member1"));
+        Service updatedService = service.withCluster("cluster2", updatedCluster);
+
+        Assert.assertNotSame("Service was not copied", service, updatedService);
+        Assert.assertSame("Unchanged cluster was not shared", cluster1, updatedService.getCluster("cluster1"));
+        Assert.assertSame("Cluster was not replaced", updatedCluster, updatedService.getCluster("cluster2"));
+        Assert.assertSame("Original service was modified", cluster2, service.getCluster("cluster2"));
+
+        Service removedService = service.withCluster("cluster1", null);
+        Assert.assertFalse("Cluster was not removed", removedService.clusterExists("cluster1"));
+        Assert.assertTrue("Original service was modified", service.clusterExists("cluster1"));
+    }
+
+    @Test
+    public final void testWithServiceSharesUnchangedServices() {
+        Topology topology = new Topology();
+        Service service1 = new Service("service1", ServiceType.SingleTenant);
+        Service service2 = new Service("service2", ServiceType.SingleTenant);
+        topology.addService(service1);
+        topology.addService(service2);
+
+        Service updatedService = new Service("service2", ServiceType.MultiTenant);
+        Topology updatedTopology = topology.withService("service2", updatedService);
+
+        Assert.assertNotSame("Topology was not copied", topology, updatedTopology);
+        Assert.assertSame("Unchanged service was not shared", service1, updatedTopology.getService("service1"));
+        Assert.assertSame("Service was not replaced", updatedService, updatedTopology.getService("service2"));
+        Assert.assertSame("Original topology was modified", service2, topology.getService("service2"));
+
+        Topology removedTopology = topology.withService("service1", null);
+        Assert.assertFalse("Service was not removed", removedTopology.serviceExists("service1"));
+        Assert.assertTrue("Original topology was modified", topology.serviceExists("service1"));
+    }
+
+    @Test
+    public final void testClusterSnapshotIsolatedFromTopology() {
+        Service service = new Service("service1", ServiceType.SingleTenant);
+        Cluster cluster = createCluster("cluster1");
+        service.addCluster(cluster);
+        TopologyManager.getTopology().addService(service);
+        TopologyManager.updateTopologySnapshot();
+
+        Topology snapshot = TopologyManager.getTopologySnapshot();
+        Cluster snapshotCluster = snapshot.getService("service1").getCluster("cluster1");
+        Assert.assertNotNull("Cluster not found in topology snapshot", snapshotCluster);
+        Assert.assertNotSame("Topology snapshot references live cluster", cluster, snapshotCluster);
+
+        cluster.addMember(createMember("cluster1", "member1"));
+        Assert.assertFalse("Topology snapshot was modified by topology update",
+                snapshotCluster.memberExists("member1"));
+
+        TopologyManager.updateTopologySnapshotForCluster("service1", "cluster1");
+        Topology updatedSnapshot = TopologyManager.getTopologySnapshot();
+        Assert.assertNotSame("Topology snapshot was not replaced", snapshot, updatedSnapshot);
+        Assert.assertTrue("Member not found in topology snapshot",
+                updatedSnapshot.getService("service1").getCluster("cluster1").memberExists("member1"));
+        Assert.assertFalse("Previous topology snapshot was modified", snapshotCluster.memberExists("member1"));
+    }
+
+    @Test
+    public final void testSnapshotNotUpdatedWhenDisabled() {
+        TopologyManager.setSnapshotEnabled(false);
+        Service service = new Service("service1", ServiceType.SingleTenant);
+        service.addCluster(createCluster("cluster1"));
+        TopologyManager.getTopology().addService(service);
+
+        TopologyManager.updateTopologySnapshot();
+        TopologyManager.updateTopologySnapshotForCluster("service1", "cluster1");
+        Assert.assertFalse("Topology snapshot was updated while disabled",
+                TopologyManager.getTopologySnapshot().serviceExists("service1"));
+
+        TopologyManager.setSnapshotEnabled(true);
+        Assert.assertTrue("Topology snapshot was not published when enabled",
+                TopologyManager.getTopologySnapshot().serviceExists("service1"));
+    }
+
+    private Cluster createCluster(String clusterId) {
+        return new Cluster("service1", clusterId, "deployment-policy1", "autoscale-policy1", "app1");
+    }
+
+    private Member createMember(String clusterId, String memberId) {
+        return new Member("service1", clusterId, memberId, "cluster-instance1", "network-partition1",
+                "partition1", System.currentTimeMillis());
+    }
+}
@@ -23,8 +23,11 @@ package org.apache.stratos.mock.iaas.services.impl;
  * Mock constant definitions.
  */
 public class MockConstants {
-    public static final String MOCK_MEMBER_THREAD_POOL = "mock.member.thread.pool";
-    public static final int MOCK_MEMBER_THREAD_POOL_SIZE = 100;
+    public static final String MOCK_SCHEDULER_WORKER_THREAD_POOL = "mock.iaas.scheduler.worker.thread.pool";
+    public static final String SCHEDULER_WORKER_POOL_SIZE = "mock.iaas.scheduler.worker.pool.size";
+    public static final String SCHEDULER_TICK_INTERVAL = "mock.iaas.scheduler.tick.interval";
+    public static final String SCHEDULER_REPORT_INTERVAL = "mock.iaas.scheduler.report.interval";
+    public static final String MAX_MOCK_MEMBERS = "mock.iaas.max.members";
     public static final String PERSISTENCE_MANAGER_TYPE = "persistence.manager.type";
     public static final String PERSISTENCE_MANAGER_REGISTRY = "registry";
     public static final String PERSISTENCE_MANAGER_MOCK = "mock";
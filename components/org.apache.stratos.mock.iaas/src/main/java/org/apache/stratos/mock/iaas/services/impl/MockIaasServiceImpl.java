@@ -21,7 +21,6 @@ package org.apache.stratos.mock.iaas.services.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.mock.iaas.config.MockIaasConfig;
 import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
 import org.apache.stratos.mock.iaas.domain.MockInstanceMetadata;
@@ -38,31 +37,30 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 
 /**
  * Mock IaaS service implementation. This is a singleton class that simulates a standard Infrastructure as a Service
  * platform by creating mock instances and managing their lifecycle states.
  *
  * How does this work:
- * - Mock IaaS starts a Mock Member thread or each instance created
+ * - Mock IaaS starts a Mock Member state machine for each instance created, the mock instance scheduler
+ *   advances the lifecycle of all mock members without holding a thread per member
  * - A sample private IP and a public IP will be assigned to the instance
- * - Mock Member will publish Instance Started and Instance Activated events once the thread is started
- * - Afterwards it will start publishing sample health statistics values to CEP
- * - If the Mock IaaS was asked to terminate an instance it will stop the relevant thread
+ * - Mock Member will publish Instance Started and Instance Activated events once it is started
+ * - Afterwards it will start publishing sample health statistics values to CEP in batches
+ * - If the Mock IaaS was asked to terminate an instance it will terminate the relevant mock member
  */
 public class MockIaasServiceImpl implements MockIaasService {
 
     private static final Log log = LogFactory.getLog(MockIaasServiceImpl.class);
 
-    private static final ExecutorService mockMemberExecutorService =
-            StratosThreadPool.getExecutorService(MockConstants.MOCK_MEMBER_THREAD_POOL,
-                    MockConstants.MOCK_MEMBER_THREAD_POOL_SIZE);
+    private static final int DEFAULT_MAX_MOCK_MEMBERS = 10000;
     private static volatile MockIaasServiceImpl instance;
 
     private PersistenceManager persistenceManager;
     private MockIaasServiceUtil mockIaasServiceUtil;
     private Map<String, MockInstance> instanceIdToMockInstanceMap; // Map<InstanceId,MockInstance>
+    private final int maxMockMembers = Integer.getInteger(MockConstants.MAX_MOCK_MEMBERS, DEFAULT_MAX_MOCK_MEMBERS);
 
     public MockIaasServiceImpl() {
         try {
@@ -102,25 +100,30 @@ public class MockIaasServiceImpl implements MockIaasService {
                 throw new MockIaasException("Mock instance context is null");
             }
 
+            if(instanceIdToMockInstanceMap.size() >= maxMockMembers) {
+                throw new MockIaasException(String.format("Maximum number of mock instances reached: [max] %d",
+                        maxMockMembers));
+            }
+
             // Generate instance id
             String instanceId = UUID.randomUUID().toString();
             mockInstanceContext.setInstanceId(instanceId);
 
             MockInstance mockInstance = new MockInstance(mockInstanceContext);
             instanceIdToMockInstanceMap.put(instanceId, mockInstance);
-            mockMemberExecutorService.submit(mockInstance);
+            mockInstance.start();
 
             // Persist changes
             mockIaasServiceUtil.persistInRegistry((ConcurrentHashMap<String, MockInstance>) instanceIdToMockInstanceMap);
 
             String serviceName = mockInstanceContext.getServiceName();
             MockHealthStatisticsGenerator.getInstance().scheduleStatisticsUpdaterTasks(serviceName);
+        }
 
-            // Simulate instance creation time
-            sleep(2000);
+        // Simulate instance creation time, instances are created in parallel
+        sleep(2000);
 
-            return new MockInstanceMetadata(mockInstanceContext);
-        }
+        return new MockInstanceMetadata(mockInstanceContext);
     }
 
     private void sleep(int time) {
@@ -21,7 +21,6 @@ package org.apache.stratos.mock.iaas.services.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.mock.iaas.persistence.PersistenceManager;
 import org.apache.stratos.mock.iaas.statistics.generator.MockHealthStatisticsGenerator;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
@@ -30,7 +29,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 
 /**
  * Mock iaas service util.
@@ -60,16 +58,12 @@ public class MockIaasServiceUtil {
 
     public void startInstancesPersisted() throws RegistryException {
         Map<String, MockInstance> instanceIdToMockMemberMap = readFromRegistry();
-        ExecutorService mockMemberExecutorService =
-                StratosThreadPool.getExecutorService(MockConstants.MOCK_MEMBER_THREAD_POOL,
-                        MockConstants.MOCK_MEMBER_THREAD_POOL_SIZE);
-
         if(instanceIdToMockMemberMap != null) {
             log.info("Starting mock instances persisted...");
 
             Set<String> serviceNameSet = new HashSet<String>();
             for(MockInstance mockInstance : instanceIdToMockMemberMap.values()) {
-                mockMemberExecutorService.submit(mockInstance);
+                mockInstance.start();
 
                 // Schedule statistics updater tasks for service
                 String serviceName = mockInstance.getMockInstanceContext().getServiceName();
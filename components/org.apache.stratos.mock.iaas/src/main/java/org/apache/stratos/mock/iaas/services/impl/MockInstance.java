@@ -23,7 +23,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
 import org.apache.stratos.mock.iaas.event.publisher.MockMemberEventPublisher;
-import org.apache.stratos.mock.iaas.statistics.publisher.MockHealthStatisticsNotifier;
 import org.apache.stratos.common.threading.StratosThreadPool;
 import org.apache.stratos.messaging.event.Event;
 import org.apache.stratos.messaging.event.instance.notifier.InstanceCleanupClusterEvent;
@@ -33,77 +32,128 @@ import org.apache.stratos.messaging.listener.instance.notifier.InstanceCleanupMe
 import org.apache.stratos.messaging.message.receiver.instance.notifier.InstanceNotifierEventReceiver;
 
 import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Mock member definition.
+ * Mock member definition. A mock member is a state machine, its lifecycle transitions are
+ * scheduled on the shared mock instance scheduler instead of holding a thread per member:
+ * Starting -> Started -> Active -> MaintenanceMode -> ReadyToShutdown, and Terminated once the
+ * instance is terminated by the mock iaas.
  */
-public class MockInstance implements Runnable, Serializable {
+public class MockInstance implements Serializable {
 
     private static final Log log = LogFactory.getLog(MockInstance.class);
     private static final ExecutorService eventListenerExecutorService =
             StratosThreadPool.getExecutorService("mock.iaas.event.listener.thread.pool", 20);
-    private static final ScheduledExecutorService healthStatNotifierExecutorService =
-            StratosThreadPool.getScheduledExecutorService("mock.iaas.health.statistics.notifier.thread.pool", 20);
-    private static final int HEALTH_STAT_INTERVAL = 15; // 15 seconds
+    private static final long STARTUP_TIME = 5000; // 5 seconds
+    private static final long ACTIVATION_TIME = 5000; // 5 seconds
+    private static final long SHUTDOWN_TIME = 2000; // 2 seconds
+    // Mock instances share a single instance notifier event receiver
+    private static final Map<String, MockInstance> memberIdToMockInstanceMap =
+            new ConcurrentHashMap<String, MockInstance>();
+    private static InstanceNotifierEventReceiver instanceNotifierEventReceiver;
 
     private final MockInstanceContext mockMemberContext;
-    private boolean terminated;
+    private transient MockInstanceState state;
+    private transient MockInstanceScheduler.ScheduledTask nextTransition;
 
     public MockInstance(MockInstanceContext mockMemberContext) {
         this.mockMemberContext = mockMemberContext;
     }
 
-    @Override
-    public void run() {
+    /**
+     * Start the mock member lifecycle, instance started and instance activated events are published
+     * by the scheduler once the startup and activation times have elapsed.
+     */
+    public synchronized void start() {
+        if ((state != null) && (state != MockInstanceState.Terminated)) {
+            return;
+        }
         if (log.isInfoEnabled()) {
             log.info(String.format("Mock member started: [member-id] %s", mockMemberContext.getMemberId()));
         }
+        state = MockInstanceState.Starting;
+        scheduleTransition(STARTUP_TIME);
+    }
 
-        sleep(5000);
-        MockMemberEventPublisher.publishInstanceStartedEvent(mockMemberContext);
-
-        sleep(5000);
-        MockMemberEventPublisher.publishInstanceActivatedEvent(mockMemberContext);
-
-        startInstanceNotifierReceiver();
-        startHealthStatisticsPublisher();
-
-        while (!terminated) {
-            sleep(1000);
-        }
+    private void scheduleTransition(long delay) {
+        nextTransition = MockInstanceScheduler.getInstance().schedule(new Runnable() {
+            @Override
+            public void run() {
+                transition();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
 
-        if (log.isInfoEnabled()) {
-            log.info(String.format("Mock member terminated: [member-id] %s", mockMemberContext.getMemberId()));
+    private synchronized void transition() {
+        switch (state) {
+            case Starting:
+                MockMemberEventPublisher.publishInstanceStartedEvent(mockMemberContext);
+                state = MockInstanceState.Started;
+                scheduleTransition(ACTIVATION_TIME);
+                break;
+            case Started:
+                MockMemberEventPublisher.publishInstanceActivatedEvent(mockMemberContext);
+                state = MockInstanceState.Active;
+                startInstanceNotifierReceiver();
+                startHealthStatisticsPublisher();
+                break;
+            case MaintenanceMode:
+                MockMemberEventPublisher.publishInstanceReadyToShutdownEvent(mockMemberContext);
+                state = MockInstanceState.ReadyToShutdown;
+                break;
+            default:
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("No transition found for mock member: [member-id] %s [state] %s",
+                            mockMemberContext.getMemberId(), state));
+                }
         }
     }
 
     private void startInstanceNotifierReceiver() {
+        memberIdToMockInstanceMap.put(mockMemberContext.getMemberId(), this);
+        startSharedInstanceNotifierReceiver();
+    }
+
+    /**
+     * Start the instance notifier event receiver shared by all mock instances, events are
+     * delivered to the mock instances registered in the member id map.
+     */
+    private static synchronized void startSharedInstanceNotifierReceiver() {
+        if (instanceNotifierEventReceiver != null) {
+            return;
+        }
+
         if (log.isDebugEnabled()) {
             log.debug("Starting instance notifier event message receiver");
         }
 
-        final InstanceNotifierEventReceiver instanceNotifierEventReceiver = new InstanceNotifierEventReceiver();
-        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupClusterEventListener() {
+        final InstanceNotifierEventReceiver receiver = new InstanceNotifierEventReceiver();
+        receiver.addEventListener(new InstanceCleanupClusterEventListener() {
             @Override
             protected void onEvent(Event event) {
                 InstanceCleanupClusterEvent instanceCleanupClusterEvent = (InstanceCleanupClusterEvent) event;
-                if (mockMemberContext.getClusterId().equals(instanceCleanupClusterEvent.getClusterId()) &&
-                        mockMemberContext.getClusterInstanceId().equals(
-                                instanceCleanupClusterEvent.getClusterInstanceId())) {
-                    handleMemberTermination();
+                for (MockInstance mockInstance : memberIdToMockInstanceMap.values()) {
+                    MockInstanceContext mockMemberContext = mockInstance.getMockInstanceContext();
+                    if (mockMemberContext.getClusterId().equals(instanceCleanupClusterEvent.getClusterId()) &&
+                            mockMemberContext.getClusterInstanceId().equals(
+                                    instanceCleanupClusterEvent.getClusterInstanceId())) {
+                        mockInstance.handleMemberTerminationAsync();
+                    }
                 }
             }
         });
 
-        instanceNotifierEventReceiver.addEventListener(new InstanceCleanupMemberEventListener() {
+        receiver.addEventListener(new InstanceCleanupMemberEventListener() {
             @Override
             protected void onEvent(Event event) {
-                InstanceCleanupMemberEvent instanceCleanupClusterEvent = (InstanceCleanupMemberEvent) event;
-                if (mockMemberContext.getMemberId().equals(instanceCleanupClusterEvent.getMemberId())) {
-                    handleMemberTermination();
+                InstanceCleanupMemberEvent instanceCleanupMemberEvent = (InstanceCleanupMemberEvent) event;
+                MockInstance mockInstance = memberIdToMockInstanceMap.get(instanceCleanupMemberEvent.getMemberId());
+                if (mockInstance != null) {
+                    mockInstance.handleMemberTerminationAsync();
                 }
             }
         });
@@ -111,19 +161,34 @@ public class MockInstance implements Runnable, Serializable {
         eventListenerExecutorService.submit(new Runnable() {
             @Override
             public void run() {
-                instanceNotifierEventReceiver.execute();
+                receiver.execute();
             }
         });
+        instanceNotifierEventReceiver = receiver;
 
         if (log.isDebugEnabled()) {
             log.debug("Instance notifier event message receiver started");
         }
     }
 
-    private void handleMemberTermination() {
+    private void handleMemberTerminationAsync() {
+        // Do not block the shared event receiver while the member is shutting down
+        eventListenerExecutorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                handleMemberTermination();
+            }
+        });
+    }
+
+    private synchronized void handleMemberTermination() {
+        if (state != MockInstanceState.Active) {
+            return;
+        }
         MockMemberEventPublisher.publishMaintenanceModeEvent(mockMemberContext);
-        sleep(2000);
-        MockMemberEventPublisher.publishInstanceReadyToShutdownEvent(mockMemberContext);
+        state = MockInstanceState.MaintenanceMode;
+        MockInstanceScheduler.getInstance().unregisterHealthStatistics(mockMemberContext.getMemberId());
+        scheduleTransition(SHUTDOWN_TIME);
     }
 
     private void startHealthStatisticsPublisher() {
@@ -131,27 +196,35 @@ public class MockInstance implements Runnable, Serializable {
             log.debug(String.format("Starting health statistics notifier: [member-id] %s", mockMemberContext.getMemberId()));
         }
 
-        healthStatNotifierExecutorService.scheduleAtFixedRate(new MockHealthStatisticsNotifier(mockMemberContext),
-                0, HEALTH_STAT_INTERVAL, TimeUnit.SECONDS);
+        MockInstanceScheduler.getInstance().registerHealthStatistics(mockMemberContext);
 
         if (log.isDebugEnabled()) {
             log.debug(String.format("Health statistics notifier started: [member-id] %s", mockMemberContext.getMemberId()));
         }
     }
 
-    private void sleep(long time) {
-        try {
-            Thread.sleep(time);
-        } catch (InterruptedException ignore) {
-            terminate();
-        }
-    }
-
     public MockInstanceContext getMockInstanceContext() {
         return mockMemberContext;
     }
 
-    public void terminate() {
-        terminated = true;
+    public synchronized MockInstanceState getState() {
+        return state;
+    }
+
+    public synchronized void terminate() {
+        if (state == MockInstanceState.Terminated) {
+            return;
+        }
+        state = MockInstanceState.Terminated;
+        if (nextTransition != null) {
+            nextTransition.cancel();
+            nextTransition = null;
+        }
+        MockInstanceScheduler.getInstance().unregisterHealthStatistics(mockMemberContext.getMemberId());
+        memberIdToMockInstanceMap.remove(mockMemberContext.getMemberId());
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Mock member terminated: [member-id] %s", mockMemberContext.getMemberId()));
+        }
     }
 }
@@ -0,0 +1,338 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.mock.iaas.services.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.common.threading.HashedTimerWheel;
+import org.apache.stratos.common.threading.StratosThreadPool;
+import org.apache.stratos.mock.iaas.domain.MockInstanceContext;
+import org.apache.stratos.mock.iaas.statistics.publisher.MockHealthStatisticsNotifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mock instance scheduler. Lifecycle transitions of mock instances are scheduled on a hashed
+ * timer wheel advanced by a single thread, due transitions are executed on a small worker pool.
+ * Hence no thread is held by a mock instance while it is waiting for its next transition.
+ *
+ * Health statistics of active mock members are published in batches: members are spread over
+ * the ticks of the health statistics interval and the members assigned to a tick are published
+ * together using a single statistics publisher.
+ */
+public class MockInstanceScheduler {
+
+    private static final Log log = LogFactory.getLog(MockInstanceScheduler.class);
+
+    public static final long HEALTH_STAT_INTERVAL = 15000; // 15 seconds
+    private static final int WHEEL_SIZE = 512;
+    private static final long DEFAULT_TICK_INTERVAL = 100;
+    private static final int DEFAULT_WORKER_POOL_SIZE = 10;
+    private static final long DEFAULT_REPORT_INTERVAL = 60000;
+
+    private static volatile MockInstanceScheduler instance;
+
+    private final long tickInterval;
+    private final long reportInterval;
+    private final ExecutorService workerExecutorService;
+    private final HashedTimerWheel timerWheel;
+    private final List<Map<String, MockInstanceContext>> healthStatSlots;
+    private final Map<String, Integer> memberIdToHealthStatSlotMap = new ConcurrentHashMap<String, Integer>();
+    private final AtomicInteger nextHealthStatSlot = new AtomicInteger();
+    private MockHealthStatisticsNotifier healthStatisticsNotifier;
+    private boolean started;
+    // Only accessed by the timer thread
+    private long lastReportTime;
+    private long lastExecutedTaskCount;
+    private long lastHealthStatPublishedCount;
+
+    private final AtomicLong scheduledTaskCount = new AtomicLong();
+    private final AtomicLong executedTaskCount = new AtomicLong();
+    private final AtomicLong cancelledTaskCount = new AtomicLong();
+    private final AtomicLong failedTaskCount = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong healthStatBatchCount = new AtomicLong();
+    private final AtomicLong healthStatPublishedCount = new AtomicLong();
+
+    public MockInstanceScheduler(long tickInterval, int workerPoolSize, long reportInterval) {
+        if (tickInterval <= 0) {
+            throw new IllegalArgumentException("Tick interval should be greater than zero: " + tickInterval);
+        }
+        this.tickInterval = tickInterval;
+        this.reportInterval = reportInterval;
+        this.workerExecutorService = StratosThreadPool.getExecutorService(
+                MockConstants.MOCK_SCHEDULER_WORKER_THREAD_POOL, workerPoolSize);
+        this.timerWheel = new HashedTimerWheel("mock-instance-scheduler", tickInterval, WHEEL_SIZE,
+                new HashedTimerWheel.TickListener() {
+                    @Override
+                    public void ticked(long tick) {
+                        publishHealthStatistics(tick);
+                        reportIfRequired();
+                    }
+                });
+        int healthStatSlotCount = (int) Math.max(1, HEALTH_STAT_INTERVAL / tickInterval);
+        healthStatSlots = new ArrayList<Map<String, MockInstanceContext>>(healthStatSlotCount);
+        for (int i = 0; i < healthStatSlotCount; i++) {
+            healthStatSlots.add(new ConcurrentHashMap<String, MockInstanceContext>());
+        }
+    }
+
+    public static MockInstanceScheduler getInstance() {
+        if (instance == null) {
+            synchronized (MockInstanceScheduler.class) {
+                if (instance == null) {
+                    long tickInterval = Long.getLong(MockConstants.SCHEDULER_TICK_INTERVAL, DEFAULT_TICK_INTERVAL);
+                    int workerPoolSize = Integer.getInteger(MockConstants.SCHEDULER_WORKER_POOL_SIZE,
+                            DEFAULT_WORKER_POOL_SIZE);
+                    long reportInterval = Long.getLong(MockConstants.SCHEDULER_REPORT_INTERVAL,
+                            DEFAULT_REPORT_INTERVAL);
+                    MockInstanceScheduler scheduler = new MockInstanceScheduler(tickInterval, workerPoolSize,
+                            reportInterval);
+                    scheduler.start();
+                    instance = scheduler;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        lastReportTime = System.currentTimeMillis();
+        timerWheel.start();
+
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Mock instance scheduler started: [tick-interval] %d ms [health-stat-slots] %d",
+                    tickInterval, healthStatSlots.size()));
+        }
+    }
+
+    public synchronized void terminate() {
+        timerWheel.stop();
+    }
+
+    /**
+     * Schedule a task to be executed after the given delay. The task is executed on the worker
+     * pool within one tick interval after the delay has elapsed.
+     */
+    public ScheduledTask schedule(Runnable task, long delay, TimeUnit unit) {
+        ScheduledTask scheduledTask = new ScheduledTask(task, System.nanoTime() + unit.toNanos(delay));
+        scheduledTaskCount.incrementAndGet();
+        timerWheel.schedule(scheduledTask, delay, unit);
+        return scheduledTask;
+    }
+
+    /**
+     * Start publishing health statistics of the given mock member.
+     */
+    public void registerHealthStatistics(MockInstanceContext mockMemberContext) {
+        int slot = (nextHealthStatSlot.getAndIncrement() & Integer.MAX_VALUE) % healthStatSlots.size();
+        memberIdToHealthStatSlotMap.put(mockMemberContext.getMemberId(), slot);
+        healthStatSlots.get(slot).put(mockMemberContext.getMemberId(), mockMemberContext);
+    }
+
+    /**
+     * Stop publishing health statistics of the given mock member.
+     */
+    public void unregisterHealthStatistics(String memberId) {
+        Integer slot = memberIdToHealthStatSlotMap.remove(memberId);
+        if (slot != null) {
+            healthStatSlots.get(slot).remove(memberId);
+        }
+    }
+
+    private void reportIfRequired() {
+        long now = System.currentTimeMillis();
+        if ((reportInterval > 0) && ((now - lastReportTime) >= reportInterval)) {
+            long executed = executedTaskCount.get();
+            long published = healthStatPublishedCount.get();
+            report(now - lastReportTime, executed - lastExecutedTaskCount,
+                    published - lastHealthStatPublishedCount);
+            lastReportTime = now;
+            lastExecutedTaskCount = executed;
+            lastHealthStatPublishedCount = published;
+        }
+    }
+
+    private void execute(ScheduledTask task) {
+        long latency = Math.max(0, System.nanoTime() - task.deadline);
+        totalLatencyNanos.addAndGet(latency);
+        updateMaxLatency(latency);
+        try {
+            task.task.run();
+        } catch (Throwable e) {
+            failedTaskCount.incrementAndGet();
+            log.error("Could not execute mock instance task", e);
+        } finally {
+            executedTaskCount.incrementAndGet();
+        }
+    }
+
+    private void updateMaxLatency(long latency) {
+        long max = maxLatencyNanos.get();
+        while ((latency > max) && !maxLatencyNanos.compareAndSet(max, latency)) {
+            max = maxLatencyNanos.get();
+        }
+    }
+
+    private void publishHealthStatistics(long tick) {
+        Map<String, MockInstanceContext> slot = healthStatSlots.get((int) (tick % healthStatSlots.size()));
+        if (slot.isEmpty()) {
+            return;
+        }
+        final List<MockInstanceContext> batch = new ArrayList<MockInstanceContext>(slot.values());
+        workerExecutorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int published = getHealthStatisticsNotifier().publish(batch);
+                    healthStatPublishedCount.addAndGet(published);
+                    healthStatBatchCount.incrementAndGet();
+                } catch (Exception e) {
+                    log.error("Could not publish mock health statistics", e);
+                }
+            }
+        });
+    }
+
+    private synchronized MockHealthStatisticsNotifier getHealthStatisticsNotifier() {
+        if (healthStatisticsNotifier == null) {
+            healthStatisticsNotifier = new MockHealthStatisticsNotifier();
+        }
+        return healthStatisticsNotifier;
+    }
+
+    private void report(long duration, long executed, long published) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        if ((executed == 0) && (published == 0) && memberIdToHealthStatSlotMap.isEmpty()) {
+            return;
+        }
+        double seconds = duration / 1000.0;
+        long maxLatency = maxLatencyNanos.getAndSet(0);
+        log.info(String.format("Mock instance scheduler statistics: [active-members] %d [pending-tasks] %d " +
+                        "[transitions-per-second] %.2f [health-stats-per-second] %.2f [average-latency] %.2f ms " +
+                        "[max-latency] %.2f ms", getActiveMemberCount(), getPendingTaskCount(),
+                executed / seconds, published / seconds, getAverageLatencyMillis(), maxLatency / 1000000.0));
+    }
+
+    /**
+     * Returns the number of mock members publishing health statistics.
+     */
+    public int getActiveMemberCount() {
+        return memberIdToHealthStatSlotMap.size();
+    }
+
+    public long getPendingTaskCount() {
+        return scheduledTaskCount.get() - executedTaskCount.get() - cancelledTaskCount.get();
+    }
+
+    public long getScheduledTaskCount() {
+        return scheduledTaskCount.get();
+    }
+
+    public long getExecutedTaskCount() {
+        return executedTaskCount.get();
+    }
+
+    public long getCancelledTaskCount() {
+        return cancelledTaskCount.get();
+    }
+
+    public long getFailedTaskCount() {
+        return failedTaskCount.get();
+    }
+
+    /**
+     * Returns the average delay between the scheduled time and the execution time of tasks.
+     */
+    public double getAverageLatencyMillis() {
+        long executed = executedTaskCount.get();
+        return (executed == 0) ? 0 : (totalLatencyNanos.get() / (double) executed) / 1000000.0;
+    }
+
+    public long getHealthStatisticsBatchCount() {
+        return healthStatBatchCount.get();
+    }
+
+    public long getHealthStatisticsPublishedCount() {
+        return healthStatPublishedCount.get();
+    }
+
+    /**
+     * A task scheduled on the timer wheel.
+     */
+    public class ScheduledTask extends HashedTimerWheel.Timeout {
+
+        private static final int STATE_SCHEDULED = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_SCHEDULED);
+
+        private ScheduledTask(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task, returns false if the task has already been executed.
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(STATE_SCHEDULED, STATE_CANCELLED)) {
+                cancelledTaskCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        protected long expire() {
+            if (state.compareAndSet(STATE_SCHEDULED, STATE_EXPIRED)) {
+                workerExecutorService.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute(ScheduledTask.this);
+                    }
+                });
+            }
+            return 0;
+        }
+    }
+}
@@ -16,23 +16,12 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.stratos.load.balancer.statistics;
 
-import java.util.concurrent.Callable;
+package org.apache.stratos.mock.iaas.services.impl;
 
 /**
- * In-flight request increment callable definition.
+ * Mock instance lifecycle states, transitions are advanced by the mock instance scheduler.
  */
-public class InFlightRequestIncrementCallable implements Callable<Object> {
-    private String clusterId;
-
-    public InFlightRequestIncrementCallable(String clusterId) {
-        this.clusterId = clusterId;
-    }
-
-    @Override
-    public Object call() throws Exception {
-        LoadBalancerStatisticsCollector.getInstance().incrementInFlightRequestCount(clusterId);
-        return null;
-    }
+public enum MockInstanceState {
+    Starting, Started, Active, MaintenanceMode, ReadyToShutdown, Terminated
 }
@@ -29,65 +29,87 @@ import org.apache.stratos.mock.iaas.exceptions.NoStatisticsFoundException;
 import org.apache.stratos.mock.iaas.services.impl.MockAutoscalingFactor;
 import org.apache.stratos.mock.iaas.statistics.MockHealthStatistics;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Health statistics notifier thread for publishing statistics periodically to CEP.
+ * Health statistics notifier for publishing statistics of mock members to CEP. Statistics are
+ * published in batches, statistics values are read once per service for each batch.
  */
-public class MockHealthStatisticsNotifier implements Runnable {
+public class MockHealthStatisticsNotifier {
     private static final Log log = LogFactory.getLog(MockHealthStatisticsNotifier.class);
 
     public static final String MEMORY_CONSUMPTION = "memory_consumption";
     public static final String LOAD_AVERAGE = "load_average";
+    // Set to EMBEDDED to publish statistics to the health statistics aggregator of an autoscaler in the same JVM
+    public static final String STATS_PUBLISHER_TYPE = "mock.iaas.stats.publisher.type";
 
-    private final MockInstanceContext mockMemberContext;
     private final HealthStatisticsPublisher statsPublisher;
 
-    public MockHealthStatisticsNotifier(MockInstanceContext mockMemberContext) {
-        this.mockMemberContext = mockMemberContext;
-        this.statsPublisher = HealthStatisticsPublisherFactory.createHealthStatisticsPublisher(
-                StatisticsPublisherType.WSO2CEP);
+    public MockHealthStatisticsNotifier() {
+        StatisticsPublisherType publisherType = StatisticsPublisherType.valueOf(
+                System.getProperty(STATS_PUBLISHER_TYPE, StatisticsPublisherType.WSO2CEP.name()));
+        this.statsPublisher = HealthStatisticsPublisherFactory.createHealthStatisticsPublisher(publisherType);
         this.statsPublisher.setEnabled(true);
     }
 
-    @Override
-    public void run() {
+    /**
+     * Publish health statistics of the given mock members.
+     * @param mockMemberContexts mock members
+     * @return number of health statistics published
+     */
+    public int publish(List<MockInstanceContext> mockMemberContexts) {
         if (!statsPublisher.isEnabled()) {
             if (log.isWarnEnabled()) {
                 log.warn("Statistics publisher is disabled");
             }
-            return;
+            return 0;
         }
 
-        try {
-            double memoryConsumption = MockHealthStatistics.getInstance().getStatistics(
-                    mockMemberContext.getServiceName(), MockAutoscalingFactor.MemoryConsumption);
-
-            if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing memory consumption: [member-id] %s [value] %f",
-                        mockMemberContext.getMemberId(), memoryConsumption));
+        Map<String, Double> memoryConsumptionMap = new HashMap<String, Double>();
+        Map<String, Double> loadAverageMap = new HashMap<String, Double>();
+        int count = 0;
+        for (MockInstanceContext mockMemberContext : mockMemberContexts) {
+            if (publish(mockMemberContext, MockAutoscalingFactor.MemoryConsumption, MEMORY_CONSUMPTION,
+                    memoryConsumptionMap)) {
+                count++;
             }
-            statsPublisher.publish(
-                    mockMemberContext.getClusterId(),
-                    mockMemberContext.getClusterInstanceId(),
-                    mockMemberContext.getNetworkPartitionId(),
-                    mockMemberContext.getMemberId(),
-                    mockMemberContext.getPartitionId(),
-                    MEMORY_CONSUMPTION,
-                    memoryConsumption
-            );
-        } catch (NoStatisticsFoundException ignore) {
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Could not publish health statistics", e);
+            if (publish(mockMemberContext, MockAutoscalingFactor.LoadAverage, LOAD_AVERAGE, loadAverageMap)) {
+                count++;
             }
         }
 
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Health statistics published: [members] %d [statistics] %d",
+                    mockMemberContexts.size(), count));
+        }
+        return count;
+    }
 
+    private boolean publish(MockInstanceContext mockMemberContext, MockAutoscalingFactor autoscalingFactor,
+                            String health, Map<String, Double> serviceNameToValueMap) {
+        String serviceName = mockMemberContext.getServiceName();
         try {
-            double loadAvereage = MockHealthStatistics.getInstance().getStatistics(
-                    mockMemberContext.getServiceName(), MockAutoscalingFactor.LoadAverage);
+            Double value;
+            if (serviceNameToValueMap.containsKey(serviceName)) {
+                value = serviceNameToValueMap.get(serviceName);
+            } else {
+                try {
+                    value = (double) MockHealthStatistics.getInstance().getStatistics(serviceName, autoscalingFactor);
+                } catch (NoStatisticsFoundException e) {
+                    value = null;
+                }
+                serviceNameToValueMap.put(serviceName, value);
+            }
+            if (value == null) {
+                // No statistics found for the service
+                return false;
+            }
+
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Publishing load average: [member-id] %s [value] %f",
-                        mockMemberContext.getMemberId(), loadAvereage));
+                log.debug(String.format("Publishing %s: [member-id] %s [value] %f", health,
+                        mockMemberContext.getMemberId(), value));
             }
             statsPublisher.publish(
                     mockMemberContext.getClusterId(),
@@ -95,14 +117,15 @@ public class MockHealthStatisticsNotifier implements Runnable {
                     mockMemberContext.getNetworkPartitionId(),
                     mockMemberContext.getMemberId(),
                     mockMemberContext.getPartitionId(),
-                    LOAD_AVERAGE,
-                    loadAvereage
+                    health,
+                    value
             );
-        } catch (NoStatisticsFoundException ignore) {
+            return true;
         } catch (Exception e) {
             if (log.isErrorEnabled()) {
                 log.error("Could not publish health statistics", e);
             }
         }
+        return false;
     }
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.mock.iaas.test;
+
+import org.apache.stratos.mock.iaas.services.impl.MockInstanceScheduler;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Mock instance scheduler test.
+ */
+public class MockInstanceSchedulerTest {
+
+    private static final long TICK_INTERVAL = 10;
+
+    @Test
+    public void testScheduledTaskExecutedAfterDelay() throws InterruptedException {
+        MockInstanceScheduler scheduler = new MockInstanceScheduler(TICK_INTERVAL, 2, 0);
+        scheduler.start();
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicLong executionTime = new AtomicLong();
+            long startTime = System.currentTimeMillis();
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    executionTime.set(System.currentTimeMillis());
+                    latch.countDown();
+                }
+            }, 200, TimeUnit.MILLISECONDS);
+
+            assertTrue("Scheduled task was not executed", latch.await(5, TimeUnit.SECONDS));
+            assertTrue("Scheduled task was executed before the delay",
+                    (executionTime.get() - startTime) >= 200);
+        } finally {
+            scheduler.terminate();
+        }
+    }
+
+    @Test
+    public void testCancelledTaskNotExecuted() throws InterruptedException {
+        MockInstanceScheduler scheduler = new MockInstanceScheduler(TICK_INTERVAL, 2, 0);
+        scheduler.start();
+        try {
+            final AtomicBoolean executed = new AtomicBoolean();
+            MockInstanceScheduler.ScheduledTask task = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    executed.set(true);
+                }
+            }, 100, TimeUnit.MILLISECONDS);
+
+            assertTrue("Could not cancel scheduled task", task.cancel());
+
+            // Ticks are processed in order, once a later task has been executed the tick of the
+            // cancelled task has passed
+            final CountDownLatch latch = new CountDownLatch(1);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, 200, TimeUnit.MILLISECONDS);
+            assertTrue("Scheduled task was not executed", latch.await(5, TimeUnit.SECONDS));
+            assertFalse("Cancelled task was executed", executed.get());
+            assertEquals(1, scheduler.getCancelledTaskCount());
+        } finally {
+            scheduler.terminate();
+        }
+    }
+
+    @Test
+    public void testLargeNumberOfTasks() throws InterruptedException {
+        MockInstanceScheduler scheduler = new MockInstanceScheduler(TICK_INTERVAL, 4, 0);
+        scheduler.start();
+        try {
+            int taskCount = 10000;
+            final CountDownLatch latch = new CountDownLatch(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                // Spread tasks over more than one revolution of the timer wheel
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                }, i % 6000, TimeUnit.MILLISECONDS);
+            }
+
+            assertTrue("Scheduled tasks were not executed", latch.await(20, TimeUnit.SECONDS));
+            assertEquals(taskCount, scheduler.getScheduledTaskCount());
+            assertEquals(0, scheduler.getFailedTaskCount());
+        } finally {
+            scheduler.terminate();
+        }
+    }
+}
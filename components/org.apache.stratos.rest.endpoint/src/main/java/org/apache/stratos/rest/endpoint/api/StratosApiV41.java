@@ -45,6 +45,7 @@ import org.apache.stratos.rest.endpoint.annotation.AuthorizationAction;
 import org.apache.stratos.rest.endpoint.annotation.SuperTenantService;
 import org.apache.stratos.rest.endpoint.exception.RestAPIException;
 import org.apache.stratos.rest.endpoint.exception.TenantNotFoundException;
+import org.apache.stratos.rest.endpoint.util.cache.ListingCache;
 import org.apache.stratos.rest.endpoint.util.converter.ObjectConverter;
 import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
@@ -64,8 +65,11 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.ws.rs.*;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -84,6 +88,8 @@ public class StratosApiV41 extends AbstractApi {
     HttpServletRequest httpServletRequest;
     @Context
     UriInfo uriInfo;
+    @Context
+    Request request;
 
     /**
      * This method is used by clients such as the CLI to verify the Stratos manager URL.
@@ -190,13 +196,7 @@ public class StratosApiV41 extends AbstractApi {
     @Consumes("application/json")
     @AuthorizationAction("/permission/admin/manage/getCartridge")
     public Response getCartridges() throws RestAPIException {
-        List<CartridgeBean> cartridges = StratosApiV41Utils.getAvailableCartridges(null, null, getConfigContext());
-        if (cartridges == null) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        }
-        CartridgeBean[] cartridgeArray = cartridges.isEmpty() ?
-                new CartridgeBean[0] : cartridges.toArray(new CartridgeBean[cartridges.size()]);
-        return Response.ok().entity(cartridgeArray).build();
+        return buildListingResponse(StratosApiV41Utils.getCartridgeListing(getConfigContext()));
     }
 
     @GET
@@ -485,9 +485,7 @@ public class StratosApiV41 extends AbstractApi {
     @Consumes("application/json")
     @AuthorizationAction("/permission/protected/manage/getApplications")
     public Response getApplications() throws RestAPIException {
-        List<ApplicationBean> applicationDefinitions = StratosApiV41Utils.getApplications();
-        ApplicationBean[] applicationDefinitionsArray = applicationDefinitions.toArray(new ApplicationBean[applicationDefinitions.size()]);
-        return Response.ok(applicationDefinitionsArray).build();
+        return buildListingResponse(StratosApiV41Utils.getApplicationListing());
     }
 
     /**
@@ -765,7 +763,7 @@ public class StratosApiV41 extends AbstractApi {
     @Consumes("application/json")
     @AuthorizationAction("/permission/admin/manage/getAutoscalingPolicies")
     public Response getAutoscalingPolicies() throws RestAPIException {
-        return Response.ok().entity(StratosApiV41Utils.getAutoScalePolicies()).build();
+        return buildListingResponse(StratosApiV41Utils.getAutoScalePolicyListing());
     }
 
     /**
@@ -1750,4 +1748,23 @@ public class StratosApiV41 extends AbstractApi {
         				String.format("Kubernetes Host removed successfully: [kub-host] %s", kubernetesHostId))).build();
     }
 
+    /**
+     * Builds the response of a cached listing. Not modified is returned if the entity tag given in
+     * the If-None-Match header matches the entity tag of the listing, clients are required to
+     * revalidate listings on each request.
+     *
+     * @param listing the cached listing
+     * @return the response
+     */
+    private Response buildListingResponse(ListingCache.Listing<?> listing) {
+        EntityTag entityTag = new EntityTag(listing.getEntityTag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        Response.ResponseBuilder responseBuilder = request.evaluatePreconditions(entityTag);
+        if (responseBuilder == null) {
+            responseBuilder = Response.ok().entity(listing.getValue());
+        }
+        return responseBuilder.tag(entityTag).cacheControl(cacheControl).build();
+    }
 }
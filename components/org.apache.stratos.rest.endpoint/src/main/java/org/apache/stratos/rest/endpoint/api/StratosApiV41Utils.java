@@ -59,6 +59,7 @@ import org.apache.stratos.common.client.AutoscalerServiceClient;
 import org.apache.stratos.common.client.CloudControllerServiceClient;
 import org.apache.stratos.common.client.StratosManagerServiceClient;
 import org.apache.stratos.common.util.CommonUtil;
+import org.apache.stratos.manager.context.EventVersionHolder;
 import org.apache.stratos.manager.service.stub.domain.application.signup.ApplicationSignUp;
 import org.apache.stratos.manager.service.stub.domain.application.signup.ArtifactRepository;
 import org.apache.stratos.manager.service.stub.domain.application.signup.DomainMapping;
@@ -71,6 +72,7 @@ import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.message.receiver.application.ApplicationManager;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 import org.apache.stratos.rest.endpoint.exception.RestAPIException;
+import org.apache.stratos.rest.endpoint.util.cache.ListingCache;
 import org.apache.stratos.rest.endpoint.util.converter.ObjectConverter;
 import org.wso2.carbon.context.CarbonContext;
 
@@ -90,6 +92,15 @@ public class StratosApiV41Utils {
 
     private static Log log = LogFactory.getLog(StratosApiV41Utils.class);
 
+    // Listings are cached against the versions of the topology and the applications updated by the
+    // stratos manager event receivers, and invalidated locally when they are changed via the API
+    private static final ListingCache<CartridgeBean[]> cartridgeListingCache =
+            new ListingCache<CartridgeBean[]>("cartridges");
+    private static final ListingCache<AutoscalePolicyBean[]> autoscalePolicyListingCache =
+            new ListingCache<AutoscalePolicyBean[]>("autoscalingPolicies");
+    private static final ListingCache<ApplicationBean[]> applicationListingCache =
+            new ListingCache<ApplicationBean[]>("applications");
+
     // Util methods for cartridges
     public static void addCartridge(CartridgeBean cartridgeDefinition) throws RestAPIException {
 
@@ -102,6 +113,7 @@ public class StratosApiV41Utils {
 			        createCartridgeConfig(cartridgeDefinition);
             CloudControllerServiceClient cloudControllerServiceClient = CloudControllerServiceClient.getInstance();
             cloudControllerServiceClient.addCartridge(cartridgeConfig);
+            cartridgeListingCache.invalidate();
 
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Successfully added cartridge: [cartridge-type] %s ", cartridgeDefinition.getType()));
@@ -123,6 +135,7 @@ public class StratosApiV41Utils {
 			CartridgeConfig cartridgeConfig = createCartridgeConfig(cartridgeDefinition);
 			CloudControllerServiceClient cloudControllerServiceClient = CloudControllerServiceClient.getInstance();
 			cloudControllerServiceClient.updateCartridge(cartridgeConfig);
+			cartridgeListingCache.invalidate();
 
 			if (log.isDebugEnabled()) {
 				log.debug(String.format("Successfully update cartridge: [cartridge-type] %s ",
@@ -174,6 +187,7 @@ public class StratosApiV41Utils {
                 throw new RestAPIException(message);
             }
             cloudControllerServiceClient.removeCartridge(cartridgeType);
+            cartridgeListingCache.invalidate();
 
             if(log.isInfoEnabled()) {
                 log.info(String.format("Successfully removed cartridge: [cartridge-type] %s ", cartridgeType));
@@ -244,28 +258,14 @@ public class StratosApiV41Utils {
 		}
 
 		try {
-			String[] availableCartridges = CloudControllerServiceClient.getInstance().getRegisteredCartridges();
-
-			if (availableCartridges != null) {
-				for (String cartridgeType : availableCartridges) {
-					CartridgeInfo cartridgeInfo = null;
-					try {
-						cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridgeInfo(cartridgeType);
-					} catch (Exception e) {
-						if (log.isWarnEnabled()) {
-							log.warn("Error when calling getCartridgeInfo for " + cartridgeType + ", Error: "
-							         + e.getMessage());
-						}
-					}
+			CartridgeInfo[] cartridgeInfos = getRegisteredCartridgeInfos();
+
+			if (cartridgeInfos != null) {
+				for (CartridgeInfo cartridgeInfo : cartridgeInfos) {
 					if (cartridgeInfo == null) {
-						// This cannot happen. But continue
-						if (log.isDebugEnabled()) {
-							log.debug("Cartridge Info not found: " + cartridgeType);
-						}
 						continue;
 					}
 
-
 					if (!cartridgeInfo.getProvider().equals(provider)) {
 						continue;
 					}
@@ -299,6 +299,20 @@ public class StratosApiV41Utils {
 		return cartridges;
     }
 
+    /**
+     * Get information of all registered cartridges using a single bulk call instead of a call per cartridge.
+     * @return cartridge information, or null if there are no registered cartridges
+     * @throws RemoteException
+     */
+    private static CartridgeInfo[] getRegisteredCartridgeInfos() throws RemoteException {
+        CloudControllerServiceClient cloudControllerServiceClient = CloudControllerServiceClient.getInstance();
+        String[] availableCartridges = cloudControllerServiceClient.getRegisteredCartridges();
+        if ((availableCartridges == null) || (availableCartridges.length == 0)) {
+            return null;
+        }
+        return cloudControllerServiceClient.getCartridgeInfos(availableCartridges);
+    }
+
     public static List<CartridgeBean> getAvailableCartridges(String cartridgeSearchString, Boolean multiTenant, ConfigurationContext configurationContext) throws RestAPIException {
         List<CartridgeBean> cartridges = new ArrayList<CartridgeBean>();
 
@@ -312,26 +326,14 @@ public class StratosApiV41Utils {
         try {
             Pattern searchPattern = getSearchStringPattern(cartridgeSearchString);
 
-            String[] availableCartridges = CloudControllerServiceClient.getInstance().getRegisteredCartridges();
+            CartridgeInfo[] cartridgeInfos = getRegisteredCartridgeInfos();
 
-            if (availableCartridges != null) {
-                for (String cartridgeType : availableCartridges) {
-                    CartridgeInfo cartridgeInfo = null;
-                    try {
-                        cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridgeInfo(cartridgeType);
-                    } catch (Exception e) {
-                        if (log.isWarnEnabled()) {
-                            log.warn("Error when calling getCartridgeInfo for " + cartridgeType + ", Error: "
-                                    + e.getMessage());
-                        }
-                    }
+            if (cartridgeInfos != null) {
+                for (CartridgeInfo cartridgeInfo : cartridgeInfos) {
                     if (cartridgeInfo == null) {
-                        // This cannot happen. But continue
-                        if (log.isDebugEnabled()) {
-                            log.debug("Cartridge Info not found: " + cartridgeType);
-                        }
                         continue;
                     }
+                    String cartridgeType = cartridgeInfo.getType();
 
                     if (multiTenant != null && !multiTenant && cartridgeInfo.getMultiTenant()) {
                         // Need only Single-Tenant cartridges
@@ -382,6 +384,24 @@ public class StratosApiV41Utils {
         return cartridges;
     }
 
+    /**
+     * Get all available cartridges from the cartridge listing cache.
+     * @param configurationContext configuration context
+     * @return cached listing of the cartridges
+     * @throws RestAPIException
+     */
+    public static ListingCache.Listing<CartridgeBean[]> getCartridgeListing(
+            final ConfigurationContext configurationContext) throws RestAPIException {
+        return cartridgeListingCache.get(EventVersionHolder.getInstance().getTopologyVersion(),
+                new ListingCache.Loader<CartridgeBean[]>() {
+                    @Override
+                    public CartridgeBean[] load() throws RestAPIException {
+                        List<CartridgeBean> cartridges = getAvailableCartridges(null, null, configurationContext);
+                        return cartridges.toArray(new CartridgeBean[cartridges.size()]);
+                    }
+                });
+    }
+
     public static CartridgeBean getCartridge(String cartridgeType) throws RestAPIException {
         try {
             CartridgeInfo cartridgeInfo = CloudControllerServiceClient.getInstance().getCartridgeInfo(cartridgeType);
@@ -548,6 +568,7 @@ public class StratosApiV41Utils {
             try {
                 autoscalerServiceClient
                         .deployAutoscalingPolicy(autoscalePolicy);
+                autoscalePolicyListingCache.invalidate();
             } catch (RemoteException e) {
                 log.error(e.getMessage(), e);
                 throw new RestAPIException(e.getMessage(), e);
@@ -572,6 +593,7 @@ public class StratosApiV41Utils {
 
             try {
                 autoscalerServiceClient.updateAutoscalingPolicy(autoscalePolicy);
+                autoscalePolicyListingCache.invalidate();
             } catch (RemoteException e) {
                 log.error(e.getMessage(), e);
                 throw new RestAPIException(e.getMessage(), e);
@@ -592,6 +614,7 @@ public class StratosApiV41Utils {
 
 		    try {
 				autoscalerServiceClient.removeAutoscalingPolicy(autoscalePolicyId);
+				autoscalePolicyListingCache.invalidate();
 			} catch (RemoteException e) {
 				log.error(e.getMessage(), e);
 				throw new RestAPIException(e.getMessage(), e);
@@ -620,6 +643,21 @@ public class StratosApiV41Utils {
         return ObjectConverter.convertStubAutoscalePoliciesToAutoscalePolicies(autoscalePolicies);
     }
 
+    /**
+     * Get all autoscaling policies from the autoscaling policy listing cache. Autoscaling policy changes
+     * are not notified via events, hence the listing is refreshed when the cache expires.
+     * @return cached listing of the autoscaling policies
+     * @throws RestAPIException
+     */
+    public static ListingCache.Listing<AutoscalePolicyBean[]> getAutoScalePolicyListing() throws RestAPIException {
+        return autoscalePolicyListingCache.get(0, new ListingCache.Loader<AutoscalePolicyBean[]>() {
+            @Override
+            public AutoscalePolicyBean[] load() throws RestAPIException {
+                return getAutoScalePolicies();
+            }
+        });
+    }
+
     public static AutoscalePolicyBean getAutoScalePolicy(String autoscalePolicyId) throws RestAPIException {
 
         org.apache.stratos.autoscaler.stub.autoscale.policy.AutoscalePolicy autoscalePolicy = null;
@@ -943,6 +981,7 @@ public class StratosApiV41Utils {
 
         try {
             AutoscalerServiceClient.getInstance().addApplication(applicationContext);
+            applicationListingCache.invalidate();
             
             // Add application elements to SM cache - done after application has been added
             String[] cartridgeNames;
@@ -1036,6 +1075,7 @@ public class StratosApiV41Utils {
             org.apache.stratos.autoscaler.stub.deployment.policy.DeploymentPolicy stubDeploymentPolicy =
                     ObjectConverter.convetToASDeploymentPolicyPojo(applicationId, deploymentPolicy);
             autoscalerServiceClient.deployApplication(applicationId, stubDeploymentPolicy);
+            applicationListingCache.invalidate();
             if (log.isInfoEnabled()) {
                 log.info(String.format("Application deployed successfully: [application-id] %s", applicationId));
             }
@@ -1078,6 +1118,7 @@ public class StratosApiV41Utils {
         	
         	ApplicationBean application = ObjectConverter.convertStubApplicationContextToApplicationDefinition(asServiceClient.getApplication(applicationId));
         	asServiceClient.deleteApplication(applicationId);
+        	applicationListingCache.invalidate();
             
             // Remove application elements in SM cache - done after deleting
         	String[] cartridgeNames;
@@ -1147,6 +1188,22 @@ public class StratosApiV41Utils {
         }
     }
 
+    /**
+     * Get all applications from the application listing cache.
+     * @return cached listing of the applications
+     * @throws RestAPIException
+     */
+    public static ListingCache.Listing<ApplicationBean[]> getApplicationListing() throws RestAPIException {
+        return applicationListingCache.get(EventVersionHolder.getInstance().getApplicationsVersion(),
+                new ListingCache.Loader<ApplicationBean[]>() {
+                    @Override
+                    public ApplicationBean[] load() throws RestAPIException {
+                        List<ApplicationBean> applications = getApplications();
+                        return applications.toArray(new ApplicationBean[applications.size()]);
+                    }
+                });
+    }
+
     public static void undeployApplication(String applicationId) throws RestAPIException {
         AutoscalerServiceClient autoscalerServiceClient = getAutoscalerServiceClient();
         if (autoscalerServiceClient != null) {
@@ -1164,6 +1221,7 @@ public class StratosApiV41Utils {
                 }
 
                 autoscalerServiceClient.undeployApplication(applicationId);
+                applicationListingCache.invalidate();
             } catch (RemoteException e) {
                 String message = "Could not undeploy application: [application-id] " + applicationId;
                 log.error(message, e);
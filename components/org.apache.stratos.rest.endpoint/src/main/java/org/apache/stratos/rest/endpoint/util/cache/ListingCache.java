@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.stratos.rest.endpoint.util.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.stratos.messaging.util.JsonCodec;
+import org.apache.stratos.rest.endpoint.exception.RestAPIException;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned read-through cache of a listing returned by the REST API. A listing is loaded from the
+ * back-end service on a cache miss and is reused until the given source version changes, the cache
+ * is invalidated locally or the time to live expires. An entity tag is calculated from the content
+ * of the listing when it is loaded, hence it does not change unless the listing changes.
+ *
+ * @param <T> type of the listing
+ */
+public class ListingCache<T> {
+
+    private static final Log log = LogFactory.getLog(ListingCache.class);
+
+    public static final String TIME_TO_LIVE = "stratos.rest.listing.cache.ttl";
+
+    private final String name;
+    private final long timeToLive;
+    private final AtomicLong invalidationCount;
+    private volatile Listing<T> listing;
+
+    public ListingCache(String name) {
+        this(name, Long.getLong(TIME_TO_LIVE, 30000));
+    }
+
+    public ListingCache(String name, long timeToLive) {
+        this.name = name;
+        this.timeToLive = timeToLive;
+        this.invalidationCount = new AtomicLong();
+    }
+
+    /**
+     * Returns the cached listing if it is valid for the given source version, else the listing
+     * is loaded using the given loader.
+     * @param sourceVersion version of the source the listing is derived from
+     * @param loader loader of the listing
+     * @return cached listing
+     * @throws RestAPIException if the listing could not be loaded
+     */
+    public Listing<T> get(long sourceVersion, Loader<T> loader) throws RestAPIException {
+        Listing<T> current = listing;
+        if (isValid(current, sourceVersion)) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = listing;
+            if (isValid(current, sourceVersion)) {
+                return current;
+            }
+
+            // Invalidations received while loading make the loaded listing stale
+            long invalidations = invalidationCount.get();
+            T value = loader.load();
+            current = new Listing<T>(value, calculateEntityTag(value), sourceVersion, invalidations,
+                    System.currentTimeMillis());
+            listing = current;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Listing loaded: [cache] %s [source-version] %d [entity-tag] %s",
+                        name, sourceVersion, current.getEntityTag()));
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Invalidate the cached listing, the listing is loaded again on the next request.
+     */
+    public void invalidate() {
+        invalidationCount.incrementAndGet();
+    }
+
+    private boolean isValid(Listing<T> current, long sourceVersion) {
+        return (current != null) && (current.sourceVersion == sourceVersion)
+                && (current.invalidationCount == invalidationCount.get())
+                && (System.currentTimeMillis() - current.loadedTime < timeToLive);
+    }
+
+    private String calculateEntityTag(T value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+            byte[] digest = messageDigest.digest(JsonCodec.toJson(value).getBytes(Charset.forName("UTF-8")));
+            StringBuilder entityTag = new StringBuilder(name).append('-');
+            for (byte b : digest) {
+                entityTag.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return entityTag.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not calculate entity tag of listing: " + name, e);
+        }
+    }
+
+    /**
+     * Loads a listing from the back-end service.
+     */
+    public interface Loader<T> {
+        T load() throws RestAPIException;
+    }
+
+    /**
+     * Listing with its entity tag.
+     */
+    public static class Listing<T> {
+
+        private final T value;
+        private final String entityTag;
+        private final long sourceVersion;
+        private final long invalidationCount;
+        private final long loadedTime;
+
+        private Listing(T value, String entityTag, long sourceVersion, long invalidationCount, long loadedTime) {
+            this.value = value;
+            this.entityTag = entityTag;
+            this.sourceVersion = sourceVersion;
+            this.invalidationCount = invalidationCount;
+            this.loadedTime = loadedTime;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public String getEntityTag() {
+            return entityTag;
+        }
+    }
+}
@@ -29,6 +29,9 @@ import org.apache.stratos.messaging.domain.topology.Topology;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Vector;
 
 /**
@@ -44,6 +47,7 @@ public class HAProxy implements LoadBalancer {
     private String templateName;
     private String confFilePath;
     private String statsSocketFilePath;
+    private String configurationDigest;
 
     public HAProxy() {
         this.executableFilePath = HAProxyContext.getInstance().getExecutableFilePath();
@@ -87,11 +91,31 @@ public class HAProxy implements LoadBalancer {
         if(log.isDebugEnabled()) {
            log.info("Reconfigure and Reload the Load Balancer ");
         }
-        configure(topology);
-        reloadConfiguration();
+        if (writeConfiguration(topology, false)) {
+            try {
+                reloadConfiguration();
+            } catch (LoadBalancerExtensionException e) {
+                // Reload again on the next request even if the configuration does not change
+                configurationDigest = null;
+                throw e;
+            }
+        } else if (log.isInfoEnabled()) {
+            log.info("Configuration has not changed, haproxy reload skipped");
+        }
     }
 
     public void configure(Topology topology) throws LoadBalancerExtensionException {
+        writeConfiguration(topology, true);
+    }
+
+    /**
+     * Generate haproxy configuration and write it to the configuration file. Unless forced,
+     * the configuration file is only written if the configuration has changed since it was
+     * last written.
+     *
+     * @return true if the configuration file was written
+     */
+    private boolean writeConfiguration(Topology topology, boolean force) throws LoadBalancerExtensionException {
 
         try {
             if (log.isInfoEnabled()) {
@@ -99,11 +123,18 @@ public class HAProxy implements LoadBalancer {
             }
 
             HAProxyConfigWriter writer = new HAProxyConfigWriter(templatePath, templateName, confFilePath, statsSocketFilePath);
-            writer.write(topology);
+            String configuration = writer.generate(topology);
+            String digest = calculateDigest(configuration);
+            if (!force && digest.equals(configurationDigest)) {
+                return false;
+            }
+            writer.write(configuration);
+            configurationDigest = digest;
 
             if (log.isInfoEnabled()) {
                 log.info("Configuration done");
             }
+            return true;
         } catch (Exception e) {
             if (log.isErrorEnabled()) {
                 log.error("Could not configure haproxy");
@@ -112,6 +143,16 @@ public class HAProxy implements LoadBalancer {
         }
     }
 
+    private static String calculateDigest(String configuration) throws NoSuchAlgorithmException,
+            UnsupportedEncodingException {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(configuration.getBytes("UTF-8"));
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
     public void start() throws LoadBalancerExtensionException {
 
         // Check for configuration file
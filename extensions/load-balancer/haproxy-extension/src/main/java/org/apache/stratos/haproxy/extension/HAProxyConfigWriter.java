@@ -68,10 +68,24 @@ public class HAProxyConfigWriter {
     }
 
     public void write(Topology topology) {
+        write(generate(topology));
+    }
+
+    /**
+     * Generate haproxy configuration for the given topology without writing it to the
+     * configuration file.
+     *
+     * @param topology topology
+     * @return haproxy configuration
+     */
+    public String generate(Topology topology) {
         // Prepare global parameters
         StringBuilder globalParameters = new StringBuilder();
         globalParameters.append("stats socket ");
         globalParameters.append(statsSocketFilePath);
+        // Keep idle stats socket connections of the statistics reader open between intervals
+        globalParameters.append(NEW_LINE).append("\tstats timeout ");
+        globalParameters.append(System.getProperty(Constants.STATS_SOCKET_TIMEOUT, "2m"));
 
         frontEndHttpId = "http_frontend";
         frontEndHttpsId = "https_frontend";
@@ -136,9 +150,15 @@ public class HAProxyConfigWriter {
         // Create a new string from the template
         StringWriter stringWriter = new StringWriter();
         t.merge(context, stringWriter);
-        String configuration = stringWriter.toString();
+        return stringWriter.toString();
+    }
 
-        // Write configuration file
+    /**
+     * Write the given haproxy configuration to the configuration file.
+     *
+     * @param configuration haproxy configuration
+     */
+    public void write(String configuration) {
         try {
             BufferedWriter writer = new BufferedWriter(new FileWriter(confFilePath));
             writer.write(configuration);
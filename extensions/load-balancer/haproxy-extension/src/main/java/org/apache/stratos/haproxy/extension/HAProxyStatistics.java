@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HAProxy server statistics read from the CSV output of the show stat command, indexed by
+ * backend and server.
+ */
+public class HAProxyStatistics {
+
+    private static final String PROMPT = "> ";
+    private static final String HEADER_PREFIX = "# ";
+    private static final String FRONTEND = "FRONTEND";
+    private static final String BACKEND = "BACKEND";
+
+    private final Map<String, Map<String, ServerStatistics>> backendMap;
+
+    public HAProxyStatistics() {
+        this.backendMap = new HashMap<String, Map<String, ServerStatistics>>();
+    }
+
+    /**
+     * Parse show stat output line by line until the end of the response. Any interactive mode
+     * prompts preceding the header line are ignored.
+     *
+     * @param reader show stat output
+     * @return server statistics
+     * @throws IOException if the output ended before the CSV header was read
+     */
+    public static HAProxyStatistics parse(BufferedReader reader) throws IOException {
+        String line;
+        String[] header = null;
+        while ((line = reader.readLine()) != null) {
+            line = removePrompt(line);
+            if (line.startsWith(HEADER_PREFIX)) {
+                header = split(line.substring(HEADER_PREFIX.length()));
+                break;
+            }
+        }
+        if (header == null) {
+            throw new IOException("HAProxy statistics header not found, stats socket was closed");
+        }
+
+        int backendIndex = indexOf(header, "pxname");
+        int serverIndex = indexOf(header, "svname");
+        int queuedIndex = indexOf(header, "qcur");
+        int currentIndex = indexOf(header, "scur");
+        int sessionTotalIndex = indexOf(header, "stot");
+        int requestTotalIndex = indexOf(header, "req_tot");
+        int statusIndex = indexOf(header, "status");
+        if ((backendIndex < 0) || (serverIndex < 0)) {
+            throw new IOException("Invalid HAProxy statistics header: " + line);
+        }
+
+        HAProxyStatistics statistics = new HAProxyStatistics();
+        while (((line = reader.readLine()) != null) && (line.length() > 0)) {
+            String[] values = split(line);
+            String serverId = valueOf(values, serverIndex);
+            if ((serverId == null) || FRONTEND.equals(serverId) || BACKEND.equals(serverId)) {
+                continue;
+            }
+            // Request totals are only available for servers in recent HAProxy versions
+            long totalRequestCount = parseLong(valueOf(values, requestTotalIndex), -1);
+            if (totalRequestCount < 0) {
+                totalRequestCount = parseLong(valueOf(values, sessionTotalIndex), 0);
+            }
+            ServerStatistics serverStatistics = new ServerStatistics(
+                    (int) parseLong(valueOf(values, queuedIndex), 0),
+                    (int) parseLong(valueOf(values, currentIndex), 0),
+                    totalRequestCount, valueOf(values, statusIndex));
+            statistics.addServerStatistics(valueOf(values, backendIndex), serverId, serverStatistics);
+        }
+        return statistics;
+    }
+
+    private void addServerStatistics(String backendId, String serverId, ServerStatistics serverStatistics) {
+        Map<String, ServerStatistics> serverMap = backendMap.get(backendId);
+        if (serverMap == null) {
+            serverMap = new HashMap<String, ServerStatistics>();
+            backendMap.put(backendId, serverMap);
+        }
+        serverMap.put(serverId, serverStatistics);
+    }
+
+    /**
+     * Calculate the number of requests served by each server since the given statistics were read.
+     * Servers not found in the previous statistics are considered to have served no requests.
+     *
+     * @param previous statistics read in the previous interval, may be null
+     */
+    public void calculateServedRequestCounts(HAProxyStatistics previous) {
+        for (Map.Entry<String, Map<String, ServerStatistics>> backendEntry : backendMap.entrySet()) {
+            for (Map.Entry<String, ServerStatistics> serverEntry : backendEntry.getValue().entrySet()) {
+                ServerStatistics current = serverEntry.getValue();
+                ServerStatistics last = (previous != null) ?
+                        previous.getServerStatistics(backendEntry.getKey(), serverEntry.getKey()) : null;
+                if ((last != null) && (current.totalRequestCount >= last.totalRequestCount)) {
+                    current.servedRequestCount = (int) (current.totalRequestCount - last.totalRequestCount);
+                }
+            }
+        }
+    }
+
+    public ServerStatistics getServerStatistics(String backendId, String serverId) {
+        Map<String, ServerStatistics> serverMap = backendMap.get(backendId);
+        if (serverMap == null) {
+            return null;
+        }
+        return serverMap.get(serverId);
+    }
+
+    public int getServerCount() {
+        int count = 0;
+        for (Map<String, ServerStatistics> serverMap : backendMap.values()) {
+            count += serverMap.size();
+        }
+        return count;
+    }
+
+    private static String removePrompt(String line) {
+        while (line.startsWith(PROMPT)) {
+            line = line.substring(PROMPT.length());
+        }
+        return line;
+    }
+
+    private static String[] split(String line) {
+        int count = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == ',') {
+                count++;
+            }
+        }
+        String[] values = new String[count];
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            values[i] = line.substring(start, end);
+            start = end + 1;
+        }
+        return values;
+    }
+
+    private static int indexOf(String[] header, String name) {
+        for (int i = 0; i < header.length; i++) {
+            if (name.equals(header[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String valueOf(String[] values, int index) {
+        if ((index < 0) || (index >= values.length)) {
+            return null;
+        }
+        return values[index];
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        if ((value == null) || (value.length() == 0)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Statistics of a server in a backend.
+     */
+    public static class ServerStatistics {
+        private final int queuedRequestCount;
+        private final int currentRequestCount;
+        private final long totalRequestCount;
+        private final String status;
+        private int servedRequestCount;
+
+        private ServerStatistics(int queuedRequestCount, int currentRequestCount, long totalRequestCount,
+                                 String status) {
+            this.queuedRequestCount = queuedRequestCount;
+            this.currentRequestCount = currentRequestCount;
+            this.totalRequestCount = totalRequestCount;
+            this.status = status;
+        }
+
+        /**
+         * Requests queued for the server and requests currently being processed by the server.
+         */
+        public int getInFlightRequestCount() {
+            return queuedRequestCount + currentRequestCount;
+        }
+
+        public int getServedRequestCount() {
+            return servedRequestCount;
+        }
+
+        public long getTotalRequestCount() {
+            return totalRequestCount;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public boolean isUp() {
+            return (status != null) && status.startsWith("UP");
+        }
+    }
+}
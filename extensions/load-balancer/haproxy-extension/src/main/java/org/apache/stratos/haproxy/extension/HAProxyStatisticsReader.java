@@ -21,89 +21,146 @@ package org.apache.stratos.haproxy.extension;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.stratos.common.util.CommandUtils;
 import org.apache.stratos.load.balancer.common.statistics.LoadBalancerStatisticsReader;
 import org.apache.stratos.messaging.domain.topology.Cluster;
 import org.apache.stratos.messaging.domain.topology.Member;
-import org.apache.stratos.messaging.domain.topology.Port;
 import org.apache.stratos.messaging.domain.topology.Service;
 import org.apache.stratos.messaging.message.receiver.topology.TopologyManager;
 
 import java.io.IOException;
 
 /**
- * HAProxy statistics reader.
+ * HAProxy statistics reader. Statistics of all backends are read using a single show stat
+ * command per statistics interval via a persistent stats socket connection, and cached for
+ * answering the queries of each cluster.
  */
 public class HAProxyStatisticsReader implements LoadBalancerStatisticsReader {
     private static final Log log = LogFactory.getLog(HAProxyStatisticsReader.class);
 
-    private String scriptsPath;
-    private String statsSocketFilePath;
+    private final HAProxyStatsSocketClient statsSocketClient;
+    private final long statsCacheDuration;
+    private HAProxyStatistics statistics;
+    private HAProxyStatistics lastStatistics;
+    private long lastUpdatedTime;
 
     public HAProxyStatisticsReader() {
-        this.scriptsPath = HAProxyContext.getInstance().getScriptsPath();
-        this.statsSocketFilePath = HAProxyContext.getInstance().getStatsSocketFilePath();
+        this.statsSocketClient = new HAProxyStatsSocketClient(HAProxyContext.getInstance().getStatsSocketFilePath());
+        this.statsCacheDuration = Long.getLong(Constants.STATS_CACHE_DURATION, 5000);
+        if (log.isDebugEnabled()) {
+            log.debug(Constants.STATS_CACHE_DURATION + " = " + statsCacheDuration);
+        }
     }
 
     @Override
     public int getInFlightRequestCount(String clusterId) {
-        String frontendId, backendId, command, output;
-        String[] array;
-        int totalWeight, weight;
-
-        for (Service service : TopologyManager.getTopology().getServices()) {
-            for (Cluster cluster : service.getClusters()) {
-                if (cluster.getClusterId().equals(clusterId)) {
-                    totalWeight = 0;
-                    if ((service.getPorts() == null) || (service.getPorts().size() == 0)) {
-                        throw new RuntimeException(String.format("No ports found in service: %s", service.getServiceName()));
-                    }
+        Cluster cluster = findCluster(clusterId);
+        if (cluster == null) {
+            return 0;
+        }
 
-                    for (Port port : service.getPorts()) {
-                        for(String hostname : cluster.getHostNames()) {
-                            backendId = hostname+"-http-members";
-                            for (Member member : cluster.getMembers()) {
-                                if(member.getNetworkPartitionId().equals(HAProxyContext.getInstance().getNetworkPartitionId())) {
-                                    // echo "get weight <backend>/<server>" | socat stdio <stats-socket>
-                                    command = String.format("%s/get-weight.sh %s %s %s", scriptsPath, backendId, member.getMemberId(), statsSocketFilePath);
-                                    try {
-                                        output = CommandUtils.executeCommand(command);
-                                        if ((output != null) && (output.length() > 0)) {
-                                            array = output.split(" ");
-                                            if ((array != null) && (array.length > 0)) {
-                                                weight = Integer.parseInt(array[0]);
-                                                if (log.isDebugEnabled()) {
-                                                    log.debug(String.format("Member weight found: [cluster] %s [member] %s [weight] %d", member.getClusterId(), member.getMemberId(), weight));
-                                                }
-                                                totalWeight += weight;
-                                            }
-                                        }
-                                    } catch (IOException e) {
-                                        if (log.isErrorEnabled()) {
-                                            log.error(e);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    if (log.isInfoEnabled()) {
-                        log.info(String.format("Cluster weight found: [cluster] %s [weight] %d", cluster.getClusterId(), totalWeight));
-                    }
-                    return totalWeight;
+        HAProxyStatistics statistics = getStatistics();
+        int inFlightRequestCount = 0;
+        for (String hostname : cluster.getHostNames()) {
+            String backendId = hostname + "-http-members";
+            for (Member member : cluster.getMembers()) {
+                HAProxyStatistics.ServerStatistics serverStatistics = findServerStatistics(statistics, backendId, member);
+                if (serverStatistics != null) {
+                    inFlightRequestCount += serverStatistics.getInFlightRequestCount();
                 }
             }
         }
-        return 0;
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("In-flight request count found: [cluster] %s [count] %d", clusterId,
+                    inFlightRequestCount));
+        }
+        return inFlightRequestCount;
     }
 
     @Override
     public int getServedRequestCount(String clusterId) {
-        return 0;
+        Cluster cluster = findCluster(clusterId);
+        if (cluster == null) {
+            return 0;
+        }
+
+        HAProxyStatistics statistics = getStatistics();
+        int servedRequestCount = 0;
+        for (String hostname : cluster.getHostNames()) {
+            String backendId = hostname + "-http-members";
+            for (Member member : cluster.getMembers()) {
+                HAProxyStatistics.ServerStatistics serverStatistics = findServerStatistics(statistics, backendId, member);
+                if (serverStatistics != null) {
+                    servedRequestCount += serverStatistics.getServedRequestCount();
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Served request count found: [cluster] %s [count] %d", clusterId,
+                    servedRequestCount));
+        }
+        return servedRequestCount;
     }
 
     @Override
     public int getActiveInstancesCount(Cluster cluster) {
-        return 0;
+        HAProxyStatistics statistics = getStatistics();
+        int activeInstancesCount = 0;
+        for (Member member : cluster.getMembers()) {
+            for (String hostname : cluster.getHostNames()) {
+                String backendId = hostname + "-http-members";
+                HAProxyStatistics.ServerStatistics serverStatistics = findServerStatistics(statistics, backendId, member);
+                if ((serverStatistics != null) && serverStatistics.isUp()) {
+                    activeInstancesCount++;
+                    break;
+                }
+            }
+        }
+        return activeInstancesCount;
+    }
+
+    private HAProxyStatistics.ServerStatistics findServerStatistics(HAProxyStatistics statistics, String backendId,
+                                                                    Member member) {
+        if (!member.getNetworkPartitionId().equals(HAProxyContext.getInstance().getNetworkPartitionId())) {
+            return null;
+        }
+        return statistics.getServerStatistics(backendId, member.getMemberId());
+    }
+
+    private Cluster findCluster(String clusterId) {
+        for (Service service : TopologyManager.getTopology().getServices()) {
+            Cluster cluster = service.getCluster(clusterId);
+            if (cluster != null) {
+                return cluster;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get statistics of all backends, statistics are read from the stats socket once the
+     * cached statistics have expired.
+     */
+    private synchronized HAProxyStatistics getStatistics() {
+        long currentTime = System.currentTimeMillis();
+        if ((statistics != null) && ((currentTime - lastUpdatedTime) < statsCacheDuration)) {
+            return statistics;
+        }
+
+        try {
+            HAProxyStatistics latestStatistics = statsSocketClient.showStat();
+            latestStatistics.calculateServedRequestCounts(lastStatistics);
+            lastStatistics = latestStatistics;
+            statistics = latestStatistics;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("HAProxy statistics read: [servers] %d", latestStatistics.getServerCount()));
+            }
+        } catch (IOException e) {
+            if (log.isErrorEnabled()) {
+                log.error("Could not read HAProxy statistics", e);
+            }
+            statistics = new HAProxyStatistics();
+        }
+        lastUpdatedTime = currentTime;
+        return statistics;
     }
 }
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * HAProxy stats socket client which keeps a persistent connection to the stats socket.
+ * The stats socket is switched to interactive mode once connected, hence commands could be
+ * executed without re-connecting. The JDK does not support unix domain sockets, therefore
+ * a single long running socat process is used for connecting to the stats socket.
+ * The connection is re-established if HAProxy closes it, for instance on a reload or when
+ * the stats timeout elapses. The socat process is restarted if a response is not read within
+ * the read timeout, since reading from the process output cannot be timed out otherwise.
+ */
+public class HAProxyStatsSocketClient {
+    private static final Log log = LogFactory.getLog(HAProxyStatsSocketClient.class);
+
+    private final String statsSocketFilePath;
+    private final long readTimeout;
+    private final Timer readTimer;
+    private Process process;
+    private Writer writer;
+    private BufferedReader reader;
+
+    public HAProxyStatsSocketClient(String statsSocketFilePath) {
+        this.statsSocketFilePath = statsSocketFilePath;
+        this.readTimeout = Long.getLong(Constants.STATS_SOCKET_READ_TIMEOUT, 10000);
+        this.readTimer = new Timer("haproxy-stats-socket-read-timer", true);
+    }
+
+    /**
+     * Execute show stat command and parse its output.
+     *
+     * @return server statistics
+     * @throws IOException if statistics could not be read after re-connecting
+     */
+    public synchronized HAProxyStatistics showStat() throws IOException {
+        if (process != null) {
+            try {
+                return executeShowStat();
+            } catch (IOException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("HAProxy stats socket connection was closed, re-connecting", e);
+                }
+                close();
+            }
+        }
+        connect();
+        try {
+            return executeShowStat();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private HAProxyStatistics executeShowStat() throws IOException {
+        writer.write("show stat\n");
+        writer.flush();
+
+        // Destroying the socat process closes its output, hence a blocked read returns
+        final Process currentProcess = process;
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        TimerTask readTimeoutTask = new TimerTask() {
+            @Override
+            public void run() {
+                timedOut.set(true);
+                currentProcess.destroy();
+            }
+        };
+        readTimer.schedule(readTimeoutTask, readTimeout);
+        try {
+            HAProxyStatistics statistics = HAProxyStatistics.parse(reader);
+            if (timedOut.get()) {
+                throw new IOException("Reading HAProxy statistics timed out");
+            }
+            return statistics;
+        } catch (IOException e) {
+            if (timedOut.get()) {
+                log.warn(String.format("HAProxy statistics were not read within %d ms, restarting socat process: " +
+                        "[path] %s", readTimeout, statsSocketFilePath));
+            }
+            throw e;
+        } finally {
+            readTimeoutTask.cancel();
+        }
+    }
+
+    private void connect() throws IOException {
+        ProcessBuilder processBuilder = new ProcessBuilder("socat", "stdio", "unix-connect:" + statsSocketFilePath);
+        processBuilder.redirectErrorStream(true);
+        process = processBuilder.start();
+        writer = new OutputStreamWriter(process.getOutputStream(), "UTF-8");
+        reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+
+        // Switch to interactive mode to keep the connection open between commands
+        writer.write("prompt\n");
+        writer.flush();
+        if (log.isInfoEnabled()) {
+            log.info(String.format("Connected to HAProxy stats socket: [path] %s", statsSocketFilePath));
+        }
+    }
+
+    /**
+     * Close the stats socket connection. The connection is re-established on the next command.
+     */
+    public synchronized void close() {
+        if (process == null) {
+            return;
+        }
+        try {
+            writer.write("quit\n");
+            writer.flush();
+        } catch (IOException ignore) {
+        }
+        try {
+            writer.close();
+        } catch (IOException ignore) {
+        }
+        try {
+            reader.close();
+        } catch (IOException ignore) {
+        }
+        process.destroy();
+        process = null;
+        writer = null;
+        reader = null;
+    }
+}
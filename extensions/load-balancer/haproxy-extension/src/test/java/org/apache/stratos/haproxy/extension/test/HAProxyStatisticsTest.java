@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.stratos.haproxy.extension.test;
+
+import org.apache.stratos.haproxy.extension.HAProxyStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * HAProxy show stat output parser tests.
+ */
+@RunWith(JUnit4.class)
+public class HAProxyStatisticsTest {
+
+    private static final String HEADER = "# pxname,svname,qcur,qmax,scur,smax,slim,stot,status,req_tot,";
+
+    @Test
+    public void testServerStatisticsAreParsed() throws IOException {
+        HAProxyStatistics statistics = parse(
+                "> > " + HEADER,
+                "http_frontend,FRONTEND,,,3,5,2000,120,OPEN,130,",
+                "cluster1,member1,1,2,4,6,,100,UP,110,",
+                "cluster1,member2,0,0,2,3,,50,DOWN 1/2,,",
+                "cluster1,BACKEND,1,2,6,9,200,150,UP,,",
+                "",
+                "> ");
+
+        Assert.assertEquals(2, statistics.getServerCount());
+        Assert.assertNull(statistics.getServerStatistics("http_frontend", "FRONTEND"));
+        Assert.assertNull(statistics.getServerStatistics("cluster1", "BACKEND"));
+
+        HAProxyStatistics.ServerStatistics member1 = statistics.getServerStatistics("cluster1", "member1");
+        Assert.assertEquals(5, member1.getInFlightRequestCount());
+        Assert.assertEquals(110, member1.getTotalRequestCount());
+        Assert.assertTrue(member1.isUp());
+
+        // Session totals are used when request totals are not available
+        HAProxyStatistics.ServerStatistics member2 = statistics.getServerStatistics("cluster1", "member2");
+        Assert.assertEquals(2, member2.getInFlightRequestCount());
+        Assert.assertEquals(50, member2.getTotalRequestCount());
+        Assert.assertFalse(member2.isUp());
+    }
+
+    @Test
+    public void testServedRequestCountsAreCalculated() throws IOException {
+        HAProxyStatistics previous = parse(HEADER,
+                "cluster1,member1,0,0,0,0,,100,UP,100,",
+                "cluster1,member2,0,0,0,0,,80,UP,80,",
+                "");
+        HAProxyStatistics current = parse(HEADER,
+                "cluster1,member1,0,0,0,0,,130,UP,130,",
+                "cluster1,member2,0,0,0,0,,10,UP,10,",
+                "cluster1,member3,0,0,0,0,,20,UP,20,",
+                "");
+        current.calculateServedRequestCounts(previous);
+
+        Assert.assertEquals(30, current.getServerStatistics("cluster1", "member1").getServedRequestCount());
+        // Counters were reset by a reload
+        Assert.assertEquals(0, current.getServerStatistics("cluster1", "member2").getServedRequestCount());
+        Assert.assertEquals(0, current.getServerStatistics("cluster1", "member3").getServedRequestCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void testClosedStreamWithoutHeaderFails() throws IOException {
+        parse("> ");
+    }
+
+    @Test(expected = IOException.class)
+    public void testHeaderWithoutServerNameFails() throws IOException {
+        parse("# pxname,qcur,scur", "");
+    }
+
+    private static HAProxyStatistics parse(String... lines) throws IOException {
+        StringBuilder output = new StringBuilder();
+        for (String line : lines) {
+            output.append(line).append('\n');
+        }
+        return HAProxyStatistics.parse(new BufferedReader(new StringReader(output.toString())));
+    }
+}
@@ -18,8 +18,8 @@
  */
 package org.apache.stratos.load.balancer.integration.tests;
 
-import org.apache.stratos.load.balancer.algorithm.AlgorithmContext;
 import org.apache.stratos.load.balancer.algorithm.RoundRobin;
+import org.apache.stratos.load.balancer.context.AlgorithmContext;
 import org.apache.stratos.messaging.domain.topology.Member;
 import org.apache.stratos.messaging.domain.topology.MemberStatus;
 import org.junit.Assert;
@@ -52,19 +52,18 @@ public class RoundRobinAlgorithmTest {
         members.add(member);
 
         RoundRobin algorithm = new RoundRobin();
-        algorithm.setMembers(members);
 
         AlgorithmContext algorithmContext = new AlgorithmContext("service1", "cluster1");
-        Member nextMember = algorithm.getNextMember(algorithmContext);
+        Member nextMember = algorithm.getNextMember(members, algorithmContext);
         Assert.assertEquals("Expected member not found", true, "m1".equals(nextMember.getMemberId()));
 
-        nextMember = algorithm.getNextMember(algorithmContext);
+        nextMember = algorithm.getNextMember(members, algorithmContext);
         Assert.assertEquals("Expected member not found", true, "m2".equals(nextMember.getMemberId()));
 
-        nextMember = algorithm.getNextMember(algorithmContext);
+        nextMember = algorithm.getNextMember(members, algorithmContext);
         Assert.assertEquals("Expected member not found", true, "m3".equals(nextMember.getMemberId()));
 
-        nextMember = algorithm.getNextMember(algorithmContext);
+        nextMember = algorithm.getNextMember(members, algorithmContext);
         Assert.assertEquals("Expected member not found", true, "m1".equals(nextMember.getMemberId()));
     }
 }